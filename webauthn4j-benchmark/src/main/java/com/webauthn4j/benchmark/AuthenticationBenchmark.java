@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.webauthn4j.benchmark;
+
+import com.webauthn4j.WebAuthnManager;
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.data.*;
+import com.webauthn4j.data.attestation.AttestationObject;
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.EmulatorUtil;
+import com.webauthn4j.test.client.ClientPlatform;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the authentication ceremony through {@link WebAuthnManager#validate(AuthenticationRequest, AuthenticationParameters)},
+ * which includes parsing of the request, signature verification and signature counter handling.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthenticationBenchmark {
+
+    @Param({"packed", "fido-u2f"})
+    private String authenticatorType;
+
+    private WebAuthnManager webAuthnManager;
+    private AuthenticationRequest authenticationRequest;
+    private AuthenticationParameters authenticationParameters;
+    private Authenticator authenticator;
+    private long storedCounter;
+
+    @Setup
+    public void setup() {
+        ClientPlatform clientPlatform;
+        switch (authenticatorType) {
+            case "packed":
+                clientPlatform = EmulatorUtil.createClientPlatform(EmulatorUtil.PACKED_AUTHENTICATOR);
+                break;
+            case "fido-u2f":
+                clientPlatform = EmulatorUtil.createClientPlatform(EmulatorUtil.FIDO_U2F_AUTHENTICATOR);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown authenticator type: " + authenticatorType);
+        }
+        webAuthnManager = WebAuthnManager.createNonStrictWebAuthnManager();
+
+        Challenge challenge = new DefaultChallenge();
+        RegistrationRequest registrationRequest = BenchmarkDataUtil.createRegistrationRequest(clientPlatform, challenge, AttestationConveyancePreference.NONE);
+        AttestationObject attestationObject = webAuthnManager.parse(registrationRequest).getAttestationObject();
+        //noinspection ConstantConditions
+        authenticator = new AuthenticatorImpl(
+                attestationObject.getAuthenticatorData().getAttestedCredentialData(),
+                attestationObject.getAttestationStatement(),
+                attestationObject.getAuthenticatorData().getSignCount()
+        );
+        storedCounter = authenticator.getCounter();
+
+        authenticationRequest = BenchmarkDataUtil.createAuthenticationRequest(clientPlatform, challenge, authenticator.getAttestedCredentialData().getCredentialId());
+        ServerProperty serverProperty = new ServerProperty(BenchmarkDataUtil.ORIGIN, BenchmarkDataUtil.RP_ID, challenge, null);
+        authenticationParameters = new AuthenticationParameters(serverProperty, authenticator, null, false);
+    }
+
+    @Benchmark
+    public AuthenticationData validate() {
+        // The same assertion is replayed on every invocation, so the counter updated by the previous invocation is rewound
+        authenticator.setCounter(storedCounter);
+        return webAuthnManager.validate(authenticationRequest, authenticationParameters);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.benchmark;
+
+import com.webauthn4j.converter.AuthenticationExtensionsClientOutputsConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.*;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.client.Origin;
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionClientOutput;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientInputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientInput;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.test.client.ClientPlatform;
+
+import java.util.Collections;
+
+/**
+ * Utility to generate ceremony fixtures for benchmarks with the authenticator emulators in webauthn4j-test
+ */
+public class BenchmarkDataUtil {
+
+    public static final String RP_ID = "example.com";
+    public static final Origin ORIGIN = new Origin("http://example.com");
+
+    private static final AuthenticationExtensionsClientOutputsConverter authenticationExtensionsClientOutputsConverter
+            = new AuthenticationExtensionsClientOutputsConverter(new ObjectConverter());
+
+    private BenchmarkDataUtil() {
+    }
+
+    public static RegistrationRequest createRegistrationRequest(ClientPlatform clientPlatform, Challenge challenge, AttestationConveyancePreference attestationConveyancePreference) {
+        AuthenticatorSelectionCriteria authenticatorSelectionCriteria =
+                new AuthenticatorSelectionCriteria(
+                        AuthenticatorAttachment.CROSS_PLATFORM,
+                        true,
+                        UserVerificationRequirement.PREFERRED);
+        PublicKeyCredentialParameters publicKeyCredentialParameters = new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256);
+        PublicKeyCredentialUserEntity publicKeyCredentialUserEntity = new PublicKeyCredentialUserEntity(new byte[32], "username", "displayName");
+        AuthenticationExtensionsClientInputs<RegistrationExtensionClientInput> extensions = new AuthenticationExtensionsClientInputs<>();
+        PublicKeyCredentialCreationOptions credentialCreationOptions
+                = new PublicKeyCredentialCreationOptions(
+                new PublicKeyCredentialRpEntity(RP_ID, "example.com"),
+                publicKeyCredentialUserEntity,
+                challenge,
+                Collections.singletonList(publicKeyCredentialParameters),
+                null,
+                Collections.emptyList(),
+                authenticatorSelectionCriteria,
+                attestationConveyancePreference,
+                extensions
+        );
+
+        PublicKeyCredential<AuthenticatorAttestationResponse, RegistrationExtensionClientOutput> credential = clientPlatform.create(credentialCreationOptions);
+        AuthenticatorAttestationResponse authenticatorAttestationResponse = credential.getAuthenticatorResponse();
+        String clientExtensionJSON = authenticationExtensionsClientOutputsConverter.convertToString(credential.getClientExtensionResults());
+        return new RegistrationRequest(
+                authenticatorAttestationResponse.getAttestationObject(),
+                authenticatorAttestationResponse.getClientDataJSON(),
+                clientExtensionJSON,
+                Collections.emptySet()
+        );
+    }
+
+    public static AuthenticationRequest createAuthenticationRequest(ClientPlatform clientPlatform, Challenge challenge, byte[] credentialId) {
+        PublicKeyCredentialRequestOptions credentialRequestOptions = new PublicKeyCredentialRequestOptions(
+                challenge,
+                0L,
+                RP_ID,
+                Collections.singletonList(new PublicKeyCredentialDescriptor(PublicKeyCredentialType.PUBLIC_KEY, credentialId, null)),
+                UserVerificationRequirement.PREFERRED,
+                null
+        );
+        PublicKeyCredential<AuthenticatorAssertionResponse, AuthenticationExtensionClientOutput> credential = clientPlatform.get(credentialRequestOptions);
+        AuthenticatorAssertionResponse authenticatorAssertionResponse = credential.getAuthenticatorResponse();
+        String clientExtensionJSON = authenticationExtensionsClientOutputsConverter.convertToString(credential.getClientExtensionResults());
+        return new AuthenticationRequest(
+                credential.getRawId(),
+                authenticatorAssertionResponse.getAuthenticatorData(),
+                authenticatorAssertionResponse.getClientDataJSON(),
+                clientExtensionJSON,
+                authenticatorAssertionResponse.getSignature()
+        );
+    }
+}
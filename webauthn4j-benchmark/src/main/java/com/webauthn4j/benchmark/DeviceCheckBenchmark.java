@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.webauthn4j.benchmark;
+
+import com.webauthn4j.appattest.DeviceCheckManager;
+import com.webauthn4j.appattest.authenticator.DCAppleDevice;
+import com.webauthn4j.appattest.authenticator.DCAppleDeviceImpl;
+import com.webauthn4j.appattest.data.*;
+import com.webauthn4j.appattest.server.DCServerProperty;
+import com.webauthn4j.appattest.validator.DCRegistrationObject;
+import com.webauthn4j.data.attestation.AttestationObject;
+import com.webauthn4j.test.TestDataUtil;
+import com.webauthn4j.util.Base64Util;
+import com.webauthn4j.util.MessageDigestUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Apple App Attest attestation and assertion validation through {@link DeviceCheckManager}.
+ * As no App Attest emulator exists, recorded data is used. Its certificates have already expired, so certificate path
+ * validation is not part of this benchmark.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class DeviceCheckBenchmark {
+
+    private static final byte[] ASSERTION = Base64Util.decode("omlzaWduYXR1cmVYRjBEAiB4zR/olM8j24vmT3fGVA1eykitnp/jpMG9sM6CNsF2lQIgVCK5x6m/jkocPmX6wuPqlJ8tzbvI9bQnd8XYebJ8XuBxYXV0aGVudGljYXRvckRhdGFYJTBgAsoFXgbFiKUuxqpUgvU2jgKvMIex6dMJ0EDK9dlaQAAAAAE=");
+
+    private DeviceCheckManager deviceCheckManager;
+    private DCAttestationRequest dcAttestationRequest;
+    private DCAttestationParameters dcAttestationParameters;
+    private DCAssertionRequest dcAssertionRequest;
+    private DCAssertionParameters dcAssertionParameters;
+    private DCAppleDevice dcAppleDevice;
+    private long storedCounter;
+
+    @Setup
+    public void setup() {
+        deviceCheckManager = DeviceCheckManager.createNonStrictDeviceCheckManager();
+
+        DCRegistrationObject dcRegistrationObject = TestDataUtil.createRegistrationObjectWithAppleAppAttestAttestation();
+        DCServerProperty dcServerProperty = (DCServerProperty) dcRegistrationObject.getServerProperty();
+        dcAttestationRequest = new DCAttestationRequest(dcRegistrationObject.getKeyId(), dcRegistrationObject.getAttestationObjectBytes(), dcRegistrationObject.getClientDataHash());
+        dcAttestationParameters = new DCAttestationParameters(dcServerProperty);
+
+        AttestationObject attestationObject = deviceCheckManager.parse(dcAttestationRequest).getAttestationObject();
+        //noinspection ConstantConditions
+        dcAppleDevice = new DCAppleDeviceImpl(
+                attestationObject.getAuthenticatorData().getAttestedCredentialData(),
+                attestationObject.getAttestationStatement(),
+                attestationObject.getAuthenticatorData().getSignCount(),
+                attestationObject.getAuthenticatorData().getExtensions()
+        );
+        storedCounter = dcAppleDevice.getCounter();
+        byte[] clientDataHash = MessageDigestUtil.createSHA256().digest(dcServerProperty.getChallenge().getValue());
+        dcAssertionRequest = new DCAssertionRequest(dcRegistrationObject.getKeyId(), ASSERTION, clientDataHash);
+        dcAssertionParameters = new DCAssertionParameters(dcServerProperty, dcAppleDevice);
+    }
+
+    @Benchmark
+    public DCAttestationData validateAttestation() {
+        return deviceCheckManager.validate(dcAttestationRequest, dcAttestationParameters);
+    }
+
+    @Benchmark
+    public DCAssertionData validateAssertion() {
+        // The same assertion is replayed on every invocation, so the counter updated by the previous invocation is rewound
+        dcAppleDevice.setCounter(storedCounter);
+        return deviceCheckManager.validate(dcAssertionRequest, dcAssertionParameters);
+    }
+}
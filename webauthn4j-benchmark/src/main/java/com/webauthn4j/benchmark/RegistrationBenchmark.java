@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.webauthn4j.benchmark;
+
+import com.webauthn4j.WebAuthnManager;
+import com.webauthn4j.anchor.TrustAnchorsResolver;
+import com.webauthn4j.data.AttestationConveyancePreference;
+import com.webauthn4j.data.RegistrationData;
+import com.webauthn4j.data.RegistrationParameters;
+import com.webauthn4j.data.RegistrationRequest;
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.EmulatorUtil;
+import com.webauthn4j.test.TestAttestationUtil;
+import com.webauthn4j.test.TestDataUtil;
+import com.webauthn4j.test.client.ClientPlatform;
+import com.webauthn4j.validator.RegistrationObject;
+import com.webauthn4j.validator.attestation.statement.AttestationStatementValidator;
+import com.webauthn4j.validator.attestation.statement.androidkey.AndroidKeyAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.statement.androidsafetynet.AndroidSafetyNetAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.statement.apple.AppleAnonymousAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.statement.none.NoneAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.statement.packed.PackedAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.statement.tpm.TPMAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.statement.u2f.FIDOU2FAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.CertPathTrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.NullCertPathTrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.TrustAnchorCertPathTrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.self.DefaultSelfAttestationTrustworthinessValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the registration ceremony through {@link WebAuthnManager#validate(RegistrationRequest, RegistrationParameters)}
+ * for each attestation statement format, including attestation statement verification and certificate path validation.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistrationBenchmark {
+
+    @Param({"none", "packed", "fido-u2f", "tpm", "android-key", "android-safetynet", "apple"})
+    private String format;
+
+    private WebAuthnManager webAuthnManager;
+    private RegistrationRequest registrationRequest;
+    private RegistrationParameters registrationParameters;
+
+    @Setup
+    public void setup() {
+        Challenge challenge = new DefaultChallenge();
+        ServerProperty serverProperty = new ServerProperty(BenchmarkDataUtil.ORIGIN, BenchmarkDataUtil.RP_ID, challenge, null);
+        switch (format) {
+            case "none":
+                setup(EmulatorUtil.createClientPlatform(EmulatorUtil.PACKED_AUTHENTICATOR), AttestationConveyancePreference.NONE,
+                        new NoneAttestationStatementValidator(), TestAttestationUtil.createTrustAnchorProviderWith3tierTestRootCACertificate(), serverProperty);
+                break;
+            case "packed":
+                setup(EmulatorUtil.createClientPlatform(EmulatorUtil.PACKED_AUTHENTICATOR), AttestationConveyancePreference.DIRECT,
+                        new PackedAttestationStatementValidator(), TestAttestationUtil.createTrustAnchorProviderWith3tierTestRootCACertificate(), serverProperty);
+                break;
+            case "fido-u2f":
+                setup(EmulatorUtil.createClientPlatform(EmulatorUtil.FIDO_U2F_AUTHENTICATOR), AttestationConveyancePreference.DIRECT,
+                        new FIDOU2FAttestationStatementValidator(), TestAttestationUtil.createTrustAnchorProviderWith2tierTestRootCACertificate(), serverProperty);
+                break;
+            case "tpm":
+                setup(EmulatorUtil.createClientPlatform(EmulatorUtil.TPM_AUTHENTICATOR), AttestationConveyancePreference.DIRECT,
+                        new TPMAttestationStatementValidator(), TestAttestationUtil.createTrustAnchorProviderWith3tierTestRootCACertificate(), serverProperty);
+                break;
+            case "android-key":
+                setup(EmulatorUtil.createClientPlatform(EmulatorUtil.ANDROID_KEY_AUTHENTICATOR), AttestationConveyancePreference.DIRECT,
+                        new AndroidKeyAttestationStatementValidator(), TestAttestationUtil.createTrustAnchorProviderWith3tierTestRootCACertificate(), serverProperty);
+                break;
+            case "android-safetynet":
+                AndroidSafetyNetAttestationStatementValidator androidSafetyNetAttestationStatementValidator = new AndroidSafetyNetAttestationStatementValidator();
+                // The attestation is generated once at setup, so its timestampMs must stay acceptable for the whole run
+                androidSafetyNetAttestationStatementValidator.setBackwardThreshold((int) TimeUnit.DAYS.toSeconds(1));
+                setup(EmulatorUtil.createClientPlatform(EmulatorUtil.ANDROID_SAFETY_NET_AUTHENTICATOR), AttestationConveyancePreference.DIRECT,
+                        androidSafetyNetAttestationStatementValidator, TestAttestationUtil.createTrustAnchorProviderWith3tierTestRootCACertificate(), serverProperty);
+                break;
+            case "apple":
+                // There is no emulator for Apple anonymous attestation. A recorded attestation is used instead, and as its
+                // certificates have already expired, certificate path validation is not part of this benchmark.
+                RegistrationObject registrationObject = TestDataUtil.createRegistrationObjectWithAppleAttestation();
+                webAuthnManager = createWebAuthnManager(new AppleAnonymousAttestationStatementValidator(), new NullCertPathTrustworthinessValidator());
+                registrationRequest = new RegistrationRequest(registrationObject.getAttestationObjectBytes(), registrationObject.getCollectedClientDataBytes());
+                registrationParameters = new RegistrationParameters(registrationObject.getServerProperty(), null, false, true);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown attestation statement format: " + format);
+        }
+    }
+
+    private void setup(ClientPlatform clientPlatform, AttestationConveyancePreference attestationConveyancePreference,
+                       AttestationStatementValidator attestationStatementValidator, TrustAnchorsResolver trustAnchorsResolver,
+                       ServerProperty serverProperty) {
+        webAuthnManager = createWebAuthnManager(attestationStatementValidator, new TrustAnchorCertPathTrustworthinessValidator(trustAnchorsResolver));
+        registrationRequest = BenchmarkDataUtil.createRegistrationRequest(clientPlatform, serverProperty.getChallenge(), attestationConveyancePreference);
+        registrationParameters = new RegistrationParameters(serverProperty, null, false, true);
+    }
+
+    private WebAuthnManager createWebAuthnManager(AttestationStatementValidator attestationStatementValidator, CertPathTrustworthinessValidator certPathTrustworthinessValidator) {
+        return new WebAuthnManager(
+                Collections.singletonList(attestationStatementValidator),
+                certPathTrustworthinessValidator,
+                new DefaultSelfAttestationTrustworthinessValidator()
+        );
+    }
+
+    @Benchmark
+    public RegistrationData validate() {
+        return webAuthnManager.validate(registrationRequest, registrationParameters);
+    }
+}
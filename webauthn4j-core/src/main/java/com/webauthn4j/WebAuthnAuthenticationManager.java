@@ -24,19 +24,28 @@ import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.AuthenticationData;
 import com.webauthn4j.data.AuthenticationParameters;
 import com.webauthn4j.data.AuthenticationRequest;
+import com.webauthn4j.data.AuthenticationResult;
 import com.webauthn4j.data.attestation.authenticator.AuthenticatorData;
 import com.webauthn4j.data.client.CollectedClientData;
 import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionAuthenticatorOutput;
 import com.webauthn4j.data.extension.client.AuthenticationExtensionClientOutput;
 import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.ExecutorUtil;
 import com.webauthn4j.validator.AuthenticationDataValidator;
 import com.webauthn4j.validator.CustomAuthenticationValidator;
 import com.webauthn4j.validator.exception.ValidationException;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 public class WebAuthnAuthenticationManager {
 
@@ -83,7 +92,7 @@ public class WebAuthnAuthenticationManager {
                 clientDataBytes == null ? null : collectedClientDataConverter.convert(clientDataBytes);
         byte[] authenticatorDataBytes = authenticationRequest.getAuthenticatorData();
         AuthenticatorData<AuthenticationExtensionAuthenticatorOutput> authenticatorData =
-                authenticatorDataBytes == null ? null : authenticatorDataConverter.convert(authenticatorDataBytes);
+                authenticatorDataBytes == null ? null : authenticatorDataConverter.convertLazily(authenticatorDataBytes);
         AuthenticationExtensionsClientOutputs<AuthenticationExtensionClientOutput> clientExtensions =
                 authenticationRequest.getClientExtensionsJSON() == null ? null : authenticationExtensionsClientOutputsConverter.convert(authenticationRequest.getClientExtensionsJSON());
 
@@ -117,6 +126,106 @@ public class WebAuthnAuthenticationManager {
         return authenticationData;
     }
 
+    /**
+     * Parses and validates the request asynchronously on the default compute executor.
+     *
+     * @see #validateAsync(AuthenticationRequest, AuthenticationParameters, Executor)
+     */
+    public @NonNull CompletableFuture<AuthenticationData> validateAsync(@NonNull AuthenticationRequest authenticationRequest, @NonNull AuthenticationParameters authenticationParameters) {
+        return validateAsync(authenticationRequest, authenticationParameters, ExecutorUtil.getDefaultComputeExecutor());
+    }
+
+    /**
+     * Parses and validates the request on {@code executor}. Nothing in it blocks on I/O unless custom validators do.
+     * If the request is invalid, the returned future completes exceptionally with a {@link java.util.concurrent.CompletionException}
+     * whose cause is the {@link DataConversionException} or {@link ValidationException}. {@link CompletableFuture#join()}
+     * throws it as is, while {@link CompletableFuture#get()} throws an {@link java.util.concurrent.ExecutionException} with
+     * the same cause.
+     *
+     * @param authenticationRequest request to validate
+     * @param authenticationParameters parameters to validate the request with
+     * @param executor executor to run parse and validation
+     * @return future of the validated data
+     */
+    public @NonNull CompletableFuture<AuthenticationData> validateAsync(
+            @NonNull AuthenticationRequest authenticationRequest,
+            @NonNull AuthenticationParameters authenticationParameters,
+            @NonNull Executor executor) {
+        AssertUtil.notNull(executor, "executor must not be null");
+        return CompletableFuture.supplyAsync(() -> validate(authenticationRequest, authenticationParameters), executor);
+    }
+
+    /**
+     * Parses and validates the requests in parallel on the common {@link ForkJoinPool}.
+     *
+     * @see #validateAll(List, Function, Executor)
+     */
+    public @NonNull List<AuthenticationResult> validateAll(
+            @NonNull List<AuthenticationRequest> authenticationRequests,
+            @NonNull Function<AuthenticationRequest, AuthenticationParameters> authenticationParametersProvider) {
+        return validateAll(authenticationRequests, authenticationParametersProvider, ExecutorUtil.getDefaultComputeExecutor());
+    }
+
+    /**
+     * Parses and validates the requests in parallel on the specified {@link Executor}.
+     * A failure of one request does not affect the others: each result holds either the validated data or the exception
+     * the request failed with, in the order of the requests. If the executor rejects a task, the request is validated on
+     * the calling thread. An {@link Error}, such as {@link OutOfMemoryError}, is not recorded in a result: it propagates
+     * to the caller, and the results of the other requests are discarded.
+     * Requests may share an {@link com.webauthn4j.authenticator.Authenticator} instance: its counter is checked and
+     * updated by one of them at a time, so no update is lost, though the requests may be validated in any order.
+     *
+     * @param authenticationRequests           requests to validate
+     * @param authenticationParametersProvider function that returns the parameters of a request. It is called in parallel
+     * @param executor                         executor to run the validations
+     * @return results in the order of the requests
+     */
+    public @NonNull List<AuthenticationResult> validateAll(
+            @NonNull List<AuthenticationRequest> authenticationRequests,
+            @NonNull Function<AuthenticationRequest, AuthenticationParameters> authenticationParametersProvider,
+            @NonNull Executor executor) {
+        AssertUtil.notNull(authenticationRequests, "authenticationRequests must not be null");
+        AssertUtil.notNull(authenticationParametersProvider, "authenticationParametersProvider must not be null");
+        AssertUtil.notNull(executor, "executor must not be null");
+
+        List<CompletableFuture<AuthenticationResult>> futures = new ArrayList<>(authenticationRequests.size());
+        for (AuthenticationRequest authenticationRequest : authenticationRequests) {
+            CompletableFuture<AuthenticationResult> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> validateToResult(authenticationRequest, authenticationParametersProvider), executor);
+            } catch (RejectedExecutionException e) {
+                future = CompletableFuture.completedFuture(validateToResult(authenticationRequest, authenticationParametersProvider));
+            }
+            futures.add(future);
+        }
+        List<AuthenticationResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<AuthenticationResult> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                // validateToResult records every RuntimeException, so only an Error gets here
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private @NonNull AuthenticationResult validateToResult(
+            AuthenticationRequest authenticationRequest,
+            Function<AuthenticationRequest, AuthenticationParameters> authenticationParametersProvider) {
+        AuthenticationData authenticationData = null;
+        try {
+            authenticationData = parse(authenticationRequest);
+            validate(authenticationData, authenticationParametersProvider.apply(authenticationRequest));
+            return new AuthenticationResult(authenticationRequest, authenticationData, null);
+        } catch (RuntimeException e) {
+            return new AuthenticationResult(authenticationRequest, authenticationData, e);
+        }
+    }
+
     public @NonNull AuthenticationDataValidator getAuthenticationDataValidator() {
         return authenticationDataValidator;
     }
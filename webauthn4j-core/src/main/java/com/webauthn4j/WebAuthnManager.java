@@ -41,6 +41,9 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 public class WebAuthnManager {
 
@@ -161,6 +164,20 @@ public class WebAuthnManager {
         return this.webAuthnRegistrationManager.validate(registrationData, registrationParameters);
     }
 
+    /**
+     * @see WebAuthnRegistrationManager#validateAsync(RegistrationRequest, RegistrationParameters)
+     */
+    public @NonNull CompletableFuture<RegistrationData> validateAsync(@NonNull RegistrationRequest registrationRequest, @NonNull RegistrationParameters registrationParameters) {
+        return this.webAuthnRegistrationManager.validateAsync(registrationRequest, registrationParameters);
+    }
+
+    /**
+     * @see WebAuthnRegistrationManager#validateAsync(RegistrationRequest, RegistrationParameters, Executor, Executor)
+     */
+    public @NonNull CompletableFuture<RegistrationData> validateAsync(@NonNull RegistrationRequest registrationRequest, @NonNull RegistrationParameters registrationParameters, @NonNull Executor computeExecutor, @NonNull Executor blockingExecutor) {
+        return this.webAuthnRegistrationManager.validateAsync(registrationRequest, registrationParameters, computeExecutor, blockingExecutor);
+    }
+
     @SuppressWarnings("squid:S1130")
     public @NonNull AuthenticationData parse(@NonNull AuthenticationRequest authenticationRequest) throws DataConversionException {
         return this.webAuthnAuthenticationManager.parse(authenticationRequest);
@@ -176,6 +193,33 @@ public class WebAuthnManager {
         return this.webAuthnAuthenticationManager.validate(authenticationData, authenticationParameters);
     }
 
+    /**
+     * @see WebAuthnAuthenticationManager#validateAsync(AuthenticationRequest, AuthenticationParameters)
+     */
+    public @NonNull CompletableFuture<AuthenticationData> validateAsync(@NonNull AuthenticationRequest authenticationRequest, @NonNull AuthenticationParameters authenticationParameters) {
+        return this.webAuthnAuthenticationManager.validateAsync(authenticationRequest, authenticationParameters);
+    }
+
+    /**
+     * @see WebAuthnAuthenticationManager#validateAsync(AuthenticationRequest, AuthenticationParameters, Executor)
+     */
+    public @NonNull CompletableFuture<AuthenticationData> validateAsync(@NonNull AuthenticationRequest authenticationRequest, @NonNull AuthenticationParameters authenticationParameters, @NonNull Executor executor) {
+        return this.webAuthnAuthenticationManager.validateAsync(authenticationRequest, authenticationParameters, executor);
+    }
+
+    /**
+     * @see WebAuthnAuthenticationManager#validateAll(List, Function)
+     */
+    public @NonNull List<AuthenticationResult> validateAll(@NonNull List<AuthenticationRequest> authenticationRequests, @NonNull Function<AuthenticationRequest, AuthenticationParameters> authenticationParametersProvider) {
+        return this.webAuthnAuthenticationManager.validateAll(authenticationRequests, authenticationParametersProvider);
+    }
+
+    /**
+     * @see WebAuthnAuthenticationManager#validateAll(List, Function, Executor)
+     */
+    public @NonNull List<AuthenticationResult> validateAll(@NonNull List<AuthenticationRequest> authenticationRequests, @NonNull Function<AuthenticationRequest, AuthenticationParameters> authenticationParametersProvider, @NonNull Executor executor) {
+        return this.webAuthnAuthenticationManager.validateAll(authenticationRequests, authenticationParametersProvider, executor);
+    }
 
     public @NonNull RegistrationDataValidator getRegistrationDataValidator() {
         return this.webAuthnRegistrationManager.getRegistrationDataValidator();
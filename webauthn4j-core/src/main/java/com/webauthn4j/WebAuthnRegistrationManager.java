@@ -31,6 +31,7 @@ import com.webauthn4j.data.client.CollectedClientData;
 import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
 import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.ExecutorUtil;
 import com.webauthn4j.validator.CustomRegistrationValidator;
 import com.webauthn4j.validator.RegistrationDataValidator;
 import com.webauthn4j.validator.attestation.statement.AttestationStatementValidator;
@@ -52,6 +53,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class WebAuthnRegistrationManager {
 
@@ -205,6 +208,40 @@ public class WebAuthnRegistrationManager {
         return registrationData;
     }
 
+    /**
+     * Parses and validates the request asynchronously on the default executors.
+     *
+     * @see #validateAsync(RegistrationRequest, RegistrationParameters, Executor, Executor)
+     */
+    public @NonNull CompletableFuture<RegistrationData> validateAsync(@NonNull RegistrationRequest registrationRequest, @NonNull RegistrationParameters registrationParameters) {
+        return validateAsync(registrationRequest, registrationParameters, ExecutorUtil.getDefaultComputeExecutor(), ExecutorUtil.getDefaultBlockingExecutor());
+    }
+
+    /**
+     * Parses the request on {@code computeExecutor}, then validates it on {@code blockingExecutor}, as attestation
+     * trustworthiness validation may block on certificate revocation checking or metadata lookups.
+     * If the request is invalid, the returned future completes exceptionally with a {@link java.util.concurrent.CompletionException}
+     * whose cause is the {@link DataConversionException} or {@link ValidationException}. {@link CompletableFuture#join()}
+     * throws it as is, while {@link CompletableFuture#get()} throws an {@link java.util.concurrent.ExecutionException} with
+     * the same cause.
+     *
+     * @param registrationRequest request to validate
+     * @param registrationParameters parameters to validate the request with
+     * @param computeExecutor executor for the CPU-bound parse stage
+     * @param blockingExecutor executor for the validation stage, which may block on I/O
+     * @return future of the validated data
+     */
+    public @NonNull CompletableFuture<RegistrationData> validateAsync(
+            @NonNull RegistrationRequest registrationRequest,
+            @NonNull RegistrationParameters registrationParameters,
+            @NonNull Executor computeExecutor,
+            @NonNull Executor blockingExecutor) {
+        AssertUtil.notNull(computeExecutor, "computeExecutor must not be null");
+        AssertUtil.notNull(blockingExecutor, "blockingExecutor must not be null");
+        return CompletableFuture.supplyAsync(() -> parse(registrationRequest), computeExecutor)
+                .thenApplyAsync(registrationData -> validate(registrationData, registrationParameters), blockingExecutor);
+    }
+
     public @NonNull RegistrationDataValidator getRegistrationDataValidator() {
         return registrationDataValidator;
     }
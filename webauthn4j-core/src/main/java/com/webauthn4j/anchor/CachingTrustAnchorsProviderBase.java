@@ -17,21 +17,24 @@
 package com.webauthn4j.anchor;
 
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.util.AssertUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.security.cert.TrustAnchor;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * An abstract {@link TrustAnchorsProvider} implementation that provides caching functionality
+ * An abstract {@link TrustAnchorsProvider} implementation that provides caching functionality.
+ * Trust anchors are loaded once. Use {@link RefreshingTrustAnchorsProviderBase} to reload them.
  */
 public abstract class CachingTrustAnchorsProviderBase implements TrustAnchorsProvider {
 
     // ~ Instance fields
     // ================================================================================================
 
-    private Map<AAGUID, Set<TrustAnchor>> cachedTrustAnchors;
+    private volatile Map<AAGUID, Set<TrustAnchor>> cachedTrustAnchors;
 
     // ~ Methods
     // ========================================================================================================
@@ -43,14 +46,41 @@ public abstract class CachingTrustAnchorsProviderBase implements TrustAnchorsPro
      */
     @Override
     public @NonNull Map<AAGUID, Set<TrustAnchor>> provide() {
-        if (cachedTrustAnchors == null) {
+        Map<AAGUID, Set<TrustAnchor>> trustAnchors = cachedTrustAnchors;
+        if (trustAnchors == null) {
             synchronized (this) {
-                cachedTrustAnchors = loadTrustAnchors();
+                trustAnchors = cachedTrustAnchors;
+                if (trustAnchors == null) {
+                    trustAnchors = loadTrustAnchors();
+                    cachedTrustAnchors = trustAnchors;
+                }
             }
         }
+        return trustAnchors;
+    }
+
+    /**
+     * Returns the cached {@link AAGUID} key {@link TrustAnchor} {@link Set} value {@link Map}
+     *
+     * @return the cached trust anchors, or null if nothing is loaded yet
+     */
+    protected @Nullable Map<AAGUID, Set<TrustAnchor>> getCachedTrustAnchors() {
         return cachedTrustAnchors;
     }
 
+    /**
+     * Replaces the cached {@link AAGUID} key {@link TrustAnchor} {@link Set} value {@link Map}, so that subclasses can
+     * reload it. It waits for a first load running in {@link #provide()}, which therefore never overwrites it.
+     *
+     * @param trustAnchors trust anchors to be provided
+     */
+    protected void setCachedTrustAnchors(@NonNull Map<AAGUID, Set<TrustAnchor>> trustAnchors) {
+        AssertUtil.notNull(trustAnchors, "trustAnchors must not be null");
+        synchronized (this) {
+            cachedTrustAnchors = trustAnchors;
+        }
+    }
+
     /**
      * Loads {@link AAGUID} key {@link TrustAnchor} {@link Set} value {@link Map}
      *
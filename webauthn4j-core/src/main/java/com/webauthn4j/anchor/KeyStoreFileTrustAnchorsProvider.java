@@ -35,8 +35,9 @@ import java.util.*;
 
 /**
  * Loads {@link AAGUID} key {@link TrustAnchor} {@link Set} value {@link Map} from Java KeyStore file.
+ * The file can be reloaded by {@link #refresh()}, or watched by {@link #startWatching()}.
  */
-public class KeyStoreFileTrustAnchorsProvider extends CachingTrustAnchorsProviderBase {
+public class KeyStoreFileTrustAnchorsProvider extends RefreshingTrustAnchorsProviderBase {
 
     // ~ Instance fields
     // ================================================================================================
@@ -74,6 +75,14 @@ public class KeyStoreFileTrustAnchorsProvider extends CachingTrustAnchorsProvide
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected @NonNull Collection<Path> getWatchedFiles() {
+        return keyStore == null ? Collections.emptyList() : Collections.singletonList(keyStore);
+    }
+
     private @NonNull KeyStore loadKeyStoreFromStream(@NonNull InputStream inputStream, @NonNull String password)
             throws CertificateException, NoSuchAlgorithmException, IOException {
         KeyStore keyStoreObject = CertificateUtil.createKeyStore();
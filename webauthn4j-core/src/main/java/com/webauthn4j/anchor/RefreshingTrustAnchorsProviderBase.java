@@ -0,0 +1,257 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.anchor;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.util.AssertUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.cert.TrustAnchor;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link CachingTrustAnchorsProviderBase} which replaces the cached {@link TrustAnchor}s with an immutable snapshot on
+ * {@link #refresh()}. Refreshing can be triggered on a schedule by {@link #startRefreshing(Duration)}, or on changes of
+ * the files returned by {@link #getWatchedFiles()} by {@link #startWatching()}.
+ * <p>
+ * {@link #provide()} never blocks once the trust anchors are loaded. When a refresh fails, the previous snapshot keeps being
+ * provided. Each successful refresh provides a new {@link Map} instance, which lets {@link TrustAnchorsResolverImpl} detect it.
+ */
+public abstract class RefreshingTrustAnchorsProviderBase extends CachingTrustAnchorsProviderBase implements AutoCloseable {
+
+    // ~ Instance fields
+    // ================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(RefreshingTrustAnchorsProviderBase.class);
+
+    private final Object refreshLock = new Object();
+    // 0 while the trust anchors are loaded by provide() only
+    private volatile long refreshedVersion;
+
+    private final Object lifecycleLock = new Object();
+    private ScheduledExecutorService scheduledExecutorService;
+    private WatchService watchService;
+
+    // ~ Methods
+    // ========================================================================================================
+
+    /**
+     * Loads {@link TrustAnchor}s and replaces the current snapshot with them.
+     * If loading fails, the current snapshot is kept.
+     *
+     * @return true if the snapshot is replaced
+     */
+    public boolean refresh() {
+        boolean refreshed;
+        // the scheduler and the watcher may refresh concurrently. Refreshes are serialized, so that a load started
+        // earlier never replaces the snapshot of a load started later
+        synchronized (refreshLock) {
+            Map<AAGUID, Set<TrustAnchor>> trustAnchors = null;
+            try {
+                trustAnchors = loadSnapshotTrustAnchors();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to refresh trust anchors. The previous snapshot is kept.", e);
+            }
+            refreshed = trustAnchors != null;
+            if (refreshed) {
+                synchronized (this) {
+                    refreshedVersion = getSnapshotVersion() + 1;
+                    setCachedTrustAnchors(trustAnchors);
+                }
+            }
+        }
+        afterRefresh(refreshed);
+        return refreshed;
+    }
+
+    /**
+     * Returns the version of the current snapshot, which is incremented on every successful refresh
+     *
+     * @return the version of the current snapshot, or 0 if nothing is loaded yet
+     */
+    public long getSnapshotVersion() {
+        long version = refreshedVersion;
+        if (version == 0 && getCachedTrustAnchors() != null) {
+            return 1;
+        }
+        return version;
+    }
+
+    /**
+     * Starts refreshing the snapshot in a background thread at the specified interval
+     *
+     * @param interval refresh interval
+     */
+    public void startRefreshing(@NonNull Duration interval) {
+        AssertUtil.notNull(interval, "interval must not be null");
+        AssertUtil.isTrue(!interval.isNegative() && !interval.isZero(), "interval must be positive");
+        synchronized (lifecycleLock) {
+            AssertUtil.isTrue(scheduledExecutorService == null, "refreshing is already started");
+            scheduledExecutorService = createScheduledExecutorService();
+            long millis = interval.toMillis();
+            scheduledExecutorService.scheduleWithFixedDelay(this::refresh, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts refreshing the snapshot in a background thread whenever one of the files returned by {@link #getWatchedFiles()}
+     * is created, modified or deleted
+     */
+    public void startWatching() {
+        Collection<Path> files = getWatchedFiles();
+        AssertUtil.notEmpty(files, "watched files must not be empty");
+        synchronized (lifecycleLock) {
+            AssertUtil.isTrue(watchService == null, "watching is already started");
+            Map<Path, Set<Path>> fileNamesByDirectory = groupByDirectory(files);
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+                for (Path directory : fileNamesByDirectory.keySet()) {
+                    directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                }
+            } catch (IOException e) {
+                closeWatchService();
+                throw new UncheckedIOException(e);
+            }
+            WatchService startedWatchService = watchService;
+            createDaemonThread(() -> watch(startedWatchService, fileNamesByDirectory), "webauthn4j-trust-anchors-watcher").start();
+        }
+    }
+
+    /**
+     * Stops the background refreshing and file watching. The current snapshot keeps being provided.
+     */
+    @Override
+    public void close() {
+        synchronized (lifecycleLock) {
+            if (scheduledExecutorService != null) {
+                scheduledExecutorService.shutdownNow();
+                scheduledExecutorService = null;
+            }
+            closeWatchService();
+        }
+    }
+
+    /**
+     * Returns the files {@link #startWatching()} watches. Subclasses loading {@link TrustAnchor}s from files override this.
+     *
+     * @return files to be watched
+     */
+    protected @NonNull Collection<Path> getWatchedFiles() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Called after every {@link #refresh()}, including the ones triggered in the background.
+     * Subclasses may override this to observe refreshes.
+     *
+     * @param refreshed true if the snapshot is replaced, false if loading failed
+     */
+    protected void afterRefresh(boolean refreshed) {
+        // nop
+    }
+
+    @NonNull ScheduledExecutorService createScheduledExecutorService() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> createDaemonThread(runnable, "webauthn4j-trust-anchors-refresher"));
+    }
+
+    private @NonNull Map<AAGUID, Set<TrustAnchor>> loadSnapshotTrustAnchors() {
+        Map<AAGUID, Set<TrustAnchor>> loaded = loadTrustAnchors();
+        Map<AAGUID, Set<TrustAnchor>> copy = new HashMap<>();
+        loaded.forEach((aaguid, trustAnchors) -> copy.put(aaguid, Collections.unmodifiableSet(new HashSet<>(trustAnchors))));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private void watch(@NonNull WatchService watchService, @NonNull Map<Path, Set<Path>> fileNamesByDirectory) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey watchKey = watchService.take();
+                boolean changed = pollChanges(watchKey, fileNamesByDirectory);
+                // drain the events of the same change burst, so that it triggers a single refresh
+                while ((watchKey = watchService.poll(100, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= pollChanges(watchKey, fileNamesByDirectory);
+                }
+                if (changed) {
+                    refresh();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed by close()
+        }
+    }
+
+    static @NonNull Map<Path, Set<Path>> groupByDirectory(@NonNull Collection<Path> files) {
+        Map<Path, Set<Path>> fileNamesByDirectory = new HashMap<>();
+        for (Path file : files) {
+            Path absolutePath = file.toAbsolutePath();
+            fileNamesByDirectory.computeIfAbsent(absolutePath.getParent(), key -> new HashSet<>()).add(absolutePath.getFileName());
+        }
+        return fileNamesByDirectory;
+    }
+
+    static boolean pollChanges(@NonNull WatchKey watchKey, @NonNull Map<Path, Set<Path>> fileNamesByDirectory) {
+        Set<Path> fileNames = fileNamesByDirectory.getOrDefault((Path) watchKey.watchable(), Collections.emptySet());
+        boolean changed = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            // an overflow may have dropped events of the watched files
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileNames.contains((Path) event.context())) {
+                changed = true;
+            }
+        }
+        watchKey.reset();
+        return changed;
+    }
+
+    private void closeWatchService() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close watch service.", e);
+            }
+            watchService = null;
+        }
+    }
+
+    private static @NonNull Thread createDaemonThread(@NonNull Runnable runnable, @NonNull String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+}
@@ -17,8 +17,10 @@
 package com.webauthn4j.anchor;
 
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.util.CertificateUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.security.cert.PKIXParameters;
 import java.security.cert.TrustAnchor;
 import java.util.Set;
 
@@ -34,4 +36,19 @@ public interface TrustAnchorsResolver {
      * @return {@link TrustAnchor} {@link Set}.
      */
     @NonNull Set<TrustAnchor> resolve(@NonNull AAGUID aaguid);
+
+    /**
+     * Creates {@link PKIXParameters} initialized with {@link TrustAnchor}s resolved by {@link #resolve(AAGUID)} for the
+     * {@link AAGUID}, or a subset of them. Implementations may reuse parameters prepared for the resolved {@link Set},
+     * but must initialize the returned instance with {@code trustAnchors} as given.
+     * The caller may modify the returned instance.
+     *
+     * @param aaguid       {@link AAGUID} for authenticator
+     * @param trustAnchors {@link TrustAnchor}s to initialize the parameters with
+     * @return {@link PKIXParameters}
+     * @throws IllegalArgumentException if {@code trustAnchors} is empty
+     */
+    default @NonNull PKIXParameters resolvePKIXParameters(@NonNull AAGUID aaguid, @NonNull Set<TrustAnchor> trustAnchors) {
+        return CertificateUtil.createPKIXParameters(trustAnchors);
+    }
 }
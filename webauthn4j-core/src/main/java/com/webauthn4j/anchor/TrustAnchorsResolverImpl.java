@@ -18,16 +18,22 @@ package com.webauthn4j.anchor;
 
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.CertificateUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.security.cert.PKIXParameters;
 import java.security.cert.TrustAnchor;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A {@link TrustAnchorsResolver} implementation that loads {@link TrustAnchor}s with {@link TrustAnchorsProvider}
+ * A {@link TrustAnchorsResolver} implementation that loads {@link TrustAnchor}s with {@link TrustAnchorsProvider}.
+ * The merged {@link TrustAnchor} {@link Set} and the {@link PKIXParameters} of each {@link AAGUID} are built once per
+ * {@link Map} instance provided by the {@link TrustAnchorsProvider}, and rebuilt when the provider returns another instance.
  */
 public class TrustAnchorsResolverImpl implements TrustAnchorsResolver {
 
@@ -36,6 +42,8 @@ public class TrustAnchorsResolverImpl implements TrustAnchorsResolver {
 
     private final TrustAnchorsProvider trustAnchorsProvider;
 
+    private volatile Snapshot snapshot;
+
     // ~ Constructor
     // ========================================================================================================
 
@@ -49,17 +57,91 @@ public class TrustAnchorsResolverImpl implements TrustAnchorsResolver {
 
     /**
      * {@inheritDoc}
+     * The returned {@link Set} is unmodifiable.
      */
     @Override
     public @NonNull Set<TrustAnchor> resolve(@NonNull AAGUID aaguid) {
         AssertUtil.notNull(aaguid, "aaguid must not be null");
+        return getSnapshot().get(aaguid).trustAnchors;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If {@code trustAnchors} is the {@link Set} resolved from the current snapshot, the returned {@link PKIXParameters}
+     * is a clone of the one built for the {@link AAGUID}. Otherwise, for example when the set was filtered or the trust
+     * anchors were reloaded in the meantime, it is built from {@code trustAnchors}.
+     */
+    @Override
+    public @NonNull PKIXParameters resolvePKIXParameters(@NonNull AAGUID aaguid, @NonNull Set<TrustAnchor> trustAnchors) {
+        AssertUtil.notNull(aaguid, "aaguid must not be null");
+        AssertUtil.notNull(trustAnchors, "trustAnchors must not be null");
+        // the provider is not called again, so that the parameters match the set the caller has resolved
+        Snapshot current = snapshot;
+        if (current != null) {
+            ResolvedTrustAnchors resolvedTrustAnchors = current.find(aaguid);
+            if (resolvedTrustAnchors != null && resolvedTrustAnchors.trustAnchors == trustAnchors) {
+                return resolvedTrustAnchors.createPKIXParameters();
+            }
+        }
+        return CertificateUtil.createPKIXParameters(trustAnchors);
+    }
 
+    private @NonNull Snapshot getSnapshot() {
         Map<AAGUID, Set<TrustAnchor>> trustAnchors = trustAnchorsProvider.provide();
+        Snapshot current = snapshot;
+        if (current == null || current.source != trustAnchors) {
+            current = new Snapshot(trustAnchors);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private static class Snapshot {
+
+        private final Map<AAGUID, Set<TrustAnchor>> source;
+        private final Map<AAGUID, ResolvedTrustAnchors> resolved = new ConcurrentHashMap<>();
+
+        Snapshot(@NonNull Map<AAGUID, Set<TrustAnchor>> source) {
+            this.source = source;
+        }
+
+        @NonNull ResolvedTrustAnchors get(@NonNull AAGUID aaguid) {
+            // AAGUIDs without their own trust anchors share the entry of AAGUID.NULL, so that unknown AAGUIDs do not grow the map
+            AAGUID key = source.containsKey(aaguid) ? aaguid : AAGUID.NULL;
+            return resolved.computeIfAbsent(key, this::merge);
+        }
+
+        @Nullable ResolvedTrustAnchors find(@NonNull AAGUID aaguid) {
+            AAGUID key = source.containsKey(aaguid) ? aaguid : AAGUID.NULL;
+            return resolved.get(key);
+        }
+
+        private @NonNull ResolvedTrustAnchors merge(@NonNull AAGUID aaguid) {
+            HashSet<TrustAnchor> set = new HashSet<>();
+            set.addAll(source.getOrDefault(AAGUID.NULL, Collections.emptySet()));
+            set.addAll(source.getOrDefault(aaguid, Collections.emptySet()));
+            return new ResolvedTrustAnchors(Collections.unmodifiableSet(set));
+        }
+    }
+
+    private static class ResolvedTrustAnchors {
+
+        private final Set<TrustAnchor> trustAnchors;
+        private final PKIXParameters pkixParameters;
+
+        ResolvedTrustAnchors(@NonNull Set<TrustAnchor> trustAnchors) {
+            this.trustAnchors = trustAnchors;
+            // PKIXParameters cannot be created without trust anchors
+            this.pkixParameters = trustAnchors.isEmpty() ? null : CertificateUtil.createPKIXParameters(trustAnchors);
+        }
 
-        HashSet<TrustAnchor> set = new HashSet<>();
-        set.addAll(trustAnchors.getOrDefault(AAGUID.NULL, Collections.emptySet()));
-        set.addAll(trustAnchors.getOrDefault(aaguid, Collections.emptySet()));
-        return set;
+        @NonNull PKIXParameters createPKIXParameters() {
+            if (pkixParameters == null) {
+                return CertificateUtil.createPKIXParameters(trustAnchors);
+            }
+            // cloning shares the already checked trust anchor set instead of checking every anchor again
+            return (PKIXParameters) pkixParameters.clone();
+        }
     }
 
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.authenticator;
+
+import com.webauthn4j.util.AssertUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory {@link SignCounterStore} that keeps the counters as primitive longs in open addressing tables, split into
+ * stripes by the hash of the credential id.
+ * <p>
+ * Reading and advancing the counter of a known credential is lock-free: the key slot is found without locking and the
+ * counter is updated by compare-and-set. Only adding a credential, removing one and growing a table lock their stripe.
+ */
+public class InMemorySignCounterStore implements SignCounterStore {
+
+    private static final int DEFAULT_STRIPE_COUNT = 64;
+    private static final int INITIAL_TABLE_CAPACITY = 16;
+
+    // signature counters are unsigned 32 bit integers, so that negative values never collide with them
+    private static final long MOVED = -1;
+    private static final byte[] REMOVED = new byte[0];
+
+    private final Stripe[] stripes;
+
+    public InMemorySignCounterStore() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * @param stripeCount number of stripes, rounded up to a power of two
+     */
+    public InMemorySignCounterStore(int stripeCount) {
+        AssertUtil.isTrue(stripeCount > 0, "stripeCount must be positive");
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public long advance(@NonNull byte[] credentialId, long initialSignCount, long presentedSignCount) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        AssertUtil.isTrue(initialSignCount >= 0, "initialSignCount must not be negative");
+        AssertUtil.isTrue(presentedSignCount >= 0, "presentedSignCount must not be negative");
+        int hash = hash(credentialId);
+        Stripe stripe = stripeOf(hash);
+        while (true) {
+            Table table = stripe.table;
+            int index = table.indexOf(credentialId, hash);
+            if (index < 0) {
+                if (stripe.putIfAbsent(credentialId, hash, Math.max(initialSignCount, presentedSignCount))) {
+                    return initialSignCount;
+                }
+                // added by another thread in the meantime
+                continue;
+            }
+            long current = table.counters.get(index);
+            if (current == MOVED) {
+                // the table is being grown
+                Thread.yield();
+                continue;
+            }
+            if (presentedSignCount <= current || table.counters.compareAndSet(index, current, presentedSignCount)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Returns the stored signature counter of the credential
+     *
+     * @param credentialId credential id
+     * @return the stored signature counter, or -1 if the store has no counter of the credential
+     */
+    public long get(@NonNull byte[] credentialId) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        int hash = hash(credentialId);
+        Stripe stripe = stripeOf(hash);
+        while (true) {
+            Table table = stripe.table;
+            int index = table.indexOf(credentialId, hash);
+            if (index < 0) {
+                return -1;
+            }
+            long current = table.counters.get(index);
+            if (current != MOVED) {
+                return current;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Removes the signature counter of the credential, typically when the credential is deregistered
+     *
+     * @param credentialId credential id
+     * @return true if the store had a counter of the credential
+     */
+    public boolean remove(@NonNull byte[] credentialId) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        int hash = hash(credentialId);
+        return stripeOf(hash).remove(credentialId, hash);
+    }
+
+    /**
+     * Returns the number of credentials the store has a counter of
+     *
+     * @return number of credentials
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    private Stripe stripeOf(int hash) {
+        // the table index uses the low bits
+        return stripes[(hash >>> 16) & (stripes.length - 1)];
+    }
+
+    private static int hash(byte[] credentialId) {
+        int hash = Arrays.hashCode(credentialId);
+        return hash ^ (hash >>> 16) ^ (hash << 7);
+    }
+
+    private static class Stripe {
+
+        private volatile Table table = new Table(INITIAL_TABLE_CAPACITY);
+        private volatile int size;
+
+        synchronized boolean putIfAbsent(byte[] credentialId, int hash, long signCount) {
+            Table current = table;
+            if (current.indexOf(credentialId, hash) >= 0) {
+                return false;
+            }
+            if ((current.used + 1) * 4 > current.capacity() * 3) {
+                current = grow(current);
+            }
+            current.insert(credentialId.clone(), hash, signCount);
+            size++;
+            return true;
+        }
+
+        synchronized boolean remove(byte[] credentialId, int hash) {
+            Table current = table;
+            int index = current.indexOf(credentialId, hash);
+            if (index < 0) {
+                return false;
+            }
+            // the slot is not reused until the table is rebuilt, so that a concurrent compare-and-set cannot hit another credential
+            current.keys.set(index, REMOVED);
+            size--;
+            return true;
+        }
+
+        private Table grow(Table current) {
+            int liveCount = size + 1;
+            int capacity = current.capacity();
+            while (liveCount * 4 > capacity * 3 / 2) {
+                capacity <<= 1;
+            }
+            Table grown = new Table(capacity);
+            for (int i = 0; i < current.capacity(); i++) {
+                byte[] key = current.keys.get(i);
+                if (key != null && key != REMOVED) {
+                    // concurrent updates of the old table see MOVED and retry on the new one
+                    grown.insert(key, hash(key), current.counters.getAndSet(i, MOVED));
+                }
+            }
+            table = grown;
+            return grown;
+        }
+    }
+
+    private static class Table {
+
+        private final AtomicReferenceArray<byte[]> keys;
+        private final AtomicLongArray counters;
+        private final int mask;
+        private int used;
+
+        Table(int capacity) {
+            this.keys = new AtomicReferenceArray<>(capacity);
+            this.counters = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        int indexOf(byte[] credentialId, int hash) {
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                byte[] key = keys.get(i);
+                if (key == null) {
+                    return -1;
+                }
+                if (key != REMOVED && Arrays.equals(key, credentialId)) {
+                    return i;
+                }
+            }
+        }
+
+        void insert(byte[] credentialId, int hash, long signCount) {
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                if (keys.get(i) == null) {
+                    // the counter is published by the volatile write of the key
+                    counters.set(i, signCount);
+                    keys.set(i, credentialId);
+                    used++;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,674 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.authenticator;
+
+import com.webauthn4j.converter.AttestedCredentialDataConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.util.AssertUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Store of credential public keys and signature counters keyed by credential id, kept off the heap, for looking up
+ * credentials of usernameless authentications without holding millions of {@link CoreAuthenticator}s on the heap.
+ * <p>
+ * Credentials are appended to a memory-mapped log file as records of a length, a CRC32 of the payload, the signature
+ * counter and the payload, which is the attested credential data (AAGUID, credential id and COSE key, which carries the
+ * algorithm). An open addressing hash table in a direct buffer maps credential ids to record offsets, and is rebuilt from
+ * the log when the store is opened. A record whose length or CRC32 does not check out ends the log, so that a record torn
+ * by a crash is discarded. Replaced and removed records are garbage until {@link #compact()} rewrites the live records to
+ * a new file and atomically moves it into place. The log is limited to 2 GiB, the size of a single mapping. The file
+ * keeps the size of the mapping, as a mapped file cannot be truncated on every platform; the zeroed tail ends the log.
+ * <p>
+ * Lookups are lock-free. Since the library targets Java 8, which has no atomic operations on mapped memory, the
+ * compare-and-set of a signature counter is done under a lock striped by credential id. Signature counters are updated
+ * in place, and written to the storage device before {@link #advance(byte[], long, long)} returns, so that a crash
+ * cannot roll them back. Appended records are made durable by {@link #flush()} or {@link #close()}.
+ * <p>
+ * On Windows, a file cannot be replaced while it is mapped, so {@link #compact()} fails there with an
+ * {@link UncheckedIOException}, and the garbage is kept.
+ * <p>
+ * The store is a {@link SignCounterStore}, and the authenticators it returns advance the stored counter when the
+ * validators set it, so that it plugs into authentication validation either way.
+ */
+public class MappedCredentialStore implements SignCounterStore, Closeable {
+
+    private static final int MAGIC = 0x57344a43; // "W4JC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_LENGTH = 16;
+    // payload length, CRC32 of the payload, and the signature counter, which is excluded from the CRC32 as it is updated in place
+    private static final int RECORD_HEADER_LENGTH = 16;
+    private static final int COUNTER_OFFSET = 8;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    // the payload is the operation followed by the attested credential data, which has the credential id length at 16
+    private static final int CREDENTIAL_ID_LENGTH_OFFSET = 1 + 16;
+    private static final int CREDENTIAL_ID_OFFSET = CREDENTIAL_ID_LENGTH_OFFSET + 2;
+
+    private static final int INITIAL_FILE_SIZE = 1 << 20;
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private static final int COUNTER_LOCK_COUNT = 64;
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = 0xffffffffL;
+    // MappedByteBuffer.force(int, int), which writes a region only, is available since Java 13
+    private static final Method FORCE_REGION = findForceRegion();
+
+    private final Path file;
+    private final ObjectConverter objectConverter;
+    private final AttestedCredentialDataConverter attestedCredentialDataConverter;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock[] counterLocks = new ReentrantLock[COUNTER_LOCK_COUNT];
+
+    private volatile State state;
+    private boolean closed;
+
+    /**
+     * Opens the store, creating the file if it does not exist
+     *
+     * @param file            log file
+     * @param objectConverter object converter used to encode COSE keys
+     */
+    public MappedCredentialStore(@NonNull Path file, @NonNull ObjectConverter objectConverter) {
+        AssertUtil.notNull(file, "file must not be null");
+        AssertUtil.notNull(objectConverter, "objectConverter must not be null");
+        this.file = file;
+        this.objectConverter = objectConverter;
+        this.attestedCredentialDataConverter = new AttestedCredentialDataConverter(objectConverter);
+        for (int i = 0; i < COUNTER_LOCK_COUNT; i++) {
+            counterLocks[i] = new ReentrantLock();
+        }
+        try {
+            this.state = open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stores the credential of the authenticator, replacing the stored one of the same credential id
+     *
+     * @param authenticator authenticator
+     */
+    public void put(@NonNull CoreAuthenticator authenticator) {
+        AssertUtil.notNull(authenticator, "authenticator must not be null");
+        AttestedCredentialData attestedCredentialData = authenticator.getAttestedCredentialData();
+        byte[] attestedCredentialDataBytes = attestedCredentialDataConverter.convert(attestedCredentialData);
+        byte[] payload = new byte[1 + attestedCredentialDataBytes.length];
+        payload[0] = OP_PUT;
+        System.arraycopy(attestedCredentialDataBytes, 0, payload, 1, attestedCredentialDataBytes.length);
+        append(attestedCredentialData.getCredentialId(), payload, authenticator.getCounter());
+    }
+
+    /**
+     * Removes the credential
+     *
+     * @param credentialId credential id
+     * @return true if the store had the credential
+     */
+    public boolean remove(@NonNull byte[] credentialId) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        AssertUtil.isTrue(credentialId.length <= 0xffff, "credentialId is too long");
+        if (getCounter(credentialId) < 0) {
+            return false;
+        }
+        byte[] payload = ByteBuffer.allocate(CREDENTIAL_ID_OFFSET + credentialId.length)
+                .put(OP_REMOVE).put(new byte[16]).putShort((short) credentialId.length).put(credentialId)
+                .array();
+        return append(credentialId, payload, 0);
+    }
+
+    /**
+     * Returns the authenticator of the credential, holding only the attested credential data and the signature counter.
+     * Setting its counter advances the stored one.
+     *
+     * @param credentialId credential id
+     * @return the authenticator, or null if the store does not have the credential
+     */
+    public @Nullable Authenticator getAuthenticator(@NonNull byte[] credentialId) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        int hash = hash(credentialId);
+        while (true) {
+            State current = state;
+            int offset = current.find(credentialId, hash);
+            if (offset >= 0) {
+                ByteBuffer view = current.data.duplicate();
+                view.limit(offset + RECORD_HEADER_LENGTH + current.data.getInt(offset));
+                view.position(offset + RECORD_HEADER_LENGTH + 1);
+                AttestedCredentialData attestedCredentialData = attestedCredentialDataConverter.convert(view);
+                return new StoredAuthenticator(this, attestedCredentialData, current.data.getLong(offset + COUNTER_OFFSET));
+            }
+            if (current == state) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the stored signature counter of the credential
+     *
+     * @param credentialId credential id
+     * @return the stored signature counter, or -1 if the store does not have the credential
+     */
+    public long getCounter(@NonNull byte[] credentialId) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        int hash = hash(credentialId);
+        while (true) {
+            State current = state;
+            int offset = current.find(credentialId, hash);
+            if (offset >= 0) {
+                return current.data.getLong(offset + COUNTER_OFFSET);
+            }
+            if (current == state) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The store does not record counters of credentials it does not have, for which the initial counter is returned.
+     */
+    @Override
+    public long advance(@NonNull byte[] credentialId, long initialSignCount, long presentedSignCount) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        AssertUtil.isTrue(initialSignCount >= 0, "initialSignCount must not be negative");
+        AssertUtil.isTrue(presentedSignCount >= 0, "presentedSignCount must not be negative");
+        int hash = hash(credentialId);
+        ReentrantLock lock = counterLocks[hash & (COUNTER_LOCK_COUNT - 1)];
+        lock.lock();
+        try {
+            // compaction holds every counter lock, so that the state does not change from here on
+            State current = state;
+            int offset = current.find(credentialId, hash);
+            if (offset < 0) {
+                return initialSignCount;
+            }
+            long stored = current.data.getLong(offset + COUNTER_OFFSET);
+            if (presentedSignCount > stored) {
+                current.data.putLong(offset + COUNTER_OFFSET, presentedSignCount);
+                force(current.data, offset + COUNTER_OFFSET, 8);
+            }
+            return stored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored credentials
+     *
+     * @return the number of stored credentials
+     */
+    public int size() {
+        return state.size;
+    }
+
+    /**
+     * Returns the bytes of replaced and removed records, which {@link #compact()} reclaims
+     *
+     * @return the bytes of garbage records
+     */
+    public long getGarbageBytes() {
+        return state.garbageBytes;
+    }
+
+    /**
+     * Rewrites the live records to a new file, and atomically moves it into place. Not supported on Windows, which does
+     * not replace a mapped file.
+     */
+    public void compact() {
+        writeLock.lock();
+        for (ReentrantLock lock : counterLocks) {
+            lock.lock();
+        }
+        try {
+            assertNotClosed();
+            State current = state;
+            Path compactFile = file.resolveSibling(file.getFileName() + ".compact");
+            FileChannel channel = FileChannel.open(compactFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSizeFor(current.end - (int) current.garbageBytes));
+                data.putInt(0, MAGIC).putInt(4, FORMAT_VERSION);
+                State compacted = new State(channel, data, indexCapacityFor(current.size));
+                int end = FILE_HEADER_LENGTH;
+                for (int slot = 0; slot <= current.indexMask; slot++) {
+                    long entry = current.index.getLong(slot * 8);
+                    int offset = offsetOf(entry);
+                    if (entry == EMPTY || offset == (int) TOMBSTONE) {
+                        continue;
+                    }
+                    int recordLength = recordLength(current.data.getInt(offset));
+                    ByteBuffer record = current.data.duplicate();
+                    record.limit(offset + recordLength).position(offset);
+                    ByteBuffer target = data.duplicate();
+                    target.position(end);
+                    target.put(record);
+                    compacted.insert((int) (entry >>> 32), end);
+                    compacted.size++;
+                    end += recordLength;
+                }
+                compacted.end = end;
+                data.force();
+                Files.move(compactFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                // readers holding the previous state keep reading its mapping, which outlives the channel
+                state = compacted;
+                current.channel.close();
+            } catch (IOException | RuntimeException e) {
+                if (state == current) {
+                    channel.close();
+                    Files.deleteIfExists(compactFile);
+                }
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (ReentrantLock lock : counterLocks) {
+                lock.unlock();
+            }
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the mapped records, including the signature counters updated in place, to the storage device
+     */
+    public void flush() {
+        state.data.force();
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            State current = state;
+            current.data.force();
+            current.channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean append(@NonNull byte[] credentialId, @NonNull byte[] payload, long counter) {
+        int hash = hash(credentialId);
+        // the counter lock keeps a concurrent advance from updating the counter of the record being replaced
+        ReentrantLock counterLock = counterLocks[hash & (COUNTER_LOCK_COUNT - 1)];
+        writeLock.lock();
+        counterLock.lock();
+        try {
+            assertNotClosed();
+            State current = state;
+            int recordLength = recordLength(payload.length);
+            if ((long) current.end + recordLength > current.data.capacity()) {
+                current = grow(current, recordLength);
+            }
+            int offset = current.end;
+            CRC32 crc32 = new CRC32();
+            crc32.update(payload);
+            ByteBuffer target = current.data.duplicate();
+            target.position(offset + RECORD_HEADER_LENGTH);
+            target.put(payload);
+            current.data.putLong(offset + COUNTER_OFFSET, counter);
+            current.data.putInt(offset + 4, (int) crc32.getValue());
+            current.data.putInt(offset, payload.length);
+            // the record is published before the index points to it, so that a replaced credential never disappears for readers
+            current.end = offset + recordLength;
+
+            if (current.needsRebuild()) {
+                current = rebuildIndex(current);
+            }
+            boolean existed = current.apply(credentialId, hash, offset, payload[0] == OP_PUT);
+            if (payload[0] == OP_REMOVE) {
+                current.garbageBytes += recordLength;
+            }
+            return existed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            counterLock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    private @NonNull State grow(@NonNull State current, int recordLength) throws IOException {
+        long required = (long) current.end + recordLength;
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The credential store file exceeds 2 GiB. Compact it, or split the credentials.");
+        }
+        MappedByteBuffer data = current.channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSizeFor((int) required));
+        State grown = new State(current, data, current.index, current.indexMask);
+        state = grown;
+        return grown;
+    }
+
+    private @NonNull State rebuildIndex(@NonNull State current) {
+        State rebuilt = new State(current, current.data, null, 0);
+        rebuilt.allocateIndex(indexCapacityFor(current.size + 1));
+        for (int slot = 0; slot <= current.indexMask; slot++) {
+            long entry = current.index.getLong(slot * 8);
+            if (entry != EMPTY && offsetOf(entry) != (int) TOMBSTONE) {
+                rebuilt.insert((int) (entry >>> 32), offsetOf(entry));
+            }
+        }
+        state = rebuilt;
+        return rebuilt;
+    }
+
+    private @NonNull State open() throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("The credential store file exceeds 2 GiB");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSizeFor(Math.max((int) fileSize, FILE_HEADER_LENGTH)));
+            if (fileSize == 0) {
+                data.putInt(0, MAGIC).putInt(4, FORMAT_VERSION);
+            }
+            else if (fileSize < FILE_HEADER_LENGTH || data.getInt(0) != MAGIC || data.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("The file is not a credential store of a supported version: " + file);
+            }
+            State opened = new State(channel, data, INITIAL_INDEX_CAPACITY);
+            int offset = FILE_HEADER_LENGTH;
+            while (offset + RECORD_HEADER_LENGTH <= fileSize) {
+                int payloadLength = data.getInt(offset);
+                if (payloadLength <= CREDENTIAL_ID_OFFSET || (long) offset + recordLength(payloadLength) > fileSize) {
+                    break;
+                }
+                ByteBuffer payload = data.duplicate();
+                payload.limit(offset + RECORD_HEADER_LENGTH + payloadLength).position(offset + RECORD_HEADER_LENGTH);
+                CRC32 crc32 = new CRC32();
+                crc32.update(payload);
+                if ((int) crc32.getValue() != data.getInt(offset + 4)) {
+                    break;
+                }
+                byte op = data.get(offset + RECORD_HEADER_LENGTH);
+                int credentialIdLength = Short.toUnsignedInt(data.getShort(offset + RECORD_HEADER_LENGTH + CREDENTIAL_ID_LENGTH_OFFSET));
+                byte[] credentialId = new byte[credentialIdLength];
+                ByteBuffer credentialIdBuffer = data.duplicate();
+                credentialIdBuffer.position(offset + RECORD_HEADER_LENGTH + CREDENTIAL_ID_OFFSET);
+                credentialIdBuffer.get(credentialId);
+                opened.end = offset + recordLength(payloadLength);
+                if (opened.needsRebuild()) {
+                    opened = rebuildIndex(opened);
+                }
+                opened.apply(credentialId, hash(credentialId), offset, op == OP_PUT);
+                if (op == OP_REMOVE) {
+                    opened.garbageBytes += recordLength(payloadLength);
+                }
+                offset = opened.end;
+            }
+            opened.end = offset;
+            // a crash may leave a torn record and older bytes behind the end, which must not be read as records later
+            for (int i = offset; i < fileSize; i++) {
+                if (data.get(i) != 0) {
+                    data.put(i, (byte) 0);
+                }
+            }
+            return opened;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void assertNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("The credential store is closed");
+        }
+    }
+
+    private static void force(@NonNull MappedByteBuffer data, int index, int length) {
+        if (FORCE_REGION != null) {
+            try {
+                FORCE_REGION.invoke(data, index, length);
+                return;
+            } catch (IllegalAccessException e) {
+                // falls back to forcing the whole mapping
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        data.force();
+    }
+
+    private static @Nullable Method findForceRegion() {
+        try {
+            return MappedByteBuffer.class.getMethod("force", int.class, int.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static int recordLength(int payloadLength) {
+        // records are aligned to 8 bytes, so that the signature counter is read and written as a single aligned long
+        return (RECORD_HEADER_LENGTH + payloadLength + 7) & ~7;
+    }
+
+    private static long fileSizeFor(int length) {
+        long size = INITIAL_FILE_SIZE;
+        while (size < length) {
+            size <<= 1;
+        }
+        return Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private static int indexCapacityFor(int count) {
+        int capacity = INITIAL_INDEX_CAPACITY;
+        while (capacity < (long) count * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(@NonNull byte[] credentialId) {
+        int hash = Arrays.hashCode(credentialId);
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int offsetOf(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * The mapped log and the index over it. The index slots hold the hash of the credential id in the upper 32 bits and the
+     * record offset in the lower 32 bits. Fields other than end are written by the writer only, before the state is published
+     * or under the write lock.
+     */
+    private static class State {
+
+        private final FileChannel channel;
+        private final MappedByteBuffer data;
+        private ByteBuffer index;
+        private int indexMask;
+        private int usedSlots;
+        private volatile int end;
+        private volatile int size;
+        private volatile long garbageBytes;
+
+        State(@NonNull FileChannel channel, @NonNull MappedByteBuffer data, int indexCapacity) {
+            this.channel = channel;
+            this.data = data;
+            allocateIndex(indexCapacity);
+        }
+
+        State(@NonNull State source, @NonNull MappedByteBuffer data, @Nullable ByteBuffer index, int indexMask) {
+            this.channel = source.channel;
+            this.data = data;
+            this.index = index;
+            this.indexMask = indexMask;
+            this.usedSlots = source.usedSlots;
+            this.end = source.end;
+            this.size = source.size;
+            this.garbageBytes = source.garbageBytes;
+        }
+
+        void allocateIndex(int capacity) {
+            // the index is off the heap as well
+            this.index = ByteBuffer.allocateDirect(capacity * 8);
+            this.indexMask = capacity - 1;
+            this.usedSlots = 0;
+        }
+
+        boolean needsRebuild() {
+            // tombstones count as used, so that probing always ends at an empty slot
+            return (usedSlots + 1) * 4L > (indexMask + 1) * 3L;
+        }
+
+        int find(@NonNull byte[] credentialId, int hash) {
+            int visibleEnd = end;
+            for (int slot = hash & indexMask; ; slot = (slot + 1) & indexMask) {
+                long entry = index.getLong(slot * 8);
+                if (entry == EMPTY) {
+                    return -1;
+                }
+                int offset = offsetOf(entry);
+                if ((int) (entry >>> 32) != hash || offset == (int) TOMBSTONE) {
+                    continue;
+                }
+                if (offset >= visibleEnd) {
+                    // written by a concurrent writer after end was read
+                    visibleEnd = end;
+                    if (offset >= visibleEnd) {
+                        continue;
+                    }
+                }
+                if (matches(offset, credentialId)) {
+                    return offset;
+                }
+            }
+        }
+
+        private boolean matches(int offset, @NonNull byte[] credentialId) {
+            int payload = offset + RECORD_HEADER_LENGTH;
+            if (Short.toUnsignedInt(data.getShort(payload + CREDENTIAL_ID_LENGTH_OFFSET)) != credentialId.length) {
+                return false;
+            }
+            for (int i = 0; i < credentialId.length; i++) {
+                if (data.get(payload + CREDENTIAL_ID_OFFSET + i) != credentialId[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Points the slot of the credential to the record, or to a tombstone when the record removes it
+         *
+         * @return true if the credential existed
+         */
+        boolean apply(@NonNull byte[] credentialId, int hash, int offset, boolean put) {
+            int existing = find(credentialId, hash);
+            if (existing >= 0) {
+                garbageBytes += recordLength(data.getInt(existing));
+                for (int slot = hash & indexMask; ; slot = (slot + 1) & indexMask) {
+                    long entry = index.getLong(slot * 8);
+                    if (offsetOf(entry) == existing && (int) (entry >>> 32) == hash) {
+                        index.putLong(slot * 8, ((long) hash << 32) | ((put ? offset : TOMBSTONE) & 0xffffffffL));
+                        break;
+                    }
+                }
+                if (!put) {
+                    size--;
+                }
+                return true;
+            }
+            if (put) {
+                insert(hash, offset);
+                size++;
+            }
+            return false;
+        }
+
+        void insert(int hash, int offset) {
+            for (int slot = hash & indexMask; ; slot = (slot + 1) & indexMask) {
+                if (index.getLong(slot * 8) == EMPTY) {
+                    index.putLong(slot * 8, ((long) hash << 32) | (offset & 0xffffffffL));
+                    usedSlots++;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Authenticator of a stored credential, whose counter setter advances the stored counter. The store is not serialized,
+     * so that a deserialized authenticator only updates its own counter.
+     */
+    private static class StoredAuthenticator implements Authenticator {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient MappedCredentialStore store;
+        private final AttestedCredentialData attestedCredentialData;
+        private long counter;
+
+        StoredAuthenticator(@NonNull MappedCredentialStore store, @NonNull AttestedCredentialData attestedCredentialData, long counter) {
+            this.store = store;
+            this.attestedCredentialData = attestedCredentialData;
+            this.counter = counter;
+        }
+
+        @Override
+        public @NonNull AttestedCredentialData getAttestedCredentialData() {
+            return attestedCredentialData;
+        }
+
+        @Override
+        public long getCounter() {
+            return counter;
+        }
+
+        @Override
+        public void setCounter(long value) {
+            if (store != null) {
+                store.advance(attestedCredentialData.getCredentialId(), value, value);
+            }
+            this.counter = value;
+        }
+    }
+}
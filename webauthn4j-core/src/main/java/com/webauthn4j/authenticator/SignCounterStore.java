@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.authenticator;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Store of the signature counters of credentials, which the authentication validators advance atomically, so that
+ * parallel assertions of the same credential cannot both pass the signature counter check.
+ *
+ * @see InMemorySignCounterStore
+ */
+public interface SignCounterStore {
+
+    /**
+     * Atomically reads the stored signature counter of the credential, and replaces it with the presented one if the
+     * presented one is greater.
+     *
+     * @param credentialId       credential id
+     * @param initialSignCount   signature counter used as the stored one if the store has no counter of the credential yet,
+     *                           typically {@link CoreAuthenticator#getCounter()}
+     * @param presentedSignCount signature counter presented by the authenticator
+     * @return the stored signature counter before the call
+     */
+    long advance(@NonNull byte[] credentialId, long initialSignCount, long presentedSignCount);
+}
@@ -27,15 +27,20 @@ import com.webauthn4j.util.Base64UrlUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
 /**
  * Converter for {@link AttestationObject}
  */
 public class AttestationObjectConverter {
 
     private static final String SOURCE_NULL_CHECK_MESSAGE = "source must not be null";
+    private static final String AUTH_DATA_KEY = "authData";
 
     // ~ Instance fields
     // ================================================================================================
+    private final ObjectConverter objectConverter;
     private final CborConverter cborConverter;
 
     // ~ Constructors
@@ -43,6 +48,7 @@ public class AttestationObjectConverter {
 
     public AttestationObjectConverter(@NonNull ObjectConverter objectConverter) {
         AssertUtil.notNull(objectConverter, "objectConverter must not be null");
+        this.objectConverter = objectConverter;
         this.cborConverter = objectConverter.getCborConverter();
     }
 
@@ -118,7 +124,14 @@ public class AttestationObjectConverter {
      */
     public @Nullable byte[] extractAuthenticatorData(@NonNull byte[] attestationObject) {
         AssertUtil.notNull(attestationObject, "attestationObject must not be null");
-        JsonNode authData = cborConverter.readTree(attestationObject).get("authData");
+        if (objectConverter.isCborFastPathEnabled()) {
+            try {
+                return readAuthenticatorData(new CborReader(ByteBuffer.wrap(attestationObject)));
+            } catch (CborReader.UnsupportedCborException | BufferUnderflowException e) {
+                // falls back to the tree model, which reports malformed input as before
+            }
+        }
+        JsonNode authData = cborConverter.readTree(attestationObject).get(AUTH_DATA_KEY);
         return JacksonUtil.binaryValue(authData);
     }
 
@@ -134,5 +147,25 @@ public class AttestationObjectConverter {
         return cborConverter.writeValueAsBytes(attStmt);
     }
 
+    private @NonNull byte[] readAuthenticatorData(@NonNull CborReader reader) {
+        int size = reader.readMapHeader();
+        byte[] authData = null;
+        for (int i = 0; reader.hasNext(size, i); i++) {
+            String key = reader.readTextString();
+            if (AUTH_DATA_KEY.equals(key)) {
+                if (authData != null) {
+                    throw new CborReader.UnsupportedCborException();
+                }
+                authData = reader.readByteString();
+            }
+            else {
+                reader.skip();
+            }
+        }
+        if (authData == null) {
+            throw new CborReader.UnsupportedCborException();
+        }
+        return authData;
+    }
 
 }
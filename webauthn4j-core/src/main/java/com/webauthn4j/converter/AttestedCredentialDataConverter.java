@@ -20,15 +20,16 @@ import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.converter.jackson.deserializer.COSEKeyEnvelope;
 import com.webauthn4j.converter.util.CborConverter;
 import com.webauthn4j.converter.util.ObjectConverter;
-import com.webauthn4j.data.attestation.authenticator.AAGUID;
-import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
-import com.webauthn4j.data.attestation.authenticator.COSEKey;
+import com.webauthn4j.data.attestation.authenticator.*;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.attestation.statement.COSEKeyType;
 import com.webauthn4j.util.AssertUtil;
 import com.webauthn4j.util.UnsignedNumberUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.*;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
@@ -43,10 +44,14 @@ public class AttestedCredentialDataConverter implements Serializable {
     private static final int L_INDEX = AAGUID_INDEX + AAGUID_LENGTH;
     private static final int CREDENTIAL_ID_INDEX = L_INDEX + L_LENGTH;
 
+    private static final int COSE_KEY_PARAMETER_COUNT = 8;
+
+    private final ObjectConverter objectConverter;
     private final CborConverter cborConverter;
 
     public AttestedCredentialDataConverter(@NonNull ObjectConverter objectConverter) {
         AssertUtil.notNull(objectConverter, "objectConverter must not be null");
+        this.objectConverter = objectConverter;
         this.cborConverter = objectConverter.getCborConverter();
     }
 
@@ -88,16 +93,9 @@ public class AttestedCredentialDataConverter implements Serializable {
             int length = UnsignedNumberUtil.getUnsignedShort(attestedCredentialData);
             byte[] credentialId = new byte[length];
             attestedCredentialData.get(credentialId, 0, length);
-            byte[] remaining = new byte[attestedCredentialData.remaining()];
-            attestedCredentialData.get(remaining);
-            ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(remaining);
-            COSEKeyEnvelope coseKeyEnvelope = convertToCredentialPublicKey(byteArrayInputStream);
-            COSEKey coseKey = coseKeyEnvelope.getCOSEKey();
+            COSEKey coseKey = convertToCredentialPublicKey(attestedCredentialData);
             assertCoseKey(coseKey);
-            AttestedCredentialData result = createAttestedCredentialData(aaguid, credentialId, coseKey);
-            int extensionsBufferLength = remaining.length - coseKeyEnvelope.getLength();
-            attestedCredentialData.position(attestedCredentialData.position() - extensionsBufferLength);
-            return result;
+            return createAttestedCredentialData(aaguid, credentialId, coseKey);
         } catch (IllegalArgumentException e) {
             throw new DataConversionException(e);
         }
@@ -125,12 +123,100 @@ public class AttestedCredentialDataConverter implements Serializable {
         return Arrays.copyOfRange(attestedCredentialData, CREDENTIAL_ID_INDEX, CREDENTIAL_ID_INDEX + credentialIdLength);
     }
 
+    /**
+     * Reads a credential public key from the current position of the buffer, and advances the position past it.
+     *
+     * @param buffer buffer positioned at the credential public key
+     * @return the credential public key
+     */
+    @Nullable COSEKey convertToCredentialPublicKey(@NonNull ByteBuffer buffer) {
+        int start = buffer.position();
+        if (objectConverter.isCborFastPathEnabled()) {
+            try {
+                return readCOSEKey(new CborReader(buffer));
+            } catch (CborReader.UnsupportedCborException | BufferUnderflowException | IllegalArgumentException e) {
+                buffer.position(start);
+            }
+        }
+        InputStream inputStream;
+        if (buffer.hasArray()) {
+            inputStream = new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + start, buffer.remaining());
+        }
+        else {
+            byte[] remaining = new byte[buffer.remaining()];
+            buffer.get(remaining);
+            inputStream = new ByteArrayInputStream(remaining);
+        }
+        COSEKeyEnvelope coseKeyEnvelope = convertToCredentialPublicKey(inputStream);
+        buffer.position(start + coseKeyEnvelope.getLength());
+        return coseKeyEnvelope.getCOSEKey();
+    }
+
     @NonNull COSEKeyEnvelope convertToCredentialPublicKey(@NonNull InputStream inputStream) {
         AssertUtil.notNull(inputStream, "inputStream must not be null");
         //noinspection ConstantConditions as input stream is not null
         return cborConverter.readValue(inputStream, COSEKeyEnvelope.class);
     }
 
+    /**
+     * Reads an EC2 or RSA COSE_Key holding only the parameters {@link EC2COSEKey} and {@link RSACOSEKey} are created from.
+     * Other keys, such as ones with key_ops or Base IV, are left to Jackson by throwing {@link CborReader.UnsupportedCborException}.
+     */
+    private @NonNull COSEKey readCOSEKey(@NonNull CborReader reader) {
+        int size = reader.readMapHeader();
+        Long keyType = null;
+        byte[] keyId = null;
+        COSEAlgorithmIdentifier algorithm = null;
+        // parameters labeled -1 to -8, whose meaning depends on the key type
+        Object[] parameters = new Object[COSE_KEY_PARAMETER_COUNT];
+        for (int i = 0; reader.hasNext(size, i); i++) {
+            long label = reader.readInteger();
+            if (label == 1 && keyType == null) {
+                keyType = reader.readInteger();
+            }
+            else if (label == 2 && keyId == null) {
+                keyId = reader.readByteString();
+            }
+            else if (label == 3 && algorithm == null) {
+                algorithm = COSEAlgorithmIdentifier.create(reader.readInteger());
+            }
+            else if (label < 0 && label >= -COSE_KEY_PARAMETER_COUNT && parameters[(int) (-label - 1)] == null) {
+                parameters[(int) (-label - 1)] = reader.peekMajorType() == CborReader.MAJOR_TYPE_BYTE_STRING ? reader.readByteString() : reader.readInteger();
+            }
+            else {
+                throw new CborReader.UnsupportedCborException();
+            }
+        }
+        if (keyType == null) {
+            throw new CborReader.UnsupportedCborException();
+        }
+        if (keyType == COSEKeyType.EC2.getValue()) {
+            // EC2 keys have parameters only up to -4 (d)
+            if (!(parameters[0] instanceof Long) || ((Long) parameters[0]) > Integer.MAX_VALUE || ((Long) parameters[0]) < Integer.MIN_VALUE
+                    || parameters[4] != null || parameters[5] != null || parameters[6] != null || parameters[7] != null) {
+                throw new CborReader.UnsupportedCborException();
+            }
+            Curve curve = Curve.create(((Long) parameters[0]).intValue());
+            return new EC2COSEKey(keyId, algorithm, null, curve, getBytesParameter(parameters, 1), getBytesParameter(parameters, 2), getBytesParameter(parameters, 3));
+        }
+        else if (keyType == COSEKeyType.RSA.getValue()) {
+            return new RSACOSEKey(keyId, algorithm, null,
+                    getBytesParameter(parameters, 0), getBytesParameter(parameters, 1), getBytesParameter(parameters, 2), getBytesParameter(parameters, 3),
+                    getBytesParameter(parameters, 4), getBytesParameter(parameters, 5), getBytesParameter(parameters, 6), getBytesParameter(parameters, 7));
+        }
+        else {
+            throw new CborReader.UnsupportedCborException();
+        }
+    }
+
+    private static @Nullable byte[] getBytesParameter(@NonNull Object[] parameters, int index) {
+        Object parameter = parameters[index];
+        if (parameter != null && !(parameter instanceof byte[])) {
+            throw new CborReader.UnsupportedCborException();
+        }
+        return (byte[]) parameter;
+    }
+
     @NonNull byte[] convert(@NonNull COSEKey coseKey) {
         assertCoseKey(coseKey);
         return cborConverter.writeValueAsBytes(coseKey);
@@ -19,11 +19,11 @@ package com.webauthn4j.converter;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.converter.jackson.deserializer.AuthenticationExtensionsAuthenticatorOutputsEnvelope;
-import com.webauthn4j.converter.jackson.deserializer.COSEKeyEnvelope;
 import com.webauthn4j.converter.util.CborConverter;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
 import com.webauthn4j.data.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.data.attestation.authenticator.AuthenticatorDataView;
 import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
 import com.webauthn4j.data.extension.authenticator.ExtensionAuthenticatorOutput;
 import com.webauthn4j.util.AssertUtil;
@@ -147,6 +147,22 @@ public class AuthenticatorDataConverter {
         }
     }
 
+    /**
+     * Converts from a byte array to {@link AuthenticatorData} without decoding it up front when possible.
+     * Authenticator data without attested credential data and extensions is returned as an {@link AuthenticatorDataView}
+     * over the source byte array, which must not be modified afterwards. Other data is converted by {@link #convert(byte[])}.
+     *
+     * @param <T>    ExtensionAuthenticatorOutput
+     * @param source the source byte array to convert
+     * @return the converted object
+     */
+    public <T extends ExtensionAuthenticatorOutput> @NonNull AuthenticatorData<T> convertLazily(@NonNull byte[] source) {
+        if (AuthenticatorDataView.isViewable(source)) {
+            return new AuthenticatorDataView<>(source);
+        }
+        return convert(source);
+    }
+
     /**
      * Extract attestedCredData byte array from a authenticatorData byte array.
      *
@@ -158,10 +174,10 @@ public class AuthenticatorDataConverter {
         int credentialIdLength = UnsignedNumberUtil.getUnsignedShort(lengthBytes);
         int credentialPublicKeyIndex = CREDENTIAL_ID_INDEX + credentialIdLength;
 
-        byte[] attestedCredentialDataBytes = Arrays.copyOfRange(authenticatorData, credentialPublicKeyIndex, authenticatorData.length);
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(attestedCredentialDataBytes);
-        COSEKeyEnvelope coseKeyEnvelope = attestedCredentialDataConverter.convertToCredentialPublicKey(byteArrayInputStream);
-        int credentialPublicKeyLength = coseKeyEnvelope.getLength();
+        ByteBuffer byteBuffer = ByteBuffer.wrap(authenticatorData);
+        byteBuffer.position(credentialPublicKeyIndex);
+        attestedCredentialDataConverter.convertToCredentialPublicKey(byteBuffer);
+        int credentialPublicKeyLength = byteBuffer.position() - credentialPublicKeyIndex;
         int attestedCredentialDataLength = AAGUID_LENGTH + L_LENGTH + credentialIdLength + credentialPublicKeyLength;
         return Arrays.copyOfRange(authenticatorData, ATTESTED_CREDENTIAL_DATA_INDEX, ATTESTED_CREDENTIAL_DATA_INDEX + attestedCredentialDataLength);
     }
@@ -192,17 +208,25 @@ public class AuthenticatorDataConverter {
         if (byteBuffer.remaining() == 0) {
             return new AuthenticationExtensionsAuthenticatorOutputs<>();
         }
-        byte[] remaining = new byte[byteBuffer.remaining()];
-        byteBuffer.get(remaining);
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(remaining);
+        int start = byteBuffer.position();
+        ByteArrayInputStream byteArrayInputStream;
+        if (byteBuffer.hasArray()) {
+            // read the backing array in place instead of copying the remaining bytes
+            byteArrayInputStream = new ByteArrayInputStream(byteBuffer.array(), byteBuffer.arrayOffset() + start, byteBuffer.remaining());
+        }
+        else {
+            byte[] remaining = new byte[byteBuffer.remaining()];
+            byteBuffer.get(remaining);
+            byteArrayInputStream = new ByteArrayInputStream(remaining);
+        }
         AuthenticationExtensionsAuthenticatorOutputsEnvelope<T> envelope =
                 cborConverter.readValue(byteArrayInputStream, new TypeReference<AuthenticationExtensionsAuthenticatorOutputsEnvelope<T>>() {
                 });
         if (envelope == null) {
+            byteBuffer.position(byteBuffer.limit());
             return null;
         }
-        int leftoverLength = remaining.length - envelope.getLength();
-        byteBuffer.position(byteBuffer.position() - leftoverLength);
+        byteBuffer.position(start + envelope.getLength());
         return envelope.getAuthenticationExtensionsAuthenticatorOutputs();
     }
 
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal CBOR reader for the fixed-layout WebAuthn structures (COSE_Key, attestation object).
+ * It reads data items directly from a {@link ByteBuffer} without building a token stream.
+ * Anything outside that subset (indefinite-length strings, tags, big integers, unexpected types) is reported by
+ * {@link UnsupportedCborException}, so that the caller can rewind the buffer and fall back to Jackson,
+ * which then produces the same result or error as before.
+ */
+class CborReader {
+
+    static final int MAJOR_TYPE_UNSIGNED_INTEGER = 0;
+    static final int MAJOR_TYPE_NEGATIVE_INTEGER = 1;
+    static final int MAJOR_TYPE_BYTE_STRING = 2;
+    static final int MAJOR_TYPE_TEXT_STRING = 3;
+    static final int MAJOR_TYPE_ARRAY = 4;
+    static final int MAJOR_TYPE_MAP = 5;
+    static final int MAJOR_TYPE_TAG = 6;
+    static final int MAJOR_TYPE_SIMPLE = 7;
+
+    /**
+     * Size returned by {@link #readMapHeader()} and {@link #readArrayHeader()} for indefinite-length items
+     */
+    static final int INDEFINITE_LENGTH = -1;
+
+    private static final int ADDITIONAL_INFO_MASK = 0x1F;
+    private static final int ONE_BYTE_ARGUMENT = 24;
+    private static final int TWO_BYTES_ARGUMENT = 25;
+    private static final int FOUR_BYTES_ARGUMENT = 26;
+    private static final int EIGHT_BYTES_ARGUMENT = 27;
+    private static final int INDEFINITE_LENGTH_ARGUMENT = 31;
+    private static final byte BREAK = (byte) 0xFF;
+
+    // Nesting of WebAuthn structures is shallow; deeper input is left to Jackson
+    private static final int MAX_DEPTH = 16;
+
+    private final ByteBuffer buffer;
+
+    CborReader(@NonNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    int peekMajorType() {
+        return (peek() & 0xFF) >>> 5;
+    }
+
+    long readInteger() {
+        int majorType = peekMajorType();
+        if (majorType != MAJOR_TYPE_UNSIGNED_INTEGER && majorType != MAJOR_TYPE_NEGATIVE_INTEGER) {
+            throw new UnsupportedCborException();
+        }
+        long argument = readArgument(majorType);
+        return majorType == MAJOR_TYPE_UNSIGNED_INTEGER ? argument : -1 - argument;
+    }
+
+    @NonNull byte[] readByteString() {
+        int length = readLength(MAJOR_TYPE_BYTE_STRING);
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    @NonNull String readTextString() {
+        int length = readLength(MAJOR_TYPE_TEXT_STRING);
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    int readMapHeader() {
+        return readContainerLength(MAJOR_TYPE_MAP);
+    }
+
+    int readArrayHeader() {
+        return readContainerLength(MAJOR_TYPE_ARRAY);
+    }
+
+    /**
+     * Returns whether the map or array being read has another entry, consuming the break code of indefinite-length items.
+     *
+     * @param size  size returned by {@link #readMapHeader()} or {@link #readArrayHeader()}
+     * @param index number of entries already read
+     * @return true if there is another entry
+     */
+    boolean hasNext(int size, int index) {
+        if (size != INDEFINITE_LENGTH) {
+            return index < size;
+        }
+        if (peek() == BREAK) {
+            buffer.get();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Skips the next data item including its nested items.
+     */
+    void skip() {
+        skip(0);
+    }
+
+    private void skip(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new UnsupportedCborException();
+        }
+        int majorType = peekMajorType();
+        switch (majorType) {
+            case MAJOR_TYPE_UNSIGNED_INTEGER:
+            case MAJOR_TYPE_NEGATIVE_INTEGER:
+                readArgument(majorType);
+                return;
+            case MAJOR_TYPE_BYTE_STRING:
+            case MAJOR_TYPE_TEXT_STRING:
+                int length = readLength(majorType);
+                buffer.position(buffer.position() + length);
+                return;
+            case MAJOR_TYPE_ARRAY:
+                int arraySize = readArrayHeader();
+                for (int i = 0; hasNext(arraySize, i); i++) {
+                    skip(depth + 1);
+                }
+                return;
+            case MAJOR_TYPE_MAP:
+                int mapSize = readMapHeader();
+                for (int i = 0; hasNext(mapSize, i); i++) {
+                    skip(depth + 1);
+                    skip(depth + 1);
+                }
+                return;
+            case MAJOR_TYPE_SIMPLE:
+                // simple values and floats carry no nested items; their argument width is the whole payload
+                readArgument(majorType);
+                return;
+            default:
+                throw new UnsupportedCborException();
+        }
+    }
+
+    private byte peek() {
+        if (!buffer.hasRemaining()) {
+            throw new BufferUnderflowException();
+        }
+        return buffer.get(buffer.position());
+    }
+
+    private int readContainerLength(int expectedMajorType) {
+        if (peekMajorType() == expectedMajorType && (peek() & ADDITIONAL_INFO_MASK) == INDEFINITE_LENGTH_ARGUMENT) {
+            buffer.get();
+            return INDEFINITE_LENGTH;
+        }
+        return readLength(expectedMajorType);
+    }
+
+    private int readLength(int expectedMajorType) {
+        if (peekMajorType() != expectedMajorType) {
+            throw new UnsupportedCborException();
+        }
+        long length = readArgument(expectedMajorType);
+        // a length larger than the remaining data cannot be valid for strings, and is an upper bound for containers
+        if (length > buffer.remaining()) {
+            throw new UnsupportedCborException();
+        }
+        return (int) length;
+    }
+
+    private long readArgument(int majorType) {
+        int additionalInfo = buffer.get() & ADDITIONAL_INFO_MASK;
+        if (additionalInfo < ONE_BYTE_ARGUMENT) {
+            return additionalInfo;
+        }
+        switch (additionalInfo) {
+            case ONE_BYTE_ARGUMENT:
+                return buffer.get() & 0xFFL;
+            case TWO_BYTES_ARGUMENT:
+                return buffer.getShort() & 0xFFFFL;
+            case FOUR_BYTES_ARGUMENT:
+                return buffer.getInt() & 0xFFFFFFFFL;
+            case EIGHT_BYTES_ARGUMENT:
+                long value = buffer.getLong();
+                // values beyond the signed long range are not handled here
+                if (value < 0 && majorType != MAJOR_TYPE_SIMPLE) {
+                    throw new UnsupportedCborException();
+                }
+                return value;
+            default:
+                // reserved values, indefinite-length strings and the break code
+                throw new UnsupportedCborException();
+        }
+    }
+
+    /**
+     * Signals that the input is outside of the subset this reader handles. It is not a data error.
+     */
+    static class UnsupportedCborException extends RuntimeException {
+
+        UnsupportedCborException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.authenticator.CoreAuthenticator;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.converter.util.CborConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.authenticator.COSEKey;
+import com.webauthn4j.data.attestation.statement.AttestationStatement;
+import com.webauthn4j.data.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
+import com.webauthn4j.data.extension.authenticator.RegistrationExtensionAuthenticatorOutput;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientOutputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.UnsignedNumberUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Codec for a compact, versioned binary layout of a stored credential record, an alternative to Java serialization or
+ * JSON/CBOR through {@link ObjectConverter} for persisting {@link AuthenticatorImpl}s.
+ * <p>
+ * The layout is a version byte, a flags byte, the AAGUID, the credential id and the COSE key in its raw CBOR form, both
+ * with an unsigned 16 bit length, and the counter as an unsigned 32 bit integer. The known transports follow as a
+ * bitmask, and the other transports, the attestation statement, the authenticator extensions and the client extensions
+ * follow as raw bytes with their lengths, each only if its flag is set.
+ * <p>
+ * A record is read in a single pass. The COSE key is read by the built-in CBOR reader, so that Jackson is used only for
+ * the optional sections, and for the attestation statement only when it is requested.
+ */
+public class CredentialRecordCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_TRANSPORTS = 0x01;
+    private static final int FLAG_OTHER_TRANSPORTS = 0x02;
+    private static final int FLAG_ATTESTATION_STATEMENT = 0x04;
+    private static final int FLAG_AUTHENTICATOR_EXTENSIONS = 0x08;
+    private static final int FLAG_CLIENT_EXTENSIONS = 0x10;
+
+    // the bit of a transport in the bitmask is its index
+    private static final AuthenticatorTransport[] KNOWN_TRANSPORTS = {
+            AuthenticatorTransport.USB, AuthenticatorTransport.NFC, AuthenticatorTransport.BLE, AuthenticatorTransport.INTERNAL
+    };
+
+    private static final int AAGUID_LENGTH = 16;
+
+    private final CborConverter cborConverter;
+    private final AttestedCredentialDataConverter attestedCredentialDataConverter;
+    private final AuthenticatorDataConverter authenticatorDataConverter;
+    private final AuthenticationExtensionsClientOutputsConverter authenticationExtensionsClientOutputsConverter;
+
+    public CredentialRecordCodec(@NonNull ObjectConverter objectConverter) {
+        AssertUtil.notNull(objectConverter, "objectConverter must not be null");
+        this.cborConverter = objectConverter.getCborConverter();
+        this.attestedCredentialDataConverter = new AttestedCredentialDataConverter(objectConverter);
+        this.authenticatorDataConverter = new AuthenticatorDataConverter(objectConverter);
+        this.authenticationExtensionsClientOutputsConverter = new AuthenticationExtensionsClientOutputsConverter(objectConverter);
+    }
+
+    /**
+     * Encodes the credential record, including its attestation statement
+     *
+     * @param authenticator credential record
+     * @return the encoded record
+     */
+    public @NonNull byte[] encode(@NonNull CoreAuthenticator authenticator) {
+        return encode(authenticator, true);
+    }
+
+    /**
+     * Encodes the credential record
+     *
+     * @param authenticator               credential record
+     * @param includeAttestationStatement false to leave out the attestation statement, which is usually the largest part
+     *                                    of the record and is not needed to validate authentications
+     * @return the encoded record
+     */
+    public @NonNull byte[] encode(@NonNull CoreAuthenticator authenticator, boolean includeAttestationStatement) {
+        try {
+            AssertUtil.notNull(authenticator, "authenticator must not be null");
+            AttestedCredentialData attestedCredentialData = authenticator.getAttestedCredentialData();
+            AssertUtil.notNull(attestedCredentialData, "attestedCredentialData must not be null");
+            byte[] credentialId = attestedCredentialData.getCredentialId();
+            byte[] coseKey = attestedCredentialDataConverter.convert(attestedCredentialData.getCOSEKey());
+            AssertUtil.isTrue(UnsignedNumberUtil.isWithinUnsignedShort(credentialId.length), "credentialId is too long");
+            AssertUtil.isTrue(UnsignedNumberUtil.isWithinUnsignedShort(coseKey.length), "coseKey is too long");
+            AssertUtil.isTrue(UnsignedNumberUtil.isWithinUnsignedInt(authenticator.getCounter()), "counter is out of the unsigned 32-bit range");
+
+            int flags = 0;
+            int transportBits = 0;
+            List<byte[]> otherTransports = new ArrayList<>();
+            byte[] attestationStatement = null;
+            byte[] authenticatorExtensions = null;
+            byte[] clientExtensions = null;
+            int length = 2 + AAGUID_LENGTH + 2 + credentialId.length + 2 + coseKey.length + 4;
+
+            Set<AuthenticatorTransport> transports = authenticator instanceof Authenticator ? ((Authenticator) authenticator).getTransports() : null;
+            if (transports != null) {
+                flags |= FLAG_TRANSPORTS;
+                length += 1;
+                for (AuthenticatorTransport transport : transports) {
+                    int index = indexOf(transport);
+                    if (index >= 0) {
+                        transportBits |= 1 << index;
+                    }
+                    else {
+                        byte[] value = transport.getValue().getBytes(StandardCharsets.UTF_8);
+                        AssertUtil.isTrue(UnsignedNumberUtil.isWithinUnsignedByte(value.length), "transport is too long");
+                        otherTransports.add(value);
+                        length += 1 + value.length;
+                    }
+                }
+                if (!otherTransports.isEmpty()) {
+                    AssertUtil.isTrue(UnsignedNumberUtil.isWithinUnsignedByte(otherTransports.size()), "too many transports");
+                    flags |= FLAG_OTHER_TRANSPORTS;
+                    length += 1;
+                }
+            }
+            if (includeAttestationStatement && authenticator.getAttestationStatement() != null) {
+                flags |= FLAG_ATTESTATION_STATEMENT;
+                attestationStatement = cborConverter.writeValueAsBytes(new AttestationStatementEnvelope(authenticator.getAttestationStatement()));
+                length += 4 + attestationStatement.length;
+            }
+            if (authenticator.getAuthenticatorExtensions() != null && !authenticator.getAuthenticatorExtensions().getKeys().isEmpty()) {
+                flags |= FLAG_AUTHENTICATOR_EXTENSIONS;
+                authenticatorExtensions = authenticatorDataConverter.convert(authenticator.getAuthenticatorExtensions());
+                length += 4 + authenticatorExtensions.length;
+            }
+            AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> clientExtensionOutputs =
+                    authenticator instanceof Authenticator ? ((Authenticator) authenticator).getClientExtensions() : null;
+            if (clientExtensionOutputs != null && !clientExtensionOutputs.getKeys().isEmpty()) {
+                flags |= FLAG_CLIENT_EXTENSIONS;
+                clientExtensions = authenticationExtensionsClientOutputsConverter.convertToString(clientExtensionOutputs).getBytes(StandardCharsets.UTF_8);
+                length += 4 + clientExtensions.length;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            buffer.put(VERSION);
+            buffer.put((byte) flags);
+            buffer.put(attestedCredentialData.getAaguid().getBytes());
+            buffer.putShort((short) credentialId.length).put(credentialId);
+            buffer.putShort((short) coseKey.length).put(coseKey);
+            buffer.putInt((int) authenticator.getCounter());
+            if ((flags & FLAG_TRANSPORTS) != 0) {
+                buffer.put((byte) transportBits);
+            }
+            if ((flags & FLAG_OTHER_TRANSPORTS) != 0) {
+                buffer.put((byte) otherTransports.size());
+                for (byte[] value : otherTransports) {
+                    buffer.put((byte) value.length).put(value);
+                }
+            }
+            putBlob(buffer, attestationStatement);
+            putBlob(buffer, authenticatorExtensions);
+            putBlob(buffer, clientExtensions);
+            return buffer.array();
+        } catch (IllegalArgumentException e) {
+            throw new DataConversionException(e);
+        }
+    }
+
+    /**
+     * Decodes the credential record, including its attestation statement
+     *
+     * @param record encoded record
+     * @return the credential record
+     */
+    public @NonNull AuthenticatorImpl decode(@NonNull byte[] record) {
+        return decode(record, true);
+    }
+
+    /**
+     * Decodes the credential record
+     *
+     * @param record                     encoded record
+     * @param decodeAttestationStatement false to skip the attestation statement, which is not needed to validate
+     *                                   authentications. The attestation statement of the returned record is null then.
+     * @return the credential record
+     */
+    public @NonNull AuthenticatorImpl decode(@NonNull byte[] record, boolean decodeAttestationStatement) {
+        try {
+            AssertUtil.notNull(record, "record must not be null");
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new DataConversionException("Unsupported credential record version: " + version);
+            }
+            int flags = UnsignedNumberUtil.getUnsignedByte(buffer.get());
+
+            byte[] aaguidBytes = new byte[AAGUID_LENGTH];
+            buffer.get(aaguidBytes);
+            byte[] credentialId = new byte[UnsignedNumberUtil.getUnsignedShort(buffer)];
+            buffer.get(credentialId);
+            int coseKeyLength = UnsignedNumberUtil.getUnsignedShort(buffer);
+            int coseKeyEnd = buffer.position() + coseKeyLength;
+            ByteBuffer coseKeyBuffer = (ByteBuffer) buffer.duplicate().limit(coseKeyEnd);
+            COSEKey coseKey = attestedCredentialDataConverter.convertToCredentialPublicKey(coseKeyBuffer);
+            AssertUtil.notNull(coseKey, "coseKey must not be null");
+            buffer.position(coseKeyEnd);
+            long counter = UnsignedNumberUtil.getUnsignedInt(buffer);
+
+            Set<AuthenticatorTransport> transports = null;
+            if ((flags & FLAG_TRANSPORTS) != 0) {
+                transports = new HashSet<>();
+                int transportBits = UnsignedNumberUtil.getUnsignedByte(buffer.get());
+                for (int i = 0; i < KNOWN_TRANSPORTS.length; i++) {
+                    if ((transportBits & (1 << i)) != 0) {
+                        transports.add(KNOWN_TRANSPORTS[i]);
+                    }
+                }
+            }
+            if ((flags & FLAG_OTHER_TRANSPORTS) != 0) {
+                int count = UnsignedNumberUtil.getUnsignedByte(buffer.get());
+                for (int i = 0; i < count; i++) {
+                    byte[] value = new byte[UnsignedNumberUtil.getUnsignedByte(buffer.get())];
+                    buffer.get(value);
+                    //noinspection ConstantConditions as FLAG_OTHER_TRANSPORTS is written only with FLAG_TRANSPORTS
+                    transports.add(AuthenticatorTransport.create(new String(value, StandardCharsets.UTF_8)));
+                }
+            }
+
+            AttestationStatement attestationStatement = null;
+            if ((flags & FLAG_ATTESTATION_STATEMENT) != 0) {
+                int attestationStatementLength = getLength(buffer);
+                if (decodeAttestationStatement) {
+                    AttestationStatementEnvelope envelope = cborConverter.readValue(
+                            new ByteArrayInputStream(record, buffer.position(), attestationStatementLength), AttestationStatementEnvelope.class);
+                    AssertUtil.notNull(envelope, "attestationStatement must not be null");
+                    attestationStatement = envelope.getAttestationStatement();
+                }
+                buffer.position(buffer.position() + attestationStatementLength);
+            }
+            AuthenticationExtensionsAuthenticatorOutputs<RegistrationExtensionAuthenticatorOutput> authenticatorExtensions = new AuthenticationExtensionsAuthenticatorOutputs<>();
+            if ((flags & FLAG_AUTHENTICATOR_EXTENSIONS) != 0) {
+                int authenticatorExtensionsLength = getLength(buffer);
+                int end = buffer.position() + authenticatorExtensionsLength;
+                authenticatorExtensions = authenticatorDataConverter.convertToExtensions((ByteBuffer) buffer.duplicate().limit(end));
+                buffer.position(end);
+            }
+            AuthenticationExtensionsClientOutputs<RegistrationExtensionClientOutput> clientExtensions = new AuthenticationExtensionsClientOutputs<>();
+            if ((flags & FLAG_CLIENT_EXTENSIONS) != 0) {
+                int clientExtensionsLength = getLength(buffer);
+                String value = new String(record, buffer.position(), clientExtensionsLength, StandardCharsets.UTF_8);
+                clientExtensions = authenticationExtensionsClientOutputsConverter.convert(value);
+                buffer.position(buffer.position() + clientExtensionsLength);
+            }
+            if (buffer.hasRemaining()) {
+                throw new DataConversionException("Unexpected trailing bytes in the credential record");
+            }
+
+            AttestedCredentialData attestedCredentialData = new AttestedCredentialData(new AAGUID(aaguidBytes), credentialId, coseKey);
+            // the constructor requires an attestation statement, while a stored record may have none
+            AuthenticatorImpl authenticator = new AuthenticatorImpl(attestedCredentialData,
+                    attestationStatement == null ? new NoneAttestationStatement() : attestationStatement,
+                    counter, transports, clientExtensions, authenticatorExtensions);
+            if (attestationStatement == null) {
+                authenticator.setAttestationStatement(null);
+            }
+            return authenticator;
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new DataConversionException(e);
+        }
+    }
+
+    private static int indexOf(@NonNull AuthenticatorTransport transport) {
+        for (int i = 0; i < KNOWN_TRANSPORTS.length; i++) {
+            if (KNOWN_TRANSPORTS[i].equals(transport)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void putBlob(@NonNull ByteBuffer buffer, @Nullable byte[] blob) {
+        if (blob != null) {
+            buffer.putInt(blob.length).put(blob);
+        }
+    }
+
+    private static int getLength(@NonNull ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new DataConversionException("Invalid section length in the credential record");
+        }
+        return length;
+    }
+
+    static class AttestationStatementEnvelope {
+
+        @JsonProperty("attStmt")
+        @JsonTypeInfo(
+                use = JsonTypeInfo.Id.NAME,
+                include = JsonTypeInfo.As.EXTERNAL_PROPERTY,
+                property = "fmt"
+        )
+        private final AttestationStatement attestationStatement;
+
+        @JsonCreator
+        AttestationStatementEnvelope(@JsonProperty("attStmt") @NonNull AttestationStatement attestationStatement) {
+            this.attestationStatement = attestationStatement;
+        }
+
+        @JsonProperty("fmt")
+        public @NonNull String getFormat() {
+            return attestationStatement.getFormat();
+        }
+
+        public @NonNull AttestationStatement getAttestationStatement() {
+            return attestationStatement;
+        }
+    }
+}
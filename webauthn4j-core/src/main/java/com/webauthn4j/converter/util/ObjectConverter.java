@@ -34,6 +34,7 @@ public class ObjectConverter implements Serializable {
 
     private final JsonConverter jsonConverter;
     private final CborConverter cborConverter;
+    private boolean cborFastPathEnabled;
 
     public ObjectConverter(@NonNull ObjectMapper jsonMapper, @NonNull ObjectMapper cborMapper) {
         AssertUtil.notNull(jsonMapper, "jsonMapper must not be null");
@@ -43,6 +44,8 @@ public class ObjectConverter implements Serializable {
 
         this.jsonConverter = new JsonConverter(jsonMapper);
         this.cborConverter = new CborConverter(cborMapper);
+        // the built-in CBOR reader would bypass the deserializers of the modules registered by the caller
+        this.cborFastPathEnabled = cborMapper.getRegisteredModuleIds().isEmpty();
 
         initializeJsonMapper(jsonMapper, this);
         initializeCborMapper(cborMapper, this);
@@ -80,4 +83,25 @@ public class ObjectConverter implements Serializable {
         return cborConverter;
     }
 
+    /**
+     * Returns whether authenticatorData, COSE keys and attestation objects are read by the built-in CBOR reader.
+     * It is enabled by default, unless the CBOR {@link ObjectMapper} passed to the constructor has modules registered.
+     *
+     * @return true if the built-in CBOR reader is used
+     */
+    public boolean isCborFastPathEnabled() {
+        return cborFastPathEnabled;
+    }
+
+    /**
+     * Sets whether authenticatorData, COSE keys and attestation objects are read by the built-in CBOR reader,
+     * which works directly on the byte array instead of going through the CBOR {@link ObjectMapper}.
+     * Input it doesn't handle is passed to the {@link ObjectMapper} as before, as are extensions and attestation statements.
+     *
+     * @param cborFastPathEnabled true to use the built-in CBOR reader
+     */
+    public void setCborFastPathEnabled(boolean cborFastPathEnabled) {
+        this.cborFastPathEnabled = cborFastPathEnabled;
+    }
+
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.data;
+
+import com.webauthn4j.util.AssertUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Outcome of validating one {@link AuthenticationRequest} in a batch.
+ * It holds either the validated {@link AuthenticationData} or the exception the request failed with.
+ */
+public class AuthenticationResult {
+
+    private final AuthenticationRequest authenticationRequest;
+    private final AuthenticationData authenticationData;
+    private final RuntimeException exception;
+
+    /**
+     * {@link AuthenticationResult} constructor
+     * @param authenticationRequest validated request
+     * @param authenticationData parsed data. null if the request could not be parsed
+     * @param exception exception thrown by parse or validation. null if the request is valid
+     */
+    public AuthenticationResult(@Nullable AuthenticationRequest authenticationRequest, @Nullable AuthenticationData authenticationData, @Nullable RuntimeException exception) {
+        AssertUtil.isTrue(authenticationData != null || exception != null, "either authenticationData or exception must be set");
+        this.authenticationRequest = authenticationRequest;
+        this.authenticationData = authenticationData;
+        this.exception = exception;
+    }
+
+    public @Nullable AuthenticationRequest getAuthenticationRequest() {
+        return authenticationRequest;
+    }
+
+    /**
+     * Returns the parsed data. It is also available for a request failed in validation.
+     * @return parsed data, or null if the request could not be parsed
+     */
+    public @Nullable AuthenticationData getAuthenticationData() {
+        return authenticationData;
+    }
+
+    /**
+     * Returns the exception thrown by parse or validation, typically a {@link com.webauthn4j.converter.exception.DataConversionException}
+     * or a {@link com.webauthn4j.validator.exception.ValidationException}
+     * @return exception, or null if the request is valid
+     */
+    public @Nullable RuntimeException getException() {
+        return exception;
+    }
+
+    public boolean isValid() {
+        return exception == null;
+    }
+
+    /**
+     * Returns the validated data, or throws the exception the request failed with
+     * @return validated data
+     */
+    public @NonNull AuthenticationData getOrThrow() {
+        if (exception != null) {
+            throw exception;
+        }
+        //noinspection ConstantConditions
+        return authenticationData;
+    }
+}
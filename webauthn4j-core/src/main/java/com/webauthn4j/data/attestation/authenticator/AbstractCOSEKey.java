@@ -22,8 +22,10 @@ import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
 import com.webauthn4j.data.attestation.statement.COSEKeyOperation;
 import com.webauthn4j.data.attestation.statement.COSEKeyType;
 import com.webauthn4j.util.ArrayUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.security.PublicKey;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -42,6 +44,9 @@ public abstract class AbstractCOSEKey implements COSEKey {
     @JsonProperty("5")
     private final byte[] baseIV;
 
+    // Decoded public key cache. Not serialized, and rebuilt on first access after deserialization.
+    private transient volatile PublicKey decodedPublicKey;
+
     @SuppressWarnings("SameParameterValue")
     @JsonCreator
     AbstractCOSEKey(
@@ -75,6 +80,34 @@ public abstract class AbstractCOSEKey implements COSEKey {
         return ArrayUtil.clone(baseIV);
     }
 
+    /**
+     * Returns the public key as a JCA {@link PublicKey}.
+     * It is decoded on first access and cached, as COSE keys are immutable.
+     *
+     * @return public key, or null if the key doesn't have a public key part
+     */
+    @Override
+    public @Nullable PublicKey getPublicKey() {
+        if (!hasPublicKey()) {
+            return null;
+        }
+        PublicKey publicKey = this.decodedPublicKey;
+        if (publicKey == null) {
+            // benign race: concurrent callers may decode the same key twice, but always get an equivalent instance
+            publicKey = createPublicKey();
+            this.decodedPublicKey = publicKey;
+        }
+        return publicKey;
+    }
+
+    /**
+     * Decodes the public key part into a JCA {@link PublicKey}.
+     * Only called when {@link #hasPublicKey()} returns true.
+     *
+     * @return public key
+     */
+    protected abstract @NonNull PublicKey createPublicKey();
+
     @Override
     public boolean equals(@Nullable Object o) {
         if (this == o) return true;
@@ -90,6 +90,17 @@ public class AuthenticatorData<T extends ExtensionAuthenticatorOutput> implement
         this.extensions = new AuthenticationExtensionsAuthenticatorOutputs<>();
     }
 
+    /**
+     * Constructor for subclasses which hold the data in another form and override all the getters
+     */
+    protected AuthenticatorData() {
+        this.rpIdHash = null;
+        this.flags = 0;
+        this.signCount = 0;
+        this.attestedCredentialData = null;
+        this.extensions = null;
+    }
+
     @SuppressWarnings("WeakerAccess")
     public static boolean checkFlagUP(byte flags) {
         return (flags & BIT_UP) != 0;
@@ -117,19 +128,19 @@ public class AuthenticatorData<T extends ExtensionAuthenticatorOutput> implement
     }
 
     public boolean isFlagUP() {
-        return checkFlagUP(this.flags);
+        return checkFlagUP(getFlags());
     }
 
     public boolean isFlagUV() {
-        return checkFlagUV(this.flags);
+        return checkFlagUV(getFlags());
     }
 
     public boolean isFlagAT() {
-        return checkFlagAT(this.flags);
+        return checkFlagAT(getFlags());
     }
 
     public boolean isFlagED() {
-        return checkFlagED(this.flags);
+        return checkFlagED(getFlags());
     }
 
     public long getSignCount() {
@@ -147,19 +158,20 @@ public class AuthenticatorData<T extends ExtensionAuthenticatorOutput> implement
     @Override
     public boolean equals(@Nullable Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        // compared through the getters, so that an AuthenticatorDataView equals the AuthenticatorData decoded from the same bytes
+        if (!(o instanceof AuthenticatorData)) return false;
         AuthenticatorData<?> that = (AuthenticatorData<?>) o;
-        return flags == that.flags &&
-                signCount == that.signCount &&
-                Arrays.equals(rpIdHash, that.rpIdHash) &&
-                Objects.equals(attestedCredentialData, that.attestedCredentialData) &&
-                Objects.equals(extensions, that.extensions);
+        return getFlags() == that.getFlags() &&
+                getSignCount() == that.getSignCount() &&
+                Arrays.equals(getRpIdHash(), that.getRpIdHash()) &&
+                Objects.equals(getAttestedCredentialData(), that.getAttestedCredentialData()) &&
+                Objects.equals(getExtensions(), that.getExtensions());
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(flags, signCount, attestedCredentialData, extensions);
-        result = 31 * result + Arrays.hashCode(rpIdHash);
+        int result = Objects.hash(getFlags(), getSignCount(), getAttestedCredentialData(), getExtensions());
+        result = 31 * result + Arrays.hashCode(getRpIdHash());
         return result;
     }
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.data.attestation.authenticator;
+
+import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
+import com.webauthn4j.data.extension.authenticator.ExtensionAuthenticatorOutput;
+import com.webauthn4j.util.AssertUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Read-only {@link AuthenticatorData} backed by its raw byte array. Fields are decoded on access instead of being
+ * copied into an object graph up front.
+ * Only authenticator data without attested credential data and extensions, which is what assertions usually carry,
+ * can be viewed this way, as its layout is fixed and nothing is left to fail after construction.
+ * The byte array must not be modified after it is passed to the constructor.
+ */
+public class AuthenticatorDataView<T extends ExtensionAuthenticatorOutput> extends AuthenticatorData<T> {
+
+    public static final int LENGTH = 37;
+
+    private static final int RPID_HASH_LENGTH = 32;
+    private static final int FLAGS_INDEX = 32;
+    private static final int COUNTER_INDEX = 33;
+
+    private final byte[] bytes;
+    // empty extensions, created on first access
+    private transient AuthenticationExtensionsAuthenticatorOutputs<T> emptyExtensions;
+
+    public AuthenticatorDataView(@NonNull byte[] bytes) {
+        AssertUtil.notNull(bytes, "bytes must not be null");
+        AssertUtil.isTrue(bytes.length == LENGTH, "authenticatorData must be " + LENGTH + " bytes long to be viewed");
+        byte flags = bytes[FLAGS_INDEX];
+        AssertUtil.isTrue(!checkFlagAT(flags) && !checkFlagED(flags), "authenticatorData with attested credential data or extensions cannot be viewed");
+        this.bytes = bytes;
+    }
+
+    /**
+     * Returns whether the specified authenticatorData byte array can be viewed by {@link AuthenticatorDataView}
+     *
+     * @param bytes authenticatorData byte array
+     * @return true if it can be viewed
+     */
+    public static boolean isViewable(@NonNull byte[] bytes) {
+        return bytes.length == LENGTH && !checkFlagAT(bytes[FLAGS_INDEX]) && !checkFlagED(bytes[FLAGS_INDEX]);
+    }
+
+    @Override
+    public @NonNull byte[] getRpIdHash() {
+        return Arrays.copyOf(bytes, RPID_HASH_LENGTH);
+    }
+
+    @Override
+    public byte getFlags() {
+        return bytes[FLAGS_INDEX];
+    }
+
+    @Override
+    public long getSignCount() {
+        return ((bytes[COUNTER_INDEX] & 0xFFL) << 24) |
+                ((bytes[COUNTER_INDEX + 1] & 0xFFL) << 16) |
+                ((bytes[COUNTER_INDEX + 2] & 0xFFL) << 8) |
+                (bytes[COUNTER_INDEX + 3] & 0xFFL);
+    }
+
+    @Override
+    public @Nullable AttestedCredentialData getAttestedCredentialData() {
+        return null;
+    }
+
+    @Override
+    public @Nullable AuthenticationExtensionsAuthenticatorOutputs<T> getExtensions() {
+        if (emptyExtensions == null) {
+            emptyExtensions = new AuthenticationExtensionsAuthenticatorOutputs<>();
+        }
+        return emptyExtensions;
+    }
+
+    /**
+     * Serialized as a plain {@link AuthenticatorData}
+     */
+    private Object writeReplace() {
+        return new AuthenticatorData<>(getRpIdHash(), getFlags(), getSignCount(), getExtensions());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.data.client.challenge;
+
+import com.webauthn4j.util.ArrayUtil;
+import com.webauthn4j.util.AssertUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Challenge that carries its own state, so that the server can verify it without looking it up.
+ * <p>
+ * The value is laid out as version (1 byte), key epoch (8 bytes), expiry in epoch milliseconds (8 bytes), random nonce
+ * (16 bytes) and an HMAC-SHA256 (32 bytes) over the preceding bytes and the context the challenge is bound to.
+ *
+ * @see com.webauthn4j.server.StatelessChallengeIssuer
+ * @see com.webauthn4j.server.StatelessChallengeVerifier
+ */
+public class StatelessChallenge implements Challenge {
+
+    public static final byte VERSION = 1;
+    public static final int NONCE_LENGTH = 16;
+    public static final int MAC_LENGTH = 32;
+    /**
+     * Length of the part of the value covered by the MAC
+     */
+    public static final int HEADER_LENGTH = 1 + 8 + 8 + NONCE_LENGTH;
+    public static final int LENGTH = HEADER_LENGTH + MAC_LENGTH;
+
+    private final byte[] value;
+
+    /**
+     * Creates a new instance
+     *
+     * @param value the value of the challenge
+     * @throws IllegalArgumentException if the value is not laid out as a stateless challenge
+     */
+    public StatelessChallenge(@NonNull byte[] value) {
+        AssertUtil.notNull(value, "value cannot be null");
+        AssertUtil.isTrue(value.length == LENGTH, "value must be " + LENGTH + " bytes");
+        AssertUtil.isTrue(value[0] == VERSION, "version must be " + VERSION);
+        this.value = ArrayUtil.clone(value);
+    }
+
+    public StatelessChallenge(long keyEpoch, long expiresAt, @NonNull byte[] nonce, @NonNull byte[] mac) {
+        AssertUtil.notNull(nonce, "nonce cannot be null");
+        AssertUtil.notNull(mac, "mac cannot be null");
+        AssertUtil.isTrue(nonce.length == NONCE_LENGTH, "nonce must be " + NONCE_LENGTH + " bytes");
+        AssertUtil.isTrue(mac.length == MAC_LENGTH, "mac must be " + MAC_LENGTH + " bytes");
+        this.value = ByteBuffer.allocate(LENGTH).put(VERSION).putLong(keyEpoch).putLong(expiresAt).put(nonce).put(mac).array();
+    }
+
+    /**
+     * Parses the challenge, typically the one in the collected client data
+     *
+     * @param challenge challenge
+     * @return the stateless challenge, or null if the challenge is not laid out as a stateless challenge
+     */
+    public static @Nullable StatelessChallenge parse(@NonNull Challenge challenge) {
+        AssertUtil.notNull(challenge, "challenge cannot be null");
+        if (challenge instanceof StatelessChallenge) {
+            return (StatelessChallenge) challenge;
+        }
+        byte[] bytes = challenge.getValue();
+        if (bytes.length != LENGTH || bytes[0] != VERSION) {
+            return null;
+        }
+        return new StatelessChallenge(bytes);
+    }
+
+    @Override
+    public @NonNull byte[] getValue() {
+        return ArrayUtil.clone(value);
+    }
+
+    public long getKeyEpoch() {
+        return ByteBuffer.wrap(value).getLong(1);
+    }
+
+    /**
+     * Returns the expiry of the challenge
+     *
+     * @return expiry in epoch milliseconds
+     */
+    public long getExpiresAt() {
+        return ByteBuffer.wrap(value).getLong(9);
+    }
+
+    public @NonNull byte[] getNonce() {
+        return Arrays.copyOfRange(value, 17, HEADER_LENGTH);
+    }
+
+    public @NonNull byte[] getMac() {
+        return Arrays.copyOfRange(value, HEADER_LENGTH, LENGTH);
+    }
+
+    /**
+     * Returns the part of the value covered by the MAC
+     *
+     * @return version, key epoch, expiry and nonce
+     */
+    public @NonNull byte[] getHeader() {
+        return Arrays.copyOf(value, HEADER_LENGTH);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StatelessChallenge that = (StatelessChallenge) o;
+        return Arrays.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(value);
+    }
+}
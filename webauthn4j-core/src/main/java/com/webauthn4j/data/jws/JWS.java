@@ -75,7 +75,7 @@ public class JWS<T extends Serializable> implements Serializable {
             if (header.getAlg() == null || header.getX5c() == null || header.getX5c().getCertificates().isEmpty()) {
                 return false;
             }
-            Signature signatureObj = SignatureUtil.createSignature(header.getAlg().getJcaName());
+            Signature signatureObj = SignatureUtil.getSignature(header.getAlg().getJcaName());
             PublicKey publicKey = header.getX5c().getCertificates().get(0).getPublicKey();
             signatureObj.initVerify(publicKey);
             signatureObj.update(signedData.getBytes());
@@ -19,7 +19,7 @@ package com.webauthn4j.data.jws;
 import com.webauthn4j.util.AssertUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-class JWSSignatureUtil {
+public class JWSSignatureUtil {
 
     private static final String INVALID_ECDSA_SIGNATURE_FORMAT = "Invalid ECDSA signature format";
 
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.data.client.challenge.Challenge;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Issues challenges and retains them until they are consumed by a ceremony or expire.
+ * <p>
+ * A ceremony consumes the challenge found in the collected client data, and passes it to the {@link ServerProperty} only if
+ * the consumption succeeded, so that each issued challenge is accepted at most once.
+ *
+ * @see InMemoryChallengeRepository
+ */
+public interface ChallengeRepository {
+
+    /**
+     * Issues a new random challenge, and retains it until it is consumed or expires
+     *
+     * @return the issued challenge
+     */
+    @NonNull Challenge issue();
+
+    /**
+     * Atomically removes the challenge. Only one of concurrent calls with the same challenge returns true.
+     *
+     * @param challenge challenge presented by the client
+     * @return true if the challenge was issued by this repository, has not expired and was not consumed before
+     */
+    boolean consume(@NonNull Challenge challenge);
+}
@@ -17,17 +17,22 @@
 package com.webauthn4j.server;
 
 import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.util.ArrayUtil;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.MessageDigestUtil;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 public class CoreServerProperty implements Serializable {
 
     private final String rpId;
     private final Challenge challenge;
+    // computed on first access; not serialized
+    private transient volatile byte[] rpIdHash;
 
     public CoreServerProperty(@NonNull String rpId, @Nullable Challenge challenge) {
         AssertUtil.notNull(rpId, "rpId must not be null");
@@ -44,6 +49,20 @@ public class CoreServerProperty implements Serializable {
         return rpId;
     }
 
+    /**
+     * Returns the SHA-256 hash of the rpId, which authenticators report as rpIdHash in authenticator data
+     *
+     * @return the SHA-256 hash of the rpId
+     */
+    public @NonNull byte[] getRpIdHash() {
+        byte[] hash = this.rpIdHash;
+        if (hash == null) {
+            hash = MessageDigestUtil.createSHA256().digest(rpId.getBytes(StandardCharsets.UTF_8));
+            this.rpIdHash = hash;
+        }
+        return ArrayUtil.clone(hash);
+    }
+
     /**
      * Returns the {@link Challenge}
      *
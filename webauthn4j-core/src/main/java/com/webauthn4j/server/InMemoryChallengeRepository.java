@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.SecureRandomUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link ChallengeRepository}, for a single node or with sticky sessions.
+ * <p>
+ * Challenges are generated from a striped set of {@link java.security.SecureRandom} instances, and kept in a concurrent map.
+ * Expiry is tracked by a timing wheel: each challenge is also queued in the slot of the tick it expires in, and the slots of
+ * the elapsed ticks are drained by whichever call notices that the tick advanced, so that no background thread is needed.
+ * <p>
+ * The number of retained challenges is bounded by the maximum size: when it is reached, the challenges closest to expiry
+ * are evicted, so that a flood of unfinished ceremonies cannot exhaust memory. The bound is approximate under concurrent issuance.
+ */
+public class InMemoryChallengeRepository implements ChallengeRepository {
+
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+    public static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private static final int CHALLENGE_LENGTH = 16;
+    private static final int TICKS_PER_TIME_TO_LIVE = 60;
+
+    private final long timeToLiveMillis;
+    private final int maximumSize;
+    private final Clock clock;
+    private final long tickMillis;
+
+    private final Map<DefaultChallenge, Long> challenges = new ConcurrentHashMap<>();
+    private final List<Queue<DefaultChallenge>> wheel;
+    // number of queued challenges, including consumed ones not drained yet, which are bounded as well
+    private final AtomicInteger queuedCount = new AtomicInteger();
+    private final AtomicLong sweptTick;
+    private final LongAdder evictionCount = new LongAdder();
+
+    public InMemoryChallengeRepository(@NonNull Duration timeToLive, int maximumSize) {
+        this(timeToLive, maximumSize, Clock.systemUTC());
+    }
+
+    public InMemoryChallengeRepository() {
+        this(DEFAULT_TIME_TO_LIVE, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    InMemoryChallengeRepository(@NonNull Duration timeToLive, int maximumSize, @NonNull Clock clock) {
+        AssertUtil.notNull(timeToLive, "timeToLive must not be null");
+        AssertUtil.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+        AssertUtil.isTrue(maximumSize > 0, "maximumSize must be positive");
+        AssertUtil.notNull(clock, "clock must not be null");
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+        this.tickMillis = Math.max(1, timeToLiveMillis / TICKS_PER_TIME_TO_LIVE);
+        // a challenge issued now is queued at most (timeToLive / tick + 1) ticks ahead, so that it never lands in the slot being drained
+        int slotCount = (int) ((timeToLiveMillis + tickMillis - 1) / tickMillis) + 2;
+        this.wheel = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        this.sweptTick = new AtomicLong(clock.millis() / tickMillis);
+    }
+
+    @Override
+    public @NonNull Challenge issue() {
+        long now = clock.millis();
+        expire(now);
+        if (queuedCount.incrementAndGet() > maximumSize) {
+            evictEldest();
+        }
+        DefaultChallenge challenge = new DefaultChallenge(SecureRandomUtil.nextBytes(CHALLENGE_LENGTH));
+        long expiresAt = now + timeToLiveMillis;
+        challenges.put(challenge, expiresAt);
+        wheel.get(slotOf(expiresAt / tickMillis + 1)).add(challenge);
+        return challenge;
+    }
+
+    @Override
+    public boolean consume(@NonNull Challenge challenge) {
+        AssertUtil.notNull(challenge, "challenge must not be null");
+        long now = clock.millis();
+        expire(now);
+        Long expiresAt = challenges.remove(new DefaultChallenge(challenge.getValue()));
+        return expiresAt != null && now < expiresAt;
+    }
+
+    public @NonNull Duration getTimeToLive() {
+        return Duration.ofMillis(timeToLiveMillis);
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of retained challenges, including expired ones not drained yet
+     *
+     * @return the number of retained challenges
+     */
+    public int size() {
+        return challenges.size();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private void expire(long now) {
+        long currentTick = now / tickMillis;
+        long swept = sweptTick.get();
+        // only the caller that advances the swept tick drains the elapsed slots
+        if (currentTick <= swept || !sweptTick.compareAndSet(swept, currentTick)) {
+            return;
+        }
+        for (long tick = Math.max(swept + 1, currentTick - wheel.size() + 1); tick <= currentTick; tick++) {
+            drain(wheel.get(slotOf(tick)), now);
+        }
+    }
+
+    private void drain(Queue<DefaultChallenge> slot, long now) {
+        List<DefaultChallenge> pending = new ArrayList<>();
+        DefaultChallenge challenge;
+        while ((challenge = slot.poll()) != null) {
+            Long expiresAt = challenges.get(challenge);
+            if (expiresAt != null && now < expiresAt) {
+                // queued for a later revolution of the wheel, which happens only after a long idle period
+                pending.add(challenge);
+            }
+            else {
+                if (expiresAt != null) {
+                    challenges.remove(challenge, expiresAt);
+                }
+                queuedCount.decrementAndGet();
+            }
+        }
+        slot.addAll(pending);
+    }
+
+    // Removes the queued challenge closest to expiry, which is the eldest one as all challenges share the time-to-live
+    private void evictEldest() {
+        long firstTick = sweptTick.get() + 1;
+        for (int i = 0; i < wheel.size(); i++) {
+            DefaultChallenge challenge = wheel.get(slotOf(firstTick + i)).poll();
+            if (challenge != null) {
+                if (challenges.remove(challenge) != null) {
+                    evictionCount.increment();
+                }
+                queuedCount.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private int slotOf(long tick) {
+        return (int) (tick % wheel.size());
+    }
+}
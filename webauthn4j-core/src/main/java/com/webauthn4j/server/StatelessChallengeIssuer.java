@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.data.client.ClientDataType;
+import com.webauthn4j.data.client.challenge.StatelessChallenge;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.SecureRandomUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Issues {@link StatelessChallenge}s bound to a ceremony context, to be verified by a {@link StatelessChallengeVerifier}
+ * on any node sharing the same {@link StatelessChallengeKeys}.
+ */
+public class StatelessChallengeIssuer {
+
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final StatelessChallengeKeys keys;
+    private final long timeToLiveMillis;
+    private final Clock clock;
+
+    public StatelessChallengeIssuer(@NonNull StatelessChallengeKeys keys, @NonNull Duration timeToLive) {
+        this(keys, timeToLive, Clock.systemUTC());
+    }
+
+    public StatelessChallengeIssuer(@NonNull StatelessChallengeKeys keys) {
+        this(keys, DEFAULT_TIME_TO_LIVE);
+    }
+
+    StatelessChallengeIssuer(@NonNull StatelessChallengeKeys keys, @NonNull Duration timeToLive, @NonNull Clock clock) {
+        AssertUtil.notNull(keys, "keys must not be null");
+        AssertUtil.notNull(timeToLive, "timeToLive must not be null");
+        AssertUtil.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+        // the verifier accepts the keys of the adjacent epochs only
+        AssertUtil.isTrue(timeToLive.compareTo(keys.getRotationPeriod()) <= 0, "timeToLive must not exceed the key rotation period");
+        AssertUtil.notNull(clock, "clock must not be null");
+        this.keys = keys;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.clock = clock;
+    }
+
+    public @NonNull Duration getTimeToLive() {
+        return Duration.ofMillis(timeToLiveMillis);
+    }
+
+    /**
+     * Issues a new challenge
+     *
+     * @param rpId       rpId of the ceremony
+     * @param userHandle user handle of the ceremony, or null for a ceremony not bound to a user, e.g. a usernameless authentication
+     * @param type       ceremony type
+     * @return the issued challenge
+     */
+    public @NonNull StatelessChallenge issue(@NonNull String rpId, @Nullable byte[] userHandle, @NonNull ClientDataType type) {
+        AssertUtil.notNull(rpId, "rpId must not be null");
+        AssertUtil.notNull(type, "type must not be null");
+        long now = clock.millis();
+        long epoch = keys.getEpoch(now);
+        long expiresAt = now + timeToLiveMillis;
+        byte[] nonce = SecureRandomUtil.nextBytes(StatelessChallenge.NONCE_LENGTH);
+        byte[] header = ByteBuffer.allocate(StatelessChallenge.HEADER_LENGTH)
+                .put(StatelessChallenge.VERSION).putLong(epoch).putLong(expiresAt).put(nonce)
+                .array();
+        byte[] mac = keys.calculateMac(epoch, header, rpId, userHandle, type);
+        return new StatelessChallenge(epoch, expiresAt, nonce, mac);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.data.client.ClientDataType;
+import com.webauthn4j.util.ArrayUtil;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.HKDFUtil;
+import com.webauthn4j.util.MACUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rotating MAC keys of {@link com.webauthn4j.data.client.challenge.StatelessChallenge}s, shared by the
+ * {@link StatelessChallengeIssuer} and the {@link StatelessChallengeVerifier} of every node.
+ * <p>
+ * Time is divided into epochs of the rotation period, and the key of an epoch is derived from the master secret with
+ * HKDF-SHA256, with the epoch as the info. All nodes configured with the same master secret derive the same keys,
+ * so that nothing needs to be distributed when a key rotates.
+ */
+public class StatelessChallengeKeys {
+
+    public static final Duration DEFAULT_ROTATION_PERIOD = Duration.ofHours(1);
+
+    private static final int MINIMUM_MASTER_SECRET_LENGTH = 16;
+    private static final int KEY_LENGTH = 32;
+    private static final byte[] SALT = "webauthn4j stateless challenge".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] masterSecret;
+    private final long rotationPeriodMillis;
+    private final Map<Long, byte[]> keys = new ConcurrentHashMap<>();
+
+    public StatelessChallengeKeys(@NonNull byte[] masterSecret, @NonNull Duration rotationPeriod) {
+        AssertUtil.notNull(masterSecret, "masterSecret must not be null");
+        AssertUtil.isTrue(masterSecret.length >= MINIMUM_MASTER_SECRET_LENGTH, "masterSecret must be at least " + MINIMUM_MASTER_SECRET_LENGTH + " bytes");
+        AssertUtil.notNull(rotationPeriod, "rotationPeriod must not be null");
+        AssertUtil.isTrue(!rotationPeriod.isNegative() && !rotationPeriod.isZero(), "rotationPeriod must be positive");
+        this.masterSecret = ArrayUtil.clone(masterSecret);
+        this.rotationPeriodMillis = rotationPeriod.toMillis();
+    }
+
+    public StatelessChallengeKeys(@NonNull byte[] masterSecret) {
+        this(masterSecret, DEFAULT_ROTATION_PERIOD);
+    }
+
+    public @NonNull Duration getRotationPeriod() {
+        return Duration.ofMillis(rotationPeriodMillis);
+    }
+
+    /**
+     * Returns the key epoch of the specified time
+     *
+     * @param epochMillis time in epoch milliseconds
+     * @return key epoch
+     */
+    public long getEpoch(long epochMillis) {
+        return Math.floorDiv(epochMillis, rotationPeriodMillis);
+    }
+
+    /**
+     * Calculates the MAC of a stateless challenge over its header and the context it is bound to
+     *
+     * @param epoch      key epoch
+     * @param header     version, key epoch, expiry and nonce of the challenge
+     * @param rpId       rpId
+     * @param userHandle user handle, or null for a ceremony not bound to a user
+     * @param type       ceremony type
+     * @return the MAC
+     */
+    @NonNull byte[] calculateMac(long epoch, @NonNull byte[] header, @NonNull String rpId, @Nullable byte[] userHandle, @NonNull ClientDataType type) {
+        byte[] typeBytes = type.getValue().getBytes(StandardCharsets.UTF_8);
+        byte[] rpIdBytes = rpId.getBytes(StandardCharsets.UTF_8);
+        byte[] userHandleBytes = userHandle == null ? new byte[0] : userHandle;
+        // each field is length prefixed, so that no two contexts produce the same message
+        byte[] message = ByteBuffer.allocate(header.length + 12 + typeBytes.length + rpIdBytes.length + userHandleBytes.length)
+                .put(header)
+                .putInt(typeBytes.length).put(typeBytes)
+                .putInt(rpIdBytes.length).put(rpIdBytes)
+                .putInt(userHandleBytes.length).put(userHandleBytes)
+                .array();
+        return MACUtil.calculateHmacSHA256(message, getKey(epoch));
+    }
+
+    private @NonNull byte[] getKey(long epoch) {
+        byte[] key = keys.get(epoch);
+        if (key == null) {
+            key = keys.computeIfAbsent(epoch, this::deriveKey);
+            // only the keys around the current epoch are used, so that older ones are dropped when a new one is derived
+            keys.keySet().removeIf(cachedEpoch -> cachedEpoch < epoch - 2);
+        }
+        return key;
+    }
+
+    private @NonNull byte[] deriveKey(long epoch) {
+        byte[] info = ByteBuffer.allocate(8).putLong(epoch).array();
+        return HKDFUtil.calculateHKDFSHA256(masterSecret, SALT, info, KEY_LENGTH);
+    }
+}
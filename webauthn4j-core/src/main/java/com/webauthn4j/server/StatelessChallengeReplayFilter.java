@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.util.AssertUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Node-local filter of the nonces of used {@link com.webauthn4j.data.client.challenge.StatelessChallenge}s, which rejects a
+ * challenge presented again before it expires.
+ * <p>
+ * Nonces are recorded in time-bucketed, blocked Bloom filters: the bucket duration is the challenge time-to-live, and only
+ * the current and the previous bucket are kept, which covers the whole lifetime of any unexpired challenge. Each nonce maps
+ * to bits of a single 64 bit word, so that it is tested and recorded by a single compare-and-set. The memory is fixed,
+ * one word per expected nonce per bucket, and a false positive rejects a fresh challenge with a small probability.
+ * <p>
+ * Two concurrent uses of the same nonce straddling a bucket rotation can both be accepted.
+ */
+public class StatelessChallengeReplayFilter {
+
+    public static final int DEFAULT_EXPECTED_INSERTIONS = 1 << 18;
+
+    private final long bucketMillis;
+    private final int wordCount;
+    private final AtomicReference<Generations> generations;
+
+    public StatelessChallengeReplayFilter(@NonNull Duration timeToLive, int expectedInsertions) {
+        AssertUtil.notNull(timeToLive, "timeToLive must not be null");
+        AssertUtil.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+        AssertUtil.isTrue(expectedInsertions > 0 && expectedInsertions <= 1 << 30, "expectedInsertions must be positive and at most 2^30");
+        this.bucketMillis = timeToLive.toMillis();
+        int size = 1;
+        while (size < expectedInsertions) {
+            size <<= 1;
+        }
+        // one word per expected nonce keeps the false positive probability in the order of 1e-5
+        this.wordCount = size;
+        // the first call allocates the buckets
+        this.generations = new AtomicReference<>(new Generations(Long.MIN_VALUE, new AtomicLongArray(0), new AtomicLongArray(0)));
+    }
+
+    /**
+     * @param timeToLive time-to-live of the challenges, see {@link StatelessChallengeIssuer#getTimeToLive()}
+     */
+    public StatelessChallengeReplayFilter(@NonNull Duration timeToLive) {
+        this(timeToLive, DEFAULT_EXPECTED_INSERTIONS);
+    }
+
+    /**
+     * Records the nonce
+     *
+     * @param nonce       random nonce of at least 16 bytes
+     * @param epochMillis current time in epoch milliseconds
+     * @return true if the nonce was not recorded yet, false if it was (or on a false positive)
+     */
+    public boolean record(@NonNull byte[] nonce, long epochMillis) {
+        AssertUtil.notNull(nonce, "nonce must not be null");
+        AssertUtil.isTrue(nonce.length >= 16, "nonce must be at least 16 bytes");
+        // the nonce is random and MAC protected, so that its bytes are used as the hash as they are
+        ByteBuffer buffer = ByteBuffer.wrap(nonce);
+        long h1 = buffer.getLong(0);
+        long h2 = buffer.getLong(8);
+        int index = (int) (h1 & (wordCount - 1));
+        long mask = (1L << (h2 & 63)) | (1L << ((h2 >>> 6) & 63)) | (1L << ((h2 >>> 12) & 63)) | (1L << ((h2 >>> 18) & 63));
+
+        Generations current = generationsOf(Math.floorDiv(epochMillis, bucketMillis));
+        if ((current.previous.get(index) & mask) == mask) {
+            return false;
+        }
+        while (true) {
+            long word = current.current.get(index);
+            if ((word & mask) == mask) {
+                return false;
+            }
+            if (current.current.compareAndSet(index, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private @NonNull Generations generationsOf(long bucket) {
+        while (true) {
+            Generations existing = generations.get();
+            if (bucket <= existing.bucket) {
+                // a caller with an older timestamp uses the newer buckets, which still hold its nonce's lifetime
+                return existing;
+            }
+            Generations next = bucket == existing.bucket + 1 ?
+                    new Generations(bucket, new AtomicLongArray(wordCount), existing.current) :
+                    new Generations(bucket, new AtomicLongArray(wordCount), new AtomicLongArray(wordCount));
+            if (generations.compareAndSet(existing, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static class Generations {
+
+        private final long bucket;
+        private final AtomicLongArray current;
+        private final AtomicLongArray previous;
+
+        Generations(long bucket, @NonNull AtomicLongArray current, @NonNull AtomicLongArray previous) {
+            this.bucket = bucket;
+            this.current = current;
+            this.previous = previous;
+        }
+    }
+}
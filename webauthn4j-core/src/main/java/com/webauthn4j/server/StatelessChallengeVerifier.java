@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.data.client.ClientDataType;
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.StatelessChallenge;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.validator.exception.BadChallengeException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.security.MessageDigest;
+import java.time.Clock;
+
+/**
+ * Verifies {@link StatelessChallenge}s issued by a {@link StatelessChallengeIssuer} without any lookup.
+ * <p>
+ * The challenge in the collected client data is verified against the context of the ceremony, and the returned challenge
+ * is passed as the challenge of the {@link ServerProperty}, which the challenge validation of the ceremony then compares
+ * with the collected one as usual.
+ * <p>
+ * Without a {@link StatelessChallengeReplayFilter}, a challenge can be used any number of times until it expires.
+ */
+public class StatelessChallengeVerifier {
+
+    private final StatelessChallengeKeys keys;
+    private final StatelessChallengeReplayFilter replayFilter;
+    private final Clock clock;
+
+    public StatelessChallengeVerifier(@NonNull StatelessChallengeKeys keys, @Nullable StatelessChallengeReplayFilter replayFilter) {
+        this(keys, replayFilter, Clock.systemUTC());
+    }
+
+    public StatelessChallengeVerifier(@NonNull StatelessChallengeKeys keys) {
+        this(keys, null);
+    }
+
+    StatelessChallengeVerifier(@NonNull StatelessChallengeKeys keys, @Nullable StatelessChallengeReplayFilter replayFilter, @NonNull Clock clock) {
+        AssertUtil.notNull(keys, "keys must not be null");
+        AssertUtil.notNull(clock, "clock must not be null");
+        this.keys = keys;
+        this.replayFilter = replayFilter;
+        this.clock = clock;
+    }
+
+    public @Nullable StatelessChallengeReplayFilter getReplayFilter() {
+        return replayFilter;
+    }
+
+    /**
+     * Verifies the challenge
+     *
+     * @param challenge  challenge presented by the client, typically the one in the collected client data
+     * @param rpId       rpId of the ceremony
+     * @param userHandle user handle of the ceremony, or null for a ceremony not bound to a user
+     * @param type       ceremony type
+     * @return the verified challenge
+     * @throws BadChallengeException if the challenge was not issued for the context, has expired or has been used already
+     */
+    public @NonNull StatelessChallenge verify(@NonNull Challenge challenge, @NonNull String rpId, @Nullable byte[] userHandle, @NonNull ClientDataType type) {
+        AssertUtil.notNull(challenge, "challenge must not be null");
+        AssertUtil.notNull(rpId, "rpId must not be null");
+        AssertUtil.notNull(type, "type must not be null");
+        StatelessChallenge statelessChallenge = StatelessChallenge.parse(challenge);
+        if (statelessChallenge == null) {
+            throw new BadChallengeException("The challenge is not a stateless challenge");
+        }
+
+        long now = clock.millis();
+        long keyEpoch = statelessChallenge.getKeyEpoch();
+        // the adjacent epochs are accepted, so that a key rotation is tolerated between the issuing node and this one
+        if (Math.abs(keyEpoch - keys.getEpoch(now)) > 1) {
+            throw new BadChallengeException("The challenge key has been rotated out");
+        }
+        if (statelessChallenge.getExpiresAt() <= now) {
+            throw new BadChallengeException("The challenge has expired");
+        }
+        byte[] expectedMac = keys.calculateMac(keyEpoch, statelessChallenge.getHeader(), rpId, userHandle, type);
+        if (!MessageDigest.isEqual(expectedMac, statelessChallenge.getMac())) {
+            throw new BadChallengeException("The challenge was not issued for the ceremony");
+        }
+        if (replayFilter != null && !replayFilter.record(statelessChallenge.getNonce(), now)) {
+            throw new BadChallengeException("The challenge has been used already");
+        }
+        return statelessChallenge;
+    }
+}
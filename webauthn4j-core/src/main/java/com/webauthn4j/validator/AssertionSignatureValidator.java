@@ -20,13 +20,15 @@ import com.webauthn4j.data.AuthenticationData;
 import com.webauthn4j.data.CoreAuthenticationData;
 import com.webauthn4j.data.SignatureAlgorithm;
 import com.webauthn4j.data.attestation.authenticator.COSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.SignatureUtil;
 import com.webauthn4j.validator.exception.BadSignatureException;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.ByteBuffer;
+import java.io.ByteArrayOutputStream;
 import java.security.*;
 
 /**
@@ -43,37 +45,123 @@ public class AssertionSignatureValidator {
         AssertUtil.notNull(authenticationData, "authenticationData must not be null");
         AssertUtil.notNull(coseKey, "coseKey must not be null");
 
-        byte[] signedData = getSignedData(authenticationData);
         byte[] signature = authenticationData.getSignature();
-        if (!verifySignature(coseKey, signature, signedData)) {
+        if (!verifySignature(coseKey, signature, authenticationData)) {
             throw new BadSignatureException("Assertion signature is not valid.");
         }
     }
 
+    /**
+     * Returns the signed data, the bytes {@link #updateSignedData(Signature, CoreAuthenticationData)} feeds to the verifier.
+     *
+     * @param authenticationData authentication data
+     * @return signed data
+     * @deprecated signed data is fed to the verifier by {@link #updateSignedData(Signature, CoreAuthenticationData)} without
+     * concatenation. Overriding this method has no effect on validation; override updateSignedData instead.
+     */
+    @Deprecated
     protected @NonNull byte[] getSignedData(@NonNull CoreAuthenticationData authenticationData) {
-        byte[] rawAuthenticatorData = authenticationData.getAuthenticatorDataBytes();
-        byte[] clientDataHash = authenticationData.getClientDataHash();
-        return ByteBuffer.allocate(rawAuthenticatorData.length + clientDataHash.length).put(rawAuthenticatorData).put(clientDataHash).array();
+        SignedDataCollector collector = new SignedDataCollector();
+        try {
+            collector.initVerify((PublicKey) null);
+            updateSignedData(collector, authenticationData);
+        } catch (InvalidKeyException | SignatureException e) {
+            throw new IllegalStateException(e);
+        }
+        return collector.toByteArray();
+    }
+
+    /**
+     * Feeds the signed data, the concatenation of authenticatorData and clientDataHash, to the verifier.
+     * Each part is passed to {@link Signature#update(byte[])} separately, so no concatenated copy is allocated.
+     *
+     * @param verifier           signature verifier initialized for verification
+     * @param authenticationData authentication data
+     * @throws SignatureException if the verifier is not initialized properly
+     */
+    protected void updateSignedData(@NonNull Signature verifier, @NonNull CoreAuthenticationData authenticationData) throws SignatureException {
+        verifier.update(authenticationData.getAuthenticatorDataBytes());
+        verifier.update(authenticationData.getClientDataHash());
     }
 
-    private boolean verifySignature(@NonNull COSEKey coseKey, @NonNull byte[] signature, @NonNull byte[] data) {
+    private boolean verifySignature(@NonNull COSEKey coseKey, @NonNull byte[] signature, @NonNull CoreAuthenticationData authenticationData) {
+        //noinspection ConstantConditions as null check is already done in caller
+        COSEAlgorithmIdentifier algorithm = coseKey.getAlgorithm();
+        SignatureAlgorithm signatureAlgorithm;
+        try {
+            signatureAlgorithm = algorithm.toSignatureAlgorithm();
+        } catch (IllegalArgumentException e) {
+            logger.debug("COSE key alg {} must be signature algorithm.", algorithm.getValue(), e);
+            return false;
+        }
+        String jcaName = signatureAlgorithm.getJcaName();
         try {
             PublicKey publicKey = coseKey.getPublicKey();
-            //noinspection ConstantConditions as null check is already done in caller
-            SignatureAlgorithm signatureAlgorithm = coseKey.getAlgorithm().toSignatureAlgorithm();
-            String jcaName = signatureAlgorithm.getJcaName();
-            Signature verifier = Signature.getInstance(jcaName);
+            Signature verifier = SignatureUtil.getSignature(jcaName);
             verifier.initVerify(publicKey);
-            verifier.update(data);
+            updateSignedData(verifier, authenticationData);
             return verifier.verify(signature);
-        } catch (IllegalArgumentException e) {
-            logger.debug("COSE key alg must be signature algorithm.", e);
-            return false;
-        } catch (NoSuchAlgorithmException | SignatureException | InvalidKeyException | RuntimeException e) {
-            logger.debug("Unexpected exception is thrown during signature verification.", e);
+        } catch (SignatureException | InvalidKeyException | RuntimeException e) {
+            logger.debug("Unexpected exception is thrown during signature verification with {}.", jcaName, e);
             return false;
         }
     }
 
+    /**
+     * {@link Signature} which collects the bytes it is updated with
+     */
+    private static class SignedDataCollector extends Signature {
+
+        private final ByteArrayOutputStream signedData = new ByteArrayOutputStream();
+
+        SignedDataCollector() {
+            super("SignedDataCollector");
+        }
+
+        byte[] toByteArray() {
+            return signedData.toByteArray();
+        }
 
+        @Override
+        protected void engineInitVerify(PublicKey publicKey) {
+            signedData.reset();
+        }
+
+        @Override
+        protected void engineInitSign(PrivateKey privateKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void engineUpdate(byte b) {
+            signedData.write(b);
+        }
+
+        @Override
+        protected void engineUpdate(byte[] b, int off, int len) {
+            signedData.write(b, off, len);
+        }
+
+        @Override
+        protected byte[] engineSign() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected boolean engineVerify(byte[] sigBytes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        protected void engineSetParameter(String param, Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        protected Object engineGetParameter(String param) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package com.webauthn4j.validator;
 
 import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.SignCounterStore;
 import com.webauthn4j.data.AuthenticationData;
 import com.webauthn4j.data.AuthenticationParameters;
 import com.webauthn4j.data.attestation.authenticator.AuthenticatorData;
@@ -50,6 +51,7 @@ public class AuthenticationDataValidator {
 
     private OriginValidator originValidator = new OriginValidatorImpl();
     private CoreMaliciousCounterValueHandler maliciousCounterValueHandler = new DefaultCoreMaliciousCounterValueHandler();
+    private SignCounterStore signCounterStore;
 
     private boolean crossOriginAllowed = false;
 
@@ -195,33 +197,38 @@ public class AuthenticationDataValidator {
         //spec| the binary concatenation of the authenticatorData and the hash of the collectedClientData.
         assertionSignatureValidator.validate(authenticationData, authenticator.getAttestedCredentialData().getCOSEKey());
 
+        for (CustomAuthenticationValidator customAuthenticationValidator : customAuthenticationValidators) {
+            customAuthenticationValidator.validate(authenticationObject);
+        }
+
+        // the counter is checked after the custom validators, so that a request they reject does not advance it
         //spec| Step21
         //spec| Let storedSignCount be the stored signature counter value associated with credential.id.
         //spec| If authData.signCount is nonzero or storedSignCount is nonzero, then run the following sub-step:
         long presentedSignCount = authenticatorData.getSignCount();
-        long storedSignCount = authenticator.getCounter();
-        if (presentedSignCount > 0 || storedSignCount > 0) {
-            //spec| If authData.signCount is
-            //spec| greater than storedSignCount:
-            if (presentedSignCount > storedSignCount) {
-
-                //spec| Update storedSignCount to be the value of authData.signCount.
-                //      (caller need to update the signature counter value based on the value set in the Authenticator instance)
-                authenticator.setCounter(presentedSignCount);
-            }
-            //spec| less than or equal to storedSignCount:
-            //spec| This is a signal that the authenticator may be cloned, i.e. at least two copies of the credential private key may exist and are being used in parallel.
-            //spec| Relying Parties should incorporate this information into their risk scoring.
-            //spec| Whether the Relying Party updates storedSignCount in this case, or not, or fails the authentication ceremony or not, is Relying Party-specific.
-            else {
-                maliciousCounterValueHandler.maliciousCounterValueDetected(authenticationObject);
+        // validations sharing an Authenticator instance, like the items of a batch, read and update its counter one at a time
+        synchronized (authenticator) {
+            //      (with a SignCounterStore, storedSignCount is read and advanced atomically)
+            long storedSignCount = signCounterStore == null ? authenticator.getCounter() : signCounterStore.advance(authenticationData.getCredentialId(), authenticator.getCounter(), presentedSignCount);
+            if (presentedSignCount > 0 || storedSignCount > 0) {
+                //spec| If authData.signCount is
+                //spec| greater than storedSignCount:
+                if (presentedSignCount > storedSignCount) {
+
+                    //spec| Update storedSignCount to be the value of authData.signCount.
+                    //      (caller need to update the signature counter value based on the value set in the Authenticator instance)
+                    authenticator.setCounter(presentedSignCount);
+                }
+                //spec| less than or equal to storedSignCount:
+                //spec| This is a signal that the authenticator may be cloned, i.e. at least two copies of the credential private key may exist and are being used in parallel.
+                //spec| Relying Parties should incorporate this information into their risk scoring.
+                //spec| Whether the Relying Party updates storedSignCount in this case, or not, or fails the authentication ceremony or not, is Relying Party-specific.
+                else {
+                    maliciousCounterValueHandler.maliciousCounterValueDetected(authenticationObject, storedSignCount);
+                }
             }
         }
 
-        for (CustomAuthenticationValidator customAuthenticationValidator : customAuthenticationValidators) {
-            customAuthenticationValidator.validate(authenticationObject);
-        }
-
         //spec| Step18
         //spec| If all the above steps are successful, continue with the authentication ceremony as appropriate. Otherwise, fail the authentication ceremony.
 
@@ -263,6 +270,21 @@ public class AuthenticationDataValidator {
         this.originValidator = originValidator;
     }
 
+    public @Nullable SignCounterStore getSignCounterStore() {
+        return signCounterStore;
+    }
+
+    /**
+     * Sets the store the signature counter is advanced in atomically. Without it, the counter is read from the authenticator,
+     * and concurrent authentications of the same credential need to be serialized by the caller. The counter is advanced
+     * as the last step, after the custom validators have passed.
+     *
+     * @param signCounterStore sign counter store, or null
+     */
+    public void setSignCounterStore(@Nullable SignCounterStore signCounterStore) {
+        this.signCounterStore = signCounterStore;
+    }
+
     public @NonNull List<CustomAuthenticationValidator> getCustomAuthenticationValidators() {
         return customAuthenticationValidators;
     }
@@ -17,6 +17,7 @@
 package com.webauthn4j.validator;
 
 import com.webauthn4j.authenticator.CoreAuthenticator;
+import com.webauthn4j.authenticator.SignCounterStore;
 import com.webauthn4j.data.CoreAuthenticationData;
 import com.webauthn4j.data.CoreAuthenticationParameters;
 import com.webauthn4j.data.attestation.authenticator.AuthenticatorData;
@@ -43,6 +44,7 @@ public class CoreAuthenticationDataValidator {
 
     private AssertionSignatureValidator assertionSignatureValidator = new AssertionSignatureValidator();
     private CoreMaliciousCounterValueHandler coreMaliciousCounterValueHandler = new DefaultCoreMaliciousCounterValueHandler();
+    private SignCounterStore signCounterStore;
 
     public CoreAuthenticationDataValidator(@NonNull List<CustomCoreAuthenticationValidator> customAuthenticationValidators) {
         this.customAuthenticationValidators = customAuthenticationValidators;
@@ -194,31 +196,36 @@ public class CoreAuthenticationDataValidator {
         //spec| the binary concatenation of the authenticatorData and the hash of the collectedClientData.
         assertionSignatureValidator.validate(authenticationData, authenticator.getAttestedCredentialData().getCOSEKey());
 
+        for (CustomCoreAuthenticationValidator customAuthenticationValidator : customAuthenticationValidators) {
+            customAuthenticationValidator.validate(authenticationObject);
+        }
+
+        // the counter is checked after the custom validators, so that a request they reject does not advance it
         //spec| Step21
         //spec| Let storedSignCount be the stored signature counter value associated with credential.id.
         //spec| If authData.signCount is nonzero or storedSignCount is nonzero, then run the following sub-step:
         long presentedSignCount = authenticatorData.getSignCount();
-        long storedSignCount = authenticator.getCounter();
-        if (presentedSignCount > 0 || storedSignCount > 0) {
-            //spec| If authData.signCount is
-            //spec| greater than storedSignCount:
-            if (presentedSignCount > storedSignCount) {
-
-                //spec| Update storedSignCount to be the value of authData.signCount.
-                //      (caller need to update the signature counter value based on the value set in the Authenticator instance)
-                authenticator.setCounter(presentedSignCount);
+        // validations sharing an Authenticator instance, like the items of a batch, read and update its counter one at a time
+        synchronized (authenticator) {
+            //      (with a SignCounterStore, storedSignCount is read and advanced atomically)
+            long storedSignCount = signCounterStore == null ? authenticator.getCounter() : signCounterStore.advance(authenticationData.getCredentialId(), authenticator.getCounter(), presentedSignCount);
+            if (presentedSignCount > 0 || storedSignCount > 0) {
+                //spec| If authData.signCount is
+                //spec| greater than storedSignCount:
+                if (presentedSignCount > storedSignCount) {
+
+                    //spec| Update storedSignCount to be the value of authData.signCount.
+                    //      (caller need to update the signature counter value based on the value set in the Authenticator instance)
+                    authenticator.setCounter(presentedSignCount);
+                }
+                //spec| less than or equal to storedSignCount:
+                //spec| This is a signal that the authenticator may be cloned, i.e. at least two copies of the credential private key may exist and are being used in parallel.
+                //spec| Relying Parties should incorporate this information into their risk scoring.
+                //spec| Whether the Relying Party updates storedSignCount in this case, or not, or fails the authentication ceremony or not, is Relying Party-specific.
+                else {
+                    coreMaliciousCounterValueHandler.maliciousCounterValueDetected(authenticationObject, storedSignCount);
+                }
             }
-            //spec| less than or equal to storedSignCount:
-            //spec| This is a signal that the authenticator may be cloned, i.e. at least two copies of the credential private key may exist and are being used in parallel.
-            //spec| Relying Parties should incorporate this information into their risk scoring.
-            //spec| Whether the Relying Party updates storedSignCount in this case, or not, or fails the authentication ceremony or not, is Relying Party-specific.
-            else {
-                coreMaliciousCounterValueHandler.maliciousCounterValueDetected(authenticationObject);
-            }
-        }
-
-        for (CustomCoreAuthenticationValidator customAuthenticationValidator : customAuthenticationValidators) {
-            customAuthenticationValidator.validate(authenticationObject);
         }
 
         //spec| Step18
@@ -263,6 +270,21 @@ public class CoreAuthenticationDataValidator {
         this.coreMaliciousCounterValueHandler = coreMaliciousCounterValueHandler;
     }
 
+    public @Nullable SignCounterStore getSignCounterStore() {
+        return signCounterStore;
+    }
+
+    /**
+     * Sets the store the signature counter is advanced in atomically. Without it, the counter is read from the authenticator,
+     * and concurrent authentications of the same credential need to be serialized by the caller. The counter is advanced
+     * as the last step, after the custom validators have passed.
+     *
+     * @param signCounterStore sign counter store, or null
+     */
+    public void setSignCounterStore(@Nullable SignCounterStore signCounterStore) {
+        this.signCounterStore = signCounterStore;
+    }
+
     public @NonNull List<CustomCoreAuthenticationValidator> getCustomAuthenticationValidators() {
         return customAuthenticationValidators;
     }
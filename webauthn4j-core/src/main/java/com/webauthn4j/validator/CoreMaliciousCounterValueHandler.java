@@ -24,4 +24,16 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 public interface CoreMaliciousCounterValueHandler {
 
     void maliciousCounterValueDetected(@NonNull CoreAuthenticationObject authenticationObject);
+
+    /**
+     * Called with the stored signature counter the presented one is compared with, which is the one read atomically from
+     * the {@link com.webauthn4j.authenticator.SignCounterStore} if it is configured.
+     * The default implementation delegates to {@link #maliciousCounterValueDetected(CoreAuthenticationObject)}.
+     *
+     * @param authenticationObject authentication object
+     * @param storedSignCount      stored signature counter
+     */
+    default void maliciousCounterValueDetected(@NonNull CoreAuthenticationObject authenticationObject, long storedSignCount) {
+        maliciousCounterValueDetected(authenticationObject);
+    }
 }
@@ -18,13 +18,10 @@ package com.webauthn4j.validator;
 
 import com.webauthn4j.server.CoreServerProperty;
 import com.webauthn4j.util.AssertUtil;
-import com.webauthn4j.util.MessageDigestUtil;
 import com.webauthn4j.validator.exception.BadRpIdException;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.util.Arrays;
 
 /**
  * Validates the specified rpIdHash
@@ -34,6 +31,9 @@ class RpIdHashValidator {
     //~ Instance fields
     // ================================================================================================
 
+    // ServerProperty is usually created per ceremony while the rpId stays the same,
+    // so the hash of the last seen rpId is kept to avoid re-hashing it every time
+    private volatile RpIdHashEntry lastRpIdHash;
 
     // ~ Methods
     // ========================================================================================================
@@ -44,11 +44,30 @@ class RpIdHashValidator {
         String rpId = serverProperty.getRpId();
         AssertUtil.notNull(rpId, "rpId must not be null");
 
-        MessageDigest messageDigest = MessageDigestUtil.createSHA256();
-        byte[] relyingPartyRpIdBytes = rpId.getBytes(StandardCharsets.UTF_8);
-        byte[] relyingPartyRpIdHash = messageDigest.digest(relyingPartyRpIdBytes);
-        if (!Arrays.equals(rpIdHash, relyingPartyRpIdHash)) {
+        byte[] relyingPartyRpIdHash = getRpIdHash(serverProperty);
+        // MessageDigest.isEqual compares in constant time
+        if (!MessageDigest.isEqual(rpIdHash, relyingPartyRpIdHash)) {
             throw new BadRpIdException("rpIdHash doesn't match the hash of preconfigured rpId.");
         }
     }
+
+    private @NonNull byte[] getRpIdHash(@NonNull CoreServerProperty serverProperty) {
+        RpIdHashEntry entry = this.lastRpIdHash;
+        if (entry == null || !entry.rpId.equals(serverProperty.getRpId())) {
+            entry = new RpIdHashEntry(serverProperty.getRpId(), serverProperty.getRpIdHash());
+            this.lastRpIdHash = entry;
+        }
+        return entry.rpIdHash;
+    }
+
+    private static class RpIdHashEntry {
+
+        private final String rpId;
+        private final byte[] rpIdHash;
+
+        RpIdHashEntry(@NonNull String rpId, @NonNull byte[] rpIdHash) {
+            this.rpId = rpId;
+            this.rpIdHash = rpIdHash;
+        }
+    }
 }
@@ -35,7 +35,6 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.PublicKey;
 import java.security.Signature;
@@ -61,14 +60,13 @@ public class PackedAttestationStatementValidator extends AbstractStatementValida
         validateAttestationStatementNotNull(attestationStatement);
         byte[] sig = attestationStatement.getSig();
         COSEAlgorithmIdentifier alg = attestationStatement.getAlg();
-        byte[] attrToBeSigned = getAttToBeSigned(registrationObject);
         // If x5c is present,
         if (attestationStatement.getX5c() != null) {
-            return validateX5c(registrationObject, attestationStatement, sig, alg, attrToBeSigned);
+            return validateX5c(registrationObject, attestationStatement, sig, alg);
         }
         // If x5c is not present, self attestation is in use.
         else {
-            return validateSelfAttestation(registrationObject, sig, alg, attrToBeSigned);
+            return validateSelfAttestation(registrationObject, sig, alg);
         }
     }
 
@@ -80,14 +78,14 @@ public class PackedAttestationStatementValidator extends AbstractStatementValida
     }
 
     @SuppressWarnings("SameReturnValue")
-    private @NonNull AttestationType validateX5c(@NonNull CoreRegistrationObject registrationObject, @NonNull PackedAttestationStatement attestationStatement, @NonNull byte[] sig, @NonNull COSEAlgorithmIdentifier alg, @NonNull byte[] attrToBeSigned) {
+    private @NonNull AttestationType validateX5c(@NonNull CoreRegistrationObject registrationObject, @NonNull PackedAttestationStatement attestationStatement, @NonNull byte[] sig, @NonNull COSEAlgorithmIdentifier alg) {
         if (attestationStatement.getX5c() == null || attestationStatement.getX5c().isEmpty()) {
             throw new BadAttestationStatementException("No attestation certificate is found in packed attestation statement.");
         }
 
         // Verify that sig is a valid signature over the concatenation of authenticatorData and clientDataHash
         // using the attestation public key in x5c with the algorithm specified in alg.
-        if (!verifySignature(attestationStatement.getX5c().getEndEntityAttestationCertificate().getCertificate().getPublicKey(), alg, sig, attrToBeSigned)) {
+        if (!verifySignature(attestationStatement.getX5c().getEndEntityAttestationCertificate().getCertificate().getPublicKey(), alg, sig, registrationObject)) {
             throw new BadSignatureException("`sig` in attestation statement is not valid signature over the concatenation of authenticatorData and clientDataHash.");
         }
         // Verify that x5c meets the requirements in §8.2.1 Packed attestation statement certificate requirements.
@@ -124,7 +122,7 @@ public class PackedAttestationStatementValidator extends AbstractStatementValida
     }
 
     @SuppressWarnings("SameReturnValue")
-    private @NonNull AttestationType validateSelfAttestation(@NonNull CoreRegistrationObject registrationObject, @NonNull byte[] sig, @NonNull COSEAlgorithmIdentifier alg, @NonNull byte[] attrToBeSigned) {
+    private @NonNull AttestationType validateSelfAttestation(@NonNull CoreRegistrationObject registrationObject, @NonNull byte[] sig, @NonNull COSEAlgorithmIdentifier alg) {
         //noinspection ConstantConditions as null check is already done in caller
         COSEKey coseKey = registrationObject.getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getCOSEKey();
         // Validate that alg matches the algorithm of the coseKey in authenticatorData.
@@ -134,7 +132,7 @@ public class PackedAttestationStatementValidator extends AbstractStatementValida
         }
         // Verify that sig is a valid signature over the concatenation of authenticatorData and clientDataHash using the credential public key with alg.
         //noinspection ConstantConditions as null check is already done in caller
-        if (!verifySignature(coseKey.getPublicKey(), alg, sig, attrToBeSigned)) {
+        if (!verifySignature(coseKey.getPublicKey(), alg, sig, registrationObject)) {
             throw new BadSignatureException("`sig` in attestation statement is not valid signature over the concatenation of authenticatorData and clientDataHash.");
         }
         // If successful, return attestation type Self and empty attestation trust path.
@@ -142,12 +140,14 @@ public class PackedAttestationStatementValidator extends AbstractStatementValida
     }
 
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
-    private boolean verifySignature(@NonNull PublicKey publicKey, @NonNull COSEAlgorithmIdentifier algorithmIdentifier, @NonNull byte[] signature, @NonNull byte[] data) {
+    private boolean verifySignature(@NonNull PublicKey publicKey, @NonNull COSEAlgorithmIdentifier algorithmIdentifier, @NonNull byte[] signature, @NonNull CoreRegistrationObject registrationObject) {
         try {
             String jcaName = getJcaName(algorithmIdentifier);
-            Signature verifier = SignatureUtil.createSignature(jcaName);
+            Signature verifier = SignatureUtil.getSignature(jcaName);
             verifier.initVerify(publicKey);
-            verifier.update(data);
+            // attToBeSigned is the concatenation of authenticatorData and clientDataHash, fed in two parts without copying
+            verifier.update(registrationObject.getAuthenticatorDataBytes());
+            verifier.update(registrationObject.getClientDataHash());
 
             return verifier.verify(signature);
         } catch (SignatureException | InvalidKeyException | RuntimeException e) {
@@ -155,10 +155,4 @@ public class PackedAttestationStatementValidator extends AbstractStatementValida
         }
     }
 
-    private @NonNull byte[] getAttToBeSigned(@NonNull CoreRegistrationObject registrationObject) {
-        byte[] authenticatorData = registrationObject.getAuthenticatorDataBytes();
-        byte[] clientDataHash = registrationObject.getClientDataHash();
-        return ByteBuffer.allocate(authenticatorData.length + clientDataHash.length).put(authenticatorData).put(clientDataHash).array();
-    }
-
 }
@@ -39,7 +39,6 @@ import javax.naming.ldap.LdapName;
 import javax.naming.ldap.Rdn;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.security.*;
 import java.security.cert.CertificateParsingException;
 import java.security.cert.X509Certificate;
@@ -96,7 +95,7 @@ public class TPMAttestationStatementValidator extends AbstractStatementValidator
         validatePublicKeyEquality(pubArea, authenticatorData);
 
         /// Concatenate authenticatorData and clientDataHash to form attToBeSigned.
-        byte[] attToBeSigned = getAttToBeSigned(registrationObject);
+        // attToBeSigned is not materialized; its two parts are fed to the hash for extraData below.
 
         /// Validate that certInfo is valid:
 
@@ -113,7 +112,9 @@ public class TPMAttestationStatementValidator extends AbstractStatementValidator
         /// Verify that extraData is set to the hash of attToBeSigned using the hash algorithm employed in "alg".
         COSEAlgorithmIdentifier alg = attestationStatement.getAlg();
         MessageDigest messageDigest = getMessageDigest(alg);
-        byte[] hash = messageDigest.digest(attToBeSigned);
+        messageDigest.update(registrationObject.getAuthenticatorDataBytes());
+        messageDigest.update(registrationObject.getClientDataHash());
+        byte[] hash = messageDigest.digest();
         if (!Arrays.equals(certInfo.getExtraData(), hash)) {
             throw new BadAttestationStatementException("extraData must be equals to the hash of attToBeSigned");
         }
@@ -179,7 +180,7 @@ public class TPMAttestationStatementValidator extends AbstractStatementValidator
 
         /// Verify the sig is a valid signature over certInfo using the attestation public key in aikCert with the algorithm specified in alg.
         String jcaName = getJcaName(attestationStatement.getAlg());
-        Signature certInfoSignature = SignatureUtil.createSignature(jcaName);
+        Signature certInfoSignature = SignatureUtil.getSignature(jcaName);
         try {
             certInfoSignature.initVerify(aikCert.getPublicKey());
             certInfoSignature.update(certInfo.getBytes());
@@ -340,11 +341,4 @@ public class TPMAttestationStatementValidator extends AbstractStatementValidator
         }
     }
 
-    private byte[] getAttToBeSigned(CoreRegistrationObject registrationObject) {
-        byte[] authenticatorData = registrationObject.getAuthenticatorDataBytes();
-        byte[] clientDataHash = registrationObject.getClientDataHash();
-        return ByteBuffer.allocate(authenticatorData.length + clientDataHash.length).put(authenticatorData).put(clientDataHash).array();
-    }
-
-
 }
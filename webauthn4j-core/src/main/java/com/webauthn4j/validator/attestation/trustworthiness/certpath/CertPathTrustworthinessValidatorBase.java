@@ -17,24 +17,33 @@
 package com.webauthn4j.validator.attestation.trustworthiness.certpath;
 
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.statement.AttestationCertificatePath;
 import com.webauthn4j.data.attestation.statement.CertificateBaseAttestationStatement;
 import com.webauthn4j.util.AssertUtil;
 import com.webauthn4j.util.CertificateUtil;
+import com.webauthn4j.util.MessageDigestUtil;
 import com.webauthn4j.validator.exception.CertificateException;
 import com.webauthn4j.validator.exception.TrustAnchorNotFoundException;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.security.InvalidAlgorithmParameterException;
+import java.security.MessageDigest;
 import java.security.cert.*;
 import java.time.Instant;
-import java.util.Date;
-import java.util.Set;
+import java.util.*;
 
 public abstract class CertPathTrustworthinessValidatorBase implements CertPathTrustworthinessValidator {
 
+    private static final int KEY_USAGE_KEY_CERT_SIGN = 5;
+    private static final String OID_NAME_CONSTRAINTS = "2.5.29.30";
+    private static final String OID_POLICY_CONSTRAINTS = "2.5.29.36";
+    private static final String OID_INHIBIT_ANY_POLICY = "2.5.29.54";
+
     private boolean fullChainProhibited = false;
     private boolean revocationCheckEnabled = false;
     private boolean policyQualifiersRejected = false;
+    private CertPathValidationCache certPathValidationCache = null;
 
     public void validate(@NonNull AAGUID aaguid, @NonNull CertificateBaseAttestationStatement attestationStatement, @NonNull Instant timestamp) {
         AssertUtil.notNull(aaguid, "aaguid must not be null");
@@ -42,7 +51,7 @@ public abstract class CertPathTrustworthinessValidatorBase implements CertPathTr
         AssertUtil.notNull(aaguid, "timestamp must not be null");
 
         //noinspection ConstantConditions as null check is already done in caller
-        CertPath certPath = attestationStatement.getX5c().createCertPath();
+        AttestationCertificatePath x5c = attestationStatement.getX5c();
 
         Set<TrustAnchor> trustAnchors = resolveTrustAnchors(aaguid);
 
@@ -50,8 +59,34 @@ public abstract class CertPathTrustworthinessValidatorBase implements CertPathTr
             throw new TrustAnchorNotFoundException("TrustAnchors are not found for AAGUID: " + aaguid.toString());
         }
 
+        CertPathValidationCache cache = certPathValidationCache;
+        if (cache == null || x5c.size() < 2) {
+            TrustAnchor trustAnchor = validateCertPath(x5c.createCertPath(), createPKIXParameters(aaguid, trustAnchors), timestamp);
+            validateFullChainNotContained(x5c, trustAnchor);
+            return;
+        }
+
+        List<X509Certificate> intermediates = x5c.subList(1, x5c.size());
+        CertPathValidationCache.Key key = new CertPathValidationCache.Key(aaguid, hash(intermediates), revocationCheckEnabled, policyQualifiersRejected);
+        CertPathValidationCache.Entry entry = cache.get(key);
+        if (entry != null && entry.isValidAt(timestamp) && containsTrustAnchor(trustAnchors, entry.getTrustAnchor())) {
+            cache.recordHit();
+            // the intermediates are known to chain to the trust anchor, so only the leaf is validated against the first intermediate
+            CertPath leafCertPath = CertificateUtil.generateCertPath(Collections.singletonList(x5c.get(0)));
+            validateCertPath(leafCertPath, CertificateUtil.createPKIXParameters(Collections.singleton(new TrustAnchor(intermediates.get(0), null))), timestamp);
+            validateFullChainNotContained(x5c, entry.getTrustAnchor());
+            return;
+        }
+        cache.recordMiss();
+        TrustAnchor trustAnchor = validateCertPath(x5c.createCertPath(), createPKIXParameters(aaguid, trustAnchors), timestamp);
+        validateFullChainNotContained(x5c, trustAnchor);
+        if (isLeafOnlyValidationEquivalent(intermediates, trustAnchor)) {
+            cache.put(key, trustAnchor, getNotBefore(intermediates), getNotAfter(intermediates));
+        }
+    }
+
+    private @NonNull TrustAnchor validateCertPath(@NonNull CertPath certPath, @NonNull PKIXParameters certPathParameters, @NonNull Instant timestamp) {
         CertPathValidator certPathValidator = CertificateUtil.createCertPathValidator();
-        PKIXParameters certPathParameters = CertificateUtil.createPKIXParameters(trustAnchors);
         certPathParameters.setPolicyQualifiersRejected(policyQualifiersRejected);
 
         certPathParameters.setRevocationEnabled(revocationCheckEnabled);
@@ -65,13 +100,118 @@ public abstract class CertPathTrustworthinessValidatorBase implements CertPathTr
         } catch (CertPathValidatorException e) {
             throw new com.webauthn4j.validator.exception.CertificateException("invalid cert path", e);
         }
-        if (fullChainProhibited && certPath.getCertificates().contains(result.getTrustAnchor().getTrustedCert())) {
+        return result.getTrustAnchor();
+    }
+
+    private void validateFullChainNotContained(@NonNull AttestationCertificatePath x5c, @NonNull TrustAnchor trustAnchor) {
+        if (fullChainProhibited && x5c.contains(trustAnchor.getTrustedCert())) {
             throw new CertificateException("`certpath` must not contain full chain.");
         }
     }
 
+    private @NonNull byte[] hash(@NonNull List<X509Certificate> certificates) {
+        MessageDigest messageDigest = MessageDigestUtil.createSHA256();
+        try {
+            for (X509Certificate certificate : certificates) {
+                messageDigest.update(certificate.getEncoded());
+            }
+        } catch (CertificateEncodingException e) {
+            throw new CertificateException("invalid certificate", e);
+        }
+        return messageDigest.digest();
+    }
+
+    private boolean containsTrustAnchor(@NonNull Set<TrustAnchor> trustAnchors, @NonNull TrustAnchor trustAnchor) {
+        // the same instance is resolved as long as the trust anchors are not reloaded
+        if (trustAnchors.contains(trustAnchor)) {
+            return true;
+        }
+        for (TrustAnchor candidate : trustAnchors) {
+            if (candidate == trustAnchor) {
+                return true;
+            }
+            if (trustAnchor.getTrustedCert() != null) {
+                if (trustAnchor.getTrustedCert().equals(candidate.getTrustedCert())) {
+                    return true;
+                }
+            }
+            else if (candidate.getTrustedCert() == null
+                    && Objects.equals(trustAnchor.getCA(), candidate.getCA())
+                    && Objects.equals(trustAnchor.getCAPublicKey(), candidate.getCAPublicKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether validating only the leaf against the first intermediate gives the same result as validating the whole
+     * path, once the path has been validated. It does not when a constraint of an upper certificate applies to the leaf or
+     * counts the first intermediate, so such paths are not cached.
+     */
+    private boolean isLeafOnlyValidationEquivalent(@NonNull List<X509Certificate> intermediates, @NonNull TrustAnchor trustAnchor) {
+        X509Certificate issuer = intermediates.get(0);
+        if (issuer.getBasicConstraints() < 0) {
+            return false;
+        }
+        boolean[] keyUsage = issuer.getKeyUsage();
+        if (keyUsage != null && (keyUsage.length <= KEY_USAGE_KEY_CERT_SIGN || !keyUsage[KEY_USAGE_KEY_CERT_SIGN])) {
+            return false;
+        }
+        for (int i = 0; i < intermediates.size(); i++) {
+            X509Certificate certificate = intermediates.get(i);
+            // the path length constraint of an upper CA also counts the first intermediate, which was the end of the cached path
+            if (i > 0 && certificate.getBasicConstraints() < i) {
+                return false;
+            }
+            if (hasExtension(certificate, OID_NAME_CONSTRAINTS) || hasExtension(certificate, OID_POLICY_CONSTRAINTS) || hasExtension(certificate, OID_INHIBIT_ANY_POLICY)) {
+                return false;
+            }
+        }
+        X509Certificate trustedCert = trustAnchor.getTrustedCert();
+        return trustAnchor.getNameConstraints() == null && (trustedCert == null || !hasExtension(trustedCert, OID_NAME_CONSTRAINTS));
+    }
+
+    private boolean hasExtension(@NonNull X509Certificate certificate, @NonNull String oid) {
+        return certificate.getExtensionValue(oid) != null;
+    }
+
+    private @NonNull Instant getNotBefore(@NonNull List<X509Certificate> certificates) {
+        Instant notBefore = Instant.MIN;
+        for (X509Certificate certificate : certificates) {
+            Instant value = certificate.getNotBefore().toInstant();
+            if (value.isAfter(notBefore)) {
+                notBefore = value;
+            }
+        }
+        return notBefore;
+    }
+
+    private @NonNull Instant getNotAfter(@NonNull List<X509Certificate> certificates) {
+        Instant notAfter = Instant.MAX;
+        for (X509Certificate certificate : certificates) {
+            Instant value = certificate.getNotAfter().toInstant();
+            if (value.isBefore(notAfter)) {
+                notAfter = value;
+            }
+        }
+        return notAfter;
+    }
+
     protected abstract @NonNull Set<TrustAnchor> resolveTrustAnchors(@NonNull AAGUID aaguid);
 
+    /**
+     * Creates {@link PKIXParameters} for the {@link TrustAnchor}s resolved by {@link #resolveTrustAnchors(AAGUID)}.
+     * The returned instance is modified by the caller.
+     *
+     * @param aaguid       {@link AAGUID} of the authenticator
+     * @param trustAnchors resolved {@link TrustAnchor}s
+     * @return {@link PKIXParameters}
+     */
+    protected @NonNull PKIXParameters createPKIXParameters(@NonNull AAGUID aaguid, @NonNull Set<TrustAnchor> trustAnchors) {
+        return CertificateUtil.createPKIXParameters(trustAnchors);
+    }
+
 
     public boolean isFullChainProhibited() {
         return fullChainProhibited;
@@ -96,4 +236,17 @@ public abstract class CertPathTrustworthinessValidatorBase implements CertPathTr
     public void setPolicyQualifiersRejected(boolean policyQualifiersRejected) {
         this.policyQualifiersRejected = policyQualifiersRejected;
     }
+
+    public @Nullable CertPathValidationCache getCertPathValidationCache() {
+        return certPathValidationCache;
+    }
+
+    /**
+     * Sets the cache of certificate path validation results. Caching is disabled when null, which is the default.
+     *
+     * @param certPathValidationCache cache, or null to disable caching
+     */
+    public void setCertPathValidationCache(@Nullable CertPathValidationCache certPathValidationCache) {
+        this.certPathValidationCache = certPathValidationCache;
+    }
 }
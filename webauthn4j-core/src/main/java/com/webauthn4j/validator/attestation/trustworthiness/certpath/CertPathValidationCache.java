@@ -0,0 +1,223 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.attestation.trustworthiness.certpath;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.util.AssertUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.security.cert.TrustAnchor;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, time-to-live cache of successful certificate path validations, used by {@link CertPathTrustworthinessValidatorBase}.
+ * An entry records that the intermediate part of an attestation certificate path (x5c without the leaf) chains to a trust
+ * anchor resolved for an AAGUID. When a later path of the same AAGUID has the same intermediates, only its leaf is validated,
+ * with the first intermediate as the trust anchor.
+ * <p>
+ * Entries are also keyed by the revocation check and policy qualifier settings of the validator. When revocation checking is
+ * enabled, the leaf is always checked, while the revocation status of cached intermediates is trusted for up to the time-to-live.
+ */
+public class CertPathValidationCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+
+    private final int maximumSize;
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public CertPathValidationCache(int maximumSize, @NonNull Duration timeToLive) {
+        this(maximumSize, timeToLive, Clock.systemUTC());
+    }
+
+    public CertPathValidationCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    CertPathValidationCache(int maximumSize, @NonNull Duration timeToLive, @NonNull Clock clock) {
+        AssertUtil.isTrue(maximumSize > 0, "maximumSize must be positive");
+        AssertUtil.notNull(timeToLive, "timeToLive must not be null");
+        AssertUtil.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+        AssertUtil.notNull(clock, "clock must not be null");
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public @NonNull Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Returns the number of cached entries, including expired ones not evicted yet
+     *
+     * @return the number of cached entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Removes all entries, e.g. after trust anchors or revocation information are updated
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Nullable Entry get(@NonNull Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(clock.instant())) {
+            if (entries.remove(key, entry)) {
+                evictionCount.increment();
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    void put(@NonNull Key key, @NonNull TrustAnchor trustAnchor, @NonNull Instant notBefore, @NonNull Instant notAfter) {
+        Instant now = clock.instant();
+        if (entries.size() >= maximumSize && !entries.containsKey(key)) {
+            evict(now);
+        }
+        entries.put(key, new Entry(trustAnchor, notBefore, notAfter, now.plus(timeToLive)));
+    }
+
+    void recordHit() {
+        hitCount.increment();
+    }
+
+    void recordMiss() {
+        missCount.increment();
+    }
+
+    // Removes expired entries, or the entry closest to expiry if none has expired. The size bound is approximate under concurrent puts.
+    private void evict(@NonNull Instant now) {
+        Key eldestKey = null;
+        Entry eldestEntry = null;
+        boolean expiredEntryRemoved = false;
+        for (Map.Entry<Key, Entry> mapEntry : entries.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            if (entry.isExpired(now)) {
+                if (entries.remove(mapEntry.getKey(), entry)) {
+                    evictionCount.increment();
+                    expiredEntryRemoved = true;
+                }
+            }
+            else if (eldestEntry == null || entry.expiresAt.isBefore(eldestEntry.expiresAt)) {
+                eldestKey = mapEntry.getKey();
+                eldestEntry = entry;
+            }
+        }
+        if (!expiredEntryRemoved && eldestKey != null && entries.remove(eldestKey, eldestEntry)) {
+            evictionCount.increment();
+        }
+    }
+
+    static class Key {
+
+        private final AAGUID aaguid;
+        private final byte[] intermediatesHash;
+        private final boolean revocationCheckEnabled;
+        private final boolean policyQualifiersRejected;
+
+        Key(@NonNull AAGUID aaguid, @NonNull byte[] intermediatesHash, boolean revocationCheckEnabled, boolean policyQualifiersRejected) {
+            this.aaguid = aaguid;
+            this.intermediatesHash = intermediatesHash;
+            this.revocationCheckEnabled = revocationCheckEnabled;
+            this.policyQualifiersRejected = policyQualifiersRejected;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return revocationCheckEnabled == key.revocationCheckEnabled &&
+                    policyQualifiersRejected == key.policyQualifiersRejected &&
+                    Objects.equals(aaguid, key.aaguid) &&
+                    Arrays.equals(intermediatesHash, key.intermediatesHash);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hash(aaguid, revocationCheckEnabled, policyQualifiersRejected);
+            result = 31 * result + Arrays.hashCode(intermediatesHash);
+            return result;
+        }
+    }
+
+    static class Entry {
+
+        private final TrustAnchor trustAnchor;
+        private final Instant notBefore;
+        private final Instant notAfter;
+        private final Instant expiresAt;
+
+        Entry(@NonNull TrustAnchor trustAnchor, @NonNull Instant notBefore, @NonNull Instant notAfter, @NonNull Instant expiresAt) {
+            this.trustAnchor = trustAnchor;
+            this.notBefore = notBefore;
+            this.notAfter = notAfter;
+            this.expiresAt = expiresAt;
+        }
+
+        @NonNull TrustAnchor getTrustAnchor() {
+            return trustAnchor;
+        }
+
+        /**
+         * Returns whether all the cached intermediates are valid at the specified time
+         */
+        boolean isValidAt(@NonNull Instant timestamp) {
+            return !timestamp.isBefore(notBefore) && !timestamp.isAfter(notAfter);
+        }
+
+        boolean isExpired(@NonNull Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
@@ -16,17 +16,45 @@
 
 package com.webauthn4j;
 
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.*;
+import com.webauthn4j.data.attestation.AttestationObject;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.client.Origin;
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionClientOutput;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientInputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.EmulatorUtil;
+import com.webauthn4j.test.client.ClientPlatform;
 import com.webauthn4j.validator.CustomAuthenticationValidator;
+import com.webauthn4j.validator.exception.BadChallengeException;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class WebAuthnAuthenticationManagerTest {
 
+    private final Origin origin = new Origin("http://example.com");
+    private final String rpId = "example.com";
+    private final ClientPlatform clientPlatform = EmulatorUtil.createClientPlatform(EmulatorUtil.PACKED_AUTHENTICATOR);
+
     @Test
     void constructor_test() {
         ObjectConverter objectConverter = new ObjectConverter();
@@ -36,5 +64,168 @@ class WebAuthnAuthenticationManagerTest {
         assertThatCode(() -> new WebAuthnAuthenticationManager(customAuthenticationValidators, objectConverter)).doesNotThrowAnyException();
     }
 
+    @Test
+    void validateAsync_test() {
+        WebAuthnAuthenticationManager target = new WebAuthnAuthenticationManager();
+        Challenge challenge = new DefaultChallenge();
+        Authenticator authenticator = register(challenge);
+        AuthenticationRequest request = createAuthenticationRequest(challenge, authenticator);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<AuthenticationData> future = target.validateAsync(request, createAuthenticationParameters(challenge, authenticator), executorService);
+            assertThat(future.join().getCredentialId()).isEqualTo(request.getCredentialId());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void validateAsync_with_invalid_request_test() {
+        WebAuthnAuthenticationManager target = new WebAuthnAuthenticationManager();
+        Challenge challenge = new DefaultChallenge();
+        Authenticator authenticator = register(challenge);
+        AuthenticationRequest request = createAuthenticationRequest(new DefaultChallenge(), authenticator);
+
+        CompletableFuture<AuthenticationData> future = target.validateAsync(request, createAuthenticationParameters(challenge, authenticator));
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertThat(exception).hasCauseInstanceOf(BadChallengeException.class);
+    }
+
+    @Test
+    void validateAll_test() {
+        WebAuthnAuthenticationManager target = new WebAuthnAuthenticationManager();
+        Challenge challenge = new DefaultChallenge();
+        Authenticator authenticator = register(challenge);
+        AuthenticationRequest validRequest = createAuthenticationRequest(challenge, authenticator);
+        AuthenticationRequest requestWithOtherChallenge = createAuthenticationRequest(new DefaultChallenge(), authenticator);
+        AuthenticationRequest malformedRequest = new AuthenticationRequest(new byte[32], new byte[]{0x01}, validRequest.getClientDataJSON(), (String) null, validRequest.getSignature());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            List<AuthenticationResult> results = target.validateAll(
+                    Arrays.asList(validRequest, requestWithOtherChallenge, malformedRequest),
+                    request -> createAuthenticationParameters(challenge, authenticator),
+                    executorService);
+
+            assertThat(results).hasSize(3);
+            assertThat(results.get(0).isValid()).isTrue();
+            assertThat(results.get(0).getAuthenticationRequest()).isSameAs(validRequest);
+            assertThat(results.get(0).getOrThrow().getCredentialId()).isEqualTo(validRequest.getCredentialId());
+            assertThat(results.get(1).isValid()).isFalse();
+            assertThat(results.get(1).getAuthenticationData()).isNotNull();
+            assertThat(results.get(1).getException()).isInstanceOf(BadChallengeException.class);
+            assertThat(results.get(2).isValid()).isFalse();
+            assertThat(results.get(2).getAuthenticationData()).isNull();
+            assertThat(results.get(2).getException()).isInstanceOf(DataConversionException.class);
+            assertThrows(DataConversionException.class, results.get(2)::getOrThrow);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void validateAll_with_rejecting_executor_test() {
+        WebAuthnAuthenticationManager target = new WebAuthnAuthenticationManager();
+        Challenge challenge = new DefaultChallenge();
+        Authenticator authenticator = register(challenge);
+        AuthenticationRequest request = createAuthenticationRequest(challenge, authenticator);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.shutdown();
+
+        List<AuthenticationResult> results = target.validateAll(Collections.singletonList(request), r -> createAuthenticationParameters(challenge, authenticator), executorService);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).isValid()).isTrue();
+    }
+
+    @Test
+    void validateAll_with_error_test() {
+        WebAuthnAuthenticationManager target = new WebAuthnAuthenticationManager();
+        Challenge challenge = new DefaultChallenge();
+        Authenticator authenticator = register(challenge);
+        AuthenticationRequest request = createAuthenticationRequest(challenge, authenticator);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            assertThrows(StackOverflowError.class, () -> target.validateAll(
+                    Arrays.asList(request, request),
+                    r -> {
+                        throw new StackOverflowError();
+                    },
+                    executorService));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void validateAll_with_shared_authenticator_test() {
+        WebAuthnAuthenticationManager target = new WebAuthnAuthenticationManager();
+        Challenge challenge = new DefaultChallenge();
+        Authenticator authenticator = register(challenge);
+        List<AuthenticationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            requests.add(createAuthenticationRequest(challenge, authenticator));
+        }
+        //noinspection ConstantConditions
+        long lastSignCount = target.parse(requests.get(requests.size() - 1)).getAuthenticatorData().getSignCount();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            target.validateAll(requests, request -> createAuthenticationParameters(challenge, authenticator), executorService);
+
+            // the counter updates are not lost, whichever order the requests are validated in
+            assertThat(authenticator.getCounter()).isEqualTo(lastSignCount);
+        } finally {
+            executorService.shutdown();
+        }
+    }
 
-}
\ No newline at end of file
+    @Test
+    void validateAll_with_empty_list_test() {
+        WebAuthnAuthenticationManager target = new WebAuthnAuthenticationManager();
+        assertThat(target.validateAll(Collections.emptyList(), request -> null)).isEmpty();
+    }
+
+    private Authenticator register(Challenge challenge) {
+        PublicKeyCredentialCreationOptions credentialCreationOptions = new PublicKeyCredentialCreationOptions(
+                new PublicKeyCredentialRpEntity(rpId, "example.com"),
+                new PublicKeyCredentialUserEntity(new byte[32], "username", "displayName"),
+                challenge,
+                Collections.singletonList(new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256)),
+                null,
+                Collections.emptyList(),
+                new AuthenticatorSelectionCriteria(AuthenticatorAttachment.CROSS_PLATFORM, true, UserVerificationRequirement.PREFERRED),
+                AttestationConveyancePreference.NONE,
+                new AuthenticationExtensionsClientInputs<>()
+        );
+        PublicKeyCredential<AuthenticatorAttestationResponse, RegistrationExtensionClientOutput> credential = clientPlatform.create(credentialCreationOptions);
+        AttestationObject attestationObject = WebAuthnManager.createNonStrictWebAuthnManager()
+                .parse(new RegistrationRequest(credential.getAuthenticatorResponse().getAttestationObject(), credential.getAuthenticatorResponse().getClientDataJSON()))
+                .getAttestationObject();
+        //noinspection ConstantConditions
+        return new AuthenticatorImpl(
+                attestationObject.getAuthenticatorData().getAttestedCredentialData(),
+                attestationObject.getAttestationStatement(),
+                attestationObject.getAuthenticatorData().getSignCount()
+        );
+    }
+
+    private AuthenticationRequest createAuthenticationRequest(Challenge challenge, Authenticator authenticator) {
+        PublicKeyCredentialRequestOptions credentialRequestOptions = new PublicKeyCredentialRequestOptions(
+                challenge,
+                0L,
+                rpId,
+                Collections.singletonList(new PublicKeyCredentialDescriptor(PublicKeyCredentialType.PUBLIC_KEY, authenticator.getAttestedCredentialData().getCredentialId(), null)),
+                UserVerificationRequirement.PREFERRED,
+                null
+        );
+        PublicKeyCredential<AuthenticatorAssertionResponse, AuthenticationExtensionClientOutput> credential = clientPlatform.get(credentialRequestOptions);
+        AuthenticatorAssertionResponse response = credential.getAuthenticatorResponse();
+        return new AuthenticationRequest(credential.getRawId(), response.getAuthenticatorData(), response.getClientDataJSON(), (String) null, response.getSignature());
+    }
+
+    private AuthenticationParameters createAuthenticationParameters(Challenge challenge, Authenticator authenticator) {
+        return new AuthenticationParameters(new ServerProperty(origin, rpId, challenge, null), authenticator, null, false);
+    }
+}
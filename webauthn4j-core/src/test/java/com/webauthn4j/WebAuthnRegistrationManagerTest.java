@@ -17,6 +17,16 @@
 package com.webauthn4j;
 
 import com.webauthn4j.anchor.TrustAnchorsResolver;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.data.*;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.client.Origin;
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.data.extension.client.AuthenticationExtensionsClientInputs;
+import com.webauthn4j.data.extension.client.RegistrationExtensionClientOutput;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.EmulatorUtil;
 import com.webauthn4j.test.TestAttestationUtil;
 import com.webauthn4j.validator.attestation.statement.androidkey.AndroidKeyAttestationStatementValidator;
 import com.webauthn4j.validator.attestation.statement.none.NoneAttestationStatementValidator;
@@ -27,8 +37,16 @@ import com.webauthn4j.validator.attestation.trustworthiness.self.DefaultSelfAtte
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class WebAuthnRegistrationManagerTest {
 
@@ -56,5 +74,56 @@ class WebAuthnRegistrationManagerTest {
         assertThat(WebAuthnRegistrationManager.createNonStrictWebAuthnRegistrationManager()).isNotNull();
     }
 
+    @Test
+    void validateAsync_test() {
+        WebAuthnRegistrationManager target = WebAuthnRegistrationManager.createNonStrictWebAuthnRegistrationManager();
+        Challenge challenge = new DefaultChallenge();
+        RegistrationRequest registrationRequest = createRegistrationRequest(challenge);
+        RegistrationParameters registrationParameters = new RegistrationParameters(new ServerProperty(new Origin("http://example.com"), "example.com", challenge, null), null, false);
+        List<String> stages = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<RegistrationData> future = target.validateAsync(registrationRequest, registrationParameters, createRecordingExecutor(stages, "compute"), createRecordingExecutor(stages, "blocking"));
+
+        assertThat(future.join().getAttestationObject()).isNotNull();
+        assertThat(stages).containsExactly("compute", "blocking");
+    }
+
+    @Test
+    void validateAsync_with_malformed_request_test() {
+        WebAuthnRegistrationManager target = WebAuthnRegistrationManager.createNonStrictWebAuthnRegistrationManager();
+        Challenge challenge = new DefaultChallenge();
+        RegistrationRequest registrationRequest = new RegistrationRequest(new byte[]{0x01}, createRegistrationRequest(challenge).getClientDataJSON());
+        RegistrationParameters registrationParameters = new RegistrationParameters(new ServerProperty(new Origin("http://example.com"), "example.com", challenge, null), null, false);
+        List<String> stages = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<RegistrationData> future = target.validateAsync(registrationRequest, registrationParameters, createRecordingExecutor(stages, "compute"), createRecordingExecutor(stages, "blocking"));
 
-}
\ No newline at end of file
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertThat(exception).hasCauseInstanceOf(DataConversionException.class);
+        assertThat(stages).containsExactly("compute");
+    }
+
+    private Executor createRecordingExecutor(List<String> stages, String name) {
+        return task -> {
+            stages.add(name);
+            ForkJoinPool.commonPool().execute(task);
+        };
+    }
+
+    private RegistrationRequest createRegistrationRequest(Challenge challenge) {
+        PublicKeyCredentialCreationOptions credentialCreationOptions = new PublicKeyCredentialCreationOptions(
+                new PublicKeyCredentialRpEntity("example.com", "example.com"),
+                new PublicKeyCredentialUserEntity(new byte[32], "username", "displayName"),
+                challenge,
+                Collections.singletonList(new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256)),
+                null,
+                Collections.emptyList(),
+                new AuthenticatorSelectionCriteria(AuthenticatorAttachment.CROSS_PLATFORM, true, UserVerificationRequirement.PREFERRED),
+                AttestationConveyancePreference.NONE,
+                new AuthenticationExtensionsClientInputs<>()
+        );
+        PublicKeyCredential<AuthenticatorAttestationResponse, RegistrationExtensionClientOutput> credential =
+                EmulatorUtil.createClientPlatform(EmulatorUtil.PACKED_AUTHENTICATOR).create(credentialCreationOptions);
+        return new RegistrationRequest(credential.getAuthenticatorResponse().getAttestationObject(), credential.getAuthenticatorResponse().getClientDataJSON());
+    }
+}
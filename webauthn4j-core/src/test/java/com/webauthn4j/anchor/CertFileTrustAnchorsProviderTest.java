@@ -18,9 +18,12 @@ package com.webauthn4j.anchor;
 
 
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.test.TestAttestationUtil;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.cert.TrustAnchor;
@@ -56,6 +59,24 @@ class CertFileTrustAnchorsProviderTest {
         );
     }
 
+    @Test
+    void refresh_test(@TempDir Path tempDir) throws Exception {
+        Path source = Paths.get(ClassLoader.getSystemResource("com/webauthn4j/anchor/CertFileTrustAnchorsProviderTest/test.crt").toURI());
+        Path certificate = tempDir.resolve("test.crt");
+        Files.copy(source, certificate);
+        target = new CertFileTrustAnchorsProvider(Collections.singletonList(certificate));
+        Map<AAGUID, Set<TrustAnchor>> trustAnchors = target.provide();
+
+        Files.write(certificate, TestAttestationUtil.load3tierTestRootCACertificate().getEncoded());
+
+        // loaded once until refreshed
+        assertThat(target.provide()).isSameAs(trustAnchors);
+        assertThat(target.refresh()).isTrue();
+        assertThat(target.getSnapshotVersion()).isEqualTo(2);
+        assertThat(target.provide().get(AAGUID.NULL)).extracting(TrustAnchor::getTrustedCert)
+                .containsExactly(TestAttestationUtil.load3tierTestRootCACertificate());
+    }
+
     @Test
     void getter_setter_test() throws Exception {
         target = new CertFileTrustAnchorsProvider();
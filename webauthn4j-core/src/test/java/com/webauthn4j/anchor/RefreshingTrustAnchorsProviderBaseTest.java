@@ -0,0 +1,249 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.anchor;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.test.TestAttestationUtil;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.Watchable;
+import java.security.cert.TrustAnchor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RefreshingTrustAnchorsProviderBaseTest {
+
+    @Test
+    void provide_loads_once_test() {
+        CountingTrustAnchorsProvider target = new CountingTrustAnchorsProvider();
+
+        Map<AAGUID, Set<TrustAnchor>> trustAnchorsA = target.provide();
+        Map<AAGUID, Set<TrustAnchor>> trustAnchorsB = target.provide();
+
+        assertThat(trustAnchorsA).isSameAs(trustAnchorsB);
+        assertThat(target.loadCount.get()).isEqualTo(1);
+        assertThat(target.getSnapshotVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_replaces_snapshot_test() {
+        CountingTrustAnchorsProvider target = new CountingTrustAnchorsProvider();
+        Map<AAGUID, Set<TrustAnchor>> trustAnchorsA = target.provide();
+
+        assertThat(target.refresh()).isTrue();
+
+        Map<AAGUID, Set<TrustAnchor>> trustAnchorsB = target.provide();
+        assertThat(trustAnchorsB).isNotSameAs(trustAnchorsA).containsOnlyKeys(AAGUID.NULL);
+        assertThat(target.getSnapshotVersion()).isEqualTo(2);
+        assertThrows(UnsupportedOperationException.class, () -> trustAnchorsB.put(AAGUID.ZERO, Collections.emptySet()));
+    }
+
+    @Test
+    void refresh_failure_keeps_previous_snapshot_test() {
+        CountingTrustAnchorsProvider target = new CountingTrustAnchorsProvider();
+        Map<AAGUID, Set<TrustAnchor>> trustAnchors = target.provide();
+        target.failing = true;
+
+        assertThat(target.refresh()).isFalse();
+
+        assertThat(target.provide()).isSameAs(trustAnchors);
+        assertThat(target.getSnapshotVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void provide_without_snapshot_propagates_load_failure_test() {
+        CountingTrustAnchorsProvider target = new CountingTrustAnchorsProvider();
+        target.failing = true;
+
+        assertThrows(IllegalStateException.class, target::provide);
+        assertThat(target.getSnapshotVersion()).isZero();
+    }
+
+    @Test
+    void startRefreshing_test() {
+        ScheduledExecutorService scheduledExecutorService = mock(ScheduledExecutorService.class);
+        try (CountingTrustAnchorsProvider target = new CountingTrustAnchorsProvider(scheduledExecutorService)) {
+            target.startRefreshing(Duration.ofMillis(10));
+
+            ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+            verify(scheduledExecutorService).scheduleWithFixedDelay(task.capture(), eq(10L), eq(10L), eq(TimeUnit.MILLISECONDS));
+            task.getValue().run();
+            assertThat(target.getSnapshotVersion()).isEqualTo(1);
+            assertThrows(IllegalArgumentException.class, () -> target.startRefreshing(Duration.ofMillis(10)));
+        }
+        verify(scheduledExecutorService).shutdownNow();
+    }
+
+    @Test
+    void startWatching_test(@TempDir Path tempDir) throws Exception {
+        Path source = Paths.get(ClassLoader.getSystemResource("com/webauthn4j/anchor/CertFileTrustAnchorsProviderTest/test.crt").toURI());
+        Path certificate = tempDir.resolve("test.crt");
+        Files.copy(source, certificate);
+        try (CertFileTrustAnchorsProvider target = new CertFileTrustAnchorsProvider(Collections.singletonList(certificate))) {
+            target.startWatching();
+
+            assertThrows(IllegalArgumentException.class, target::startWatching);
+        }
+    }
+
+    @Test
+    void pollChanges_test(@TempDir Path tempDir) {
+        Path certificate = tempDir.resolve("test.crt");
+        Map<Path, Set<Path>> fileNamesByDirectory = RefreshingTrustAnchorsProviderBase.groupByDirectory(Collections.singletonList(certificate));
+
+        // changes to other files are ignored
+        assertThat(RefreshingTrustAnchorsProviderBase.pollChanges(new StubWatchKey(tempDir, StandardWatchEventKinds.ENTRY_MODIFY, Paths.get("other.txt")), fileNamesByDirectory)).isFalse();
+        assertThat(RefreshingTrustAnchorsProviderBase.pollChanges(new StubWatchKey(tempDir, StandardWatchEventKinds.ENTRY_CREATE, Paths.get("test.crt")), fileNamesByDirectory)).isTrue();
+        // an overflow may have dropped events of the watched files
+        assertThat(RefreshingTrustAnchorsProviderBase.pollChanges(new StubWatchKey(tempDir, StandardWatchEventKinds.OVERFLOW, null), fileNamesByDirectory)).isTrue();
+    }
+
+    @Test
+    void concurrent_refreshes_keep_latest_load_test() throws Exception {
+        CountingTrustAnchorsProvider target = new CountingTrustAnchorsProvider();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(executorService.submit(target::refresh));
+            }
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get()).isTrue();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        // refreshes are serialized, so each one replaced the snapshot of the previous one
+        assertThat(target.getSnapshotVersion()).isEqualTo(20);
+        assertThat(target.loadCount.get()).isEqualTo(20);
+    }
+
+    @Test
+    void startWatching_without_watched_files_test() {
+        CountingTrustAnchorsProvider target = new CountingTrustAnchorsProvider();
+        assertThrows(IllegalArgumentException.class, target::startWatching);
+    }
+
+    private static class CountingTrustAnchorsProvider extends RefreshingTrustAnchorsProviderBase {
+
+        private final AtomicInteger loadCount = new AtomicInteger();
+        private final ScheduledExecutorService scheduledExecutorService;
+        private volatile boolean failing;
+
+        CountingTrustAnchorsProvider() {
+            this(null);
+        }
+
+        CountingTrustAnchorsProvider(ScheduledExecutorService scheduledExecutorService) {
+            this.scheduledExecutorService = scheduledExecutorService;
+        }
+
+        @Override
+        protected @NonNull Map<AAGUID, Set<TrustAnchor>> loadTrustAnchors() {
+            if (failing) {
+                throw new IllegalStateException("failed to load");
+            }
+            loadCount.incrementAndGet();
+            return Collections.singletonMap(AAGUID.NULL, Collections.singleton(new TrustAnchor(TestAttestationUtil.load3tierTestRootCACertificate(), null)));
+        }
+
+        @Override
+        @NonNull ScheduledExecutorService createScheduledExecutorService() {
+            return scheduledExecutorService;
+        }
+    }
+
+    private static class StubWatchKey implements WatchKey {
+
+        private final Path directory;
+        private final WatchEvent.Kind<?> kind;
+        private final Path context;
+
+        StubWatchKey(Path directory, WatchEvent.Kind<?> kind, Path context) {
+            this.directory = directory;
+            this.kind = kind;
+            this.context = context;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public List<WatchEvent<?>> pollEvents() {
+            return Collections.singletonList(new WatchEvent<Path>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Kind<Path> kind() {
+                    return (Kind<Path>) kind;
+                }
+
+                @Override
+                public int count() {
+                    return 1;
+                }
+
+                @Override
+                public Path context() {
+                    return context;
+                }
+            });
+        }
+
+        @Override
+        public boolean reset() {
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+            // nop
+        }
+
+        @Override
+        public Watchable watchable() {
+            return directory.toAbsolutePath();
+        }
+    }
+}
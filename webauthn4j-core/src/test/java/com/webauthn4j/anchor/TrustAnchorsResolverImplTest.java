@@ -17,12 +17,22 @@
 package com.webauthn4j.anchor;
 
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.test.TestAttestationUtil;
 import org.junit.jupiter.api.Test;
 
+import java.security.cert.PKIXParameters;
 import java.security.cert.TrustAnchor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class TrustAnchorsResolverImplTest {
 
@@ -34,4 +44,78 @@ class TrustAnchorsResolverImplTest {
         Set<TrustAnchor> trustAnchorsB = target.resolve(AAGUID.ZERO);
         assertThat(trustAnchorsA).isEqualTo(trustAnchorsB);
     }
+
+    @Test
+    void resolve_merges_global_and_aaguid_specific_trust_anchors_test() {
+        TrustAnchor globalTrustAnchor = new TrustAnchor(TestAttestationUtil.load3tierTestRootCACertificate(), null);
+        TrustAnchor specificTrustAnchor = new TrustAnchor(TestAttestationUtil.load2tierTestRootCACertificate(), null);
+        AAGUID aaguid = new AAGUID("fa2b99dc-9e39-4257-8f92-4a30d23c4118");
+        Map<AAGUID, Set<TrustAnchor>> map = new HashMap<>();
+        map.put(AAGUID.NULL, Collections.singleton(globalTrustAnchor));
+        map.put(aaguid, Collections.singleton(specificTrustAnchor));
+        TrustAnchorsResolverImpl target = new TrustAnchorsResolverImpl(() -> map);
+
+        assertThat(target.resolve(aaguid)).containsExactlyInAnyOrder(globalTrustAnchor, specificTrustAnchor);
+        assertThat(target.resolve(AAGUID.ZERO)).containsExactly(globalTrustAnchor);
+    }
+
+    @Test
+    void resolve_returns_same_unmodifiable_set_for_same_provided_map_test() {
+        TrustAnchor trustAnchor = new TrustAnchor(TestAttestationUtil.load3tierTestRootCACertificate(), null);
+        Map<AAGUID, Set<TrustAnchor>> map = Collections.singletonMap(AAGUID.NULL, Collections.singleton(trustAnchor));
+        TrustAnchorsResolverImpl target = new TrustAnchorsResolverImpl(() -> map);
+
+        Set<TrustAnchor> trustAnchorsA = target.resolve(AAGUID.ZERO);
+        Set<TrustAnchor> trustAnchorsB = target.resolve(AAGUID.ZERO);
+        // unknown AAGUIDs share the global trust anchors
+        Set<TrustAnchor> trustAnchorsC = target.resolve(new AAGUID("fa2b99dc-9e39-4257-8f92-4a30d23c4118"));
+
+        assertThat(trustAnchorsA).isSameAs(trustAnchorsB).isSameAs(trustAnchorsC);
+        assertThrows(UnsupportedOperationException.class, () -> trustAnchorsA.add(trustAnchor));
+    }
+
+    @Test
+    void resolve_rebuilds_when_provider_returns_another_map_test() {
+        TrustAnchor trustAnchorA = new TrustAnchor(TestAttestationUtil.load3tierTestRootCACertificate(), null);
+        TrustAnchor trustAnchorB = new TrustAnchor(TestAttestationUtil.load2tierTestRootCACertificate(), null);
+        AtomicReference<Map<AAGUID, Set<TrustAnchor>>> map = new AtomicReference<>(Collections.singletonMap(AAGUID.NULL, Collections.singleton(trustAnchorA)));
+        TrustAnchorsResolverImpl target = new TrustAnchorsResolverImpl(map::get);
+
+        assertThat(target.resolve(AAGUID.ZERO)).containsExactly(trustAnchorA);
+        map.set(Collections.singletonMap(AAGUID.NULL, Collections.singleton(trustAnchorB)));
+        assertThat(target.resolve(AAGUID.ZERO)).containsExactly(trustAnchorB);
+    }
+
+    @Test
+    void resolvePKIXParameters_test() {
+        TrustAnchor trustAnchor = new TrustAnchor(TestAttestationUtil.load3tierTestRootCACertificate(), null);
+        Map<AAGUID, Set<TrustAnchor>> map = Collections.singletonMap(AAGUID.NULL, Collections.singleton(trustAnchor));
+        TrustAnchorsResolverImpl target = new TrustAnchorsResolverImpl(() -> map);
+        Set<TrustAnchor> trustAnchors = target.resolve(AAGUID.ZERO);
+
+        PKIXParameters pkixParametersA = target.resolvePKIXParameters(AAGUID.ZERO, trustAnchors);
+        PKIXParameters pkixParametersB = target.resolvePKIXParameters(AAGUID.ZERO, trustAnchors);
+
+        assertThat(pkixParametersA).isNotSameAs(pkixParametersB);
+        assertThat(pkixParametersA.getTrustAnchors()).containsExactly(trustAnchor);
+    }
+
+    @Test
+    void resolvePKIXParameters_with_other_set_test() {
+        TrustAnchor trustAnchorA = new TrustAnchor(TestAttestationUtil.load3tierTestRootCACertificate(), null);
+        TrustAnchor trustAnchorB = new TrustAnchor(TestAttestationUtil.load2tierTestRootCACertificate(), null);
+        Map<AAGUID, Set<TrustAnchor>> map = Collections.singletonMap(AAGUID.NULL, new HashSet<>(Arrays.asList(trustAnchorA, trustAnchorB)));
+        AtomicInteger provideCount = new AtomicInteger();
+        TrustAnchorsResolverImpl target = new TrustAnchorsResolverImpl(() -> {
+            provideCount.incrementAndGet();
+            return map;
+        });
+        target.resolve(AAGUID.ZERO);
+
+        // a subset, as a validator filtering the resolved trust anchors passes
+        PKIXParameters pkixParameters = target.resolvePKIXParameters(AAGUID.ZERO, Collections.singleton(trustAnchorB));
+
+        assertThat(pkixParameters.getTrustAnchors()).containsExactly(trustAnchorB);
+        assertThat(provideCount).hasValue(1);
+    }
 }
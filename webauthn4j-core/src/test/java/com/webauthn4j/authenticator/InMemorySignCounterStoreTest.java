@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.authenticator;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemorySignCounterStoreTest {
+
+    private final InMemorySignCounterStore target = new InMemorySignCounterStore();
+
+    @Test
+    void advance_test() {
+        byte[] credentialId = new byte[]{0x01, 0x02};
+
+        assertThat(target.advance(credentialId, 3, 5)).isEqualTo(3);
+        assertThat(target.get(credentialId)).isEqualTo(5);
+        // the initial value is only used for unknown credentials
+        assertThat(target.advance(credentialId, 0, 4)).isEqualTo(5);
+        assertThat(target.get(credentialId)).isEqualTo(5);
+        assertThat(target.advance(credentialId.clone(), 0, 6)).isEqualTo(5);
+        assertThat(target.get(credentialId)).isEqualTo(6);
+    }
+
+    @Test
+    void advance_with_smaller_presented_counter_of_unknown_credential_test() {
+        byte[] credentialId = new byte[]{0x01};
+
+        assertThat(target.advance(credentialId, 10, 2)).isEqualTo(10);
+        assertThat(target.get(credentialId)).isEqualTo(10);
+    }
+
+    @Test
+    void advance_with_negative_counter_test() {
+        assertThrows(IllegalArgumentException.class, () -> target.advance(new byte[]{0x01}, 0, -1));
+    }
+
+    @Test
+    void remove_test() {
+        byte[] credentialId = new byte[]{0x01};
+        target.advance(credentialId, 0, 1);
+
+        assertThat(target.remove(credentialId)).isTrue();
+        assertThat(target.remove(credentialId)).isFalse();
+        assertThat(target.get(credentialId)).isEqualTo(-1);
+        assertThat(target.size()).isZero();
+        assertThat(target.advance(credentialId, 0, 1)).isZero();
+    }
+
+    @Test
+    void advance_many_credentials_test() {
+        InMemorySignCounterStore store = new InMemorySignCounterStore(1);
+        for (int i = 0; i < 10_000; i++) {
+            store.advance(toCredentialId(i), 0, i);
+            if (i % 3 == 0) {
+                store.remove(toCredentialId(i));
+            }
+        }
+        assertThat(store.size()).isEqualTo(10_000 - 3334);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(store.get(toCredentialId(i))).isEqualTo(i % 3 == 0 ? -1 : i);
+        }
+    }
+
+    @Test
+    void concurrent_advance_test() {
+        byte[] credentialId = new byte[]{0x01, 0x02, 0x03};
+        int count = 10_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<long[]>> futures = new ArrayList<>();
+            for (int i = 1; i <= count; i++) {
+                long presented = i;
+                futures.add(CompletableFuture.supplyAsync(() -> new long[]{presented, target.advance(credentialId, 0, presented)}, executorService));
+                // other credentials grow the table concurrently
+                byte[] other = toCredentialId(i);
+                CompletableFuture.runAsync(() -> target.advance(other, 0, 1), executorService);
+            }
+            Set<Long> previousValuesOfAdvances = new HashSet<>();
+            for (CompletableFuture<long[]> future : futures) {
+                long[] result = future.join();
+                if (result[0] > result[1]) {
+                    // each successful advance replaces a distinct stored value
+                    assertThat(previousValuesOfAdvances.add(result[1])).isTrue();
+                }
+            }
+            assertThat(target.get(credentialId)).isEqualTo(count);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static byte[] toCredentialId(int value) {
+        return ByteBuffer.allocate(8).putInt(0x7f7f7f7f).putInt(value).array();
+    }
+}
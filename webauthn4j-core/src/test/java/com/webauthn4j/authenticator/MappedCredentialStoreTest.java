@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.authenticator;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.test.TestAttestationStatementUtil;
+import com.webauthn4j.test.TestDataUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedCredentialStoreTest {
+
+    private final ObjectConverter objectConverter = new ObjectConverter();
+
+    @Test
+    void put_and_get_test(@TempDir Path tempDir) {
+        try (MappedCredentialStore target = new MappedCredentialStore(tempDir.resolve("credentials"), objectConverter)) {
+            CoreAuthenticator authenticator = createAuthenticator(1, 7);
+            target.put(authenticator);
+
+            Authenticator stored = target.getAuthenticator(credentialId(1));
+            assertThat(stored).isNotNull();
+            assertThat(stored.getAttestedCredentialData()).isEqualTo(authenticator.getAttestedCredentialData());
+            assertThat(stored.getCounter()).isEqualTo(7);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(7);
+            assertThat(target.getAuthenticator(credentialId(2))).isNull();
+            assertThat(target.getCounter(credentialId(2))).isEqualTo(-1);
+            assertThat(target.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void advance_test(@TempDir Path tempDir) {
+        try (MappedCredentialStore target = new MappedCredentialStore(tempDir.resolve("credentials"), objectConverter)) {
+            target.put(createAuthenticator(1, 7));
+
+            assertThat(target.advance(credentialId(1), 0, 8)).isEqualTo(7);
+            // a replayed counter is reported, and does not move the stored counter back
+            assertThat(target.advance(credentialId(1), 0, 8)).isEqualTo(8);
+            assertThat(target.advance(credentialId(1), 0, 3)).isEqualTo(8);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(8);
+            // unknown credentials are not recorded
+            assertThat(target.advance(credentialId(2), 5, 6)).isEqualTo(5);
+            assertThat(target.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void setCounter_of_stored_authenticator_test(@TempDir Path tempDir) {
+        try (MappedCredentialStore target = new MappedCredentialStore(tempDir.resolve("credentials"), objectConverter)) {
+            target.put(createAuthenticator(1, 7));
+            Authenticator stored = target.getAuthenticator(credentialId(1));
+
+            stored.setCounter(9);
+
+            assertThat(stored.getCounter()).isEqualTo(9);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(9);
+        }
+    }
+
+    @Test
+    void serialize_stored_authenticator_test(@TempDir Path tempDir) throws Exception {
+        try (MappedCredentialStore target = new MappedCredentialStore(tempDir.resolve("credentials"), objectConverter)) {
+            target.put(createAuthenticator(1, 7));
+            Authenticator stored = target.getAuthenticator(credentialId(1));
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+                objectOutputStream.writeObject(stored);
+            }
+            Authenticator deserialized;
+            try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+                deserialized = (Authenticator) objectInputStream.readObject();
+            }
+
+            assertThat(deserialized.getAttestedCredentialData()).isEqualTo(stored.getAttestedCredentialData());
+            assertThat(deserialized.getCounter()).isEqualTo(7);
+            // a deserialized authenticator is detached from the store
+            deserialized.setCounter(9);
+            assertThat(deserialized.getCounter()).isEqualTo(9);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(7);
+        }
+    }
+
+    @Test
+    void replace_and_remove_test(@TempDir Path tempDir) {
+        try (MappedCredentialStore target = new MappedCredentialStore(tempDir.resolve("credentials"), objectConverter)) {
+            target.put(createAuthenticator(1, 7));
+            target.put(createAuthenticator(1, 3));
+
+            assertThat(target.size()).isEqualTo(1);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(3);
+            assertThat(target.getGarbageBytes()).isPositive();
+
+            assertThat(target.remove(credentialId(1))).isTrue();
+            assertThat(target.remove(credentialId(1))).isFalse();
+            assertThat(target.getAuthenticator(credentialId(1))).isNull();
+            assertThat(target.size()).isZero();
+        }
+    }
+
+    @Test
+    void reopen_test(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("credentials");
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            target.put(createAuthenticator(1, 7));
+            target.put(createAuthenticator(2, 0));
+            target.put(createAuthenticator(3, 0));
+            target.remove(credentialId(3));
+            target.advance(credentialId(1), 0, 10);
+        }
+
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            assertThat(target.size()).isEqualTo(2);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(10);
+            assertThat(target.getCounter(credentialId(2))).isZero();
+            assertThat(target.getAuthenticator(credentialId(3))).isNull();
+        }
+    }
+
+    @Test
+    void reopen_with_torn_record_test(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("credentials");
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            target.put(createAuthenticator(1, 7));
+            target.put(createAuthenticator(2, 0));
+        }
+        // corrupt the last byte of the COSE key of the last record, which is followed by the zeroed tail of the file
+        byte[] bytes = Files.readAllBytes(file);
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            if (bytes[i] != 0) {
+                bytes[i] ^= 0x01;
+                break;
+            }
+        }
+        Files.write(file, bytes);
+
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            assertThat(target.size()).isEqualTo(1);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(7);
+            assertThat(target.getAuthenticator(credentialId(2))).isNull();
+            // the store keeps appending after the last intact record
+            target.put(createAuthenticator(3, 1));
+        }
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            assertThat(target.size()).isEqualTo(2);
+            assertThat(target.getCounter(credentialId(3))).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void compact_test(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("credentials");
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            for (int i = 0; i < 100; i++) {
+                target.put(createAuthenticator(i, i));
+            }
+            for (int i = 0; i < 100; i += 2) {
+                target.remove(credentialId(i));
+            }
+            target.advance(credentialId(1), 0, 1000);
+
+            target.compact();
+
+            assertThat(target.getGarbageBytes()).isZero();
+            assertThat(target.size()).isEqualTo(50);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(1000);
+            assertThat(target.getCounter(credentialId(2))).isEqualTo(-1);
+            assertThat(target.getAuthenticator(credentialId(99)).getCounter()).isEqualTo(99);
+            target.put(createAuthenticator(2, 2));
+        }
+        assertThat(Files.exists(tempDir.resolve("credentials.compact"))).isFalse();
+
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            assertThat(target.size()).isEqualTo(51);
+            assertThat(target.getCounter(credentialId(1))).isEqualTo(1000);
+            assertThat(target.getCounter(credentialId(2))).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void grow_test(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("credentials");
+        // enough records to grow both the mapping and the index
+        int count = 10000;
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            for (int i = 0; i < count; i++) {
+                target.put(createAuthenticator(i, i));
+            }
+            assertThat(target.size()).isEqualTo(count);
+            for (int i = 0; i < count; i++) {
+                assertThat(target.getCounter(credentialId(i))).isEqualTo(i);
+            }
+        }
+        try (MappedCredentialStore target = new MappedCredentialStore(file, objectConverter)) {
+            assertThat(target.size()).isEqualTo(count);
+            assertThat(target.getCounter(credentialId(count - 1))).isEqualTo(count - 1);
+        }
+    }
+
+    @Test
+    void open_other_file_test(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("credentials");
+        Files.write(file, new byte[32]);
+
+        assertThrows(UncheckedIOException.class, () -> new MappedCredentialStore(file, objectConverter));
+    }
+
+    @Test
+    void put_after_close_test(@TempDir Path tempDir) {
+        MappedCredentialStore target = new MappedCredentialStore(tempDir.resolve("credentials"), objectConverter);
+        target.close();
+
+        assertThrows(IllegalStateException.class, () -> target.put(createAuthenticator(1, 0)));
+    }
+
+    private CoreAuthenticator createAuthenticator(int id, long counter) {
+        AttestedCredentialData attestedCredentialData = new AttestedCredentialData(AAGUID.ZERO, credentialId(id), TestDataUtil.createEC2COSEPublicKey());
+        return new AuthenticatorImpl(attestedCredentialData, TestAttestationStatementUtil.createFIDOU2FAttestationStatement(), counter);
+    }
+
+    private static byte[] credentialId(int id) {
+        return ByteBuffer.allocate(32).putInt(28, id).array();
+    }
+}
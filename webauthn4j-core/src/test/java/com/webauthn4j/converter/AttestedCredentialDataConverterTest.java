@@ -18,11 +18,17 @@ package com.webauthn4j.converter;
 
 import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.converter.util.ObjectConverter;
-import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.data.attestation.authenticator.*;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.data.attestation.statement.COSEKeyOperation;
+import com.webauthn4j.test.TestDataUtil;
 import com.webauthn4j.util.Base64UrlUtil;
+import com.webauthn4j.util.ECUtil;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.security.interfaces.ECPublicKey;
+import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -45,6 +51,45 @@ class AttestedCredentialDataConverterTest {
 
     }
 
+    @Test
+    void convert_with_cbor_fast_path_disabled_test() {
+        //noinspection SpellCheckingInspection
+        byte[] input = Base64UrlUtil.decode("VQ5LVKpHQJ-alRq3bBMBMQAgcSLOLIaiEIVRz-EklkZ21K71OGcRvvgro1kLdT4pvCClAQIDJiABIVggLDjE-Yci-q4NHPYpTPLJCVkWFkxuL6Zz9jKUvWjnmM8iWCAZAjkRJgA59HxAzqq5NBKjKGNkRPzToDfI6gJR7YBYkQ");
+        ObjectConverter jacksonObjectConverter = new ObjectConverter();
+        jacksonObjectConverter.setCborFastPathEnabled(false);
+        AttestedCredentialData expected = new AttestedCredentialDataConverter(jacksonObjectConverter).convert(input);
+
+        AttestedCredentialData attestedCredentialData = target.convert(input);
+
+        assertThat(attestedCredentialData).isEqualTo(expected);
+        assertThat(attestedCredentialData.getCOSEKey()).isInstanceOf(EC2COSEKey.class);
+    }
+
+    @Test
+    void convert_rsa_key_test() {
+        AttestedCredentialData source = new AttestedCredentialData(AAGUID.ZERO, new byte[]{0x01, 0x02}, TestDataUtil.createRSACOSEPublicKey());
+        ByteBuffer buffer = ByteBuffer.wrap(target.convert(source));
+
+        AttestedCredentialData attestedCredentialData = target.convert(buffer);
+
+        assertThat(attestedCredentialData).isEqualTo(source);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void convert_ec2_key_with_key_ops_test() {
+        // key_ops is outside of the fast path, and is read by Jackson
+        EC2COSEKey ec2COSEKey = EC2COSEKey.create((ECPublicKey) ECUtil.createKeyPair().getPublic());
+        EC2COSEKey coseKey = new EC2COSEKey(null, COSEAlgorithmIdentifier.ES256, Collections.singletonList(COSEKeyOperation.VERIFY), ec2COSEKey.getCurve(), ec2COSEKey.getX(), ec2COSEKey.getY(), null);
+        AttestedCredentialData source = new AttestedCredentialData(AAGUID.ZERO, new byte[]{0x01, 0x02}, coseKey);
+        ByteBuffer buffer = ByteBuffer.wrap(target.convert(source));
+
+        AttestedCredentialData attestedCredentialData = target.convert(buffer);
+
+        assertThat(attestedCredentialData).isEqualTo(source);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
     @Test
     void convert_null_test() {
         assertThatThrownBy(() -> target.convert((AttestedCredentialData) null)).isInstanceOf(DataConversionException.class);
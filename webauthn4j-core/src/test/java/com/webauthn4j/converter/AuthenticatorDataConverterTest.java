@@ -19,6 +19,7 @@ package com.webauthn4j.converter;
 import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.data.attestation.authenticator.AuthenticatorDataView;
 import com.webauthn4j.data.extension.UvmEntries;
 import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionAuthenticatorOutput;
 import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
@@ -69,6 +70,48 @@ class AuthenticatorDataConverterTest {
         assertThat(authenticatorData.getAttestedCredentialData()).isNull();
     }
 
+    @Test
+    void convertLazily_test() {
+        //Given
+        //noinspection SpellCheckingInspection
+        byte[] input = Base64UrlUtil.decode("SZYN5YgOjGh0NBcPZHZgW4_krrmihjLHmVzzuoMdl2MBAAABRQ");
+        AuthenticatorDataConverter authenticatorDataConverter = new AuthenticatorDataConverter(objectConverter);
+
+        //When
+        AuthenticatorData<AuthenticationExtensionAuthenticatorOutput> result = authenticatorDataConverter.convertLazily(input);
+
+        //Then
+        assertThat(result).isInstanceOf(AuthenticatorDataView.class);
+        assertThat(result).isEqualTo(authenticatorDataConverter.convert(input));
+        assertThat(result.getSignCount()).isEqualTo(325);
+    }
+
+    @Test
+    void convertLazily_with_attested_credential_data_test() {
+        //Given
+        //noinspection SpellCheckingInspection
+        byte[] input = Base64UrlUtil.decode("SZYN5YgOjGh0NBcPZHZgW4_krrmihjLHmVzzuoMdl2NBAAAARlUOS1SqR0CfmpUat2wTATEAIHEiziyGohCFUc_hJJZGdtSu9ThnEb74K6NZC3U-KbwgpQECAyYgASFYICw4xPmHIvquDRz2KUzyyQlZFhZMbi-mc_YylL1o55jPIlggGQI5ESYAOfR8QM6quTQSoyhjZET806A3yOoCUe2AWJE");
+        AuthenticatorDataConverter authenticatorDataConverter = new AuthenticatorDataConverter(objectConverter);
+
+        //When
+        AuthenticatorData<RegistrationExtensionAuthenticatorOutput> result = authenticatorDataConverter.convertLazily(input);
+
+        //Then
+        assertThat(result).isNotInstanceOf(AuthenticatorDataView.class);
+        assertThat(result.getAttestedCredentialData()).isNotNull();
+    }
+
+    @Test
+    void convertLazily_too_short_data_test() {
+        //noinspection SpellCheckingInspection
+        byte[] input = Base64UrlUtil.decode("SZYN5YgOjGh0NBcP");
+        AuthenticatorDataConverter authenticatorDataConverter = new AuthenticatorDataConverter(objectConverter);
+
+        assertThrows(DataConversionException.class,
+                () -> authenticatorDataConverter.convertLazily(input)
+        );
+    }
+
     @Test
     void convert_too_short_data_test() {
         //Given
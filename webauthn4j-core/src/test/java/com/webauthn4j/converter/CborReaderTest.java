@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import com.webauthn4j.util.HexUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CborReaderTest {
+
+    @Test
+    void readInteger_test() {
+        CborReader target = createReader("00" + "17" + "1818" + "190100" + "1A00010000" + "1B0000000100000000" + "20" + "3818" + "390100");
+        assertThat(target.readInteger()).isEqualTo(0);
+        assertThat(target.readInteger()).isEqualTo(23);
+        assertThat(target.readInteger()).isEqualTo(24);
+        assertThat(target.readInteger()).isEqualTo(256);
+        assertThat(target.readInteger()).isEqualTo(65536);
+        assertThat(target.readInteger()).isEqualTo(4294967296L);
+        assertThat(target.readInteger()).isEqualTo(-1);
+        assertThat(target.readInteger()).isEqualTo(-25);
+        assertThat(target.readInteger()).isEqualTo(-257);
+    }
+
+    @Test
+    void readInteger_with_unsigned_64bit_value_out_of_long_range_test() {
+        CborReader target = createReader("1BFFFFFFFFFFFFFFFF");
+        assertThrows(CborReader.UnsupportedCborException.class, target::readInteger);
+    }
+
+    @Test
+    void readInteger_with_byte_string_test() {
+        CborReader target = createReader("4100");
+        assertThrows(CborReader.UnsupportedCborException.class, target::readInteger);
+    }
+
+    @Test
+    void readByteString_and_readTextString_test() {
+        CborReader target = createReader("43010203" + "6461626364");
+        assertThat(target.readByteString()).isEqualTo(new byte[]{1, 2, 3});
+        assertThat(target.readTextString()).isEqualTo("abcd");
+    }
+
+    @Test
+    void readByteString_with_length_exceeding_remaining_test() {
+        CborReader target = createReader("450102");
+        assertThrows(CborReader.UnsupportedCborException.class, target::readByteString);
+    }
+
+    @Test
+    void readByteString_with_indefinite_length_test() {
+        CborReader target = createReader("5F4101FF");
+        assertThrows(CborReader.UnsupportedCborException.class, target::readByteString);
+    }
+
+    @Test
+    void readMapHeader_with_definite_length_test() {
+        CborReader target = createReader("A2" + "0102" + "0304");
+        int size = target.readMapHeader();
+        int count = 0;
+        for (int i = 0; target.hasNext(size, i); i++) {
+            target.readInteger();
+            target.readInteger();
+            count++;
+        }
+        assertThat(size).isEqualTo(2);
+        assertThat(count).isEqualTo(2);
+    }
+
+    @Test
+    void readMapHeader_with_indefinite_length_test() {
+        CborReader target = createReader("BF" + "0102" + "0304" + "FF" + "05");
+        int size = target.readMapHeader();
+        int count = 0;
+        for (int i = 0; target.hasNext(size, i); i++) {
+            target.readInteger();
+            target.readInteger();
+            count++;
+        }
+        assertThat(size).isEqualTo(CborReader.INDEFINITE_LENGTH);
+        assertThat(count).isEqualTo(2);
+        assertThat(target.readInteger()).isEqualTo(5);
+    }
+
+    @Test
+    void skip_test() {
+        // {"a": [1, h'0102', {"b": true}], "c": 1.5} followed by 7
+        CborReader target = createReader("A2" + "6161" + "83" + "01" + "420102" + "A1" + "6162" + "F5" + "6163" + "F93E00" + "07");
+        target.skip();
+        assertThat(target.readInteger()).isEqualTo(7);
+    }
+
+    @Test
+    void skip_with_indefinite_length_array_test() {
+        CborReader target = createReader("9F" + "01" + "02" + "FF" + "07");
+        target.skip();
+        assertThat(target.readInteger()).isEqualTo(7);
+    }
+
+    @Test
+    void skip_with_tag_test() {
+        CborReader target = createReader("C11A514B67B0");
+        assertThrows(CborReader.UnsupportedCborException.class, target::skip);
+    }
+
+    @Test
+    void readInteger_with_truncated_input_test() {
+        CborReader target = createReader("19");
+        assertThrows(BufferUnderflowException.class, target::readInteger);
+    }
+
+    @Test
+    void peekMajorType_with_empty_input_test() {
+        CborReader target = createReader("");
+        assertThrows(BufferUnderflowException.class, target::peekMajorType);
+    }
+
+    private CborReader createReader(String hex) {
+        return new CborReader(ByteBuffer.wrap(HexUtil.decode(hex)));
+    }
+}
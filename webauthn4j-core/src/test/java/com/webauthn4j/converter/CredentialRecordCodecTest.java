@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.authenticator.CoreAuthenticator;
+import com.webauthn4j.authenticator.CoreAuthenticatorImpl;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.AuthenticatorTransport;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.test.TestAttestationStatementUtil;
+import com.webauthn4j.test.TestDataUtil;
+import com.webauthn4j.util.CollectionUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CredentialRecordCodecTest {
+
+    private final ObjectConverter objectConverter = new ObjectConverter();
+    private final CredentialRecordCodec target = new CredentialRecordCodec(objectConverter);
+
+    @Test
+    void encode_decode_test() {
+        AuthenticatorImpl authenticator = new AuthenticatorImpl(
+                TestDataUtil.createAttestedCredentialData(),
+                TestAttestationStatementUtil.createFIDOU2FAttestationStatement(),
+                4294967295L,
+                CollectionUtil.unmodifiableSet(AuthenticatorTransport.USB, AuthenticatorTransport.INTERNAL, AuthenticatorTransport.create("hybrid"))
+        );
+
+        byte[] record = target.encode(authenticator);
+        AuthenticatorImpl decoded = target.decode(record);
+
+        assertThat(decoded).isEqualTo(authenticator);
+        assertThat(decoded.getCounter()).isEqualTo(4294967295L);
+        assertThat(decoded.getTransports()).containsExactlyInAnyOrder(AuthenticatorTransport.USB, AuthenticatorTransport.INTERNAL, AuthenticatorTransport.create("hybrid"));
+    }
+
+    @Test
+    void encode_decode_rsa_key_test() {
+        AttestedCredentialData attestedCredentialData = new AttestedCredentialData(AAGUID.ZERO, new byte[]{0x01, 0x02}, TestDataUtil.createRSACOSEPublicKey());
+        AuthenticatorImpl authenticator = new AuthenticatorImpl(attestedCredentialData, TestAttestationStatementUtil.createBasicPackedAttestationStatement(), 1);
+
+        assertThat(target.decode(target.encode(authenticator))).isEqualTo(authenticator);
+    }
+
+    @Test
+    void encode_decode_core_authenticator_test() {
+        CoreAuthenticatorImpl authenticator = new CoreAuthenticatorImpl(TestDataUtil.createAttestedCredentialData(), TestAttestationStatementUtil.createFIDOU2FAttestationStatement(), 2, null);
+
+        AuthenticatorImpl decoded = target.decode(target.encode(authenticator));
+
+        assertThat(decoded.getAttestedCredentialData()).isEqualTo(authenticator.getAttestedCredentialData());
+        assertThat(decoded.getAttestationStatement()).isEqualTo(authenticator.getAttestationStatement());
+        assertThat(decoded.getCounter()).isEqualTo(2);
+        assertThat(decoded.getTransports()).isNull();
+    }
+
+    @Test
+    void encode_without_attestation_statement_test() {
+        AuthenticatorImpl authenticator = (AuthenticatorImpl) TestDataUtil.createAuthenticator();
+
+        byte[] full = target.encode(authenticator);
+        byte[] compact = target.encode(authenticator, false);
+        AuthenticatorImpl decoded = target.decode(compact);
+
+        assertThat(compact.length).isLessThan(full.length);
+        assertThat(decoded.getAttestationStatement()).isNull();
+        assertThat(decoded.getAttestedCredentialData()).isEqualTo(authenticator.getAttestedCredentialData());
+    }
+
+    @Test
+    void decode_without_attestation_statement_test() {
+        AuthenticatorImpl authenticator = (AuthenticatorImpl) TestDataUtil.createAuthenticator();
+
+        AuthenticatorImpl decoded = target.decode(target.encode(authenticator), false);
+
+        assertThat(decoded.getAttestationStatement()).isNull();
+        assertThat(decoded.getAttestedCredentialData()).isEqualTo(authenticator.getAttestedCredentialData());
+        assertThat(decoded.getCounter()).isEqualTo(authenticator.getCounter());
+        assertThat(decoded.getTransports()).isEqualTo(authenticator.getTransports());
+    }
+
+    @Test
+    void encode_with_out_of_range_counter_test() {
+        CoreAuthenticator authenticator = mock(CoreAuthenticator.class);
+        when(authenticator.getAttestedCredentialData()).thenReturn(TestDataUtil.createAttestedCredentialData());
+        when(authenticator.getCounter()).thenReturn(4294967296L);
+
+        assertThrows(DataConversionException.class, () -> target.encode(authenticator));
+
+        when(authenticator.getCounter()).thenReturn(-1L);
+        assertThrows(DataConversionException.class, () -> target.encode(authenticator));
+    }
+
+    @Test
+    void decode_with_unsupported_version_test() {
+        byte[] record = target.encode(TestDataUtil.createAuthenticator());
+        record[0] = 0x7f;
+
+        assertThrows(DataConversionException.class, () -> target.decode(record));
+    }
+
+    @Test
+    void decode_truncated_record_test() {
+        byte[] record = target.encode(TestDataUtil.createAuthenticator());
+
+        assertThrows(DataConversionException.class, () -> target.decode(Arrays.copyOf(record, record.length - 1)));
+        assertThrows(DataConversionException.class, () -> target.decode(Arrays.copyOf(record, 30)));
+    }
+
+    @Test
+    void decode_record_with_trailing_bytes_test() {
+        byte[] record = target.encode(TestDataUtil.createAuthenticator());
+
+        assertThrows(DataConversionException.class, () -> target.decode(Arrays.copyOf(record, record.length + 1)));
+    }
+}
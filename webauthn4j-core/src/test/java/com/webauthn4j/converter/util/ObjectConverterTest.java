@@ -17,6 +17,7 @@
 package com.webauthn4j.converter.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.Test;
 
@@ -31,6 +32,18 @@ class ObjectConverterTest {
         ObjectConverter objectConverter = new ObjectConverter(jsonMapper, cborMapper);
         assertThat(objectConverter.getJsonConverter()).isNotNull();
         assertThat(objectConverter.getCborConverter()).isNotNull();
+        assertThat(objectConverter.isCborFastPathEnabled()).isTrue();
+    }
+
+    @Test
+    void constructor_with_custom_module_disables_cbor_fast_path_test() {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        cborMapper.registerModule(new SimpleModule("custom"));
+        ObjectConverter objectConverter = new ObjectConverter(new ObjectMapper(), cborMapper);
+        assertThat(objectConverter.isCborFastPathEnabled()).isFalse();
+
+        objectConverter.setCborFastPathEnabled(true);
+        assertThat(objectConverter.isCborFastPathEnabled()).isTrue();
     }
 
 }
\ No newline at end of file
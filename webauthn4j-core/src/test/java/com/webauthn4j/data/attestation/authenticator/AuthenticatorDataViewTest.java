@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.data.attestation.authenticator;
+
+import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionAuthenticatorOutput;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.SerializationUtils;
+
+import java.util.Arrays;
+
+import static com.webauthn4j.data.attestation.authenticator.AuthenticatorData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test for AuthenticatorDataView
+ */
+class AuthenticatorDataViewTest {
+
+    @Test
+    void getter_test() {
+        byte[] bytes = createBytes((byte) (BIT_UP | BIT_UV), new byte[]{(byte) 0x80, 0x00, 0x01, 0x02});
+        AuthenticatorDataView<AuthenticationExtensionAuthenticatorOutput> target = new AuthenticatorDataView<>(bytes);
+
+        assertAll(
+                () -> assertThat(target.getRpIdHash()).isEqualTo(Arrays.copyOf(bytes, 32)),
+                () -> assertThat(target.getFlags()).isEqualTo((byte) (BIT_UP | BIT_UV)),
+                () -> assertThat(target.isFlagUP()).isTrue(),
+                () -> assertThat(target.isFlagUV()).isTrue(),
+                () -> assertThat(target.isFlagAT()).isFalse(),
+                () -> assertThat(target.isFlagED()).isFalse(),
+                () -> assertThat(target.getSignCount()).isEqualTo(0x80000102L),
+                () -> assertThat(target.getAttestedCredentialData()).isNull(),
+                () -> assertThat(target.getExtensions().getKeys()).isEmpty()
+        );
+    }
+
+    @Test
+    void equals_hashCode_test() {
+        byte[] bytes = createBytes(BIT_UP, new byte[]{0x00, 0x00, 0x01, 0x45});
+        AuthenticatorDataView<AuthenticationExtensionAuthenticatorOutput> view = new AuthenticatorDataView<>(bytes);
+        AuthenticatorData<AuthenticationExtensionAuthenticatorOutput> authenticatorData = new AuthenticatorData<>(Arrays.copyOf(bytes, 32), BIT_UP, 325);
+
+        assertThat(view).isEqualTo(authenticatorData);
+        assertThat(authenticatorData).isEqualTo(view);
+        assertThat(view).hasSameHashCodeAs(authenticatorData);
+    }
+
+    @Test
+    void constructor_with_attested_credential_data_flag_test() {
+        byte[] bytes = createBytes(BIT_AT, new byte[4]);
+        assertThrows(IllegalArgumentException.class, () -> new AuthenticatorDataView<>(bytes));
+    }
+
+    @Test
+    void constructor_with_extensions_flag_test() {
+        byte[] bytes = createBytes(BIT_ED, new byte[4]);
+        assertThrows(IllegalArgumentException.class, () -> new AuthenticatorDataView<>(bytes));
+    }
+
+    @Test
+    void constructor_with_invalid_length_test() {
+        byte[] bytes = new byte[36];
+        assertThrows(IllegalArgumentException.class, () -> new AuthenticatorDataView<>(bytes));
+    }
+
+    @Test
+    void serialization_test() {
+        AuthenticatorDataView<AuthenticationExtensionAuthenticatorOutput> original = new AuthenticatorDataView<>(createBytes(BIT_UP, new byte[]{0x00, 0x00, 0x00, 0x01}));
+        Object deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(original));
+        assertThat(deserialized).isExactlyInstanceOf(AuthenticatorData.class);
+        assertThat(deserialized).isEqualTo(original);
+    }
+
+    private byte[] createBytes(byte flags, byte[] signCount) {
+        byte[] bytes = new byte[37];
+        for (int i = 0; i < 32; i++) {
+            bytes[i] = (byte) i;
+        }
+        bytes[32] = flags;
+        System.arraycopy(signCount, 0, bytes, 33, 4);
+        return bytes;
+    }
+}
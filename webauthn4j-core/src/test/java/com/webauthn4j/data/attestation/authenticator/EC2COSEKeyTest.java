@@ -25,6 +25,7 @@ import com.webauthn4j.util.Base64UrlUtil;
 import com.webauthn4j.util.ECUtil;
 import com.webauthn4j.validator.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
+import org.springframework.util.SerializationUtils;
 
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
@@ -242,6 +243,21 @@ class EC2COSEKeyTest {
         assertThat(publicKey.getPublicKey()).isNotNull();
     }
 
+    @Test
+    void getPublicKey_returns_cached_instance_test() {
+        EC2COSEKey target = EC2COSEKey.create((ECPublicKey) ECUtil.createKeyPair().getPublic());
+        assertThat(target.getPublicKey()).isSameAs(target.getPublicKey());
+    }
+
+    @Test
+    void getPublicKey_after_java_serialization_test() {
+        EC2COSEKey original = EC2COSEKey.create((ECPublicKey) ECUtil.createKeyPair().getPublic());
+        PublicKey publicKey = original.getPublicKey();
+        EC2COSEKey deserialized = (EC2COSEKey) SerializationUtils.deserialize(SerializationUtils.serialize(original));
+        assertThat(deserialized).isEqualTo(original);
+        assertThat(deserialized.getPublicKey()).isEqualTo(publicKey);
+    }
+
     @Test
     void getPrivateKey_test() {
         EC2COSEKey keyPair = EC2COSEKey.create(ECUtil.createKeyPair());
@@ -24,8 +24,10 @@ import com.webauthn4j.test.TestDataUtil;
 import com.webauthn4j.util.RSAUtil;
 import com.webauthn4j.validator.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
+import org.springframework.util.SerializationUtils;
 
 import java.security.KeyPair;
+import java.security.PublicKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 
@@ -160,6 +162,21 @@ class RSACOSEKeyTest {
         assertThat(publicKey.getPublicKey()).isNotNull();
     }
 
+    @Test
+    void getPublicKey_returns_cached_instance_test() {
+        RSACOSEKey target = RSACOSEKey.create((RSAPublicKey) RSAUtil.createKeyPair().getPublic());
+        assertThat(target.getPublicKey()).isSameAs(target.getPublicKey());
+    }
+
+    @Test
+    void getPublicKey_after_java_serialization_test() {
+        RSACOSEKey original = RSACOSEKey.create((RSAPublicKey) RSAUtil.createKeyPair().getPublic());
+        PublicKey publicKey = original.getPublicKey();
+        RSACOSEKey deserialized = (RSACOSEKey) SerializationUtils.deserialize(SerializationUtils.serialize(original));
+        assertThat(deserialized).isEqualTo(original);
+        assertThat(deserialized.getPublicKey()).isEqualTo(publicKey);
+    }
+
     @Test
     void getPrivateKey_test() {
         RSACOSEKey keyPair = RSACOSEKey.create(RSAUtil.createKeyPair());
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.data.client.challenge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatelessChallengeTest {
+
+    private final byte[] nonce = new byte[StatelessChallenge.NONCE_LENGTH];
+    private final byte[] mac = new byte[StatelessChallenge.MAC_LENGTH];
+
+    @Test
+    void constructor_test() {
+        nonce[0] = 0x01;
+        mac[0] = 0x02;
+        StatelessChallenge challenge = new StatelessChallenge(3, 4, nonce, mac);
+
+        assertAll(
+                () -> assertThat(challenge.getValue()).hasSize(StatelessChallenge.LENGTH),
+                () -> assertThat(challenge.getKeyEpoch()).isEqualTo(3),
+                () -> assertThat(challenge.getExpiresAt()).isEqualTo(4),
+                () -> assertThat(challenge.getNonce()).isEqualTo(nonce),
+                () -> assertThat(challenge.getMac()).isEqualTo(mac),
+                () -> assertThat(challenge.getHeader()).hasSize(StatelessChallenge.HEADER_LENGTH),
+                () -> assertThat(new StatelessChallenge(challenge.getValue())).isEqualTo(challenge).hasSameHashCodeAs(challenge)
+        );
+    }
+
+    @Test
+    void constructor_with_invalid_value_test() {
+        byte[] value = new StatelessChallenge(3, 4, nonce, mac).getValue();
+        value[0] = 0x7f;
+
+        assertThrows(IllegalArgumentException.class, () -> new StatelessChallenge(value));
+        assertThrows(IllegalArgumentException.class, () -> new StatelessChallenge(new byte[16]));
+    }
+
+    @Test
+    void parse_test() {
+        StatelessChallenge challenge = new StatelessChallenge(3, 4, nonce, mac);
+
+        assertThat(StatelessChallenge.parse(challenge)).isSameAs(challenge);
+        assertThat(StatelessChallenge.parse(new DefaultChallenge(challenge.getValue()))).isEqualTo(challenge);
+        assertThat(StatelessChallenge.parse(new DefaultChallenge())).isNull();
+    }
+}
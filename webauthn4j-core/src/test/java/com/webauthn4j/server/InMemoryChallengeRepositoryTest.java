@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.data.client.challenge.Challenge;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.test.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemoryChallengeRepositoryTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2021-01-01T00:00:00Z"));
+    private final InMemoryChallengeRepository target = new InMemoryChallengeRepository(Duration.ofMinutes(1), 100, clock);
+
+    @Test
+    void issue_and_consume_test() {
+        Challenge challenge = target.issue();
+
+        assertThat(challenge.getValue()).hasSize(16);
+        assertThat(target.size()).isEqualTo(1);
+        assertThat(target.consume(new DefaultChallenge(challenge.getValue()))).isTrue();
+        assertThat(target.consume(challenge)).isFalse();
+        assertThat(target.size()).isZero();
+    }
+
+    @Test
+    void consume_unknown_challenge_test() {
+        target.issue();
+
+        assertThat(target.consume(new DefaultChallenge())).isFalse();
+        assertThat(target.size()).isEqualTo(1);
+    }
+
+    @Test
+    void consume_expired_challenge_test() {
+        Challenge challenge = target.issue();
+        clock.advance(Duration.ofMinutes(1));
+
+        assertThat(target.consume(challenge)).isFalse();
+    }
+
+    @Test
+    void expired_challenges_are_drained_test() {
+        for (int i = 0; i < 10; i++) {
+            target.issue();
+            clock.advance(Duration.ofSeconds(1));
+        }
+        assertThat(target.size()).isEqualTo(10);
+
+        clock.advance(Duration.ofSeconds(55));
+        Challenge challenge = target.issue();
+        assertThat(target.size()).isEqualTo(6);
+
+        clock.advance(Duration.ofHours(1));
+        target.issue();
+        assertThat(target.size()).isEqualTo(1);
+        assertThat(target.consume(challenge)).isFalse();
+    }
+
+    @Test
+    void maximum_size_test() {
+        List<Challenge> challenges = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            challenges.add(target.issue());
+            clock.advance(Duration.ofMillis(100));
+        }
+
+        assertThat(target.size()).isEqualTo(100);
+        assertThat(target.getEvictionCount()).isEqualTo(50);
+        // the eldest challenges are evicted
+        assertThat(target.consume(challenges.get(0))).isFalse();
+        assertThat(target.consume(challenges.get(149))).isTrue();
+    }
+
+    @Test
+    void consumed_challenges_count_toward_maximum_size_until_drained_test() {
+        for (int i = 0; i < 150; i++) {
+            target.consume(target.issue());
+        }
+        Challenge challenge = target.issue();
+
+        assertThat(target.size()).isEqualTo(1);
+        assertThat(target.getEvictionCount()).isZero();
+        assertThat(target.consume(challenge)).isTrue();
+    }
+
+    @Test
+    void concurrent_consume_test() {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 100; i++) {
+                Challenge challenge = target.issue();
+                List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+                for (int j = 0; j < 8; j++) {
+                    futures.add(CompletableFuture.supplyAsync(() -> target.consume(challenge), executorService));
+                }
+                assertThat(futures.stream().filter(CompletableFuture::join).count()).isEqualTo(1);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_test() {
+        InMemoryChallengeRepository repository = new InMemoryChallengeRepository();
+
+        assertThat(repository.getTimeToLive()).isEqualTo(InMemoryChallengeRepository.DEFAULT_TIME_TO_LIVE);
+        assertThat(repository.getMaximumSize()).isEqualTo(InMemoryChallengeRepository.DEFAULT_MAXIMUM_SIZE);
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryChallengeRepository(Duration.ZERO, 1));
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryChallengeRepository(Duration.ofMinutes(1), 0));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.util.SecureRandomUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatelessChallengeReplayFilterTest {
+
+    private static final long TIME_TO_LIVE_MILLIS = Duration.ofMinutes(5).toMillis();
+
+    private final StatelessChallengeReplayFilter target = new StatelessChallengeReplayFilter(Duration.ofMinutes(5), 1024);
+
+    @Test
+    void record_test() {
+        byte[] nonce = SecureRandomUtil.nextBytes(16);
+
+        assertThat(target.record(nonce, 0)).isTrue();
+        assertThat(target.record(nonce, 1)).isFalse();
+        assertThat(target.record(SecureRandomUtil.nextBytes(16), 1)).isTrue();
+    }
+
+    @Test
+    void record_in_next_bucket_test() {
+        byte[] nonce = SecureRandomUtil.nextBytes(16);
+        target.record(nonce, TIME_TO_LIVE_MILLIS - 1);
+
+        // the previous bucket is still consulted
+        assertThat(target.record(nonce, TIME_TO_LIVE_MILLIS * 2 - 1)).isFalse();
+        // the challenge has expired by the time the bucket is dropped
+        assertThat(target.record(nonce, TIME_TO_LIVE_MILLIS * 3)).isTrue();
+    }
+
+    @Test
+    void false_positive_rate_test() {
+        for (int i = 0; i < 1024; i++) {
+            target.record(SecureRandomUtil.nextBytes(16), 0);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (!target.record(SecureRandomUtil.nextBytes(16), 0)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(10);
+    }
+
+    @Test
+    void record_with_short_nonce_test() {
+        assertThrows(IllegalArgumentException.class, () -> target.record(new byte[8], 0));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.data.client.ClientDataType;
+import com.webauthn4j.data.client.challenge.DefaultChallenge;
+import com.webauthn4j.data.client.challenge.StatelessChallenge;
+import com.webauthn4j.test.MutableClock;
+import com.webauthn4j.validator.exception.BadChallengeException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatelessChallengeVerifierTest {
+
+    private static final String RP_ID = "example.com";
+    private static final byte[] USER_HANDLE = new byte[]{0x01, 0x02, 0x03};
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2021-01-01T00:00:00Z"));
+    private final StatelessChallengeKeys keys = new StatelessChallengeKeys("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1));
+    private final StatelessChallengeIssuer issuer = new StatelessChallengeIssuer(keys, Duration.ofMinutes(5), clock);
+    private final StatelessChallengeVerifier target = new StatelessChallengeVerifier(keys, null, clock);
+
+    @Test
+    void verify_test() {
+        StatelessChallenge challenge = issuer.issue(RP_ID, USER_HANDLE, ClientDataType.GET);
+
+        // the collected client data carries the challenge as a plain challenge
+        assertThat(target.verify(new DefaultChallenge(challenge.getValue()), RP_ID, USER_HANDLE, ClientDataType.GET)).isEqualTo(challenge);
+        // without a replay filter, the challenge can be used again until it expires
+        assertThat(target.verify(challenge, RP_ID, USER_HANDLE, ClientDataType.GET)).isEqualTo(challenge);
+    }
+
+    @Test
+    void verify_without_user_handle_test() {
+        StatelessChallenge challenge = issuer.issue(RP_ID, null, ClientDataType.GET);
+
+        assertThat(target.verify(challenge, RP_ID, null, ClientDataType.GET)).isEqualTo(challenge);
+        assertThrows(BadChallengeException.class, () -> target.verify(challenge, RP_ID, USER_HANDLE, ClientDataType.GET));
+    }
+
+    @Test
+    void verify_with_other_context_test() {
+        StatelessChallenge challenge = issuer.issue(RP_ID, USER_HANDLE, ClientDataType.GET);
+
+        assertThrows(BadChallengeException.class, () -> target.verify(challenge, "other.example.com", USER_HANDLE, ClientDataType.GET));
+        assertThrows(BadChallengeException.class, () -> target.verify(challenge, RP_ID, new byte[]{0x01, 0x02}, ClientDataType.GET));
+        assertThrows(BadChallengeException.class, () -> target.verify(challenge, RP_ID, USER_HANDLE, ClientDataType.CREATE));
+    }
+
+    @Test
+    void verify_with_tampered_challenge_test() {
+        byte[] value = issuer.issue(RP_ID, USER_HANDLE, ClientDataType.GET).getValue();
+        // extend the expiry
+        value[9] ^= 0x01;
+
+        assertThrows(BadChallengeException.class, () -> target.verify(new DefaultChallenge(value), RP_ID, USER_HANDLE, ClientDataType.GET));
+        assertThrows(BadChallengeException.class, () -> target.verify(new DefaultChallenge(), RP_ID, USER_HANDLE, ClientDataType.GET));
+    }
+
+    @Test
+    void verify_with_other_master_secret_test() {
+        StatelessChallengeKeys otherKeys = new StatelessChallengeKeys("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1));
+        StatelessChallenge challenge = new StatelessChallengeIssuer(otherKeys, Duration.ofMinutes(5), clock).issue(RP_ID, USER_HANDLE, ClientDataType.GET);
+
+        assertThrows(BadChallengeException.class, () -> target.verify(challenge, RP_ID, USER_HANDLE, ClientDataType.GET));
+    }
+
+    @Test
+    void verify_expired_challenge_test() {
+        StatelessChallenge challenge = issuer.issue(RP_ID, USER_HANDLE, ClientDataType.GET);
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThrows(BadChallengeException.class, () -> target.verify(challenge, RP_ID, USER_HANDLE, ClientDataType.GET));
+    }
+
+    @Test
+    void verify_across_key_rotation_test() {
+        clock.advance(Duration.ofMinutes(58));
+        StatelessChallenge challenge = issuer.issue(RP_ID, USER_HANDLE, ClientDataType.GET);
+        clock.advance(Duration.ofMinutes(4));
+
+        assertThat(keys.getEpoch(clock.millis())).isEqualTo(challenge.getKeyEpoch() + 1);
+        assertThat(target.verify(challenge, RP_ID, USER_HANDLE, ClientDataType.GET)).isEqualTo(challenge);
+    }
+
+    @Test
+    void verify_with_replay_filter_test() {
+        StatelessChallengeVerifier verifier = new StatelessChallengeVerifier(keys, new StatelessChallengeReplayFilter(Duration.ofMinutes(5), 1024), clock);
+        StatelessChallenge challenge = issuer.issue(RP_ID, USER_HANDLE, ClientDataType.GET);
+
+        assertThat(verifier.verify(challenge, RP_ID, USER_HANDLE, ClientDataType.GET)).isEqualTo(challenge);
+        assertThrows(BadChallengeException.class, () -> verifier.verify(challenge, RP_ID, USER_HANDLE, ClientDataType.GET));
+    }
+
+    @Test
+    void issuer_with_time_to_live_longer_than_rotation_period_test() {
+        assertThrows(IllegalArgumentException.class, () -> new StatelessChallengeIssuer(keys, Duration.ofHours(2)));
+    }
+}
@@ -66,6 +66,20 @@ class RpIdHashValidatorTest {
         );
     }
 
+    @Test
+    void verifyRpIdHash_test_with_rpId_changed_between_calls() {
+
+        byte[] rpIdHashA = MessageDigestUtil.createSHA256().digest("example.com".getBytes(StandardCharsets.UTF_8));
+        byte[] rpIdHashB = MessageDigestUtil.createSHA256().digest("sub.example.com".getBytes(StandardCharsets.UTF_8));
+
+        target.validate(rpIdHashA, new ServerProperty(origin, "example.com", null, null));
+        target.validate(rpIdHashB, new ServerProperty(origin, "sub.example.com", null, null));
+        //When
+        assertThrows(BadRpIdException.class,
+                () -> target.validate(rpIdHashA, new ServerProperty(origin, "sub.example.com", null, null))
+        );
+    }
+
     @Test
     void verifyRpIdHash_test_with_relyingParty_null() {
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.attestation.trustworthiness.certpath;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.test.MutableClock;
+import com.webauthn4j.test.TestAttestationUtil;
+import org.junit.jupiter.api.Test;
+
+import java.security.cert.TrustAnchor;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CertPathValidationCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2021-01-01T00:00:00Z"));
+    private final TrustAnchor trustAnchor = new TrustAnchor(TestAttestationUtil.load3tierTestRootCACertificate(), null);
+
+    @Test
+    void get_put_test() {
+        CertPathValidationCache target = new CertPathValidationCache(10, Duration.ofMinutes(10), clock);
+        CertPathValidationCache.Key key = createKey(1);
+
+        assertThat(target.get(key)).isNull();
+        target.put(key, trustAnchor, Instant.MIN, Instant.MAX);
+
+        CertPathValidationCache.Entry entry = target.get(createKey(1));
+        assertThat(entry).isNotNull();
+        assertThat(entry.getTrustAnchor()).isSameAs(trustAnchor);
+        assertThat(target.get(createKey(2))).isNull();
+        assertThat(target.size()).isEqualTo(1);
+    }
+
+    @Test
+    void key_includes_settings_test() {
+        CertPathValidationCache target = new CertPathValidationCache(10, Duration.ofMinutes(10), clock);
+        target.put(new CertPathValidationCache.Key(AAGUID.ZERO, new byte[]{1}, false, false), trustAnchor, Instant.MIN, Instant.MAX);
+
+        assertThat(target.get(new CertPathValidationCache.Key(AAGUID.ZERO, new byte[]{1}, true, false))).isNull();
+        assertThat(target.get(new CertPathValidationCache.Key(AAGUID.ZERO, new byte[]{1}, false, true))).isNull();
+        assertThat(target.get(new CertPathValidationCache.Key(AAGUID.NULL, new byte[]{1}, false, false))).isNull();
+    }
+
+    @Test
+    void expiry_test() {
+        CertPathValidationCache target = new CertPathValidationCache(10, Duration.ofMinutes(10), clock);
+        target.put(createKey(1), trustAnchor, Instant.MIN, Instant.MAX);
+
+        clock.advance(Duration.ofMinutes(9));
+        assertThat(target.get(createKey(1))).isNotNull();
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(target.get(createKey(1))).isNull();
+        assertThat(target.size()).isZero();
+        assertThat(target.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void maximumSize_test() {
+        CertPathValidationCache target = new CertPathValidationCache(2, Duration.ofMinutes(10), clock);
+        target.put(createKey(1), trustAnchor, Instant.MIN, Instant.MAX);
+        clock.advance(Duration.ofSeconds(1));
+        target.put(createKey(2), trustAnchor, Instant.MIN, Instant.MAX);
+        clock.advance(Duration.ofSeconds(1));
+        target.put(createKey(3), trustAnchor, Instant.MIN, Instant.MAX);
+
+        assertThat(target.size()).isEqualTo(2);
+        assertThat(target.getEvictionCount()).isEqualTo(1);
+        assertThat(target.get(createKey(1))).isNull();
+        assertThat(target.get(createKey(2))).isNotNull();
+        assertThat(target.get(createKey(3))).isNotNull();
+    }
+
+    @Test
+    void invalidateAll_test() {
+        CertPathValidationCache target = new CertPathValidationCache(10, Duration.ofMinutes(10), clock);
+        target.put(createKey(1), trustAnchor, Instant.MIN, Instant.MAX);
+        target.invalidateAll();
+        assertThat(target.size()).isZero();
+    }
+
+    @Test
+    void entry_isValidAt_test() {
+        CertPathValidationCache target = new CertPathValidationCache(10, Duration.ofMinutes(10), clock);
+        Instant notBefore = Instant.parse("2020-01-01T00:00:00Z");
+        Instant notAfter = Instant.parse("2022-01-01T00:00:00Z");
+        target.put(createKey(1), trustAnchor, notBefore, notAfter);
+
+        CertPathValidationCache.Entry entry = target.get(createKey(1));
+        assertThat(entry).isNotNull();
+        assertThat(entry.isValidAt(notBefore)).isTrue();
+        assertThat(entry.isValidAt(notAfter)).isTrue();
+        assertThat(entry.isValidAt(notBefore.minusSeconds(1))).isFalse();
+        assertThat(entry.isValidAt(notAfter.plusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void constructor_with_invalid_arguments_test() {
+        assertThrows(IllegalArgumentException.class, () -> new CertPathValidationCache(0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new CertPathValidationCache(1, Duration.ZERO));
+    }
+
+    @Test
+    void default_constructor_test() {
+        CertPathValidationCache target = new CertPathValidationCache();
+        assertThat(target.getMaximumSize()).isEqualTo(CertPathValidationCache.DEFAULT_MAXIMUM_SIZE);
+        assertThat(target.getTimeToLive()).isEqualTo(CertPathValidationCache.DEFAULT_TIME_TO_LIVE);
+    }
+
+    private CertPathValidationCache.Key createKey(int value) {
+        return new CertPathValidationCache.Key(AAGUID.ZERO, new byte[]{(byte) value}, false, false);
+    }
+}
@@ -34,12 +34,14 @@ import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 class TrustAnchorCertPathTrustworthinessValidatorTest {
 
-    private final TrustAnchorsResolver trustAnchorsResolver = mock(TrustAnchorsResolver.class);
+    // resolvePKIXParameters keeps its default implementation, which builds the parameters from the resolved trust anchors
+    private final TrustAnchorsResolver trustAnchorsResolver = mock(TrustAnchorsResolver.class, CALLS_REAL_METHODS);
     private final TrustAnchorCertPathTrustworthinessValidator target = new TrustAnchorCertPathTrustworthinessValidator(trustAnchorsResolver);
     private final AAGUID aaguid = AAGUID.ZERO;
 
@@ -86,6 +88,81 @@ class TrustAnchorCertPathTrustworthinessValidatorTest {
         );
     }
 
+    @Test
+    void validate_with_cache_test() {
+        Set<TrustAnchor> trustAnchors = CertificateUtil.generateTrustAnchors(
+                Collections.singletonList(TestAttestationUtil.load3tierTestRootCACertificate()));
+        when(trustAnchorsResolver.resolve(aaguid)).thenReturn(trustAnchors);
+        CertPathValidationCache cache = new CertPathValidationCache();
+        target.setCertPathValidationCache(cache);
+
+        CertificateBaseAttestationStatement attestationStatement = TestAttestationStatementUtil.createFIDOU2FAttestationStatement(create3tierAttestationCertificatePath());
+        target.validate(aaguid, attestationStatement);
+        target.validate(aaguid, attestationStatement);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void validate_with_cache_and_leaf_not_issued_by_cached_intermediate_test() {
+        Set<TrustAnchor> trustAnchors = CertificateUtil.generateTrustAnchors(
+                Collections.singletonList(TestAttestationUtil.load3tierTestRootCACertificate()));
+        when(trustAnchorsResolver.resolve(aaguid)).thenReturn(trustAnchors);
+        CertPathValidationCache cache = new CertPathValidationCache();
+        target.setCertPathValidationCache(cache);
+        target.validate(aaguid, TestAttestationStatementUtil.createFIDOU2FAttestationStatement(create3tierAttestationCertificatePath()));
+
+        AttestationCertificatePath attestationCertificatePath = new AttestationCertificatePath(Arrays.asList(
+                TestAttestationUtil.load2tierTestAuthenticatorAttestationCertificate(),
+                TestAttestationUtil.load3tierTestIntermediateCACertificate()));
+        CertificateBaseAttestationStatement attestationStatement = TestAttestationStatementUtil.createFIDOU2FAttestationStatement(attestationCertificatePath);
+        assertThrows(CertificateException.class,
+                () -> target.validate(aaguid, attestationStatement)
+        );
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void validate_with_cache_and_removed_trustAnchor_test() {
+        when(trustAnchorsResolver.resolve(aaguid)).thenReturn(CertificateUtil.generateTrustAnchors(
+                Collections.singletonList(TestAttestationUtil.load3tierTestRootCACertificate())));
+        CertPathValidationCache cache = new CertPathValidationCache();
+        target.setCertPathValidationCache(cache);
+        CertificateBaseAttestationStatement attestationStatement = TestAttestationStatementUtil.createFIDOU2FAttestationStatement(create3tierAttestationCertificatePath());
+        target.validate(aaguid, attestationStatement);
+
+        when(trustAnchorsResolver.resolve(aaguid)).thenReturn(CertificateUtil.generateTrustAnchors(
+                Collections.singletonList(TestAttestationUtil.load2tierTestRootCACertificate())));
+        assertThrows(CertificateException.class,
+                () -> target.validate(aaguid, attestationStatement)
+        );
+        assertThat(cache.getHitCount()).isZero();
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void validate_full_chain_with_cache_test() {
+        Set<TrustAnchor> trustAnchors = CertificateUtil.generateTrustAnchors(
+                Collections.singletonList(TestAttestationUtil.load3tierTestRootCACertificate()));
+        when(trustAnchorsResolver.resolve(aaguid)).thenReturn(trustAnchors);
+        CertPathValidationCache cache = new CertPathValidationCache();
+        target.setCertPathValidationCache(cache);
+        AttestationCertificatePath attestationCertificatePath
+                = new AttestationCertificatePath(Arrays.asList(
+                TestAttestationUtil.load3tierTestAuthenticatorAttestationCertificate(),
+                TestAttestationUtil.load3tierTestIntermediateCACertificate(),
+                TestAttestationUtil.load3tierTestRootCACertificate()));
+        CertificateBaseAttestationStatement attestationStatement = TestAttestationStatementUtil.createFIDOU2FAttestationStatement(attestationCertificatePath);
+        target.validate(aaguid, attestationStatement);
+
+        target.setFullChainProhibited(true);
+        assertThrows(CertificateException.class,
+                () -> target.validate(aaguid, attestationStatement)
+        );
+    }
+
     @Test
     void getter_setter_test() {
         target.setFullChainProhibited(true);
@@ -94,10 +171,19 @@ class TrustAnchorCertPathTrustworthinessValidatorTest {
         assertThat(target.isPolicyQualifiersRejected()).isTrue();
         target.setRevocationCheckEnabled(true);
         assertThat(target.isRevocationCheckEnabled()).isTrue();
+        CertPathValidationCache cache = new CertPathValidationCache();
+        target.setCertPathValidationCache(cache);
+        assertThat(target.getCertPathValidationCache()).isSameAs(cache);
     }
 
     @Test
     void test() {
         assertThat(target.isFullChainProhibited()).isFalse();
     }
+
+    private AttestationCertificatePath create3tierAttestationCertificatePath() {
+        return new AttestationCertificatePath(Arrays.asList(
+                TestAttestationUtil.load3tierTestAuthenticatorAttestationCertificate(),
+                TestAttestationUtil.load3tierTestIntermediateCACertificate()));
+    }
 }
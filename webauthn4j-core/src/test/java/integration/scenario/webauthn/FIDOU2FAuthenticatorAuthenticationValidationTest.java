@@ -18,6 +18,8 @@ package integration.scenario.webauthn;
 
 import com.webauthn4j.WebAuthnManager;
 import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.InMemorySignCounterStore;
+import com.webauthn4j.authenticator.SignCounterStore;
 import com.webauthn4j.converter.AttestationObjectConverter;
 import com.webauthn4j.converter.AuthenticationExtensionsClientOutputsConverter;
 import com.webauthn4j.converter.util.ObjectConverter;
@@ -37,6 +39,7 @@ import com.webauthn4j.test.authenticator.u2f.FIDOU2FAuthenticator;
 import com.webauthn4j.test.authenticator.u2f.FIDOU2FAuthenticatorAdaptor;
 import com.webauthn4j.test.client.ClientPlatform;
 import com.webauthn4j.util.CollectionUtil;
+import com.webauthn4j.validator.AuthenticationDataValidator;
 import com.webauthn4j.validator.exception.*;
 import org.junit.jupiter.api.Test;
 
@@ -45,6 +48,8 @@ import java.util.Collections;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @SuppressWarnings("ConstantConditions")
 class FIDOU2FAuthenticatorAuthenticationValidationTest {
@@ -530,6 +535,94 @@ class FIDOU2FAuthenticatorAuthenticationValidationTest {
         );
     }
 
+    @Test
+    void validate_replayed_assertion_with_sign_counter_store_test() {
+        String rpId = "example.com";
+        long timeout = 0;
+        Challenge challenge = new DefaultChallenge();
+        WebAuthnManager webAuthnManager = WebAuthnManager.createNonStrictWebAuthnManager(objectConverter);
+        webAuthnManager.getAuthenticationDataValidator().setSignCounterStore(new InMemorySignCounterStore());
+
+        // create
+        AttestationObject attestationObject = createAttestationObject(rpId, challenge);
+        byte[] credentialId = attestationObject.getAuthenticatorData().getAttestedCredentialData().getCredentialId();
+
+        // get
+        PublicKeyCredentialRequestOptions credentialRequestOptions = new PublicKeyCredentialRequestOptions(
+                challenge,
+                timeout,
+                rpId,
+                Collections.singletonList(
+                        new PublicKeyCredentialDescriptor(
+                                PublicKeyCredentialType.PUBLIC_KEY,
+                                credentialId,
+                                CollectionUtil.unmodifiableSet(AuthenticatorTransport.USB, AuthenticatorTransport.NFC, AuthenticatorTransport.BLE)
+                        )
+                ),
+                UserVerificationRequirement.DISCOURAGED,
+                null
+        );
+        PublicKeyCredential<AuthenticatorAssertionResponse, AuthenticationExtensionClientOutput> credential = clientPlatform.get(credentialRequestOptions);
+        AuthenticatorAssertionResponse authenticatorAssertionResponse = credential.getAuthenticatorResponse();
+
+        ServerProperty serverProperty = new ServerProperty(origin, rpId, challenge, null);
+        AuthenticationRequest authenticationRequest =
+                new AuthenticationRequest(
+                        credential.getRawId(),
+                        authenticatorAssertionResponse.getAuthenticatorData(),
+                        authenticatorAssertionResponse.getClientDataJSON(),
+                        authenticatorAssertionResponse.getSignature()
+                );
+
+        webAuthnManager.validate(authenticationRequest, new AuthenticationParameters(serverProperty, TestDataUtil.createAuthenticator(attestationObject), Collections.singletonList(credentialId), false, true));
+
+        // the stale authenticator does not know the advanced counter, but the store does
+        AuthenticationParameters replayedAuthenticationParameters =
+                new AuthenticationParameters(serverProperty, TestDataUtil.createAuthenticator(attestationObject), Collections.singletonList(credentialId), false, true);
+        assertThrows(MaliciousCounterValueException.class,
+                () -> webAuthnManager.validate(authenticationRequest, replayedAuthenticationParameters)
+        );
+    }
+
+    @Test
+    void validate_rejected_by_custom_validator_does_not_advance_sign_counter_store_test() {
+        String rpId = "example.com";
+        Challenge challenge = new DefaultChallenge();
+        SignCounterStore signCounterStore = mock(SignCounterStore.class);
+        AuthenticationDataValidator authenticationDataValidator = new AuthenticationDataValidator(Collections.singletonList(authenticationObject -> {
+            throw new IllegalStateException("rejected");
+        }));
+        authenticationDataValidator.setSignCounterStore(signCounterStore);
+
+        // create
+        AttestationObject attestationObject = createAttestationObject(rpId, challenge);
+        byte[] credentialId = attestationObject.getAuthenticatorData().getAttestedCredentialData().getCredentialId();
+
+        // get
+        PublicKeyCredentialRequestOptions credentialRequestOptions = new PublicKeyCredentialRequestOptions(
+                challenge,
+                0L,
+                rpId,
+                Collections.singletonList(new PublicKeyCredentialDescriptor(PublicKeyCredentialType.PUBLIC_KEY, credentialId, null)),
+                UserVerificationRequirement.DISCOURAGED,
+                null
+        );
+        PublicKeyCredential<AuthenticatorAssertionResponse, AuthenticationExtensionClientOutput> credential = clientPlatform.get(credentialRequestOptions);
+        AuthenticatorAssertionResponse authenticatorAssertionResponse = credential.getAuthenticatorResponse();
+        AuthenticationData authenticationData = target.parse(new AuthenticationRequest(
+                credential.getRawId(),
+                authenticatorAssertionResponse.getAuthenticatorData(),
+                authenticatorAssertionResponse.getClientDataJSON(),
+                authenticatorAssertionResponse.getSignature()
+        ));
+        ServerProperty serverProperty = new ServerProperty(origin, rpId, challenge, null);
+        AuthenticationParameters authenticationParameters =
+                new AuthenticationParameters(serverProperty, TestDataUtil.createAuthenticator(attestationObject), Collections.singletonList(credentialId), false, true);
+
+        assertThrows(IllegalStateException.class, () -> authenticationDataValidator.validate(authenticationData, authenticationParameters));
+        verifyNoInteractions(signCounterStore);
+    }
+
     private AttestationObject createAttestationObject(String rpId, Challenge challenge) {
         PublicKeyCredentialParameters publicKeyCredentialParameters
                 = new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256);
@@ -28,12 +28,15 @@ import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.attestation.authenticator.AuthenticatorData;
 import com.webauthn4j.data.extension.authenticator.AuthenticationExtensionAuthenticatorOutput;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.ExecutorUtil;
 import com.webauthn4j.validator.CustomCoreAuthenticationValidator;
 import com.webauthn4j.validator.exception.ValidationException;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class DeviceCheckAssertionManager {
 
@@ -95,6 +98,35 @@ public class DeviceCheckAssertionManager {
         return dcAssertionData;
     }
 
+    /**
+     * Parses and validates the request asynchronously on the default compute executor.
+     *
+     * @see #validateAsync(DCAssertionRequest, DCAssertionParameters, Executor)
+     */
+    public @NonNull CompletableFuture<DCAssertionData> validateAsync(@NonNull DCAssertionRequest dcAssertionRequest, @NonNull DCAssertionParameters dcAssertionParameters) {
+        return validateAsync(dcAssertionRequest, dcAssertionParameters, ExecutorUtil.getDefaultComputeExecutor());
+    }
+
+    /**
+     * Parses and validates the request on {@code executor}. Nothing in it blocks on I/O unless custom validators do.
+     * If the request is invalid, the returned future completes exceptionally with a {@link java.util.concurrent.CompletionException}
+     * whose cause is the {@link DataConversionException} or {@link ValidationException}. {@link CompletableFuture#join()}
+     * throws it as is, while {@link CompletableFuture#get()} throws an {@link java.util.concurrent.ExecutionException} with
+     * the same cause.
+     *
+     * @param dcAssertionRequest request to validate
+     * @param dcAssertionParameters parameters to validate the request with
+     * @param executor executor to run parse and validation
+     * @return future of the validated data
+     */
+    public @NonNull CompletableFuture<DCAssertionData> validateAsync(
+            @NonNull DCAssertionRequest dcAssertionRequest,
+            @NonNull DCAssertionParameters dcAssertionParameters,
+            @NonNull Executor executor) {
+        AssertUtil.notNull(executor, "executor must not be null");
+        return CompletableFuture.supplyAsync(() -> validate(dcAssertionRequest, dcAssertionParameters), executor);
+    }
+
     public @NonNull DCAssertionDataValidator getDCAssertionDataValidator() {
         return dcAssertionDataValidator;
     }
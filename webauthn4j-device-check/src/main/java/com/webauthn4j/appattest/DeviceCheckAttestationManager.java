@@ -25,12 +25,15 @@ import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.attestation.AttestationObject;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.ExecutorUtil;
 import com.webauthn4j.validator.CustomCoreRegistrationValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.certpath.CertPathTrustworthinessValidator;
 import com.webauthn4j.validator.exception.ValidationException;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class DeviceCheckAttestationManager {
 
@@ -84,6 +87,40 @@ public class DeviceCheckAttestationManager {
         return dcAttestationData;
     }
 
+    /**
+     * Parses and validates the request asynchronously on the default executors.
+     *
+     * @see #validateAsync(DCAttestationRequest, DCAttestationParameters, Executor, Executor)
+     */
+    public @NonNull CompletableFuture<DCAttestationData> validateAsync(@NonNull DCAttestationRequest dcAttestationRequest, @NonNull DCAttestationParameters dcAttestationParameters) {
+        return validateAsync(dcAttestationRequest, dcAttestationParameters, ExecutorUtil.getDefaultComputeExecutor(), ExecutorUtil.getDefaultBlockingExecutor());
+    }
+
+    /**
+     * Parses the request on {@code computeExecutor}, then validates it on {@code blockingExecutor}, as attestation
+     * certificate path validation may block on certificate revocation checking.
+     * If the request is invalid, the returned future completes exceptionally with a {@link java.util.concurrent.CompletionException}
+     * whose cause is the {@link DataConversionException} or {@link ValidationException}. {@link CompletableFuture#join()}
+     * throws it as is, while {@link CompletableFuture#get()} throws an {@link java.util.concurrent.ExecutionException} with
+     * the same cause.
+     *
+     * @param dcAttestationRequest request to validate
+     * @param dcAttestationParameters parameters to validate the request with
+     * @param computeExecutor executor for the CPU-bound parse stage
+     * @param blockingExecutor executor for the validation stage, which may block on I/O
+     * @return future of the validated data
+     */
+    public @NonNull CompletableFuture<DCAttestationData> validateAsync(
+            @NonNull DCAttestationRequest dcAttestationRequest,
+            @NonNull DCAttestationParameters dcAttestationParameters,
+            @NonNull Executor computeExecutor,
+            @NonNull Executor blockingExecutor) {
+        AssertUtil.notNull(computeExecutor, "computeExecutor must not be null");
+        AssertUtil.notNull(blockingExecutor, "blockingExecutor must not be null");
+        return CompletableFuture.supplyAsync(() -> parse(dcAttestationRequest), computeExecutor)
+                .thenApplyAsync(dcAttestationData -> validate(dcAttestationData, dcAttestationParameters), blockingExecutor);
+    }
+
     public @NonNull DCAttestationDataValidator getDCAttestationDataValidator() {
         return dcAttestationDataValidator;
     }
@@ -33,6 +33,8 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class DeviceCheckManager {
 
@@ -141,6 +143,20 @@ public class DeviceCheckManager {
         return this.deviceCheckAttestationManager.validate(dcAttestationData, dcAttestationParameters);
     }
 
+    /**
+     * @see DeviceCheckAttestationManager#validateAsync(DCAttestationRequest, DCAttestationParameters)
+     */
+    public @NonNull CompletableFuture<DCAttestationData> validateAsync(@NonNull DCAttestationRequest dcAttestationRequest, @NonNull DCAttestationParameters dcAttestationParameters) {
+        return this.deviceCheckAttestationManager.validateAsync(dcAttestationRequest, dcAttestationParameters);
+    }
+
+    /**
+     * @see DeviceCheckAttestationManager#validateAsync(DCAttestationRequest, DCAttestationParameters, Executor, Executor)
+     */
+    public @NonNull CompletableFuture<DCAttestationData> validateAsync(@NonNull DCAttestationRequest dcAttestationRequest, @NonNull DCAttestationParameters dcAttestationParameters, @NonNull Executor computeExecutor, @NonNull Executor blockingExecutor) {
+        return this.deviceCheckAttestationManager.validateAsync(dcAttestationRequest, dcAttestationParameters, computeExecutor, blockingExecutor);
+    }
+
     @SuppressWarnings("squid:S1130")
     public @NonNull DCAssertionData parse(@NonNull DCAssertionRequest dcAssertionRequest) throws DataConversionException {
         return this.deviceCheckAssertionManager.parse(dcAssertionRequest);
@@ -156,6 +172,20 @@ public class DeviceCheckManager {
         return this.deviceCheckAssertionManager.validate(dcAssertionData, dcAssertionParameters);
     }
 
+    /**
+     * @see DeviceCheckAssertionManager#validateAsync(DCAssertionRequest, DCAssertionParameters)
+     */
+    public @NonNull CompletableFuture<DCAssertionData> validateAsync(@NonNull DCAssertionRequest dcAssertionRequest, @NonNull DCAssertionParameters dcAssertionParameters) {
+        return this.deviceCheckAssertionManager.validateAsync(dcAssertionRequest, dcAssertionParameters);
+    }
+
+    /**
+     * @see DeviceCheckAssertionManager#validateAsync(DCAssertionRequest, DCAssertionParameters, Executor)
+     */
+    public @NonNull CompletableFuture<DCAssertionData> validateAsync(@NonNull DCAssertionRequest dcAssertionRequest, @NonNull DCAssertionParameters dcAssertionParameters, @NonNull Executor executor) {
+        return this.deviceCheckAssertionManager.validateAsync(dcAssertionRequest, dcAssertionParameters, executor);
+    }
+
     public @NonNull DCAttestationDataValidator getAttestationDataValidator() {
         return this.deviceCheckAttestationManager.getDCAttestationDataValidator();
     }
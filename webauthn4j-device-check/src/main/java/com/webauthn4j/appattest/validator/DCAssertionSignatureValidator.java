@@ -21,18 +21,31 @@ import com.webauthn4j.util.MessageDigestUtil;
 import com.webauthn4j.validator.AssertionSignatureValidator;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.SignatureException;
 
 public class DCAssertionSignatureValidator extends AssertionSignatureValidator {
 
     // ~ Methods
     // ========================================================================================================
 
+    @Override
+    protected void updateSignedData(@NonNull Signature verifier, @NonNull CoreAuthenticationData authenticationData) throws SignatureException {
+        MessageDigest messageDigest = MessageDigestUtil.createSHA256();
+        messageDigest.update(authenticationData.getAuthenticatorDataBytes());
+        messageDigest.update(authenticationData.getClientDataHash());
+        verifier.update(messageDigest.digest());
+    }
+
+    /**
+     * Returns the SHA-256 digest of the concatenation of authenticatorData and clientDataHash, which App Attest signs
+     *
+     * @deprecated signed data is fed to the verifier by {@link #updateSignedData(Signature, CoreAuthenticationData)} without concatenation
+     */
+    @Deprecated
     @Override
     protected @NonNull byte[] getSignedData(@NonNull CoreAuthenticationData authenticationData) {
-        byte[] rawAuthenticatorData = authenticationData.getAuthenticatorDataBytes();
-        byte[] clientDataHash = authenticationData.getClientDataHash();
-        byte[] concatenated = ByteBuffer.allocate(rawAuthenticatorData.length + clientDataHash.length).put(rawAuthenticatorData).put(clientDataHash).array();
-        return MessageDigestUtil.createSHA256().digest(concatenated);
+        return super.getSignedData(authenticationData);
     }
 }
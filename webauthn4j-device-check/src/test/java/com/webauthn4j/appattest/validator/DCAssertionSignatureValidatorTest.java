@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.appattest.validator;
+
+import com.webauthn4j.data.CoreAuthenticationData;
+import com.webauthn4j.data.attestation.authenticator.EC2COSEKey;
+import com.webauthn4j.data.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.util.ECUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.Signature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+@SuppressWarnings("deprecation")
+class DCAssertionSignatureValidatorTest {
+
+    private final DCAssertionSignatureValidator target = new DCAssertionSignatureValidator();
+
+    private final byte[] authenticatorDataBytes = new byte[]{0x01, 0x02, 0x03, 0x04};
+    private final byte[] clientDataHash = new byte[]{0x05, 0x06, 0x07};
+
+    @Test
+    void getSignedData_matches_digest_of_concatenation_test() {
+        byte[] concatenated = ByteBuffer.allocate(authenticatorDataBytes.length + clientDataHash.length).put(authenticatorDataBytes).put(clientDataHash).array();
+
+        assertThat(target.getSignedData(createAuthenticationData(null))).isEqualTo(MessageDigestUtil.createSHA256().digest(concatenated));
+    }
+
+    @Test
+    void validate_accepts_signature_over_getSignedData_test() throws GeneralSecurityException {
+        KeyPair keyPair = ECUtil.createKeyPair();
+        Signature signer = Signature.getInstance("SHA256withECDSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(target.getSignedData(createAuthenticationData(null)));
+        CoreAuthenticationData authenticationData = createAuthenticationData(signer.sign());
+
+        assertDoesNotThrow(() -> target.validate(authenticationData, EC2COSEKey.create(keyPair, COSEAlgorithmIdentifier.ES256)));
+    }
+
+    private CoreAuthenticationData createAuthenticationData(byte[] signature) {
+        return new CoreAuthenticationData(null, null, authenticatorDataBytes, clientDataHash, signature);
+    }
+}
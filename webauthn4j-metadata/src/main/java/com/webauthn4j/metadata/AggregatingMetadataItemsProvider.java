@@ -21,32 +21,50 @@ import com.webauthn4j.metadata.data.MetadataItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
+/**
+ * {@link MetadataItemsProvider} that merges the metadata of multiple {@link MetadataItemsProvider}s.
+ * <p>
+ * Providers which have provided metadata before are called on the calling thread, and only providers which may block,
+ * like one loading for the first time, are loaded in parallel. The merged map is cached until one of the providers
+ * provides another map instance.
+ * A provider failing to load is logged, and the metadata it provided last keeps being merged.
+ */
 public class AggregatingMetadataItemsProvider implements MetadataItemsProvider {
 
     private final Logger logger = LoggerFactory.getLogger(AggregatingMetadataItemsProvider.class);
 
-    private final List<MetadataItemsProvider> metadataItemsProviders;
+    private final AggregatingProviderSupport<MetadataItemsProvider, MetadataItem> aggregatingProviderSupport;
 
     public AggregatingMetadataItemsProvider(List<MetadataItemsProvider> metadataItemsProviders) {
-        this.metadataItemsProviders = metadataItemsProviders;
+        this.aggregatingProviderSupport = new AggregatingProviderSupport<>(metadataItemsProviders, MetadataItemsProvider::provide, MetadataItemsProvider::mayBlock, logger, "Failed to load metadata from one of metadataItemsProviders");
     }
 
     @Override
     public Map<AAGUID, Set<MetadataItem>> provide() {
-        Map<AAGUID, Set<MetadataItem>> map = new HashMap<>();
-        metadataItemsProviders.forEach(provider -> {
-            try {
-                Map<AAGUID, Set<MetadataItem>> provided = provider.provide();
-                provided.keySet().forEach(aaguid -> {
-                    map.putIfAbsent(aaguid, new HashSet<>());
-                    map.get(aaguid).addAll(provided.get(aaguid));
-                });
-            } catch (RuntimeException e) {
-                logger.warn("Failed to load metadata from one of metadataItemsProviders", e);
-            }
-        });
-        return map;
+        return aggregatingProviderSupport.provide();
+    }
+
+    @Override
+    public boolean mayBlock() {
+        return aggregatingProviderSupport.mayBlock();
+    }
+
+    public Executor getExecutor() {
+        return aggregatingProviderSupport.getExecutor();
+    }
+
+    /**
+     * Sets the executor the providers which may block are loaded on, except the last of them, which is loaded on the
+     * calling thread
+     *
+     * @param executor executor
+     */
+    public void setExecutor(Executor executor) {
+        aggregatingProviderSupport.setExecutor(executor);
     }
 }
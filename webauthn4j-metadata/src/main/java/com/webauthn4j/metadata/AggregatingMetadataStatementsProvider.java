@@ -21,32 +21,50 @@ import com.webauthn4j.metadata.data.statement.MetadataStatement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
+/**
+ * {@link MetadataStatementsProvider} that merges the metadata of multiple {@link MetadataStatementsProvider}s.
+ * <p>
+ * Providers which have provided metadata before are called on the calling thread, and only providers which may block,
+ * like one loading for the first time, are loaded in parallel. The merged map is cached until one of the providers
+ * provides another map instance.
+ * A provider failing to load is logged, and the metadata it provided last keeps being merged.
+ */
 public class AggregatingMetadataStatementsProvider implements MetadataStatementsProvider {
 
     private final Logger logger = LoggerFactory.getLogger(AggregatingMetadataStatementsProvider.class);
 
-    private final List<MetadataStatementsProvider> metadataStatementsProviders;
+    private final AggregatingProviderSupport<MetadataStatementsProvider, MetadataStatement> aggregatingProviderSupport;
 
     public AggregatingMetadataStatementsProvider(List<MetadataStatementsProvider> metadataStatementsProviders) {
-        this.metadataStatementsProviders = metadataStatementsProviders;
+        this.aggregatingProviderSupport = new AggregatingProviderSupport<>(metadataStatementsProviders, MetadataStatementsProvider::provide, MetadataStatementsProvider::mayBlock, logger, "Failed to load metadata from one of metadataStatementsProviders");
     }
 
     @Override
     public Map<AAGUID, Set<MetadataStatement>> provide() {
-        Map<AAGUID, Set<MetadataStatement>> map = new HashMap<>();
-        metadataStatementsProviders.forEach(provider -> {
-            try {
-                Map<AAGUID, Set<MetadataStatement>> provided = provider.provide();
-                provided.keySet().forEach(aaguid -> {
-                    map.putIfAbsent(aaguid, new HashSet<>());
-                    map.get(aaguid).addAll(provided.get(aaguid));
-                });
-            } catch (RuntimeException e) {
-                logger.warn("Failed to load metadata from one of metadataStatementsProviders", e);
-            }
-        });
-        return map;
+        return aggregatingProviderSupport.provide();
+    }
+
+    @Override
+    public boolean mayBlock() {
+        return aggregatingProviderSupport.mayBlock();
+    }
+
+    public Executor getExecutor() {
+        return aggregatingProviderSupport.getExecutor();
+    }
+
+    /**
+     * Sets the executor the providers which may block are loaded on, except the last of them, which is loaded on the
+     * calling thread
+     *
+     * @param executor executor
+     */
+    public void setExecutor(Executor executor) {
+        aggregatingProviderSupport.setExecutor(executor);
     }
 }
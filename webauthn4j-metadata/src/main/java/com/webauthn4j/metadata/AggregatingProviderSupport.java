@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.ExecutorUtil;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Merges the AAGUID keyed maps of child providers for the aggregating providers.
+ * <p>
+ * Children which have provided a map before are called on the calling thread, as they usually return their cached map.
+ * Only children which may block, i.e. which have not provided a map yet or report so by {@code mayBlock()}, are
+ * loaded in parallel: all but the last of them on the executor, and the last on the calling thread. The merged map is
+ * cached, and recomputed only when a child provides another map instance than the last time, which is how providers
+ * report a new version. A failing child is logged and its last provided map keeps being merged.
+ */
+class AggregatingProviderSupport<P, V> {
+
+    private final Logger logger;
+    private final String failureMessage;
+    private final List<P> providers;
+    private final Function<P, Map<AAGUID, Set<V>>> loader;
+    private final Predicate<P> blocking;
+    private Executor executor = ExecutorUtil.getDefaultBlockingExecutor();
+
+    private volatile Snapshot<V> snapshot;
+
+    AggregatingProviderSupport(List<P> providers, Function<P, Map<AAGUID, Set<V>>> loader, Predicate<P> blocking, Logger logger, String failureMessage) {
+        this.providers = new ArrayList<>(providers);
+        this.loader = loader;
+        this.blocking = blocking;
+        this.logger = logger;
+        this.failureMessage = failureMessage;
+    }
+
+    Map<AAGUID, Set<V>> provide() {
+        Snapshot<V> current = snapshot;
+        List<Map<AAGUID, Set<V>>> sources = load(current);
+        if (current != null && current.hasSameSources(sources)) {
+            return current.merged;
+        }
+        // racing threads may merge the same sources twice, which is harmless
+        Snapshot<V> next = new Snapshot<>(sources, merge(sources));
+        snapshot = next;
+        return next.merged;
+    }
+
+    boolean mayBlock() {
+        Snapshot<V> current = snapshot;
+        for (int i = 0; i < providers.size(); i++) {
+            if (mayBlock(current, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Executor getExecutor() {
+        return executor;
+    }
+
+    void setExecutor(Executor executor) {
+        AssertUtil.notNull(executor, "executor must not be null");
+        this.executor = executor;
+    }
+
+    private List<Map<AAGUID, Set<V>>> load(Snapshot<V> current) {
+        int size = providers.size();
+        int lastBlocking = -1;
+        boolean[] blocking = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            blocking[i] = mayBlock(current, i);
+            if (blocking[i]) {
+                lastBlocking = i;
+            }
+        }
+        List<CompletableFuture<Map<AAGUID, Set<V>>>> futures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CompletableFuture<Map<AAGUID, Set<V>>> future = null;
+            if (blocking[i] && i != lastBlocking) {
+                Supplier<Map<AAGUID, Set<V>>> task = loadTask(current, i);
+                try {
+                    future = CompletableFuture.supplyAsync(task, executor);
+                } catch (RejectedExecutionException e) {
+                    future = CompletableFuture.completedFuture(task.get());
+                }
+            }
+            futures.add(future);
+        }
+        List<Map<AAGUID, Set<V>>> sources = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sources.add(futures.get(i) == null ? loadTask(current, i).get() : null);
+        }
+        for (int i = 0; i < size; i++) {
+            if (futures.get(i) != null) {
+                sources.set(i, futures.get(i).join());
+            }
+        }
+        return sources;
+    }
+
+    private boolean mayBlock(Snapshot<V> current, int index) {
+        return current == null || current.sources.get(index) == null || blocking.test(providers.get(index));
+    }
+
+    private Supplier<Map<AAGUID, Set<V>>> loadTask(Snapshot<V> current, int index) {
+        P provider = providers.get(index);
+        return () -> {
+            try {
+                return loader.apply(provider);
+            } catch (RuntimeException e) {
+                logger.warn(failureMessage, e);
+                return current == null ? null : current.sources.get(index);
+            }
+        };
+    }
+
+    private static <V> Map<AAGUID, Set<V>> merge(List<Map<AAGUID, Set<V>>> sources) {
+        Map<AAGUID, Set<V>> map = new HashMap<>();
+        for (Map<AAGUID, Set<V>> source : sources) {
+            if (source != null) {
+                source.forEach((aaguid, values) -> map.computeIfAbsent(aaguid, key -> new HashSet<>()).addAll(values));
+            }
+        }
+        map.replaceAll((aaguid, values) -> Collections.unmodifiableSet(values));
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static class Snapshot<V> {
+
+        private final List<Map<AAGUID, Set<V>>> sources;
+        private final Map<AAGUID, Set<V>> merged;
+
+        Snapshot(List<Map<AAGUID, Set<V>>> sources, Map<AAGUID, Set<V>> merged) {
+            this.sources = sources;
+            this.merged = merged;
+        }
+
+        boolean hasSameSources(List<Map<AAGUID, Set<V>>> others) {
+            if (sources.size() != others.size()) {
+                return false;
+            }
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i) != others.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.metadata.exception.MDSException;
+import com.webauthn4j.util.AssertUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link HttpClient} implementation for production use, built on {@link HttpURLConnection}.
+ * <p>
+ * Responses are read in bulk and fully drained, so that the underlying keep-alive connections are returned to the JDK's
+ * connection pool (sized by the {@code http.maxConnections} system property) and reused. Connect and read timeouts are
+ * configurable, and responses are requested gzip compressed.
+ * Bodies of responses carrying an {@code ETag} or {@code Last-Modified} header are kept in a cache bounded by the number
+ * of entries and by their total size in bytes, and later fetches of the same URL are revalidated with
+ * {@code If-None-Match} / {@code If-Modified-Since}, so that unchanged resources are not downloaded again.
+ */
+public class CachingHttpClient implements HttpClient {
+
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAXIMUM_CACHE_SIZE = 1024;
+    public static final long DEFAULT_MAXIMUM_CACHE_BYTES = 16L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private Duration readTimeout = DEFAULT_READ_TIMEOUT;
+    private boolean gzipEnabled = true;
+
+    // accessed in access order, so that the least recently used entries are evicted first
+    private final LinkedHashMap<String, CachedResponse> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maximumCacheSize;
+    private final long maximumCacheBytes;
+    private long cacheBytes;
+
+    /**
+     * {@link CachingHttpClient} constructor
+     *
+     * @param maximumCacheSize  maximum number of cached responses
+     * @param maximumCacheBytes maximum total size of the cached response bodies in bytes. Larger bodies are not cached
+     */
+    public CachingHttpClient(int maximumCacheSize, long maximumCacheBytes) {
+        AssertUtil.isTrue(maximumCacheSize >= 0, "maximumCacheSize must not be negative");
+        AssertUtil.isTrue(maximumCacheBytes >= 0, "maximumCacheBytes must not be negative");
+        this.maximumCacheSize = maximumCacheSize;
+        this.maximumCacheBytes = maximumCacheBytes;
+    }
+
+    public CachingHttpClient(int maximumCacheSize) {
+        this(maximumCacheSize, DEFAULT_MAXIMUM_CACHE_BYTES);
+    }
+
+    public CachingHttpClient() {
+        this(DEFAULT_MAXIMUM_CACHE_SIZE);
+    }
+
+    @Override
+    public String fetch(String url) {
+        return fetch(url, true);
+    }
+
+    private String fetch(String url, boolean conditional) {
+        CachedResponse cachedResponse = conditional ? getCachedResponse(url) : null;
+        HttpURLConnection urlConnection = null;
+        try {
+            urlConnection = (HttpURLConnection) new URL(url).openConnection();
+            urlConnection.setRequestMethod("GET");
+            urlConnection.setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()));
+            urlConnection.setReadTimeout(Math.toIntExact(readTimeout.toMillis()));
+            urlConnection.setUseCaches(false);
+            if (gzipEnabled) {
+                urlConnection.setRequestProperty("Accept-Encoding", "gzip");
+            }
+            if (!conditional) {
+                // intermediaries must not answer from their caches either
+                urlConnection.setRequestProperty("Cache-Control", "no-cache");
+            }
+            if (cachedResponse != null) {
+                if (cachedResponse.etag != null) {
+                    urlConnection.setRequestProperty("If-None-Match", cachedResponse.etag);
+                }
+                if (cachedResponse.lastModified != null) {
+                    urlConnection.setRequestProperty("If-Modified-Since", cachedResponse.lastModified);
+                }
+            }
+
+            int status = urlConnection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                drain(urlConnection.getInputStream());
+                if (cachedResponse != null) {
+                    return cachedResponse.getBody();
+                }
+                // there is nothing to revalidate, e.g. an intermediary answered with its own cache, so the body is fetched again
+                if (conditional) {
+                    return fetch(url, false);
+                }
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                // drain the error body as well, so that the connection can be reused
+                drain(urlConnection.getErrorStream());
+                throw new MDSException(String.format("failed to fetch %s. status: %d", url, status));
+            }
+
+            byte[] bytes;
+            try (InputStream inputStream = decode(urlConnection, urlConnection.getInputStream())) {
+                bytes = readAllBytes(inputStream);
+            }
+            String etag = urlConnection.getHeaderField("ETag");
+            String lastModified = urlConnection.getHeaderField("Last-Modified");
+            if ((etag != null || lastModified != null) && bytes.length <= maximumCacheBytes) {
+                putCachedResponse(url, new CachedResponse(bytes, etag, lastModified));
+            }
+            else {
+                removeCachedResponse(url);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // the connection is in an unknown state, so it is not returned to the pool
+            if (urlConnection != null) {
+                urlConnection.disconnect();
+            }
+            throw new MDSException("failed to fetch " + url, e);
+        }
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        AssertUtil.notNull(connectTimeout, "connectTimeout must not be null");
+        AssertUtil.isTrue(!connectTimeout.isNegative(), "connectTimeout must not be negative");
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        AssertUtil.notNull(readTimeout, "readTimeout must not be null");
+        AssertUtil.isTrue(!readTimeout.isNegative(), "readTimeout must not be negative");
+        this.readTimeout = readTimeout;
+    }
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    public void setGzipEnabled(boolean gzipEnabled) {
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    /**
+     * Returns the number of cached responses
+     *
+     * @return the number of cached responses
+     */
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Returns the total size of the cached response bodies in bytes
+     *
+     * @return the total size of the cached response bodies in bytes
+     */
+    public long getCacheBytes() {
+        synchronized (cache) {
+            return cacheBytes;
+        }
+    }
+
+    /**
+     * Removes all cached responses, so that the next fetches download them again
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+            cacheBytes = 0;
+        }
+    }
+
+    private CachedResponse getCachedResponse(String url) {
+        synchronized (cache) {
+            return cache.get(url);
+        }
+    }
+
+    private void putCachedResponse(String url, CachedResponse cachedResponse) {
+        synchronized (cache) {
+            CachedResponse previous = cache.put(url, cachedResponse);
+            if (previous != null) {
+                cacheBytes -= previous.body.length;
+            }
+            cacheBytes += cachedResponse.body.length;
+            Iterator<CachedResponse> iterator = cache.values().iterator();
+            while ((cache.size() > maximumCacheSize || cacheBytes > maximumCacheBytes) && iterator.hasNext()) {
+                cacheBytes -= iterator.next().body.length;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void removeCachedResponse(String url) {
+        synchronized (cache) {
+            CachedResponse removed = cache.remove(url);
+            if (removed != null) {
+                cacheBytes -= removed.body.length;
+            }
+        }
+    }
+
+    private static InputStream decode(HttpURLConnection urlConnection, InputStream inputStream) throws IOException {
+        if ("gzip".equalsIgnoreCase(urlConnection.getContentEncoding())) {
+            return new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+        return inputStream;
+    }
+
+    private static byte[] readAllBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void drain(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return;
+        }
+        try (InputStream closing = inputStream) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            //noinspection StatementWithEmptyBody
+            while (closing.read(buffer) != -1) {
+            }
+        }
+    }
+
+    private static class CachedResponse {
+
+        // kept as UTF-8 bytes rather than a String, which takes two bytes per character before Java 9
+        private final byte[] body;
+        private final String etag;
+        private final String lastModified;
+
+        CachedResponse(byte[] body, String etag, String lastModified) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        String getBody() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.converter.util.JsonConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+import com.webauthn4j.metadata.validator.MetadataStatementValidator;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.ExecutorUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * {@link MetadataStatementsProvider} that loads the metadata statement json files of a directory.
+ * <p>
+ * The loaded statements are kept in an immutable snapshot, which is replaced on {@link #refresh()} or, after
+ * {@link #startWatching()}, whenever a file of the directory is created, modified or deleted. A refresh only parses the
+ * files whose last modified time or size changed, and whose content hash differs from the previous load, in parallel on
+ * the {@link #setExecutor(Executor) executor}. A file that fails to parse is logged and its previous statement is kept.
+ * {@link #provide()} returns the same {@link Map} instance until a refresh changes it.
+ */
+public class DirectoryMetadataStatementsProvider implements MetadataStatementsProvider, AutoCloseable {
+
+    private static final String DEFAULT_GLOB = "*.json";
+
+    private final Logger logger = LoggerFactory.getLogger(DirectoryMetadataStatementsProvider.class);
+
+    private final JsonConverter jsonConverter;
+    private final MetadataStatementValidator metadataStatementValidator = new MetadataStatementValidator();
+    private final Path directory;
+    private final String glob;
+    private final PathMatcher pathMatcher;
+    private Executor executor = ExecutorUtil.getDefaultBlockingExecutor();
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Object refreshLock = new Object();
+    private final Object lifecycleLock = new Object();
+    private WatchService watchService;
+
+    public DirectoryMetadataStatementsProvider(ObjectConverter objectConverter, Path directory) {
+        this(objectConverter, directory, DEFAULT_GLOB);
+    }
+
+    public DirectoryMetadataStatementsProvider(ObjectConverter objectConverter, Path directory, String glob) {
+        AssertUtil.notNull(objectConverter, "objectConverter must not be null");
+        AssertUtil.notNull(directory, "directory must not be null");
+        AssertUtil.notNull(glob, "glob must not be null");
+        this.jsonConverter = objectConverter.getJsonConverter();
+        this.directory = directory.toAbsolutePath();
+        this.glob = glob;
+        this.pathMatcher = this.directory.getFileSystem().getPathMatcher("glob:" + glob);
+    }
+
+    /**
+     * Provides the current snapshot. The first call loads the directory if no refresh has been done yet.
+     *
+     * @return {@link AAGUID} key {@link MetadataStatement} {@link Set} value {@link Map}
+     * @throws UncheckedIOException if the directory cannot be read on the first load
+     */
+    @Override
+    public Map<AAGUID, Set<MetadataStatement>> provide() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (refreshLock) {
+                if (snapshot.get() == null) {
+                    load();
+                }
+            }
+            current = snapshot.get();
+        }
+        return current.metadataStatements;
+    }
+
+    /**
+     * Rescans the directory and replaces the current snapshot if a file is added, removed or changed.
+     * If the directory cannot be read, the current snapshot is kept.
+     *
+     * @return true if the snapshot is replaced
+     */
+    public boolean refresh() {
+        synchronized (refreshLock) {
+            try {
+                return load();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to refresh metadata statements in " + directory + ". The previous snapshot is kept.", e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Returns the version of the current snapshot, which is incremented on every refresh that replaces it
+     *
+     * @return the version of the current snapshot, or 0 if nothing is loaded yet
+     */
+    public long getSnapshotVersion() {
+        Snapshot current = snapshot.get();
+        return current == null ? 0 : current.version;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String getGlob() {
+        return glob;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor the changed files are read and parsed on. It defaults to the blocking executor, as reading a file
+     * blocks on I/O.
+     *
+     * @param executor executor
+     */
+    public void setExecutor(Executor executor) {
+        AssertUtil.notNull(executor, "executor must not be null");
+        this.executor = executor;
+    }
+
+    /**
+     * Starts refreshing the snapshot in a background thread whenever a file matching the glob is created, modified or
+     * deleted in the directory
+     */
+    public void startWatching() {
+        synchronized (lifecycleLock) {
+            AssertUtil.isTrue(watchService == null, "watching is already started");
+            try {
+                watchService = directory.getFileSystem().newWatchService();
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            } catch (IOException e) {
+                closeWatchService();
+                throw new UncheckedIOException(e);
+            }
+            WatchService startedWatchService = watchService;
+            Thread thread = new Thread(() -> watch(startedWatchService), "webauthn4j-metadata-statements-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the file watching. The current snapshot keeps being provided.
+     */
+    @Override
+    public void close() {
+        synchronized (lifecycleLock) {
+            closeWatchService();
+        }
+    }
+
+    private boolean load() {
+        Snapshot previous = snapshot.get();
+        Map<Path, FileEntry> previousEntries = previous == null ? Collections.emptyMap() : previous.entries;
+
+        Map<Path, FileEntry> entries = new HashMap<>();
+        List<CompletableFuture<FileEntry>> loadings = new ArrayList<>();
+        for (Path file : listFiles()) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // deleted while scanning
+                continue;
+            }
+            FileEntry previousEntry = previousEntries.get(file);
+            if (previousEntry != null && previousEntry.hasSameAttributes(attributes)) {
+                entries.put(file, previousEntry);
+            }
+            else {
+                loadings.add(supplyAsync(() -> loadFile(file, attributes, previousEntry)));
+            }
+        }
+
+        boolean changed = false;
+        for (CompletableFuture<FileEntry> loading : loadings) {
+            FileEntry entry = loading.join();
+            if (entry != null) {
+                FileEntry previousEntry = previousEntries.get(entry.path);
+                changed |= previousEntry == null || previousEntry.metadataStatement != entry.metadataStatement;
+                entries.put(entry.path, entry);
+            }
+        }
+        changed |= !entries.keySet().equals(previousEntries.keySet());
+
+        if (previous != null && !changed) {
+            if (!loadings.isEmpty()) {
+                // keep the refreshed file attributes, so that the touched files are not hashed again
+                snapshot.set(new Snapshot(previous.version, entries, previous.metadataStatements));
+            }
+            return false;
+        }
+        snapshot.set(new Snapshot(previous == null ? 1 : previous.version + 1, entries, toMetadataStatements(entries)));
+        return true;
+    }
+
+    private List<Path> listFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : directoryStream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list metadata statement json files", e);
+        }
+        return files;
+    }
+
+    private FileEntry loadFile(Path file, BasicFileAttributes attributes, FileEntry previousEntry) {
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            byte[] hash = MessageDigestUtil.digestSHA256(bytes);
+            if (previousEntry != null && Arrays.equals(previousEntry.hash, hash)) {
+                return new FileEntry(file, attributes, hash, previousEntry.metadataStatement);
+            }
+            MetadataStatement metadataStatement = jsonConverter.readValue(new ByteArrayInputStream(bytes), MetadataStatement.class);
+            metadataStatementValidator.validate(metadataStatement);
+            return new FileEntry(file, attributes, hash, metadataStatement);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to load metadata statement json file " + file + (previousEntry == null ? "." : ". The previous statement is kept."), e);
+            return previousEntry;
+        }
+    }
+
+    private CompletableFuture<FileEntry> supplyAsync(Supplier<FileEntry> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(supplier.get());
+        }
+    }
+
+    private static Map<AAGUID, Set<MetadataStatement>> toMetadataStatements(Map<Path, FileEntry> entries) {
+        Map<AAGUID, Set<MetadataStatement>> metadataStatements = new HashMap<>();
+        for (FileEntry entry : entries.values()) {
+            metadataStatements.computeIfAbsent(JsonFileMetadataStatementsProvider.extractAAGUID(entry.metadataStatement), key -> new HashSet<>()).add(entry.metadataStatement);
+        }
+        metadataStatements.replaceAll((aaguid, statements) -> Collections.unmodifiableSet(statements));
+        return Collections.unmodifiableMap(metadataStatements);
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey watchKey = watchService.take();
+                boolean changed = pollChanges(watchKey);
+                // drain the events of the same change burst, so that it triggers a single refresh
+                while ((watchKey = watchService.poll(100, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= pollChanges(watchKey);
+                }
+                if (changed) {
+                    refresh();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed by close()
+        }
+    }
+
+    private boolean pollChanges(WatchKey watchKey) {
+        boolean changed = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            // an overflow may have dropped events of the matching files
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || pathMatcher.matches((Path) event.context())) {
+                changed = true;
+            }
+        }
+        watchKey.reset();
+        return changed;
+    }
+
+    private void closeWatchService() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close watch service.", e);
+            }
+            watchService = null;
+        }
+    }
+
+    private static class FileEntry {
+
+        private final Path path;
+        private final FileTime lastModifiedTime;
+        private final long size;
+        private final byte[] hash;
+        private final MetadataStatement metadataStatement;
+
+        FileEntry(Path path, BasicFileAttributes attributes, byte[] hash, MetadataStatement metadataStatement) {
+            this.path = path;
+            this.lastModifiedTime = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.hash = hash;
+            this.metadataStatement = metadataStatement;
+        }
+
+        boolean hasSameAttributes(BasicFileAttributes attributes) {
+            return lastModifiedTime.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+        private final Map<Path, FileEntry> entries;
+        private final Map<AAGUID, Set<MetadataStatement>> metadataStatements;
+
+        Snapshot(long version, Map<Path, FileEntry> entries, Map<AAGUID, Set<MetadataStatement>> metadataStatements) {
+            this.version = version;
+            this.entries = entries;
+            this.metadataStatements = metadataStatements;
+        }
+    }
+}
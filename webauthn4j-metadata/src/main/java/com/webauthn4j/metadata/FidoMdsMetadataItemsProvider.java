@@ -19,17 +19,19 @@ package com.webauthn4j.metadata;
 import com.webauthn4j.converter.util.JsonConverter;
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
-import com.webauthn4j.data.jws.JWS;
-import com.webauthn4j.data.jws.JWSFactory;
 import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.metadata.data.MetadataInterner;
 import com.webauthn4j.metadata.data.MetadataItemImpl;
+import com.webauthn4j.metadata.data.statement.LeanMetadataStatement;
 import com.webauthn4j.metadata.data.statement.MetadataStatement;
 import com.webauthn4j.metadata.data.toc.MetadataTOCPayload;
 import com.webauthn4j.metadata.data.toc.MetadataTOCPayloadEntry;
 import com.webauthn4j.metadata.exception.MDSException;
 import com.webauthn4j.metadata.validator.MetadataStatementValidator;
+import com.webauthn4j.util.AssertUtil;
 import com.webauthn4j.util.Base64UrlUtil;
 import com.webauthn4j.util.CertificateUtil;
+import com.webauthn4j.util.ExecutorUtil;
 import com.webauthn4j.util.MessageDigestUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,29 +46,60 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.cert.*;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+/**
+ * {@link MetadataItemsProvider} that fetches {@link MetadataItem}s from the FIDO Metadata Service.
+ * <p>
+ * Metadata is refreshed when the TOC's nextUpdate has passed. Only one refresh runs at a time; concurrent callers share it.
+ * By default, the caller that finds the metadata outdated waits for the refresh. When background refresh is enabled, the
+ * refresh runs on the refresh executor instead and callers keep getting the last successfully fetched metadata until the
+ * new one is swapped in. Only the initial fetch is waited for in that case.
+ */
 public class FidoMdsMetadataItemsProvider implements MetadataItemsProvider {
 
     private static final String DEFAULT_FIDO_METADATA_SERVICE_ENDPOINT = "https://mds2.fidoalliance.org/";
+    private static final Duration DEFAULT_REFRESH_RETRY_INTERVAL = Duration.ofMinutes(1);
+    private static final int DEFAULT_MAXIMUM_CONCURRENT_FETCHES = 8;
     private final Logger logger = LoggerFactory.getLogger(FidoMdsMetadataItemsProvider.class);
     private final JsonConverter jsonConverter;
-    private final JWSFactory jwsFactory;
+    private final MetadataTOCReader metadataTOCReader;
     private final HttpClient httpClient;
     private final TrustAnchor trustAnchor;
     private final MetadataStatementValidator metadataStatementValidator = new MetadataStatementValidator();
     private final String token;
-    Map<AAGUID, Set<MetadataItem>> cachedMetadataItemMap;
-    OffsetDateTime nextUpdate;
-    OffsetDateTime lastRefresh;
+    volatile Map<AAGUID, Set<MetadataItem>> cachedMetadataItemMap;
+    volatile OffsetDateTime nextUpdate;
+    volatile OffsetDateTime lastRefresh;
     private String fidoMetadataServiceEndpoint = DEFAULT_FIDO_METADATA_SERVICE_ENDPOINT;
 
+    private boolean backgroundRefreshEnabled = false;
+    private Executor refreshExecutor = ExecutorUtil.getDefaultBlockingExecutor();
+    private Executor fetchExecutor = ExecutorUtil.getDefaultBlockingExecutor();
+    private Duration refreshRetryInterval = DEFAULT_REFRESH_RETRY_INTERVAL;
+    private int maximumConcurrentFetches = DEFAULT_MAXIMUM_CONCURRENT_FETCHES;
+    private boolean leanMetadataEnabled = false;
+
+    private final AtomicReference<CompletableFuture<Void>> inFlightRefresh = new AtomicReference<>();
+    private volatile Duration lastRefreshDuration;
+    private volatile OffsetDateTime lastRefreshFailureTime;
+    private volatile RuntimeException lastRefreshFailure;
+    private volatile int consecutiveRefreshFailures;
+
     public FidoMdsMetadataItemsProvider(ObjectConverter objectConverter, String token, HttpClient httpClient, X509Certificate rootCertificate) {
         this.jsonConverter = objectConverter.getJsonConverter();
-        this.jwsFactory = new JWSFactory(objectConverter);
+        this.metadataTOCReader = new MetadataTOCReader(objectConverter);
         this.token = token;
         this.httpClient = httpClient;
         this.trustAnchor = new TrustAnchor(rootCertificate, null);
@@ -85,7 +118,7 @@ public class FidoMdsMetadataItemsProvider implements MetadataItemsProvider {
     }
 
     public FidoMdsMetadataItemsProvider(ObjectConverter objectConverter, X509Certificate x509Certificate) {
-        this(objectConverter, new SimpleHttpClient(), x509Certificate);
+        this(objectConverter, new CachingHttpClient(), x509Certificate);
     }
 
     private static X509Certificate loadRootCertificateFromPath(Path path) {
@@ -123,11 +156,27 @@ public class FidoMdsMetadataItemsProvider implements MetadataItemsProvider {
     @Override
     public Map<AAGUID, Set<MetadataItem>> provide() {
         if (needsRefresh()) {
-            refresh();
+            if (backgroundRefreshEnabled && cachedMetadataItemMap != null) {
+                if (!isInRefreshRetryInterval()) {
+                    refresh(true);
+                }
+            }
+            else {
+                waitFor(refresh(false));
+            }
         }
         return cachedMetadataItemMap;
     }
 
+    /**
+     * Starts refreshing the metadata on the refresh executor unless a refresh is already running
+     *
+     * @return {@link CompletableFuture} completed when the running refresh completes
+     */
+    public CompletableFuture<Void> refreshAsync() {
+        return refresh(true);
+    }
+
     public String getFidoMetadataServiceEndpoint() {
         return fidoMetadataServiceEndpoint;
     }
@@ -136,18 +185,235 @@ public class FidoMdsMetadataItemsProvider implements MetadataItemsProvider {
         this.fidoMetadataServiceEndpoint = fidoMetadataServiceEndpoint;
     }
 
+    public boolean isBackgroundRefreshEnabled() {
+        return backgroundRefreshEnabled;
+    }
+
+    /**
+     * Sets whether outdated metadata is refreshed in the background while the last fetched metadata keeps being provided
+     *
+     * @param backgroundRefreshEnabled true to refresh in the background
+     */
+    public void setBackgroundRefreshEnabled(boolean backgroundRefreshEnabled) {
+        this.backgroundRefreshEnabled = backgroundRefreshEnabled;
+    }
+
+    public Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    public void setRefreshExecutor(Executor refreshExecutor) {
+        AssertUtil.notNull(refreshExecutor, "refreshExecutor must not be null");
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public Executor getFetchExecutor() {
+        return fetchExecutor;
+    }
+
+    /**
+     * Sets the executor the metadata statements are fetched on during a refresh, in addition to the refreshing thread
+     *
+     * @param fetchExecutor executor
+     */
+    public void setFetchExecutor(Executor fetchExecutor) {
+        AssertUtil.notNull(fetchExecutor, "fetchExecutor must not be null");
+        this.fetchExecutor = fetchExecutor;
+    }
+
+    public int getMaximumConcurrentFetches() {
+        return maximumConcurrentFetches;
+    }
+
+    /**
+     * Sets the maximum number of metadata statements fetched concurrently during a refresh
+     *
+     * @param maximumConcurrentFetches maximum number of concurrent fetches
+     */
+    public void setMaximumConcurrentFetches(int maximumConcurrentFetches) {
+        AssertUtil.isTrue(maximumConcurrentFetches > 0, "maximumConcurrentFetches must be positive");
+        this.maximumConcurrentFetches = maximumConcurrentFetches;
+    }
+
+    public boolean isLeanMetadataEnabled() {
+        return leanMetadataEnabled;
+    }
+
+    /**
+     * Sets whether the fetched metadata is kept in its lean form, which shares repeated strings and certificates and
+     * decodes the fields validation does not use on demand. See {@link LeanMetadataStatement}.
+     *
+     * @param leanMetadataEnabled true to keep the lean form
+     */
+    public void setLeanMetadataEnabled(boolean leanMetadataEnabled) {
+        this.leanMetadataEnabled = leanMetadataEnabled;
+    }
+
+    public Duration getRefreshRetryInterval() {
+        return refreshRetryInterval;
+    }
+
+    /**
+     * Sets the interval a background refresh is not retried for after it fails
+     *
+     * @param refreshRetryInterval retry interval
+     */
+    public void setRefreshRetryInterval(Duration refreshRetryInterval) {
+        AssertUtil.notNull(refreshRetryInterval, "refreshRetryInterval must not be null");
+        AssertUtil.isTrue(!refreshRetryInterval.isNegative(), "refreshRetryInterval must not be negative");
+        this.refreshRetryInterval = refreshRetryInterval;
+    }
+
+    /**
+     * Returns the nextUpdate of the last successfully fetched TOC
+     *
+     * @return nextUpdate, or null if nothing is fetched yet
+     */
+    public OffsetDateTime getNextUpdate() {
+        return nextUpdate;
+    }
+
+    /**
+     * Returns the time the last successful refresh completed
+     *
+     * @return the time of the last successful refresh, or null if nothing is fetched yet
+     */
+    public OffsetDateTime getLastRefresh() {
+        return lastRefresh;
+    }
+
+    /**
+     * Returns how long the last successful refresh took
+     *
+     * @return the duration of the last successful refresh, or null if nothing is fetched yet
+     */
+    public Duration getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    /**
+     * Returns the time the last failed refresh completed
+     *
+     * @return the time of the last failed refresh, or null if no refresh has failed
+     */
+    public OffsetDateTime getLastRefreshFailureTime() {
+        return lastRefreshFailureTime;
+    }
+
+    /**
+     * Returns the cause of the last failed refresh
+     *
+     * @return the cause of the last failed refresh, or null if no refresh has failed
+     */
+    public RuntimeException getLastRefreshFailure() {
+        return lastRefreshFailure;
+    }
+
+    /**
+     * Returns the number of refreshes failed since the last successful one
+     *
+     * @return the number of consecutive refresh failures
+     */
+    public int getConsecutiveRefreshFailures() {
+        return consecutiveRefreshFailures;
+    }
+
+    /**
+     * Returns whether a refresh is running
+     *
+     * @return true if a refresh is running
+     */
+    public boolean isRefreshing() {
+        return inFlightRefresh.get() != null;
+    }
+
+    /**
+     * Returns how long the provided metadata has been outdated, i.e. the time elapsed since the TOC's nextUpdate
+     *
+     * @return staleness, or {@link Duration#ZERO} if the metadata is up-to-date or nothing is fetched yet
+     */
+    public Duration getStaleness() {
+        OffsetDateTime currentNextUpdate = nextUpdate;
+        if (currentNextUpdate == null) {
+            return Duration.ZERO;
+        }
+        Duration staleness = Duration.between(currentNextUpdate, OffsetDateTime.now(ZoneOffset.UTC));
+        return staleness.isNegative() ? Duration.ZERO : staleness;
+    }
+
+    private CompletableFuture<Void> refresh(boolean async) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        while (!inFlightRefresh.compareAndSet(null, future)) {
+            CompletableFuture<Void> running = inFlightRefresh.get();
+            if (running != null) {
+                return running;
+            }
+        }
+        Runnable task = () -> {
+            OffsetDateTime start = OffsetDateTime.now(ZoneOffset.UTC);
+            Throwable failure = null;
+            try {
+                refresh();
+                lastRefreshDuration = Duration.between(start, lastRefresh);
+                consecutiveRefreshFailures = 0;
+            } catch (RuntimeException e) {
+                failure = e;
+                logger.warn("Failed to refresh metadata", e);
+                lastRefreshFailure = e;
+                lastRefreshFailureTime = OffsetDateTime.now(ZoneOffset.UTC);
+                consecutiveRefreshFailures++;
+            } catch (Error e) {
+                failure = e;
+                throw e;
+            } finally {
+                // whatever is thrown, the next refresh must be able to start, and waiting callers must be released
+                inFlightRefresh.set(null);
+                if (failure == null) {
+                    future.complete(null);
+                }
+                else {
+                    future.completeExceptionally(failure);
+                }
+            }
+        };
+        if (async) {
+            try {
+                refreshExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        else {
+            task.run();
+        }
+        return future;
+    }
+
+    private boolean isInRefreshRetryInterval() {
+        OffsetDateTime failureTime = lastRefreshFailureTime;
+        return failureTime != null && consecutiveRefreshFailures > 0 &&
+                failureTime.plus(refreshRetryInterval).isAfter(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    private static void waitFor(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     private void refresh() {
         MetadataTOCPayload tocPayload = fetchMetadataTOCPayload(false);
 
-        cachedMetadataItemMap =
-                tocPayload.getEntries().parallelStream().map(entry -> {
-                    try {
-                        return fetchFidoMdsMetadataItem(entry);
-                    } catch (RuntimeException e) {
-                        logger.warn("Failed to fetch MetadataTOCPayLoad", e);
-                        return null;
-                    }
-                })
+        Map<AAGUID, Set<MetadataItem>> metadataItemMap =
+                fetchFidoMdsMetadataItems(tocPayload.getEntries(), leanMetadataEnabled ? new MetadataInterner() : null).stream()
                         .filter(Objects::nonNull)
                         .distinct()
                         .collect(Collectors.groupingBy(MetadataItem::getAaguid))
@@ -155,13 +421,74 @@ public class FidoMdsMetadataItemsProvider implements MetadataItemsProvider {
                         .stream()
                         .collect(Collectors.toMap(Map.Entry::getKey, entry -> Collections.unmodifiableSet(new HashSet<>(entry.getValue()))));
 
+        // nextUpdate and lastRefresh are updated before the map is swapped in, so that readers finding the new map do not refresh again
         nextUpdate = tocPayload.getNextUpdate().atStartOfDay().atOffset(ZoneOffset.UTC);
         lastRefresh = OffsetDateTime.now(ZoneOffset.UTC);
+        cachedMetadataItemMap = metadataItemMap;
+    }
+
+    /**
+     * Fetches the metadata statements of the entries with at most maximumConcurrentFetches workers. The calling thread is
+     * one of them, and the others run on the fetch executor. Workers not started by the time the calling thread has run out
+     * of entries are skipped instead of waited for, so that an executor busy with the refresh itself cannot stall it.
+     */
+    private List<MetadataItem> fetchFidoMdsMetadataItems(List<MetadataTOCPayloadEntry> entries, MetadataInterner metadataInterner) {
+        MetadataItem[] metadataItems = new MetadataItem[entries.size()];
+        AtomicInteger nextIndex = new AtomicInteger();
+        Runnable worker = () -> {
+            int index;
+            while ((index = nextIndex.getAndIncrement()) < metadataItems.length) {
+                try {
+                    MetadataItem metadataItem = fetchFidoMdsMetadataItem(entries.get(index));
+                    metadataItems[index] = metadataInterner == null ? metadataItem : metadataInterner.lean(metadataItem);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to fetch MetadataTOCPayLoad", e);
+                }
+            }
+        };
+        int workerCount = Math.min(maximumConcurrentFetches, metadataItems.length);
+        List<AtomicBoolean> startedFlags = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 1; i < workerCount; i++) {
+            AtomicBoolean started = new AtomicBoolean();
+            try {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    if (started.compareAndSet(false, true)) {
+                        worker.run();
+                    }
+                }, fetchExecutor));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+            startedFlags.add(started);
+        }
+        worker.run();
+        for (int i = 0; i < futures.size(); i++) {
+            // claims the workers not started yet, and waits for the running ones
+            if (!startedFlags.get(i).compareAndSet(false, true)) {
+                futures.get(i).join();
+            }
+        }
+        return Arrays.asList(metadataItems);
+    }
+
+    @Override
+    public boolean mayBlock() {
+        return needsBlockingRefresh();
     }
 
     boolean needsRefresh() {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        return cachedMetadataItemMap == null || (nextUpdate.isBefore(now) && lastRefresh.isBefore(now.minusHours(1)));
+        return cachedMetadataItemMap == null || nextUpdate == null || (nextUpdate.isBefore(now) && lastRefresh.isBefore(now.minusHours(1)));
+    }
+
+    /**
+     * Returns whether {@link #provide()} would fetch the metadata on the calling thread instead of returning the cached one
+     *
+     * @return true if a refresh is needed, and not run in the background
+     */
+    boolean needsBlockingRefresh() {
+        return needsRefresh() && !(backgroundRefreshEnabled && cachedMetadataItemMap != null);
     }
 
     /**
@@ -175,14 +502,12 @@ public class FidoMdsMetadataItemsProvider implements MetadataItemsProvider {
 
         String toc = httpClient.fetch(uriWithToken);
 
-        JWS<MetadataTOCPayload> jws = jwsFactory.parse(toc, MetadataTOCPayload.class);
-        if (!jws.isValidSignature()) {
-            throw new MDSException("invalid signature");
-        }
+        // the signature is verified while the TOC is parsed
+        MetadataTOCReader.MetadataTOC metadataTOC = metadataTOCReader.read(toc);
         if (!skipCertPathValidation) {
-            validateCertPath(jws);
+            validateCertPath(metadataTOC.getHeader().getX5c());
         }
-        return jws.getPayload();
+        return metadataTOC.getPayload();
     }
 
     private MetadataItem fetchFidoMdsMetadataItem(MetadataTOCPayloadEntry entry) {
@@ -198,9 +523,8 @@ public class FidoMdsMetadataItemsProvider implements MetadataItemsProvider {
         );
     }
 
-    private void validateCertPath(JWS<MetadataTOCPayload> jws) {
+    private void validateCertPath(CertPath certPath) {
         Set<TrustAnchor> trustAnchors = Collections.singleton(trustAnchor);
-        CertPath certPath = jws.getHeader().getX5c();
 
         CertPathValidator certPathValidator = CertificateUtil.createCertPathValidator();
         PKIXParameters certPathParameters = CertificateUtil.createPKIXParameters(trustAnchors);
@@ -18,17 +18,21 @@ package com.webauthn4j.metadata;
 
 import com.webauthn4j.converter.util.ObjectConverter;
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.statement.AttestationCertificatePath;
 import com.webauthn4j.data.attestation.statement.AttestationStatement;
 import com.webauthn4j.data.attestation.statement.CertificateBaseAttestationStatement;
 import com.webauthn4j.metadata.data.MetadataItem;
 import com.webauthn4j.metadata.data.statement.AttestationType;
 import com.webauthn4j.metadata.exception.BadStatusException;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.CertificateUtil;
+import com.webauthn4j.util.HexUtil;
 import com.webauthn4j.validator.CustomRegistrationValidator;
 import com.webauthn4j.validator.RegistrationObject;
 import com.webauthn4j.validator.exception.BadAttestationStatementException;
 
 import java.security.cert.X509Certificate;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -61,7 +65,7 @@ public class FidoMdsMetadataValidator implements CustomRegistrationValidator {
         AAGUID aaguid = registrationObject.getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getAaguid();
         AttestationStatement attestationStatement = registrationObject.getAttestationObject().getAttestationStatement();
 
-        Set<MetadataItem> metadataItems = metadataItemsResolver.resolve(aaguid);
+        Set<MetadataItem> metadataItems = resolveMetadataItems(aaguid, attestationStatement);
 
         List<AttestationType> attestationTypes = metadataItems.stream()
                 .flatMap(item -> item.getMetadataStatement().getAttestationTypes().stream()).collect(Collectors.toList());
@@ -81,6 +85,35 @@ public class FidoMdsMetadataValidator implements CustomRegistrationValidator {
         }
     }
 
+    /**
+     * Resolves the metadata items of the authenticator by its AAGUID, or by the key identifier of its attestation
+     * certificate for U2F authenticators, which report the zero AAGUID.
+     */
+    private Set<MetadataItem> resolveMetadataItems(AAGUID aaguid, AttestationStatement attestationStatement) {
+        if (!AAGUID.ZERO.equals(aaguid)) {
+            Set<MetadataItem> metadataItems = metadataItemsResolver.resolveByAaguid(aaguid);
+            if (!metadataItems.isEmpty()) {
+                return metadataItems;
+            }
+        }
+        if (attestationStatement instanceof CertificateBaseAttestationStatement) {
+            AttestationCertificatePath x5c = ((CertificateBaseAttestationStatement) attestationStatement).getX5c();
+            if (x5c != null && !x5c.isEmpty()) {
+                X509Certificate attestationCertificate = x5c.get(0);
+                byte[] subjectKeyIdentifier = CertificateUtil.getSubjectKeyIdentifier(attestationCertificate);
+                if (subjectKeyIdentifier != null) {
+                    Set<MetadataItem> metadataItems = metadataItemsResolver.resolveByAttestationCertificateKeyIdentifier(HexUtil.encodeToString(subjectKeyIdentifier));
+                    if (!metadataItems.isEmpty()) {
+                        return metadataItems;
+                    }
+                }
+                byte[] computedKeyIdentifier = CertificateUtil.computeSubjectKeyIdentifier(attestationCertificate.getPublicKey());
+                return metadataItemsResolver.resolveByAttestationCertificateKeyIdentifier(HexUtil.encodeToString(computedKeyIdentifier));
+            }
+        }
+        return Collections.emptySet();
+    }
+
     private void doAdditionalValidationForFidoMdsMetadataItem(MetadataItem metadataItem) {
         metadataItem.getStatusReports().forEach(report -> {
             switch (report.getStatus()) {
@@ -38,7 +38,7 @@ public class JsonFileMetadataStatementsProvider implements MetadataStatementsPro
     private final JsonConverter jsonConverter;
     private final MetadataStatementValidator metadataStatementValidator = new MetadataStatementValidator();
     private final List<Path> paths;
-    private Map<AAGUID, Set<MetadataStatement>> cachedMetadataItems;
+    private volatile Map<AAGUID, Set<MetadataStatement>> cachedMetadataItems;
 
     public JsonFileMetadataStatementsProvider(ObjectConverter objectConverter, List<Path> paths) {
         this.jsonConverter = objectConverter.getJsonConverter();
@@ -52,7 +52,7 @@ public class JsonFileMetadataStatementsProvider implements MetadataStatementsPro
                     paths.stream()
                             .map(this::readJsonFile)
                             .distinct()
-                            .collect(Collectors.groupingBy(this::extractAAGUID))
+                            .collect(Collectors.groupingBy(JsonFileMetadataStatementsProvider::extractAAGUID))
                             .entrySet().stream()
                             .collect(Collectors.toMap(Map.Entry::getKey, entry -> new HashSet<>(entry.getValue())));
 
@@ -60,7 +60,7 @@ public class JsonFileMetadataStatementsProvider implements MetadataStatementsPro
         return cachedMetadataItems;
     }
 
-    private AAGUID extractAAGUID(MetadataStatement metadataStatement) {
+    static AAGUID extractAAGUID(MetadataStatement metadataStatement) {
         switch (metadataStatement.getProtocolFamily()) {
             case "fido2":
                 return metadataStatement.getAaguid();
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+import com.webauthn4j.util.AssertUtil;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable index over the {@link MetadataItem}s provided by a {@link MetadataItemsProvider}, keyed by AAGUID, by
+ * attestation certificate key identifier (lower case hex subjectKeyIdentifier, used by U2F authenticators) and by AAID
+ * (used by UAF authenticators). It is built once per provided map, and lookups return precomputed unmodifiable sets.
+ * <p>
+ * Items without AAGUID are registered under {@link AAGUID#NULL} by {@link MetadataItemsProvider}s.
+ */
+public class MetadataItemsIndex {
+
+    private final Map<AAGUID, Set<MetadataItem>> itemsByAaguid;
+    private final Set<MetadataItem> itemsWithoutAaguid;
+    private final Map<AAGUID, Set<MetadataItem>> itemsByAaguidWithItemsWithoutAaguid;
+    private final Map<String, Set<MetadataItem>> itemsByAttestationCertificateKeyIdentifier;
+    private final Map<String, Set<MetadataItem>> itemsByAaid;
+
+    public MetadataItemsIndex(Map<AAGUID, Set<MetadataItem>> metadataItems) {
+        AssertUtil.notNull(metadataItems, "metadataItems must not be null");
+
+        Map<AAGUID, Set<MetadataItem>> byAaguid = new HashMap<>();
+        Set<MetadataItem> withoutAaguid = new HashSet<>();
+        Map<String, Set<MetadataItem>> byAttestationCertificateKeyIdentifier = new HashMap<>();
+        Map<String, Set<MetadataItem>> byAaid = new HashMap<>();
+        for (Map.Entry<AAGUID, Set<MetadataItem>> entry : metadataItems.entrySet()) {
+            AAGUID aaguid = entry.getKey();
+            for (MetadataItem metadataItem : entry.getValue()) {
+                if (aaguid == null || AAGUID.NULL.equals(aaguid)) {
+                    withoutAaguid.add(metadataItem);
+                }
+                else {
+                    byAaguid.computeIfAbsent(aaguid, key -> new HashSet<>()).add(metadataItem);
+                }
+                MetadataStatement metadataStatement = metadataItem.getMetadataStatement();
+                addAll(byAttestationCertificateKeyIdentifier, metadataItem.getAttestationCertificateKeyIdentifiers(), metadataItem);
+                addAll(byAaid, Collections.singletonList(metadataItem.getAaid()), metadataItem);
+                if (metadataStatement != null) {
+                    addAll(byAttestationCertificateKeyIdentifier, metadataStatement.getAttestationCertificateKeyIdentifiers(), metadataItem);
+                    addAll(byAaid, Collections.singletonList(metadataStatement.getAaid() == null ? null : metadataStatement.getAaid().toString()), metadataItem);
+                }
+            }
+        }
+
+        this.itemsByAaguid = freeze(byAaguid);
+        this.itemsWithoutAaguid = Collections.unmodifiableSet(withoutAaguid);
+        this.itemsByAttestationCertificateKeyIdentifier = freeze(byAttestationCertificateKeyIdentifier);
+        this.itemsByAaid = freeze(byAaid);
+
+        Map<AAGUID, Set<MetadataItem>> byAaguidWithItemsWithoutAaguid = new HashMap<>();
+        for (Map.Entry<AAGUID, Set<MetadataItem>> entry : itemsByAaguid.entrySet()) {
+            byAaguidWithItemsWithoutAaguid.put(entry.getKey(), itemsWithoutAaguid.isEmpty() ? entry.getValue() : new UnionSet(entry.getValue(), itemsWithoutAaguid));
+        }
+        this.itemsByAaguidWithItemsWithoutAaguid = Collections.unmodifiableMap(byAaguidWithItemsWithoutAaguid);
+    }
+
+    /**
+     * Returns the items of the AAGUID
+     *
+     * @param aaguid AAGUID
+     * @return unmodifiable set of items, which is empty if none is registered
+     */
+    public Set<MetadataItem> findByAaguid(AAGUID aaguid) {
+        AssertUtil.notNull(aaguid, "aaguid must not be null");
+        if (AAGUID.NULL.equals(aaguid)) {
+            return itemsWithoutAaguid;
+        }
+        return itemsByAaguid.getOrDefault(aaguid, Collections.emptySet());
+    }
+
+    /**
+     * Returns the items of the AAGUID together with the items without AAGUID, as {@link MetadataItemsResolver#resolve(AAGUID)}
+     *
+     * @param aaguid AAGUID
+     * @return unmodifiable set of items
+     */
+    public Set<MetadataItem> findByAaguidIncludingItemsWithoutAaguid(AAGUID aaguid) {
+        AssertUtil.notNull(aaguid, "aaguid must not be null");
+        return itemsByAaguidWithItemsWithoutAaguid.getOrDefault(aaguid, itemsWithoutAaguid);
+    }
+
+    /**
+     * Returns the items listing the attestation certificate key identifier
+     *
+     * @param attestationCertificateKeyIdentifier hex encoded subjectKeyIdentifier of the attestation certificate
+     * @return unmodifiable set of items, which is empty if none is registered
+     */
+    public Set<MetadataItem> findByAttestationCertificateKeyIdentifier(String attestationCertificateKeyIdentifier) {
+        AssertUtil.notNull(attestationCertificateKeyIdentifier, "attestationCertificateKeyIdentifier must not be null");
+        return itemsByAttestationCertificateKeyIdentifier.getOrDefault(normalize(attestationCertificateKeyIdentifier), Collections.emptySet());
+    }
+
+    /**
+     * Returns the items of the AAID
+     *
+     * @param aaid AAID
+     * @return unmodifiable set of items, which is empty if none is registered
+     */
+    public Set<MetadataItem> findByAaid(String aaid) {
+        AssertUtil.notNull(aaid, "aaid must not be null");
+        return itemsByAaid.getOrDefault(normalize(aaid), Collections.emptySet());
+    }
+
+    private static void addAll(Map<String, Set<MetadataItem>> map, List<String> keys, MetadataItem metadataItem) {
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            if (key != null) {
+                map.computeIfAbsent(normalize(key), k -> new HashSet<>()).add(metadataItem);
+            }
+        }
+    }
+
+    private static String normalize(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    private static <K> Map<K, Set<MetadataItem>> freeze(Map<K, Set<MetadataItem>> map) {
+        map.replaceAll((key, items) -> Collections.unmodifiableSet(items));
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Unmodifiable view of the union of two sets, so that the items without AAGUID are not copied for each AAGUID
+     */
+    private static class UnionSet extends AbstractSet<MetadataItem> {
+
+        private final Set<MetadataItem> first;
+        private final Set<MetadataItem> second;
+        private final int size;
+
+        UnionSet(Set<MetadataItem> first, Set<MetadataItem> second) {
+            this.first = first;
+            this.second = second;
+            int count = first.size();
+            for (MetadataItem item : second) {
+                if (!first.contains(item)) {
+                    count++;
+                }
+            }
+            this.size = count;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return first.contains(o) || second.contains(o);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<MetadataItem> iterator() {
+            Iterator<MetadataItem> firstIterator = first.iterator();
+            Iterator<MetadataItem> secondIterator = second.iterator();
+            return new Iterator<MetadataItem>() {
+
+                private MetadataItem next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next != null) {
+                        return true;
+                    }
+                    if (firstIterator.hasNext()) {
+                        next = firstIterator.next();
+                        return true;
+                    }
+                    while (secondIterator.hasNext()) {
+                        MetadataItem item = secondIterator.next();
+                        if (!first.contains(item)) {
+                            next = item;
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                @Override
+                public MetadataItem next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    MetadataItem item = next;
+                    next = null;
+                    return item;
+                }
+            };
+        }
+    }
+}
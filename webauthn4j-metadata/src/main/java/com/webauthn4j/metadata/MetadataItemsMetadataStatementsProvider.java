@@ -20,13 +20,19 @@ import com.webauthn4j.data.attestation.authenticator.AAGUID;
 import com.webauthn4j.metadata.data.MetadataItem;
 import com.webauthn4j.metadata.data.statement.MetadataStatement;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * {@link MetadataStatementsProvider} that provides the statements of the {@link MetadataItem}s of a {@link MetadataItemsProvider}.
+ * The statements are extracted again only when the {@link MetadataItemsProvider} provides another map instance.
+ */
 public class MetadataItemsMetadataStatementsProvider implements MetadataStatementsProvider {
 
     private final MetadataItemsProvider metadataItemsProvider;
+    private volatile Snapshot snapshot;
 
     public MetadataItemsMetadataStatementsProvider(MetadataItemsProvider metadataItemsProvider) {
         this.metadataItemsProvider = metadataItemsProvider;
@@ -34,10 +40,32 @@ public class MetadataItemsMetadataStatementsProvider implements MetadataStatemen
 
     @Override
     public Map<AAGUID, Set<MetadataStatement>> provide() {
-        return metadataItemsProvider.provide().entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().stream().map(MetadataItem::getMetadataStatement).collect(Collectors.toSet())
-                ));
+        Map<AAGUID, Set<MetadataItem>> metadataItems = metadataItemsProvider.provide();
+        Snapshot current = snapshot;
+        if (current == null || current.source != metadataItems) {
+            current = new Snapshot(metadataItems);
+            snapshot = current;
+        }
+        return current.metadataStatements;
+    }
+
+    @Override
+    public boolean mayBlock() {
+        return metadataItemsProvider.mayBlock();
+    }
+
+    private static class Snapshot {
+
+        private final Map<AAGUID, Set<MetadataItem>> source;
+        private final Map<AAGUID, Set<MetadataStatement>> metadataStatements;
+
+        Snapshot(Map<AAGUID, Set<MetadataItem>> source) {
+            this.source = source;
+            this.metadataStatements = Collections.unmodifiableMap(source.entrySet().stream()
+                    .collect(Collectors.toMap(
+                            Map.Entry::getKey,
+                            entry -> Collections.unmodifiableSet(entry.getValue().stream().map(MetadataItem::getMetadataStatement).collect(Collectors.toSet()))
+                    )));
+        }
     }
 }
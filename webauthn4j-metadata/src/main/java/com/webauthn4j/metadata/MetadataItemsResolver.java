@@ -20,8 +20,48 @@ import com.webauthn4j.data.attestation.authenticator.AAGUID;
 import com.webauthn4j.metadata.data.MetadataItem;
 
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public interface MetadataItemsResolver {
 
+    /**
+     * Resolves the items of the AAGUID together with the items without AAGUID
+     *
+     * @param aaguid AAGUID
+     * @return items
+     */
     Set<MetadataItem> resolve(AAGUID aaguid);
+
+    /**
+     * Resolves the items of the AAGUID only
+     *
+     * @param aaguid AAGUID
+     * @return items
+     */
+    default Set<MetadataItem> resolveByAaguid(AAGUID aaguid) {
+        return resolve(aaguid).stream().filter(item -> aaguid.equals(item.getAaguid())).collect(Collectors.toSet());
+    }
+
+    /**
+     * Resolves the items listing the attestation certificate key identifier, which identifies U2F authenticators
+     *
+     * @param attestationCertificateKeyIdentifier hex encoded subjectKeyIdentifier of the attestation certificate
+     * @return items
+     */
+    default Set<MetadataItem> resolveByAttestationCertificateKeyIdentifier(String attestationCertificateKeyIdentifier) {
+        return resolve(AAGUID.NULL).stream()
+                .filter(item -> item.getAttestationCertificateKeyIdentifiers() != null &&
+                        item.getAttestationCertificateKeyIdentifiers().stream().anyMatch(attestationCertificateKeyIdentifier::equalsIgnoreCase))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Resolves the items of the AAID, which identifies UAF authenticators
+     *
+     * @param aaid AAID
+     * @return items
+     */
+    default Set<MetadataItem> resolveByAaid(String aaid) {
+        return resolve(AAGUID.NULL).stream().filter(item -> aaid.equalsIgnoreCase(item.getAaid())).collect(Collectors.toSet());
+    }
 }
@@ -20,14 +20,17 @@ import com.webauthn4j.data.attestation.authenticator.AAGUID;
 import com.webauthn4j.metadata.data.MetadataItem;
 import com.webauthn4j.util.AssertUtil;
 
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * {@link MetadataItemsResolver} backed by a {@link MetadataItemsIndex}, which is rebuilt only when the
+ * {@link MetadataItemsProvider} provides another map instance.
+ */
 public class MetadataItemsResolverImpl implements MetadataItemsResolver {
 
     private final MetadataItemsProvider metadataItemsProvider;
+    private volatile Snapshot snapshot;
 
     public MetadataItemsResolverImpl(MetadataItemsProvider metadataItemsProvider) {
         this.metadataItemsProvider = metadataItemsProvider;
@@ -36,12 +39,46 @@ public class MetadataItemsResolverImpl implements MetadataItemsResolver {
     @Override
     public Set<MetadataItem> resolve(AAGUID aaguid) {
         AssertUtil.notNull(aaguid, "aaguid must not be null");
+        return getIndex().findByAaguidIncludingItemsWithoutAaguid(aaguid);
+    }
+
+    @Override
+    public Set<MetadataItem> resolveByAaguid(AAGUID aaguid) {
+        AssertUtil.notNull(aaguid, "aaguid must not be null");
+        return getIndex().findByAaguid(aaguid);
+    }
+
+    @Override
+    public Set<MetadataItem> resolveByAttestationCertificateKeyIdentifier(String attestationCertificateKeyIdentifier) {
+        AssertUtil.notNull(attestationCertificateKeyIdentifier, "attestationCertificateKeyIdentifier must not be null");
+        return getIndex().findByAttestationCertificateKeyIdentifier(attestationCertificateKeyIdentifier);
+    }
+
+    @Override
+    public Set<MetadataItem> resolveByAaid(String aaid) {
+        AssertUtil.notNull(aaid, "aaid must not be null");
+        return getIndex().findByAaid(aaid);
+    }
+
+    MetadataItemsIndex getIndex() {
+        Map<AAGUID, Set<MetadataItem>> metadataItems = metadataItemsProvider.provide();
+        Snapshot current = snapshot;
+        if (current == null || current.metadataItems != metadataItems) {
+            // racing threads may build the same index twice, which is harmless
+            current = new Snapshot(metadataItems, new MetadataItemsIndex(metadataItems));
+            snapshot = current;
+        }
+        return current.index;
+    }
+
+    private static class Snapshot {
 
-        Map<AAGUID, Set<MetadataItem>> metadataItemMap = metadataItemsProvider.provide();
+        private final Map<AAGUID, Set<MetadataItem>> metadataItems;
+        private final MetadataItemsIndex index;
 
-        HashSet<MetadataItem> list = new HashSet<>();
-        list.addAll(metadataItemMap.getOrDefault(AAGUID.NULL, Collections.emptySet()));
-        list.addAll(metadataItemMap.getOrDefault(aaguid, Collections.emptySet()));
-        return list;
+        Snapshot(Map<AAGUID, Set<MetadataItem>> metadataItems, MetadataItemsIndex index) {
+            this.metadataItems = metadataItems;
+            this.index = index;
+        }
     }
 }
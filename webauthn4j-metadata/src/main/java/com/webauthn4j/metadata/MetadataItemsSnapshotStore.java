@@ -0,0 +1,338 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import com.webauthn4j.converter.util.JsonConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
+import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.metadata.data.MetadataItemImpl;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+import com.webauthn4j.metadata.data.toc.StatusReport;
+import com.webauthn4j.metadata.exception.MDSException;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores {@link AAGUID} key {@link MetadataItem} {@link Set} value {@link Map} snapshots in a local file, so that verified
+ * metadata can be served right after startup, or published by one node and loaded by others without fetching it.
+ * <p>
+ * The file consists of a header (magic number, format version, creation time, payload length and SHA-256 digest of the
+ * payload) followed by the gzip compressed JSON payload. It is written to a temporary file first and moved into place
+ * atomically, and read through a memory-mapped buffer. A file with another format version or a digest mismatch is
+ * rejected. As loaded metadata is not verified again, the file must be protected like the trust anchors.
+ * <p>
+ * The payload is written with a dedicated {@link ObjectMapper}, which serializes {@link AAGUID}s as UUID strings
+ * like metadata statements do, so that the file format doesn't depend on the application's {@link ObjectConverter}.
+ */
+public class MetadataItemsSnapshotStore {
+
+    static final int MAGIC = 0x57344A4D; // "W4JM"
+    static final int FORMAT_VERSION = 1;
+    private static final int DIGEST_LENGTH = 32;
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 4 + DIGEST_LENGTH;
+
+    private final JsonConverter jsonConverter;
+    private final Path path;
+
+    public MetadataItemsSnapshotStore(Path path) {
+        AssertUtil.notNull(path, "path must not be null");
+        this.jsonConverter = createObjectConverter().getJsonConverter();
+        this.path = path;
+    }
+
+    private static ObjectConverter createObjectConverter() {
+        ObjectMapper jsonMapper = new ObjectMapper();
+        jsonMapper.registerModule(new WebAuthnMetadataJSONModule());
+        jsonMapper.addMixIn(AAGUID.class, AAGUIDMixIn.class);
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        return new ObjectConverter(jsonMapper, cborMapper);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Writes the metadata items to the file, replacing the existing snapshot
+     *
+     * @param metadataItems metadata items to write
+     * @return the written {@link Snapshot}
+     */
+    public Snapshot save(Map<AAGUID, Set<MetadataItem>> metadataItems) {
+        AssertUtil.notNull(metadataItems, "metadataItems must not be null");
+        List<SnapshotItem> snapshotItems = new ArrayList<>();
+        metadataItems.values().stream().flatMap(Collection::stream).distinct().forEach(item -> snapshotItems.add(new SnapshotItem(item)));
+        Instant createdAt = Instant.now();
+        try {
+            ByteArrayOutputStream payloadOutputStream = new ByteArrayOutputStream();
+            try (OutputStream gzipOutputStream = new GZIPOutputStream(payloadOutputStream)) {
+                gzipOutputStream.write(jsonConverter.writeValueAsBytes(snapshotItems));
+            }
+            byte[] payload = payloadOutputStream.toByteArray();
+
+            Path absolutePath = path.toAbsolutePath();
+            Path directory = absolutePath.getParent();
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, absolutePath.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream outputStream = new DataOutputStream(Files.newOutputStream(temporaryFile))) {
+                    outputStream.writeInt(MAGIC);
+                    outputStream.writeInt(FORMAT_VERSION);
+                    outputStream.writeLong(createdAt.toEpochMilli());
+                    outputStream.writeInt(payload.length);
+                    outputStream.write(MessageDigestUtil.createSHA256().digest(payload));
+                    outputStream.write(payload);
+                }
+                Files.move(temporaryFile, absolutePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Snapshot(Instant.ofEpochMilli(createdAt.toEpochMilli()), metadataItems);
+    }
+
+    /**
+     * Reads the snapshot from the file
+     *
+     * @return the read {@link Snapshot}, or null if the file does not exist
+     * @throws MDSException if the file is not a valid snapshot
+     */
+    public Snapshot load() {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (fileChannel.size() < HEADER_LENGTH) {
+                throw new MDSException("metadata snapshot is truncated");
+            }
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new MDSException("file is not a metadata snapshot");
+            }
+            int formatVersion = buffer.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new MDSException(String.format("unsupported metadata snapshot format version: %d", formatVersion));
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+            int payloadLength = buffer.getInt();
+            byte[] expectedDigest = new byte[DIGEST_LENGTH];
+            buffer.get(expectedDigest);
+            if (payloadLength < 0 || payloadLength != buffer.remaining()) {
+                throw new MDSException("metadata snapshot is truncated");
+            }
+
+            ByteBuffer payload = buffer.slice();
+            MessageDigest messageDigest = MessageDigestUtil.createSHA256();
+            messageDigest.update(payload.duplicate());
+            if (!MessageDigest.isEqual(messageDigest.digest(), expectedDigest)) {
+                throw new MDSException("metadata snapshot digest doesn't match");
+            }
+            List<SnapshotItem> snapshotItems;
+            try (InputStream inputStream = new GZIPInputStream(new ByteBufferInputStream(payload))) {
+                snapshotItems = jsonConverter.readValue(inputStream, new TypeReference<List<SnapshotItem>>() {
+                });
+            }
+            return new Snapshot(createdAt, toMap(snapshotItems));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<AAGUID, Set<MetadataItem>> toMap(List<SnapshotItem> snapshotItems) {
+        Map<AAGUID, Set<MetadataItem>> map = new HashMap<>();
+        if (snapshotItems != null) {
+            for (SnapshotItem snapshotItem : snapshotItems) {
+                MetadataItem metadataItem = snapshotItem.toMetadataItem();
+                map.computeIfAbsent(metadataItem.getAaguid(), key -> new HashSet<>()).add(metadataItem);
+            }
+        }
+        map.replaceAll((aaguid, items) -> Collections.unmodifiableSet(items));
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Metadata items read from or written to a {@link MetadataItemsSnapshotStore}
+     */
+    public static class Snapshot {
+
+        private final Instant createdAt;
+        private final Map<AAGUID, Set<MetadataItem>> metadataItems;
+
+        Snapshot(Instant createdAt, Map<AAGUID, Set<MetadataItem>> metadataItems) {
+            this.createdAt = createdAt;
+            this.metadataItems = metadataItems;
+        }
+
+        /**
+         * Returns the time the snapshot is written, which also works as the snapshot version
+         *
+         * @return the time the snapshot is written
+         */
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public Map<AAGUID, Set<MetadataItem>> getMetadataItems() {
+            return metadataItems;
+        }
+    }
+
+    static class SnapshotItem {
+
+        @JsonProperty
+        private final String aaid;
+        @JsonProperty
+        private final UUID aaguid;
+        @JsonProperty
+        private final List<String> attestationCertificateKeyIdentifiers;
+        @JsonProperty
+        private final String hash;
+        @JsonProperty
+        private final List<StatusReport> statusReports;
+        @JsonDeserialize(using = LocalDateDeserializer.class)
+        @JsonSerialize(using = LocalDateSerializer.class)
+        @JsonProperty
+        private final LocalDate timeOfLastStatusChange;
+        @JsonProperty
+        private final MetadataStatement metadataStatement;
+
+        @JsonCreator
+        SnapshotItem(
+                @JsonProperty("aaid") String aaid,
+                @JsonProperty("aaguid") UUID aaguid,
+                @JsonProperty("attestationCertificateKeyIdentifiers") List<String> attestationCertificateKeyIdentifiers,
+                @JsonProperty("hash") String hash,
+                @JsonProperty("statusReports") List<StatusReport> statusReports,
+                @JsonProperty("timeOfLastStatusChange") LocalDate timeOfLastStatusChange,
+                @JsonProperty("metadataStatement") MetadataStatement metadataStatement) {
+            this.aaid = aaid;
+            this.aaguid = aaguid;
+            this.attestationCertificateKeyIdentifiers = attestationCertificateKeyIdentifiers;
+            this.hash = hash;
+            this.statusReports = statusReports;
+            this.timeOfLastStatusChange = timeOfLastStatusChange;
+            this.metadataStatement = metadataStatement;
+        }
+
+        SnapshotItem(MetadataItem metadataItem) {
+            this(metadataItem.getAaid(), metadataItem.getAaguid() == null ? null : metadataItem.getAaguid().getValue(), metadataItem.getAttestationCertificateKeyIdentifiers(),
+                    metadataItem.getHash(), metadataItem.getStatusReports(), metadataItem.getTimeOfLastStatusChange(),
+                    metadataItem.getMetadataStatement());
+        }
+
+        MetadataItem toMetadataItem() {
+            return new MetadataItemImpl(aaid, new AAGUID(aaguid), attestationCertificateKeyIdentifiers, hash, statusReports, timeOfLastStatusChange, metadataStatement);
+        }
+    }
+
+    @JsonSerialize(using = UUIDStringAAGUIDSerializer.class)
+    abstract static class AAGUIDMixIn {
+    }
+
+    static class UUIDStringAAGUIDSerializer extends StdSerializer<AAGUID> {
+
+        UUIDStringAAGUIDSerializer() {
+            super(AAGUID.class);
+        }
+
+        @Override
+        public void serialize(AAGUID value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (value.getValue() == null) {
+                gen.writeNull();
+            }
+            else {
+                gen.writeString(value.getValue().toString());
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -25,4 +25,14 @@ import java.util.Set;
 public interface MetadataStatementsProvider {
 
     Map<AAGUID, Set<MetadataStatement>> provide();
+
+    /**
+     * Returns whether the next {@link #provide()} call may block the calling thread, e.g. to fetch from a remote service.
+     * Aggregating providers load such providers in parallel.
+     *
+     * @return true if the next call may block
+     */
+    default boolean mayBlock() {
+        return false;
+    }
 }
@@ -18,15 +18,26 @@ package com.webauthn4j.metadata;
 
 import com.webauthn4j.anchor.TrustAnchorsProvider;
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
 
 import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+/**
+ * {@link TrustAnchorsProvider} that provides the attestation root certificates of the statements of a {@link MetadataStatementsProvider}.
+ * <p>
+ * The trust anchors are created again only when the {@link MetadataStatementsProvider} provides another map instance, and
+ * a root certificate shared by multiple statements is represented by a single {@link TrustAnchor}.
+ */
 public class MetadataStatementsTrustAnchorsProvider implements TrustAnchorsProvider {
 
     private final MetadataStatementsProvider metadataStatementsProvider;
+    private volatile Snapshot snapshot;
 
     public MetadataStatementsTrustAnchorsProvider(MetadataStatementsProvider metadataStatementsProvider) {
         this.metadataStatementsProvider = metadataStatementsProvider;
@@ -34,13 +45,34 @@ public class MetadataStatementsTrustAnchorsProvider implements TrustAnchorsProvi
 
     @Override
     public Map<AAGUID, Set<TrustAnchor>> provide() {
-        return metadataStatementsProvider.provide().entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().stream().flatMap(metadataStatement ->
-                                metadataStatement.getAttestationRootCertificates().stream()
-                                        .map(certificate -> new TrustAnchor(certificate, null))
-                        ).collect(Collectors.toSet())
-                ));
+        Map<AAGUID, Set<MetadataStatement>> metadataStatements = metadataStatementsProvider.provide();
+        Snapshot current = snapshot;
+        if (current == null || current.source != metadataStatements) {
+            current = new Snapshot(metadataStatements);
+            snapshot = current;
+        }
+        return current.trustAnchors;
+    }
+
+    private static class Snapshot {
+
+        private final Map<AAGUID, Set<MetadataStatement>> source;
+        private final Map<AAGUID, Set<TrustAnchor>> trustAnchors;
+
+        Snapshot(Map<AAGUID, Set<MetadataStatement>> source) {
+            this.source = source;
+            Map<X509Certificate, TrustAnchor> trustAnchorsByCertificate = new HashMap<>();
+            Map<AAGUID, Set<TrustAnchor>> map = new HashMap<>();
+            source.forEach((aaguid, statements) -> {
+                Set<TrustAnchor> set = new HashSet<>();
+                for (MetadataStatement metadataStatement : statements) {
+                    for (X509Certificate certificate : metadataStatement.getAttestationRootCertificates()) {
+                        set.add(trustAnchorsByCertificate.computeIfAbsent(certificate, key -> new TrustAnchor(key, null)));
+                    }
+                }
+                map.put(aaguid, Collections.unmodifiableSet(set));
+            });
+            this.trustAnchors = Collections.unmodifiableMap(map);
+        }
     }
 }
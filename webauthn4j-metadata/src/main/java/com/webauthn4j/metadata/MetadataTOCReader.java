@@ -0,0 +1,391 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.converter.util.JsonConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.jws.JWSHeader;
+import com.webauthn4j.data.jws.JWSSignatureUtil;
+import com.webauthn4j.metadata.data.toc.MetadataTOCPayload;
+import com.webauthn4j.metadata.exception.MDSException;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.SignatureUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.InvalidKeyException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPublicKey;
+import java.util.Arrays;
+
+/**
+ * Reads a FIDO Metadata Service TOC, a compact serialized JWS, from a stream.
+ * <p>
+ * Unlike {@link com.webauthn4j.data.jws.JWSFactory#parse(String, Class)}, the JWS is not held as a whole: each segment is
+ * base64url decoded while it is read and fed straight into the JSON parser, which builds the TOC entries one at a time,
+ * and the signing input is passed to the signature verification in the same pass. This keeps the heap usage of a refresh
+ * close to the size of the resulting {@link MetadataTOCPayload}. The payload is only returned once the signature is verified
+ * with the first certificate of the x5c header. The certificate path itself is not validated.
+ */
+public class MetadataTOCReader {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final String NOT_DIVIDED_ERROR_MESSAGE = "JWS value is not divided by two period.";
+    private static final String INVALID_SIGNATURE_ERROR_MESSAGE = "invalid signature";
+
+    private static final int[] BASE64URL_DECODE_TABLE = new int[256];
+
+    static {
+        Arrays.fill(BASE64URL_DECODE_TABLE, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL_DECODE_TABLE[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final JsonConverter jsonConverter;
+
+    public MetadataTOCReader(ObjectConverter objectConverter) {
+        AssertUtil.notNull(objectConverter, "objectConverter must not be null");
+        this.jsonConverter = objectConverter.getJsonConverter();
+    }
+
+    /**
+     * Reads the TOC and verifies its signature
+     *
+     * @param value compact serialized JWS
+     * @return verified {@link MetadataTOC}
+     * @throws MDSException if the value is not a JWS, or its signature is invalid
+     */
+    public MetadataTOC read(String value) {
+        AssertUtil.notNull(value, "value must not be null");
+        return read(new CharSequenceInputStream(value));
+    }
+
+    /**
+     * Reads the TOC and verifies its signature
+     *
+     * @param inputStream stream of the compact serialized JWS. It is not closed.
+     * @return verified {@link MetadataTOC}
+     * @throws MDSException if the stream is not a JWS, or its signature is invalid
+     */
+    public MetadataTOC read(InputStream inputStream) {
+        AssertUtil.notNull(inputStream, "inputStream must not be null");
+        try {
+            Source source = new Source(inputStream);
+
+            ByteArrayOutputStream signedHeader = new ByteArrayOutputStream();
+            source.rawCopy = signedHeader;
+            SegmentInputStream headerSegment = new SegmentInputStream(source);
+            JWSHeader header = readSegment(headerSegment, JWSHeader.class);
+            if (header == null) {
+                throw new MDSException("JWS header must not be null");
+            }
+            if (!headerSegment.isTerminatedByPeriod()) {
+                throw new MDSException(NOT_DIVIDED_ERROR_MESSAGE);
+            }
+            source.rawCopy = null;
+
+            Signature signature = createSignature(header);
+            signature.update(signedHeader.toByteArray());
+            signature.update((byte) '.');
+            source.signature = signature;
+            SegmentInputStream payloadSegment = new SegmentInputStream(source);
+            MetadataTOCPayload payload = readSegment(payloadSegment, MetadataTOCPayload.class);
+            if (!payloadSegment.isTerminatedByPeriod()) {
+                throw new MDSException(NOT_DIVIDED_ERROR_MESSAGE);
+            }
+            source.signature = null;
+
+            SegmentInputStream signatureSegment = new SegmentInputStream(source);
+            byte[] jwsSignature = readAllBytes(signatureSegment);
+            if (signatureSegment.isTerminatedByPeriod()) {
+                throw new MDSException(NOT_DIVIDED_ERROR_MESSAGE);
+            }
+            if (!verify(signature, header, jwsSignature)) {
+                throw new MDSException(INVALID_SIGNATURE_ERROR_MESSAGE);
+            }
+            if (payload == null) {
+                throw new MDSException("JWS payload must not be null");
+            }
+            return new MetadataTOC(header, payload);
+        } catch (SignatureException e) {
+            throw new MDSException(INVALID_SIGNATURE_ERROR_MESSAGE, e);
+        } catch (IOException e) {
+            throw new MDSException("failed to read metadata TOC", e);
+        }
+    }
+
+    private <T> T readSegment(SegmentInputStream segment, Class<T> valueType) throws IOException {
+        try {
+            T value = jsonConverter.readValue(segment, valueType);
+            segment.drain();
+            return value;
+        } catch (RuntimeException e) {
+            // the JSON parser wraps the exceptions thrown by the stream, which are rethrown as the non-streaming path throws them
+            MDSException failure = segment.source.failure;
+            if (failure != null) {
+                throw failure;
+            }
+            throw e;
+        }
+    }
+
+    private static Signature createSignature(JWSHeader header) {
+        if (header.getAlg() == null || header.getX5c() == null || header.getX5c().getCertificates().isEmpty()) {
+            throw new MDSException(INVALID_SIGNATURE_ERROR_MESSAGE);
+        }
+        Signature signature = SignatureUtil.createSignature(header.getAlg().getJcaName());
+        try {
+            signature.initVerify(header.getX5c().getCertificates().get(0).getPublicKey());
+        } catch (InvalidKeyException e) {
+            throw new MDSException(INVALID_SIGNATURE_ERROR_MESSAGE, e);
+        }
+        return signature;
+    }
+
+    private static boolean verify(Signature signature, JWSHeader header, byte[] jwsSignature) throws SignatureException {
+        PublicKey publicKey = header.getX5c().getCertificates().get(0).getPublicKey();
+        if (publicKey instanceof ECPublicKey) {
+            return signature.verify(JWSSignatureUtil.convertJwsSignatureToDerSignature(jwsSignature));
+        }
+        return signature.verify(jwsSignature);
+    }
+
+    private static byte[] readAllBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[512];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Verified TOC read by {@link MetadataTOCReader}
+     */
+    public static class MetadataTOC {
+
+        private final JWSHeader header;
+        private final MetadataTOCPayload payload;
+
+        MetadataTOC(JWSHeader header, MetadataTOCPayload payload) {
+            this.header = header;
+            this.payload = payload;
+        }
+
+        public JWSHeader getHeader() {
+            return header;
+        }
+
+        public MetadataTOCPayload getPayload() {
+            return payload;
+        }
+    }
+
+    /**
+     * Reads the characters of a compact serialized JWS, which are all ASCII, without copying them
+     */
+    private static class CharSequenceInputStream extends InputStream {
+
+        private final CharSequence value;
+        private int position;
+
+        CharSequenceInputStream(CharSequence value) {
+            this.value = value;
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int count = Math.min(length, value.length() - position);
+            if (count <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < count; i++) {
+                char c = value.charAt(position++);
+                // non-ASCII characters are mapped to a byte that is not in the base64url alphabet
+                bytes[offset + i] = c < 0x80 ? (byte) c : (byte) 0xFF;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Buffered raw JWS bytes. Consumed bytes are passed to the signature, or copied, while either is set.
+     */
+    private static class Source {
+
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private boolean endOfStream;
+
+        private Signature signature;
+        private ByteArrayOutputStream rawCopy;
+        private MDSException failure;
+
+        Source(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            if (endOfStream) {
+                return false;
+            }
+            int length = inputStream.read(buffer, 0, buffer.length);
+            if (length == -1) {
+                endOfStream = true;
+                return false;
+            }
+            position = 0;
+            limit = length;
+            return true;
+        }
+
+        void consume(int end) throws SignatureException {
+            int length = end - position;
+            if (length > 0) {
+                if (signature != null) {
+                    signature.update(buffer, position, length);
+                }
+                if (rawCopy != null) {
+                    rawCopy.write(buffer, position, length);
+                }
+            }
+            position = end;
+        }
+    }
+
+    /**
+     * Decodes one base64url encoded segment of the {@link Source}, up to the next period or the end of the stream
+     */
+    private static class SegmentInputStream extends InputStream {
+
+        private final Source source;
+        private int bits;
+        private int bitCount;
+        private boolean segmentEnd;
+        private boolean terminatedByPeriod;
+
+        SegmentInputStream(Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int count = 0;
+            while (count < length && !segmentEnd) {
+                if (!source.fill()) {
+                    endSegment(false);
+                    break;
+                }
+                byte[] buffer = source.buffer;
+                int index = source.position;
+                while (index < source.limit && count < length) {
+                    int c = buffer[index] & 0xFF;
+                    if (c == '.') {
+                        break;
+                    }
+                    int value = BASE64URL_DECODE_TABLE[c];
+                    if (value < 0) {
+                        throw fail(new MDSException("JWS segment is not base64url encoded"));
+                    }
+                    bits = (bits << 6) | value;
+                    bitCount += 6;
+                    index++;
+                    // at most one byte becomes available per character
+                    if (bitCount >= 8) {
+                        bitCount -= 8;
+                        bytes[offset + count++] = (byte) (bits >> bitCount);
+                        bits &= (1 << bitCount) - 1;
+                    }
+                }
+                consume(index);
+                if (index < source.limit && buffer[index] == '.') {
+                    // the period is part of the signing input, but the caller adds it between the segments
+                    source.position++;
+                    endSegment(true);
+                }
+            }
+            return count == 0 && segmentEnd ? -1 : count;
+        }
+
+        @Override
+        public void close() {
+            // the source is shared by the following segments
+        }
+
+        void drain() throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            //noinspection StatementWithEmptyBody
+            while (read(buffer, 0, buffer.length) != -1) {
+            }
+        }
+
+        boolean isTerminatedByPeriod() {
+            return terminatedByPeriod;
+        }
+
+        private void consume(int end) {
+            try {
+                source.consume(end);
+            } catch (SignatureException e) {
+                throw fail(new MDSException(INVALID_SIGNATURE_ERROR_MESSAGE, e));
+            }
+        }
+
+        private MDSException fail(MDSException e) {
+            source.failure = e;
+            return e;
+        }
+
+        private void endSegment(boolean period) {
+            // a single trailing character carries less than a byte, which base64url never produces
+            if (bitCount == 6) {
+                throw fail(new MDSException("JWS segment is not base64url encoded"));
+            }
+            segmentEnd = true;
+            terminatedByPeriod = period;
+        }
+    }
+}
@@ -18,7 +18,6 @@ package com.webauthn4j.metadata;
 
 import com.webauthn4j.metadata.exception.MDSException;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,8 +25,8 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 
 /**
- * Tiny implementation of {@link HttpClient}. If you prefer more powerful one, implement {@link HttpClient} with
- * your favorite HTTP client library.
+ * Tiny implementation of {@link HttpClient}. {@link CachingHttpClient} adds timeouts, compression and conditional requests.
+ * If you prefer more powerful one, implement {@link HttpClient} with your favorite HTTP client library.
  */
 public class SimpleHttpClient implements HttpClient {
 
@@ -43,14 +42,13 @@ public class SimpleHttpClient implements HttpClient {
 
             if (status == HttpURLConnection.HTTP_OK) {
                 InputStream inputStream = urlConnection.getInputStream();
-                BufferedInputStream bis = new BufferedInputStream(inputStream);
                 ByteArrayOutputStream buf = new ByteArrayOutputStream();
-                int result = bis.read();
-                while (result != -1) {
-                    buf.write((byte) result);
-                    result = bis.read();
+                byte[] buffer = new byte[8192];
+                int length;
+                while ((length = inputStream.read(buffer)) != -1) {
+                    buf.write(buffer, 0, length);
                 }
-                bis.close();
+                inputStream.close();
                 return buf.toString("UTF-8");
             }
             throw new MDSException("failed to fetch " + url);
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.ExecutorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link MetadataItemsProvider} decorator that persists the metadata provided by another {@link MetadataItemsProvider},
+ * such as {@link FidoMdsMetadataItemsProvider} or {@link AggregatingMetadataItemsProvider}, with a {@link MetadataItemsSnapshotStore}.
+ * <p>
+ * On the first call, the stored snapshot is served at once while the delegate provides the current metadata on the background
+ * executor. Once the delegate has provided metadata, it is served from the delegate, and each new map is written to the store
+ * in the background. Without a stored snapshot, the first call waits for the delegate.
+ * <p>
+ * A snapshot older than the maximum snapshot age is not served, so that revoked or compromised status reports are not hidden
+ * for long while the delegate keeps failing: calls wait for the delegate instead, and its failures are thrown.
+ * Nodes that only consume the snapshots another node publishes can read them with {@link MetadataItemsSnapshotStore#load()}.
+ */
+public class SnapshotMetadataItemsProvider implements MetadataItemsProvider {
+
+    public static final Duration DEFAULT_MAXIMUM_SNAPSHOT_AGE = Duration.ofDays(7);
+
+    private final Logger logger = LoggerFactory.getLogger(SnapshotMetadataItemsProvider.class);
+
+    private final MetadataItemsProvider delegate;
+    private final MetadataItemsSnapshotStore snapshotStore;
+    private final Clock clock;
+    private Executor executor = ExecutorUtil.getDefaultBlockingExecutor();
+    private Duration maximumSnapshotAge = DEFAULT_MAXIMUM_SNAPSHOT_AGE;
+
+    private volatile Map<AAGUID, Set<MetadataItem>> snapshotMetadataItems;
+    private volatile Instant snapshotCreatedAt;
+    private volatile boolean delegateReady;
+    private volatile boolean snapshotLoaded;
+    private final AtomicBoolean delegateWarmUpStarted = new AtomicBoolean();
+    private final AtomicBoolean saving = new AtomicBoolean();
+    private volatile Map<AAGUID, Set<MetadataItem>> savedMetadataItems;
+
+    public SnapshotMetadataItemsProvider(MetadataItemsProvider delegate, MetadataItemsSnapshotStore snapshotStore) {
+        this(delegate, snapshotStore, Clock.systemUTC());
+    }
+
+    SnapshotMetadataItemsProvider(MetadataItemsProvider delegate, MetadataItemsSnapshotStore snapshotStore, Clock clock) {
+        AssertUtil.notNull(delegate, "delegate must not be null");
+        AssertUtil.notNull(snapshotStore, "snapshotStore must not be null");
+        AssertUtil.notNull(clock, "clock must not be null");
+        this.delegate = delegate;
+        this.snapshotStore = snapshotStore;
+        this.clock = clock;
+    }
+
+    @Override
+    public Map<AAGUID, Set<MetadataItem>> provide() {
+        if (!delegateReady) {
+            Map<AAGUID, Set<MetadataItem>> snapshot = loadSnapshot();
+            if (snapshot != null && !isSnapshotExpired()) {
+                warmUpDelegate();
+                return snapshot;
+            }
+        }
+        Map<AAGUID, Set<MetadataItem>> metadataItems = delegate.provide();
+        delegateReady = true;
+        saveIfChanged(metadataItems);
+        return metadataItems;
+    }
+
+    @Override
+    public boolean mayBlock() {
+        if (!delegateReady) {
+            if (!snapshotLoaded) {
+                // the first call reads the stored snapshot
+                return true;
+            }
+            if (snapshotMetadataItems != null && !isSnapshotExpired()) {
+                return false;
+            }
+        }
+        return delegate.mayBlock();
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor the delegate warm-up and the snapshot writes run on
+     *
+     * @param executor executor
+     */
+    public void setExecutor(Executor executor) {
+        AssertUtil.notNull(executor, "executor must not be null");
+        this.executor = executor;
+    }
+
+    public Duration getMaximumSnapshotAge() {
+        return maximumSnapshotAge;
+    }
+
+    /**
+     * Sets the maximum age of a stored snapshot to be served while the delegate has not provided metadata yet
+     *
+     * @param maximumSnapshotAge maximum snapshot age
+     */
+    public void setMaximumSnapshotAge(Duration maximumSnapshotAge) {
+        AssertUtil.notNull(maximumSnapshotAge, "maximumSnapshotAge must not be null");
+        AssertUtil.isTrue(!maximumSnapshotAge.isNegative(), "maximumSnapshotAge must not be negative");
+        this.maximumSnapshotAge = maximumSnapshotAge;
+    }
+
+    /**
+     * Returns whether the metadata is served from the delegate instead of the stored snapshot
+     *
+     * @return true if the delegate has provided metadata
+     */
+    public boolean isDelegateReady() {
+        return delegateReady;
+    }
+
+    private Map<AAGUID, Set<MetadataItem>> loadSnapshot() {
+        if (!snapshotLoaded) {
+            // concurrent first calls wait for the local file to be read, instead of all falling back to the delegate
+            synchronized (this) {
+                if (!snapshotLoaded) {
+                    try {
+                        MetadataItemsSnapshotStore.Snapshot snapshot = snapshotStore.load();
+                        if (snapshot != null) {
+                            logger.info("Loaded metadata snapshot created at {} from {}", snapshot.getCreatedAt(), snapshotStore.getPath());
+                            savedMetadataItems = snapshot.getMetadataItems();
+                            snapshotCreatedAt = snapshot.getCreatedAt();
+                            snapshotMetadataItems = snapshot.getMetadataItems();
+                        }
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to load metadata snapshot from " + snapshotStore.getPath(), e);
+                    }
+                    snapshotLoaded = true;
+                }
+            }
+        }
+        return snapshotMetadataItems;
+    }
+
+    private boolean isSnapshotExpired() {
+        return snapshotCreatedAt.plus(maximumSnapshotAge).isBefore(clock.instant());
+    }
+
+    private void warmUpDelegate() {
+        if (delegateWarmUpStarted.compareAndSet(false, true)) {
+            runAsync(() -> {
+                try {
+                    Map<AAGUID, Set<MetadataItem>> metadataItems = delegate.provide();
+                    delegateReady = true;
+                    snapshotMetadataItems = null;
+                    saveIfChanged(metadataItems);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to provide metadata. The stored snapshot keeps being served.", e);
+                    // the next call retries
+                    delegateWarmUpStarted.set(false);
+                }
+            });
+        }
+    }
+
+    private void saveIfChanged(Map<AAGUID, Set<MetadataItem>> metadataItems) {
+        if (metadataItems == savedMetadataItems || !saving.compareAndSet(false, true)) {
+            return;
+        }
+        runAsync(() -> {
+            try {
+                if (!metadataItems.equals(savedMetadataItems)) {
+                    snapshotStore.save(metadataItems);
+                }
+                savedMetadataItems = metadataItems;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to save metadata snapshot to " + snapshotStore.getPath(), e);
+            } finally {
+                saving.set(false);
+            }
+        });
+    }
+
+    private void runAsync(Runnable task) {
+        try {
+            CompletableFuture.runAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+}
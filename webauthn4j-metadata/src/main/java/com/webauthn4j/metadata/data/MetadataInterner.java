@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata.data;
+
+import com.webauthn4j.metadata.data.statement.LeanMetadataStatement;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts {@link MetadataItem}s and {@link MetadataStatement}s to their lean forms, sharing equal strings and
+ * certificates among all the items converted by the same instance. An instance is meant to be used for one set of
+ * metadata, such as one refresh of the FIDO Metadata Service, so that it does not retain the values of replaced metadata.
+ *
+ * @see LeanMetadataStatement
+ */
+public class MetadataInterner {
+
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final Map<X509Certificate, X509Certificate> certificates = new ConcurrentHashMap<>();
+
+    public String intern(String value) {
+        return value == null ? null : strings.computeIfAbsent(value, key -> key);
+    }
+
+    public X509Certificate intern(X509Certificate certificate) {
+        return certificate == null ? null : certificates.computeIfAbsent(certificate, key -> key);
+    }
+
+    /**
+     * Returns the lean form of the statement
+     *
+     * @param metadataStatement statement
+     * @return {@link LeanMetadataStatement}, or the statement itself if it is already lean
+     */
+    public MetadataStatement lean(MetadataStatement metadataStatement) {
+        if (metadataStatement == null || metadataStatement instanceof LeanMetadataStatement) {
+            return metadataStatement;
+        }
+        return new LeanMetadataStatement(metadataStatement, this::intern, this::intern);
+    }
+
+    /**
+     * Returns a {@link MetadataItemImpl} with interned strings and the lean form of the statement
+     *
+     * @param metadataItem item
+     * @return lean item
+     */
+    public MetadataItem lean(MetadataItem metadataItem) {
+        if (metadataItem == null) {
+            return null;
+        }
+        return new MetadataItemImpl(
+                intern(metadataItem.getAaid()),
+                metadataItem.getAaguid(),
+                internAll(metadataItem.getAttestationCertificateKeyIdentifiers()),
+                metadataItem.getHash(),
+                metadataItem.getStatusReports(),
+                metadataItem.getTimeOfLastStatusChange(),
+                lean(metadataItem.getMetadataStatement())
+        );
+    }
+
+    private List<String> internAll(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> interned = new ArrayList<>(values.size());
+        for (String value : values) {
+            interned.add(intern(value));
+        }
+        return interned;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata.data.statement;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.webauthn4j.converter.util.JsonConverter;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link MetadataStatement} that keeps less heap for statements cached for a long time, such as the ones of the FIDO
+ * Metadata Service.
+ * <p>
+ * The fields validation does not use, namely icon, alternativeDescriptions, userVerificationDetails, tcDisplayPNGCharacteristics,
+ * ecdaaTrustAnchors and supportedExtensions, are kept as raw bytes and decoded on every call of their getters, without
+ * caching the result. The icon data URL keeps its base64 data decoded. Repeated strings and certificates are shared
+ * through the specified interners.
+ */
+public class LeanMetadataStatement extends MetadataStatement {
+
+    private static final String BASE64_DATA_URL_MARKER = ";base64,";
+
+    private static final TypeReference<AlternativeDescriptions> ALTERNATIVE_DESCRIPTIONS_TYPE = new TypeReference<AlternativeDescriptions>() {
+    };
+    private static final TypeReference<List<VerificationMethodANDCombinations>> USER_VERIFICATION_DETAILS_TYPE = new TypeReference<List<VerificationMethodANDCombinations>>() {
+    };
+    private static final TypeReference<List<DisplayPNGCharacteristicsDescriptor>> TC_DISPLAY_PNG_CHARACTERISTICS_TYPE = new TypeReference<List<DisplayPNGCharacteristicsDescriptor>>() {
+    };
+    private static final TypeReference<List<EcdaaTrustAnchor>> ECDAA_TRUST_ANCHORS_TYPE = new TypeReference<List<EcdaaTrustAnchor>>() {
+    };
+    private static final TypeReference<List<ExtensionDescriptor>> SUPPORTED_EXTENSIONS_TYPE = new TypeReference<List<ExtensionDescriptor>>() {
+    };
+
+    private final byte[] alternativeDescriptions;
+    private final byte[] userVerificationDetails;
+    private final byte[] tcDisplayPNGCharacteristics;
+    private final byte[] ecdaaTrustAnchors;
+    private final byte[] supportedExtensions;
+    private final String iconPrefix;
+    private final byte[] iconData;
+
+    public LeanMetadataStatement(MetadataStatement metadataStatement, UnaryOperator<String> stringInterner, UnaryOperator<X509Certificate> certificateInterner) {
+        super(
+                intern(stringInterner, metadataStatement.getLegalHeader()),
+                metadataStatement.getAaid(),
+                metadataStatement.getAaguid(),
+                internAll(stringInterner, metadataStatement.getAttestationCertificateKeyIdentifiers()),
+                metadataStatement.getDescription(),
+                null,
+                metadataStatement.getAuthenticatorVersion(),
+                intern(stringInterner, metadataStatement.getProtocolFamily()),
+                metadataStatement.getUpv(),
+                intern(stringInterner, metadataStatement.getAssertionScheme()),
+                metadataStatement.getAuthenticationAlgorithm(),
+                metadataStatement.getAuthenticationAlgorithms(),
+                metadataStatement.getPublicKeyAlgAndEncoding(),
+                metadataStatement.getPublicKeyAlgAndEncodings(),
+                metadataStatement.getAttestationTypes(),
+                null,
+                metadataStatement.getKeyProtection(),
+                metadataStatement.getKeyRestricted(),
+                metadataStatement.getFreshUserVerificationRequired(),
+                metadataStatement.getMatcherProtection(),
+                metadataStatement.getCryptoStrength(),
+                intern(stringInterner, metadataStatement.getOperationEnv()),
+                metadataStatement.getAttachmentHint(),
+                metadataStatement.getSecondFactorOnly(),
+                metadataStatement.getTcDisplay(),
+                intern(stringInterner, metadataStatement.getTcDisplayContentType()),
+                null,
+                internAll(certificateInterner, metadataStatement.getAttestationRootCertificates()),
+                null,
+                null,
+                null);
+        this.alternativeDescriptions = encode(metadataStatement.getAlternativeDescriptions());
+        this.userVerificationDetails = encode(metadataStatement.getUserVerificationDetails());
+        this.tcDisplayPNGCharacteristics = encode(metadataStatement.getTcDisplayPNGCharacteristics());
+        this.ecdaaTrustAnchors = encode(metadataStatement.getEcdaaTrustAnchors());
+        this.supportedExtensions = encode(metadataStatement.getSupportedExtensions());
+
+        String icon = metadataStatement.getIcon();
+        int dataIndex = icon == null ? -1 : icon.indexOf(BASE64_DATA_URL_MARKER);
+        byte[] decoded = dataIndex == -1 ? null : decodeBase64Exactly(icon.substring(dataIndex + BASE64_DATA_URL_MARKER.length()));
+        if (decoded != null) {
+            this.iconPrefix = stringInterner.apply(icon.substring(0, dataIndex + BASE64_DATA_URL_MARKER.length()));
+            this.iconData = decoded;
+        }
+        else {
+            // not a canonical base64 data URL, which is kept as is
+            this.iconPrefix = null;
+            this.iconData = icon == null ? null : icon.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public AlternativeDescriptions getAlternativeDescriptions() {
+        return decode(alternativeDescriptions, ALTERNATIVE_DESCRIPTIONS_TYPE);
+    }
+
+    @Override
+    public List<VerificationMethodANDCombinations> getUserVerificationDetails() {
+        return decode(userVerificationDetails, USER_VERIFICATION_DETAILS_TYPE);
+    }
+
+    @Override
+    public List<DisplayPNGCharacteristicsDescriptor> getTcDisplayPNGCharacteristics() {
+        return decode(tcDisplayPNGCharacteristics, TC_DISPLAY_PNG_CHARACTERISTICS_TYPE);
+    }
+
+    @Override
+    public List<EcdaaTrustAnchor> getEcdaaTrustAnchors() {
+        return decode(ecdaaTrustAnchors, ECDAA_TRUST_ANCHORS_TYPE);
+    }
+
+    @Override
+    public List<ExtensionDescriptor> getSupportedExtensions() {
+        return decode(supportedExtensions, SUPPORTED_EXTENSIONS_TYPE);
+    }
+
+    @Override
+    public String getIcon() {
+        if (iconData == null) {
+            return null;
+        }
+        if (iconPrefix == null) {
+            return new String(iconData, StandardCharsets.UTF_8);
+        }
+        return iconPrefix + Base64.getEncoder().encodeToString(iconData);
+    }
+
+    private static byte[] decodeBase64Exactly(String value) {
+        try {
+            byte[] decoded = Base64.getDecoder().decode(value);
+            // only the values the getter reproduces are decoded
+            return Base64.getEncoder().encodeToString(decoded).equals(value) ? decoded : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] encode(Object value) {
+        return value == null ? null : ConverterHolder.JSON_CONVERTER.writeValueAsBytes(value);
+    }
+
+    private static <T> T decode(byte[] value, TypeReference<T> typeReference) {
+        return value == null ? null : ConverterHolder.JSON_CONVERTER.readValue(new ByteArrayInputStream(value), typeReference);
+    }
+
+    private static <T> T intern(UnaryOperator<T> interner, T value) {
+        return value == null ? null : interner.apply(value);
+    }
+
+    private static <T> List<T> internAll(UnaryOperator<T> interner, List<T> values) {
+        if (values == null) {
+            return null;
+        }
+        List<T> interned = new ArrayList<>(values.size());
+        for (T value : values) {
+            interned.add(intern(interner, value));
+        }
+        return interned;
+    }
+
+    /**
+     * Holds the converter the lazily decoded fields are encoded with, which is not serialized with the statement
+     */
+    private static class ConverterHolder {
+
+        private static final JsonConverter JSON_CONVERTER;
+
+        static {
+            ObjectMapper jsonMapper = new ObjectMapper();
+            jsonMapper.registerModule(new WebAuthnMetadataJSONModule());
+            JSON_CONVERTER = new ObjectConverter(jsonMapper, new ObjectMapper(new CBORFactory())).getJsonConverter();
+        }
+    }
+}
@@ -21,9 +21,12 @@ import com.webauthn4j.metadata.data.MetadataItem;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AggregatingMetadataItemsProviderTest {
@@ -49,4 +52,115 @@ class AggregatingMetadataItemsProviderTest {
         assertThat(target.provide().get(new AAGUID("df495bdc-223a-429d-9f0e-ebfa29155812"))).containsExactlyInAnyOrder(metadataItemA, metadataItemB);
     }
 
-}
\ No newline at end of file
+    @Test
+    void provide_test_merged_map_is_cached_until_a_provider_provides_another_map() {
+        AAGUID aaguid = new AAGUID("df495bdc-223a-429d-9f0e-ebfa29155812");
+        MetadataItemsProvider providerA = mock(MetadataItemsProvider.class);
+        when(providerA.provide()).thenReturn(Collections.singletonMap(aaguid, Collections.singleton(mock(MetadataItem.class))));
+        MetadataItemsProvider providerB = mock(MetadataItemsProvider.class);
+        when(providerB.provide()).thenReturn(Collections.emptyMap());
+
+        AggregatingMetadataItemsProvider target = new AggregatingMetadataItemsProvider(Arrays.asList(providerA, providerB));
+        Map<AAGUID, Set<MetadataItem>> first = target.provide();
+        assertThat(target.provide()).isSameAs(first);
+
+        MetadataItem metadataItem = mock(MetadataItem.class);
+        when(providerB.provide()).thenReturn(Collections.singletonMap(aaguid, Collections.singleton(metadataItem)));
+        assertThat(target.provide()).isNotSameAs(first);
+        assertThat(target.provide().get(aaguid)).hasSize(2).contains(metadataItem);
+    }
+
+    @Test
+    void provide_test_failing_provider_keeps_last_provided_map() {
+        AAGUID aaguid = new AAGUID("df495bdc-223a-429d-9f0e-ebfa29155812");
+        MetadataItem metadataItem = mock(MetadataItem.class);
+        MetadataItemsProvider providerA = mock(MetadataItemsProvider.class);
+        when(providerA.provide()).thenReturn(Collections.singletonMap(aaguid, Collections.singleton(metadataItem)));
+        MetadataItemsProvider providerB = mock(MetadataItemsProvider.class);
+        when(providerB.provide()).thenReturn(Collections.emptyMap());
+
+        AggregatingMetadataItemsProvider target = new AggregatingMetadataItemsProvider(Arrays.asList(providerA, providerB));
+        Map<AAGUID, Set<MetadataItem>> first = target.provide();
+        when(providerA.provide()).thenThrow(new IllegalStateException("unavailable"));
+
+        assertThat(target.provide()).isSameAs(first);
+        assertThat(first.get(aaguid)).containsExactly(metadataItem);
+    }
+
+    @Test
+    void provide_test_providers_are_loaded_on_executor() {
+        MetadataItemsProvider providerA = mock(MetadataItemsProvider.class);
+        when(providerA.provide()).thenReturn(Collections.emptyMap());
+        MetadataItemsProvider providerB = mock(MetadataItemsProvider.class);
+        when(providerB.provide()).thenReturn(Collections.emptyMap());
+        MetadataItemsProvider providerC = mock(MetadataItemsProvider.class);
+        when(providerC.provide()).thenReturn(Collections.emptyMap());
+        AtomicInteger executedTasks = new AtomicInteger();
+
+        AggregatingMetadataItemsProvider target = new AggregatingMetadataItemsProvider(Arrays.asList(providerA, providerB, providerC));
+        target.setExecutor(task -> {
+            executedTasks.incrementAndGet();
+            task.run();
+        });
+        assertThat(target.provide()).isEmpty();
+
+        assertThat(executedTasks.get()).isEqualTo(2); // the last provider is loaded on the calling thread
+        verify(providerC, times(1)).provide();
+    }
+
+    @Test
+    void provide_test_warm_providers_are_loaded_on_calling_thread() {
+        MetadataItemsProvider providerA = mock(MetadataItemsProvider.class);
+        when(providerA.provide()).thenReturn(Collections.emptyMap());
+        MetadataItemsProvider providerB = mock(MetadataItemsProvider.class);
+        when(providerB.provide()).thenThrow(new IllegalStateException("unavailable"));
+        MetadataItemsProvider providerC = mock(MetadataItemsProvider.class);
+        when(providerC.provide()).thenReturn(Collections.emptyMap());
+        AtomicInteger executedTasks = new AtomicInteger();
+
+        AggregatingMetadataItemsProvider target = new AggregatingMetadataItemsProvider(Arrays.asList(providerA, providerB, providerC));
+        target.setExecutor(task -> {
+            executedTasks.incrementAndGet();
+            task.run();
+        });
+        target.provide();
+        executedTasks.set(0);
+
+        target.provide();
+        // providerB has not provided metadata yet, and is the only provider which may block
+        assertThat(executedTasks.get()).isZero();
+
+        when(providerB.provide()).thenReturn(Collections.emptyMap());
+        target.provide();
+        target.provide();
+        assertThat(executedTasks.get()).isZero();
+        verify(providerA, times(4)).provide();
+    }
+
+    @Test
+    void provide_test_providers_declaring_mayBlock_are_loaded_on_executor() {
+        MetadataItemsProvider providerA = mock(MetadataItemsProvider.class);
+        when(providerA.provide()).thenReturn(Collections.emptyMap());
+        MetadataItemsProvider providerB = mock(MetadataItemsProvider.class);
+        when(providerB.provide()).thenReturn(Collections.emptyMap());
+        MetadataItemsProvider providerC = mock(MetadataItemsProvider.class);
+        when(providerC.provide()).thenReturn(Collections.emptyMap());
+        AtomicInteger executedTasks = new AtomicInteger();
+
+        AggregatingMetadataItemsProvider target = new AggregatingMetadataItemsProvider(Arrays.asList(providerA, providerB, providerC));
+        target.setExecutor(task -> {
+            executedTasks.incrementAndGet();
+            task.run();
+        });
+        target.provide();
+        executedTasks.set(0);
+        assertThat(target.mayBlock()).isFalse();
+
+        when(providerA.mayBlock()).thenReturn(true);
+        when(providerB.mayBlock()).thenReturn(true);
+        assertThat(target.mayBlock()).isTrue();
+        target.provide();
+        // providerB is the last provider which may block, and is loaded on the calling thread
+        assertThat(executedTasks.get()).isEqualTo(1);
+    }
+}
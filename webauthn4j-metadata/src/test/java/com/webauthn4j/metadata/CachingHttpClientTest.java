@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.webauthn4j.metadata.exception.MDSException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingHttpClientTest {
+
+    private static final String BODY = "{\"description\": \"dummy metadata statement\"}";
+    private static final String ETAG = "\"v1\"";
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+    private final List<String> ifModifiedSinceHeaders = new CopyOnWriteArrayList<>();
+    private final List<String> acceptEncodingHeaders = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private final CachingHttpClient target = new CachingHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/etag", exchange -> {
+            record(exchange);
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                sendNotModified(exchange);
+            }
+            else {
+                send(exchange, BODY);
+            }
+        });
+        server.createContext("/last-modified", exchange -> {
+            record(exchange);
+            exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+            if (LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))) {
+                sendNotModified(exchange);
+            }
+            else {
+                send(exchange, BODY);
+            }
+        });
+        server.createContext("/no-validator", exchange -> {
+            record(exchange);
+            send(exchange, BODY);
+        });
+        server.createContext("/stale-intermediary", exchange -> {
+            record(exchange);
+            // behaves like an intermediary answering unconditional requests with 304 from its own cache
+            if ("no-cache".equals(exchange.getRequestHeaders().getFirst("Cache-Control"))) {
+                send(exchange, BODY);
+            }
+            else {
+                sendNotModified(exchange);
+            }
+        });
+        server.createContext("/not-found", exchange -> {
+            record(exchange);
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            send(exchange, BODY);
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetch_with_gzip_test() {
+        assertThat(target.fetch(url("/no-validator"))).isEqualTo(BODY);
+        assertThat(acceptEncodingHeaders).containsExactly("gzip");
+    }
+
+    @Test
+    void fetch_without_gzip_test() {
+        target.setGzipEnabled(false);
+        assertThat(target.fetch(url("/no-validator"))).isEqualTo(BODY);
+        assertThat(acceptEncodingHeaders).containsExactly((String) null);
+    }
+
+    @Test
+    void fetch_revalidates_with_etag_test() {
+        assertThat(target.fetch(url("/etag"))).isEqualTo(BODY);
+        assertThat(target.fetch(url("/etag"))).isEqualTo(BODY);
+
+        assertThat(fullResponses.get()).isEqualTo(1);
+        assertThat(ifNoneMatchHeaders).containsExactly(null, ETAG);
+        assertThat(target.getCacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    void fetch_revalidates_with_last_modified_test() {
+        assertThat(target.fetch(url("/last-modified"))).isEqualTo(BODY);
+        assertThat(target.fetch(url("/last-modified"))).isEqualTo(BODY);
+
+        assertThat(fullResponses.get()).isEqualTo(1);
+        assertThat(ifModifiedSinceHeaders).containsExactly(null, LAST_MODIFIED);
+    }
+
+    @Test
+    void fetch_without_validator_is_not_cached_test() {
+        target.fetch(url("/no-validator"));
+        target.fetch(url("/no-validator"));
+
+        assertThat(fullResponses.get()).isEqualTo(2);
+        assertThat(target.getCacheSize()).isZero();
+    }
+
+    @Test
+    void invalidateAll_test() {
+        target.fetch(url("/etag"));
+        target.invalidateAll();
+        target.fetch(url("/etag"));
+
+        assertThat(fullResponses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void fetch_with_maximum_cache_size_test() {
+        CachingHttpClient client = new CachingHttpClient(1);
+        client.fetch(url("/etag"));
+        client.fetch(url("/last-modified"));
+
+        assertThat(client.getCacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    void fetch_with_maximum_cache_bytes_test() {
+        int bodyLength = BODY.getBytes(StandardCharsets.UTF_8).length;
+        CachingHttpClient client = new CachingHttpClient(10, bodyLength);
+        client.fetch(url("/etag"));
+        client.fetch(url("/last-modified"));
+
+        assertThat(client.getCacheSize()).isEqualTo(1);
+        assertThat(client.getCacheBytes()).isEqualTo(bodyLength);
+
+        client.invalidateAll();
+        assertThat(client.getCacheBytes()).isZero();
+    }
+
+    @Test
+    void fetch_body_larger_than_maximum_cache_bytes_is_not_cached_test() {
+        CachingHttpClient client = new CachingHttpClient(10, 1);
+
+        assertThat(client.fetch(url("/etag"))).isEqualTo(BODY);
+        assertThat(client.getCacheSize()).isZero();
+        assertThat(client.getCacheBytes()).isZero();
+    }
+
+    @Test
+    void fetch_with_not_modified_without_cached_response_test() {
+        assertThat(target.fetch(url("/stale-intermediary"))).isEqualTo(BODY);
+        assertThat(fullResponses.get()).isEqualTo(1);
+    }
+
+    @Test
+    void fetch_with_error_status_test() {
+        String url = url("/not-found");
+        assertThrows(MDSException.class, () -> target.fetch(url));
+    }
+
+    @Test
+    void fetch_with_read_timeout_test() {
+        target.setReadTimeout(Duration.ofMillis(100));
+        String url = url("/slow");
+        assertThrows(MDSException.class, () -> target.fetch(url));
+    }
+
+    private String url(String path) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+    }
+
+    private void record(HttpExchange exchange) {
+        ifNoneMatchHeaders.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+        ifModifiedSinceHeaders.add(exchange.getRequestHeaders().getFirst("If-Modified-Since"));
+        acceptEncodingHeaders.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
+    private void send(HttpExchange exchange, String body) throws IOException {
+        fullResponses.incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+                gzipOutputStream.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private void sendNotModified(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+import com.webauthn4j.util.ExecutorUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DirectoryMetadataStatementsProviderTest {
+
+    private final ObjectConverter objectConverter;
+
+    DirectoryMetadataStatementsProviderTest() {
+        ObjectMapper jsonMapper = new ObjectMapper();
+        jsonMapper.registerModule(new WebAuthnMetadataJSONModule());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        objectConverter = new ObjectConverter(jsonMapper, cborMapper);
+    }
+
+    @Test
+    void getExecutor_defaults_to_blocking_executor_test(@TempDir Path tempDir) {
+        DirectoryMetadataStatementsProvider target = new DirectoryMetadataStatementsProvider(objectConverter, tempDir);
+        assertThat(target.getExecutor()).isSameAs(ExecutorUtil.getDefaultBlockingExecutor());
+    }
+
+    @Test
+    void provide_test(@TempDir Path tempDir) throws Exception {
+        copy("JsonMetadataItem_fido2.json", tempDir.resolve("fido2.json"));
+        copy("JsonMetadataItem_u2f.json", tempDir.resolve("u2f.json"));
+        copy("JsonMetadataItem_uaf.json", tempDir.resolve("uaf.json"));
+        Files.write(tempDir.resolve("ignored.txt"), "not a metadata statement".getBytes());
+        DirectoryMetadataStatementsProvider target = new DirectoryMetadataStatementsProvider(objectConverter, tempDir);
+
+        Map<AAGUID, Set<MetadataStatement>> metadataStatements = target.provide();
+
+        assertThat(metadataStatements).containsKeys(AAGUID.ZERO, AAGUID.NULL).hasSize(3);
+        assertThat(target.provide()).isSameAs(metadataStatements);
+        assertThat(target.getSnapshotVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_test(@TempDir Path tempDir) throws Exception {
+        Path fido2 = tempDir.resolve("fido2.json");
+        Path u2f = tempDir.resolve("u2f.json");
+        copy("JsonMetadataItem_fido2.json", fido2);
+        DirectoryMetadataStatementsProvider target = new DirectoryMetadataStatementsProvider(objectConverter, tempDir);
+        Map<AAGUID, Set<MetadataStatement>> initial = target.provide();
+        MetadataStatement fido2Statement = initial.values().iterator().next().iterator().next();
+
+        // unchanged directory
+        assertThat(target.refresh()).isFalse();
+        assertThat(target.provide()).isSameAs(initial);
+
+        // touched, but same content
+        Files.setLastModifiedTime(fido2, FileTime.fromMillis(Files.getLastModifiedTime(fido2).toMillis() + 10_000));
+        assertThat(target.refresh()).isFalse();
+        assertThat(target.provide()).isSameAs(initial);
+
+        // added file
+        copy("JsonMetadataItem_u2f.json", u2f);
+        assertThat(target.refresh()).isTrue();
+        Map<AAGUID, Set<MetadataStatement>> added = target.provide();
+        assertThat(added).containsKey(AAGUID.ZERO).hasSize(2);
+        assertThat(added.get(fido2Statement.getAaguid())).containsExactly(fido2Statement);
+        assertThat(target.getSnapshotVersion()).isEqualTo(2);
+
+        // removed file
+        Files.delete(u2f);
+        assertThat(target.refresh()).isTrue();
+        assertThat(target.provide()).doesNotContainKey(AAGUID.ZERO).hasSize(1);
+        assertThat(target.getSnapshotVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void refresh_with_invalid_file_test(@TempDir Path tempDir) throws Exception {
+        Path fido2 = tempDir.resolve("fido2.json");
+        copy("JsonMetadataItem_fido2.json", fido2);
+        Files.write(tempDir.resolve("broken.json"), "{".getBytes());
+        DirectoryMetadataStatementsProvider target = new DirectoryMetadataStatementsProvider(objectConverter, tempDir);
+        Map<AAGUID, Set<MetadataStatement>> initial = target.provide();
+        assertThat(initial).hasSize(1);
+
+        // a broken update keeps the previous statement
+        Files.write(fido2, "{".getBytes());
+        assertThat(target.refresh()).isFalse();
+        assertThat(target.provide()).isSameAs(initial);
+    }
+
+    @Test
+    void provide_with_non_existent_directory_test(@TempDir Path tempDir) {
+        DirectoryMetadataStatementsProvider target = new DirectoryMetadataStatementsProvider(objectConverter, tempDir.resolve("non-existent"));
+        assertThrows(UncheckedIOException.class, target::provide);
+        assertThat(target.refresh()).isFalse();
+    }
+
+    @Test
+    void startWatching_test(@TempDir Path tempDir) throws Exception {
+        copy("JsonMetadataItem_fido2.json", tempDir.resolve("fido2.json"));
+        try (DirectoryMetadataStatementsProvider target = new DirectoryMetadataStatementsProvider(objectConverter, tempDir)) {
+            target.provide();
+            target.startWatching();
+
+            copy("JsonMetadataItem_u2f.json", tempDir.resolve("u2f.json"));
+
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (target.getSnapshotVersion() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(target.provide()).containsKey(AAGUID.ZERO);
+        }
+    }
+
+    private static void copy(String resource, Path path) throws Exception {
+        try (InputStream inputStream = ClassLoader.getSystemResourceAsStream("com/webauthn4j/metadata/" + resource)) {
+            Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -16,12 +16,38 @@
 
 package com.webauthn4j.metadata;
 
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+import com.webauthn4j.metadata.data.toc.MetadataTOCPayload;
+import com.webauthn4j.metadata.data.toc.MetadataTOCPayloadEntry;
+import com.webauthn4j.metadata.exception.MDSException;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 
 class FidoMdsMetadataItemsProviderTest {
 
+    private final OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    private final List<Runnable> tasks = new ArrayList<>();
 
     @Test
     void appendToken() {
@@ -29,4 +55,179 @@ class FidoMdsMetadataItemsProviderTest {
         assertThat(FidoMdsMetadataItemsProvider.appendToken("https://mds2.fidoalliance.org/metadata/4e4e%234005/", "dummyToken")).isEqualTo("https://mds2.fidoalliance.org/metadata/4e4e%234005/?token=dummyToken");
     }
 
-}
\ No newline at end of file
+    @Test
+    void provide_with_background_refresh_returns_stale_metadata_while_refreshing_test() {
+        StubFidoMdsMetadataItemsProvider target = createStaleTarget();
+        Map<AAGUID, Set<MetadataItem>> stale = target.cachedMetadataItemMap;
+        assertThat(target.needsBlockingRefresh()).isFalse();
+
+        assertThat(target.provide()).isSameAs(stale);
+        assertThat(target.provide()).isSameAs(stale);
+        assertThat(target.isRefreshing()).isTrue();
+        assertThat(tasks).hasSize(1); // single-flight
+
+        tasks.get(0).run();
+
+        assertThat(target.isRefreshing()).isFalse();
+        assertThat(target.fetchCount.get()).isEqualTo(1);
+        assertThat(target.provide()).isNotSameAs(stale).isEmpty();
+        assertThat(target.getNextUpdate()).isAfter(now);
+        assertThat(target.getLastRefreshDuration()).isNotNull();
+        assertThat(target.getStaleness()).isZero();
+    }
+
+    @Test
+    void provide_with_background_refresh_failure_test() {
+        StubFidoMdsMetadataItemsProvider target = createStaleTarget();
+        Map<AAGUID, Set<MetadataItem>> stale = target.cachedMetadataItemMap;
+        target.failure = new MDSException("unavailable");
+
+        assertThat(target.provide()).isSameAs(stale);
+        tasks.get(0).run();
+
+        assertThat(target.provide()).isSameAs(stale);
+        assertThat(target.getLastRefreshFailure()).isSameAs(target.failure);
+        assertThat(target.getLastRefreshFailureTime()).isNotNull();
+        assertThat(target.getConsecutiveRefreshFailures()).isEqualTo(1);
+        assertThat(target.getStaleness()).isGreaterThanOrEqualTo(Duration.ofDays(1));
+        assertThat(tasks).hasSize(1); // not retried within the retry interval
+
+        target.setRefreshRetryInterval(Duration.ZERO);
+        target.failure = null;
+        target.provide();
+        tasks.get(1).run();
+
+        assertThat(target.provide()).isNotSameAs(stale);
+        assertThat(target.getConsecutiveRefreshFailures()).isZero();
+    }
+
+    @Test
+    void provide_without_cache_waits_for_refresh_test() {
+        StubFidoMdsMetadataItemsProvider target = new StubFidoMdsMetadataItemsProvider();
+        target.setBackgroundRefreshEnabled(true);
+        target.setRefreshExecutor(tasks::add);
+        target.failure = new MDSException("unavailable");
+        assertThat(target.needsBlockingRefresh()).isTrue();
+
+        assertThrows(MDSException.class, target::provide);
+        assertThat(tasks).isEmpty();
+
+        target.failure = null;
+        assertThat(target.provide()).isEmpty();
+    }
+
+    @Test
+    void refreshAsync_test() {
+        StubFidoMdsMetadataItemsProvider target = new StubFidoMdsMetadataItemsProvider();
+        target.setRefreshExecutor(tasks::add);
+
+        CompletableFuture<Void> futureA = target.refreshAsync();
+        CompletableFuture<Void> futureB = target.refreshAsync();
+        assertThat(futureA).isSameAs(futureB).isNotDone();
+
+        tasks.get(0).run();
+
+        assertThat(futureA).isCompleted();
+        assertThat(target.needsRefresh()).isFalse();
+    }
+
+    @Test
+    void refreshAsync_with_error_test() {
+        StubFidoMdsMetadataItemsProvider target = new StubFidoMdsMetadataItemsProvider();
+        target.setRefreshExecutor(tasks::add);
+        target.error = new OutOfMemoryError();
+
+        CompletableFuture<Void> future = target.refreshAsync();
+        assertThrows(OutOfMemoryError.class, () -> tasks.get(0).run());
+
+        // the failed refresh neither leaves the provider refreshing nor blocks callers waiting for it
+        assertThat(future).isCompletedExceptionally();
+        assertThat(target.isRefreshing()).isFalse();
+        assertThrows(OutOfMemoryError.class, target::provide);
+
+        target.error = null;
+        assertThat(target.provide()).isEmpty();
+    }
+
+    @Test
+    void refresh_with_maximumConcurrentFetches_test() {
+        StubFidoMdsMetadataItemsProvider target = new StubFidoMdsMetadataItemsProvider();
+        target.setMaximumConcurrentFetches(2);
+        for (int i = 0; i < 10; i++) {
+            target.entries.add(new MetadataTOCPayloadEntry(null, UUID.randomUUID().toString(), null, "hash", URI.create("https://example.com/" + i), null, null, null, null, null));
+        }
+
+        Map<AAGUID, Set<MetadataItem>> metadataItemMap = target.provide();
+
+        assertThat(metadataItemMap).hasSize(10);
+        assertThat(target.maximumObservedConcurrency.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void refresh_with_fetchExecutor_test() {
+        StubFidoMdsMetadataItemsProvider target = new StubFidoMdsMetadataItemsProvider();
+        target.setMaximumConcurrentFetches(3);
+        target.setFetchExecutor(tasks::add);
+        for (int i = 0; i < 10; i++) {
+            target.entries.add(new MetadataTOCPayloadEntry(null, UUID.randomUUID().toString(), null, "hash", URI.create("https://example.com/" + i), null, null, null, null, null));
+        }
+
+        // the workers queued on the fetch executor are not waited for
+        Map<AAGUID, Set<MetadataItem>> metadataItemMap = target.provide();
+
+        assertThat(metadataItemMap).hasSize(10);
+        assertThat(tasks).hasSize(2);
+        tasks.forEach(Runnable::run);
+        assertThat(target.provide()).isSameAs(metadataItemMap);
+    }
+
+    private StubFidoMdsMetadataItemsProvider createStaleTarget() {
+        StubFidoMdsMetadataItemsProvider target = new StubFidoMdsMetadataItemsProvider();
+        target.setBackgroundRefreshEnabled(true);
+        target.setRefreshExecutor(tasks::add);
+        target.cachedMetadataItemMap = new HashMap<>();
+        target.nextUpdate = now.minusDays(1);
+        target.lastRefresh = now.minusWeeks(1);
+        return target;
+    }
+
+    private static class StubFidoMdsMetadataItemsProvider extends FidoMdsMetadataItemsProvider {
+
+        private final AtomicInteger fetchCount = new AtomicInteger();
+        private final List<MetadataTOCPayloadEntry> entries = new ArrayList<>();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maximumObservedConcurrency = new AtomicInteger();
+        private volatile MDSException failure;
+        private volatile Error error;
+
+        StubFidoMdsMetadataItemsProvider() {
+            super(new ObjectConverter(), mock(HttpClient.class), mock(X509Certificate.class));
+        }
+
+        @Override
+        MetadataTOCPayload fetchMetadataTOCPayload(boolean skipCertPathValidation) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (error != null) {
+                throw error;
+            }
+            fetchCount.incrementAndGet();
+            return new MetadataTOCPayload("legalHeader", 1, LocalDate.now(ZoneOffset.UTC).plusDays(30), entries);
+        }
+
+        @Override
+        MetadataStatement fetchMetadataStatement(String uri, byte[] expectedHash) {
+            int current = concurrency.incrementAndGet();
+            maximumObservedConcurrency.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrency.decrementAndGet();
+            return mock(MetadataStatement.class);
+        }
+    }
+
+}
@@ -16,11 +16,33 @@
 
 package com.webauthn4j.metadata;
 
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.data.attestation.statement.CertificateBaseAttestationStatement;
+import com.webauthn4j.data.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.metadata.data.MetadataItemImpl;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+import com.webauthn4j.metadata.data.toc.AuthenticatorStatus;
+import com.webauthn4j.metadata.data.toc.StatusReport;
+import com.webauthn4j.metadata.exception.BadStatusException;
 import com.webauthn4j.test.TestDataUtil;
+import com.webauthn4j.util.CertificateUtil;
+import com.webauthn4j.util.HexUtil;
 import com.webauthn4j.validator.RegistrationObject;
 import org.junit.jupiter.api.Test;
 
+import java.security.cert.X509Certificate;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class FidoMdsMetadataValidatorTest {
 
@@ -32,4 +54,32 @@ class FidoMdsMetadataValidatorTest {
         RegistrationObject registrationObject = TestDataUtil.createRegistrationObjectWithPackedAttestation();
         target.validate(registrationObject);
     }
+
+    @Test
+    void validate_with_revoked_aaguid_test() {
+        AAGUID aaguid = new AAGUID(UUID.randomUUID());
+        RegistrationObject registrationObject = mock(RegistrationObject.class, RETURNS_DEEP_STUBS);
+        when(registrationObject.getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getAaguid()).thenReturn(aaguid);
+        when(registrationObject.getAttestationObject().getAttestationStatement()).thenReturn(new NoneAttestationStatement());
+        when(metadataItemsResolver.resolveByAaguid(aaguid)).thenReturn(Collections.singleton(createRevokedItem()));
+
+        assertThrows(BadStatusException.class, () -> target.validate(registrationObject));
+        verify(metadataItemsResolver, never()).resolveByAttestationCertificateKeyIdentifier(any());
+    }
+
+    @Test
+    void validate_with_revoked_attestation_certificate_key_identifier_test() {
+        RegistrationObject registrationObject = TestDataUtil.createRegistrationObjectWithPackedAttestation();
+        X509Certificate attestationCertificate = ((CertificateBaseAttestationStatement) registrationObject.getAttestationObject().getAttestationStatement()).getX5c().get(0);
+        String keyIdentifier = HexUtil.encodeToString(CertificateUtil.computeSubjectKeyIdentifier(attestationCertificate.getPublicKey()));
+        when(metadataItemsResolver.resolveByAttestationCertificateKeyIdentifier(keyIdentifier)).thenReturn(Collections.singleton(createRevokedItem()));
+
+        assertThrows(BadStatusException.class, () -> target.validate(registrationObject));
+        verify(metadataItemsResolver, never()).resolveByAaguid(any()); // U2F authenticators report the zero AAGUID
+    }
+
+    private MetadataItem createRevokedItem() {
+        StatusReport statusReport = new StatusReport(AuthenticatorStatus.REVOKED, LocalDate.of(2020, 1, 1), null, null);
+        return new MetadataItemImpl(null, AAGUID.NULL, null, "hash", Collections.singletonList(statusReport), LocalDate.of(2020, 1, 1), mock(MetadataStatement.class));
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.metadata.data.MetadataItemImpl;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetadataItemsIndexTest {
+
+    private final AAGUID aaguid = new AAGUID(UUID.randomUUID());
+    private final MetadataItem fido2Item = createItem(null, aaguid, null);
+    private final MetadataItem u2fItem = createItem(null, AAGUID.NULL, Arrays.asList("923881fe2f214ee465484371aeb72e97f5a58e0a", "4E4E#4005"));
+    private final MetadataItem uafItem = createItem("4E4E#4005", AAGUID.NULL, null);
+    private final MetadataItemsIndex target = new MetadataItemsIndex(createMap(fido2Item, u2fItem, uafItem));
+
+    @Test
+    void findByAaguid_test() {
+        assertThat(target.findByAaguid(aaguid)).containsExactly(fido2Item);
+        assertThat(target.findByAaguid(AAGUID.NULL)).containsExactlyInAnyOrder(u2fItem, uafItem);
+        assertThat(target.findByAaguid(new AAGUID(UUID.randomUUID()))).isEmpty();
+    }
+
+    @Test
+    void findByAaguid_returns_same_instance_test() {
+        assertThat(target.findByAaguid(aaguid)).isSameAs(target.findByAaguid(aaguid));
+    }
+
+    @Test
+    void findByAaguidIncludingItemsWithoutAaguid_test() {
+        Set<MetadataItem> metadataItems = target.findByAaguidIncludingItemsWithoutAaguid(aaguid);
+        assertThat(metadataItems).hasSize(3).containsExactlyInAnyOrder(fido2Item, u2fItem, uafItem);
+        assertThat(new HashSet<>(metadataItems)).isEqualTo(metadataItems);
+        assertThat(target.findByAaguidIncludingItemsWithoutAaguid(new AAGUID(UUID.randomUUID()))).containsExactlyInAnyOrder(u2fItem, uafItem);
+    }
+
+    @Test
+    void findByAttestationCertificateKeyIdentifier_test() {
+        assertThat(target.findByAttestationCertificateKeyIdentifier("923881fe2f214ee465484371aeb72e97f5a58e0a")).containsExactly(u2fItem);
+        assertThat(target.findByAttestationCertificateKeyIdentifier("923881FE2F214EE465484371AEB72E97F5A58E0A")).containsExactly(u2fItem);
+        assertThat(target.findByAttestationCertificateKeyIdentifier("0000000000000000000000000000000000000000")).isEmpty();
+    }
+
+    @Test
+    void findByAaid_test() {
+        assertThat(target.findByAaid("4e4e#4005")).containsExactly(uafItem);
+        assertThat(target.findByAaid("4E4E#0000")).isEmpty();
+    }
+
+    @Test
+    void index_is_unmodifiable_test() {
+        Set<MetadataItem> metadataItems = target.findByAaguidIncludingItemsWithoutAaguid(aaguid);
+        MetadataItem metadataItem = createItem(null, aaguid, null);
+        assertThrows(UnsupportedOperationException.class, () -> metadataItems.add(metadataItem));
+    }
+
+    private static MetadataItem createItem(String aaid, AAGUID aaguid, List<String> attestationCertificateKeyIdentifiers) {
+        return new MetadataItemImpl(aaid, aaguid, attestationCertificateKeyIdentifiers, UUID.randomUUID().toString(), Collections.emptyList(), LocalDate.of(2020, 1, 1), null);
+    }
+
+    private static Map<AAGUID, Set<MetadataItem>> createMap(MetadataItem... metadataItems) {
+        Map<AAGUID, Set<MetadataItem>> map = new HashMap<>();
+        for (MetadataItem metadataItem : metadataItems) {
+            map.computeIfAbsent(metadataItem.getAaguid(), key -> new HashSet<>()).add(metadataItem);
+        }
+        return map;
+    }
+}
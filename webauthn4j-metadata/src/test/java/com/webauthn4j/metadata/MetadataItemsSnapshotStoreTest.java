@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
+import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.metadata.data.MetadataItemImpl;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+import com.webauthn4j.metadata.data.toc.AuthenticatorStatus;
+import com.webauthn4j.metadata.data.toc.StatusReport;
+import com.webauthn4j.metadata.exception.MDSException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetadataItemsSnapshotStoreTest {
+
+    private final ObjectConverter objectConverter;
+
+    MetadataItemsSnapshotStoreTest() {
+        ObjectMapper jsonMapper = new ObjectMapper();
+        jsonMapper.registerModule(new WebAuthnMetadataJSONModule());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        objectConverter = new ObjectConverter(jsonMapper, cborMapper);
+    }
+
+    @Test
+    void save_and_load_test(@TempDir Path tempDir) {
+        MetadataItemsSnapshotStore target = new MetadataItemsSnapshotStore(tempDir.resolve("mds.snapshot"));
+        MetadataItem metadataItem = createMetadataItem();
+        Map<AAGUID, Set<MetadataItem>> metadataItems = new HashMap<>();
+        metadataItems.put(metadataItem.getAaguid(), Collections.singleton(metadataItem));
+
+        MetadataItemsSnapshotStore.Snapshot saved = target.save(metadataItems);
+        MetadataItemsSnapshotStore.Snapshot loaded = target.load();
+
+        assertThat(loaded.getCreatedAt()).isEqualTo(saved.getCreatedAt());
+        assertThat(loaded.getMetadataItems()).containsOnlyKeys(metadataItem.getAaguid());
+        MetadataItem loadedItem = loaded.getMetadataItems().get(metadataItem.getAaguid()).iterator().next();
+        assertThat(loadedItem).usingRecursiveComparison().isEqualTo(metadataItem);
+    }
+
+    @Test
+    void load_without_file_test(@TempDir Path tempDir) {
+        MetadataItemsSnapshotStore target = new MetadataItemsSnapshotStore(tempDir.resolve("mds.snapshot"));
+        assertThat(target.load()).isNull();
+    }
+
+    @Test
+    void load_with_corrupted_payload_test(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("mds.snapshot");
+        MetadataItemsSnapshotStore target = new MetadataItemsSnapshotStore(path);
+        MetadataItem metadataItem = createMetadataItem();
+        target.save(Collections.singletonMap(metadataItem.getAaguid(), Collections.singleton(metadataItem)));
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(path, bytes);
+
+        assertThrows(MDSException.class, target::load);
+    }
+
+    @Test
+    void load_with_unsupported_format_version_test(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("mds.snapshot");
+        MetadataItemsSnapshotStore target = new MetadataItemsSnapshotStore(path);
+        target.save(Collections.emptyMap());
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[7] = (byte) (MetadataItemsSnapshotStore.FORMAT_VERSION + 1);
+        Files.write(path, bytes);
+
+        assertThrows(MDSException.class, target::load);
+    }
+
+    @Test
+    void load_with_other_file_test(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("mds.snapshot");
+        Files.write(path, "not a snapshot, but long enough to have a header".getBytes());
+        MetadataItemsSnapshotStore target = new MetadataItemsSnapshotStore(path);
+
+        assertThrows(MDSException.class, target::load);
+    }
+
+    private MetadataItem createMetadataItem() {
+        MetadataStatement metadataStatement;
+        try (InputStream inputStream = ClassLoader.getSystemResourceAsStream("com/webauthn4j/metadata/JsonMetadataItem_fido2.json")) {
+            metadataStatement = objectConverter.getJsonConverter().readValue(inputStream, MetadataStatement.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        StatusReport statusReport = new StatusReport(AuthenticatorStatus.FIDO_CERTIFIED, LocalDate.of(2020, 1, 1), null, "https://example.com/report");
+        return new MetadataItemImpl(null, metadataStatement.getAaguid(), null, "hash", Collections.singletonList(statusReport), LocalDate.of(2020, 1, 2), metadataStatement);
+    }
+}
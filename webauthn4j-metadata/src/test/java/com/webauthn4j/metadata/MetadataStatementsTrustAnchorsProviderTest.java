@@ -17,12 +17,14 @@
 package com.webauthn4j.metadata;
 
 import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
 import com.webauthn4j.test.TestAttestationUtil;
 import com.webauthn4j.test.TestDataUtil;
 import org.junit.jupiter.api.Test;
 
 import java.security.cert.TrustAnchor;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -42,4 +44,24 @@ class MetadataStatementsTrustAnchorsProviderTest {
         assertThat(result.get(aaguid).stream().map(TrustAnchor::getTrustedCert)).contains(TestAttestationUtil.load3tierTestAuthenticatorAttestationCertificate());
     }
 
-}
\ No newline at end of file
+    @Test
+    void provide_test_trust_anchors_are_cached_per_provided_map() {
+        MetadataStatementsProvider metadataStatementsProvider = mock(MetadataStatementsProvider.class);
+        AAGUID aaguidA = new AAGUID("49e25c43-a6d1-49f0-bcfa-23e23a7c0e52");
+        AAGUID aaguidB = new AAGUID("df495bdc-223a-429d-9f0e-ebfa29155812");
+        Map<AAGUID, Set<MetadataStatement>> metadataStatements = new HashMap<>();
+        metadataStatements.put(aaguidA, Collections.singleton(TestDataUtil.createMetadataStatement()));
+        metadataStatements.put(aaguidB, Collections.singleton(TestDataUtil.createMetadataStatement()));
+        when(metadataStatementsProvider.provide()).thenReturn(metadataStatements);
+        MetadataStatementsTrustAnchorsProvider target = new MetadataStatementsTrustAnchorsProvider(metadataStatementsProvider);
+
+        Map<AAGUID, Set<TrustAnchor>> result = target.provide();
+
+        assertThat(target.provide()).isSameAs(result);
+        // the root certificate shared by both statements is represented by a single TrustAnchor
+        assertThat(result.get(aaguidA).iterator().next()).isSameAs(result.get(aaguidB).iterator().next());
+        when(metadataStatementsProvider.provide()).thenReturn(new HashMap<>(metadataStatements));
+        assertThat(target.provide()).isNotSameAs(result);
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.data.jws.JWAIdentifier;
+import com.webauthn4j.data.jws.JWS;
+import com.webauthn4j.data.jws.JWSFactory;
+import com.webauthn4j.data.jws.JWSHeader;
+import com.webauthn4j.metadata.data.toc.AuthenticatorStatus;
+import com.webauthn4j.metadata.data.toc.MetadataTOCPayload;
+import com.webauthn4j.metadata.data.toc.MetadataTOCPayloadEntry;
+import com.webauthn4j.metadata.data.toc.StatusReport;
+import com.webauthn4j.metadata.exception.MDSException;
+import com.webauthn4j.test.TestAttestationUtil;
+import com.webauthn4j.util.CertificateUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetadataTOCReaderTest {
+
+    private final ObjectConverter objectConverter = new ObjectConverter();
+    private final MetadataTOCReader target = new MetadataTOCReader(objectConverter);
+
+    @Test
+    void read_test() {
+        MetadataTOCPayload payload = createPayload(1000); // larger than the read buffer
+        JWS<MetadataTOCPayload> jws = createJWS(payload);
+
+        MetadataTOCReader.MetadataTOC metadataTOC = target.read(jws.toString());
+
+        assertThat(metadataTOC.getPayload()).isEqualTo(payload);
+        assertThat(metadataTOC.getHeader()).isEqualTo(jws.getHeader());
+    }
+
+    @Test
+    void read_from_stream_test() {
+        MetadataTOCPayload payload = createPayload(10);
+        JWS<MetadataTOCPayload> jws = createJWS(payload);
+
+        MetadataTOCReader.MetadataTOC metadataTOC = target.read(new ByteArrayInputStream(jws.getBytes()));
+
+        assertThat(metadataTOC.getPayload()).isEqualTo(payload);
+    }
+
+    @Test
+    void read_with_tampered_payload_test() {
+        JWS<MetadataTOCPayload> jws = createJWS(createPayload(10));
+        String[] segments = jws.toString().split("\\.");
+        String tampered = segments[0] + "." + createJWS(createPayload(11)).toString().split("\\.")[1] + "." + segments[2];
+
+        assertThrows(MDSException.class, () -> target.read(tampered));
+    }
+
+    @Test
+    void read_with_invalid_segment_count_test() {
+        String value = createJWS(createPayload(1)).toString();
+        String withoutSignature = value.substring(0, value.lastIndexOf('.'));
+
+        assertThrows(MDSException.class, () -> target.read(withoutSignature));
+        assertThrows(MDSException.class, () -> target.read(value + ".extra"));
+    }
+
+    @Test
+    void read_with_invalid_character_test() {
+        String value = createJWS(createPayload(1)).toString();
+        String invalid = value.replaceFirst("\\.", ".*");
+
+        assertThrows(MDSException.class, () -> target.read(invalid));
+        assertThrows(MDSException.class, () -> target.read(new ByteArrayInputStream(invalid.getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    @Test
+    void read_with_invalid_character_inside_payload_test() {
+        String value = createJWS(createPayload(100)).toString();
+        int headerEnd = value.indexOf('.');
+        int middle = headerEnd + (value.lastIndexOf('.') - headerEnd) / 2;
+        String invalid = value.substring(0, middle) + "*" + value.substring(middle + 1);
+
+        MDSException exception = assertThrows(MDSException.class, () -> target.read(new ByteArrayInputStream(invalid.getBytes(StandardCharsets.US_ASCII))));
+        assertThat(exception).hasMessage("JWS segment is not base64url encoded");
+    }
+
+    private JWS<MetadataTOCPayload> createJWS(MetadataTOCPayload payload) {
+        JWSHeader header = new JWSHeader(JWAIdentifier.ES256, CertificateUtil.generateCertPath(Collections.singletonList(TestAttestationUtil.load3tierTestAuthenticatorAttestationCertificate())));
+        return new JWSFactory(objectConverter).create(header, payload, TestAttestationUtil.load3tierTestAuthenticatorAttestationPrivateKey());
+    }
+
+    private MetadataTOCPayload createPayload(int entryCount) {
+        List<MetadataTOCPayloadEntry> entries = new ArrayList<>();
+        for (int i = 0; i < entryCount; i++) {
+            StatusReport statusReport = new StatusReport(AuthenticatorStatus.FIDO_CERTIFIED, LocalDate.of(2020, 1, 1), null, null);
+            entries.add(new MetadataTOCPayloadEntry(null, new UUID(0, i).toString(), null, "hash" + i, URI.create("https://example.com/" + i),
+                    null, Collections.singletonList(statusReport), LocalDate.of(2020, 1, 2), null, null));
+        }
+        return new MetadataTOCPayload("legalHeader", 1, LocalDate.of(2020, 2, 1), entries);
+    }
+}
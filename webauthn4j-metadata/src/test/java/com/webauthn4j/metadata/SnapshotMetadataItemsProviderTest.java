@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata;
+
+import com.webauthn4j.data.attestation.authenticator.AAGUID;
+import com.webauthn4j.metadata.data.MetadataItem;
+import com.webauthn4j.metadata.data.MetadataItemImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SnapshotMetadataItemsProviderTest {
+
+    private static final AAGUID SNAPSHOT_AAGUID = new AAGUID("fa2b99dc-9e39-4257-8f92-4a30d23c4118");
+    private static final AAGUID CURRENT_AAGUID = new AAGUID("ee882879-721c-4913-9775-3dfcce97072a");
+
+    private final MetadataItemsProvider delegate = mock(MetadataItemsProvider.class);
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Test
+    void provide_serves_snapshot_while_delegate_warms_up_test(@TempDir Path tempDir) {
+        MetadataItemsSnapshotStore snapshotStore = new MetadataItemsSnapshotStore(tempDir.resolve("mds.snapshot"));
+        snapshotStore.save(createMetadataItems(SNAPSHOT_AAGUID));
+        Map<AAGUID, Set<MetadataItem>> current = createMetadataItems(CURRENT_AAGUID);
+        when(delegate.provide()).thenReturn(current);
+        SnapshotMetadataItemsProvider target = createTarget(snapshotStore);
+
+        assertThat(target.provide()).containsOnlyKeys(SNAPSHOT_AAGUID);
+        assertThat(target.provide()).containsOnlyKeys(SNAPSHOT_AAGUID);
+        verify(delegate, never()).provide();
+        assertThat(tasks).hasSize(1);
+
+        tasks.get(0).run(); // warm-up
+        assertThat(target.isDelegateReady()).isTrue();
+        assertThat(target.provide()).isSameAs(current);
+
+        tasks.get(1).run(); // save
+        assertThat(snapshotStore.load().getMetadataItems()).containsOnlyKeys(CURRENT_AAGUID);
+    }
+
+    @Test
+    void provide_without_snapshot_waits_for_delegate_test(@TempDir Path tempDir) {
+        MetadataItemsSnapshotStore snapshotStore = new MetadataItemsSnapshotStore(tempDir.resolve("mds.snapshot"));
+        Map<AAGUID, Set<MetadataItem>> current = createMetadataItems(CURRENT_AAGUID);
+        when(delegate.provide()).thenReturn(current);
+        SnapshotMetadataItemsProvider target = createTarget(snapshotStore);
+
+        assertThat(target.provide()).isSameAs(current);
+        assertThat(target.provide()).isSameAs(current);
+        assertThat(tasks).hasSize(1); // saved once per map instance
+
+        tasks.get(0).run();
+        assertThat(snapshotStore.load().getMetadataItems()).containsOnlyKeys(CURRENT_AAGUID);
+    }
+
+    @Test
+    void provide_keeps_serving_snapshot_when_delegate_fails_test(@TempDir Path tempDir) {
+        MetadataItemsSnapshotStore snapshotStore = new MetadataItemsSnapshotStore(tempDir.resolve("mds.snapshot"));
+        snapshotStore.save(createMetadataItems(SNAPSHOT_AAGUID));
+        when(delegate.provide()).thenThrow(new IllegalStateException("unavailable"));
+        SnapshotMetadataItemsProvider target = createTarget(snapshotStore);
+
+        target.provide();
+        tasks.get(0).run();
+
+        assertThat(target.isDelegateReady()).isFalse();
+        assertThat(target.provide()).containsOnlyKeys(SNAPSHOT_AAGUID);
+        assertThat(tasks).hasSize(2); // retried
+    }
+
+    @Test
+    void provide_with_expired_snapshot_waits_for_delegate_test(@TempDir Path tempDir) {
+        MetadataItemsSnapshotStore snapshotStore = new MetadataItemsSnapshotStore(tempDir.resolve("mds.snapshot"));
+        snapshotStore.save(createMetadataItems(SNAPSHOT_AAGUID));
+        when(delegate.provide()).thenThrow(new IllegalStateException("unavailable"));
+        Clock clock = Clock.offset(Clock.systemUTC(), SnapshotMetadataItemsProvider.DEFAULT_MAXIMUM_SNAPSHOT_AGE.plusDays(1));
+        SnapshotMetadataItemsProvider target = new SnapshotMetadataItemsProvider(delegate, snapshotStore, clock);
+        target.setExecutor(tasks::add);
+
+        assertThrows(IllegalStateException.class, target::provide);
+        assertThat(tasks).isEmpty();
+
+        target.setMaximumSnapshotAge(Duration.ofDays(30));
+        assertThat(target.provide()).containsOnlyKeys(SNAPSHOT_AAGUID);
+    }
+
+    @Test
+    void mayBlock_test(@TempDir Path tempDir) {
+        MetadataItemsSnapshotStore snapshotStore = new MetadataItemsSnapshotStore(tempDir.resolve("mds.snapshot"));
+        snapshotStore.save(createMetadataItems(SNAPSHOT_AAGUID));
+        when(delegate.provide()).thenReturn(createMetadataItems(CURRENT_AAGUID));
+        when(delegate.mayBlock()).thenReturn(true);
+        SnapshotMetadataItemsProvider target = createTarget(snapshotStore);
+
+        assertThat(target.mayBlock()).isTrue(); // the stored snapshot is not read yet
+        target.provide();
+        assertThat(target.mayBlock()).isFalse(); // the stored snapshot is served
+
+        tasks.get(0).run(); // warm-up
+        assertThat(target.mayBlock()).isTrue(); // served from the delegate
+        when(delegate.mayBlock()).thenReturn(false);
+        assertThat(target.mayBlock()).isFalse();
+    }
+
+    private SnapshotMetadataItemsProvider createTarget(MetadataItemsSnapshotStore snapshotStore) {
+        SnapshotMetadataItemsProvider target = new SnapshotMetadataItemsProvider(delegate, snapshotStore);
+        target.setExecutor(tasks::add);
+        return target;
+    }
+
+    private static Map<AAGUID, Set<MetadataItem>> createMetadataItems(AAGUID aaguid) {
+        MetadataItem metadataItem = new MetadataItemImpl(null, aaguid, null, "hash", null, null, null);
+        return Collections.singletonMap(aaguid, Collections.singleton(metadataItem));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
+import com.webauthn4j.metadata.data.statement.LeanMetadataStatement;
+import com.webauthn4j.metadata.data.statement.MetadataStatement;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetadataInternerTest {
+
+    private final ObjectConverter objectConverter;
+
+    MetadataInternerTest() {
+        ObjectMapper jsonMapper = new ObjectMapper();
+        jsonMapper.registerModule(new WebAuthnMetadataJSONModule());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        objectConverter = new ObjectConverter(jsonMapper, cborMapper);
+    }
+
+    @Test
+    void lean_shares_strings_and_certificates_test() {
+        MetadataInterner target = new MetadataInterner();
+
+        MetadataItem first = target.lean(createMetadataItem());
+        MetadataItem second = target.lean(createMetadataItem());
+
+        assertThat(first.getMetadataStatement()).isInstanceOf(LeanMetadataStatement.class);
+        assertThat(first.getMetadataStatement().getLegalHeader()).isSameAs(second.getMetadataStatement().getLegalHeader());
+        assertThat(first.getMetadataStatement().getAttestationRootCertificates().get(0))
+                .isSameAs(second.getMetadataStatement().getAttestationRootCertificates().get(0));
+        assertThat(first.getAttestationCertificateKeyIdentifiers().get(0)).isSameAs(second.getAttestationCertificateKeyIdentifiers().get(0));
+        assertThat(first.getMetadataStatement().getIcon()).isEqualTo(second.getMetadataStatement().getIcon());
+    }
+
+    @Test
+    void lean_with_lean_statement_test() {
+        MetadataInterner target = new MetadataInterner();
+        MetadataStatement metadataStatement = target.lean(createMetadataItem().getMetadataStatement());
+
+        assertThat(target.lean(metadataStatement)).isSameAs(metadataStatement);
+    }
+
+    private MetadataItem createMetadataItem() {
+        MetadataStatement metadataStatement;
+        try (InputStream inputStream = ClassLoader.getSystemResourceAsStream("com/webauthn4j/metadata/JsonMetadataItem_fido2.json")) {
+            metadataStatement = objectConverter.getJsonConverter().readValue(inputStream, MetadataStatement.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return new MetadataItemImpl(null, metadataStatement.getAaguid(), Collections.singletonList(new String("0123abcd")), "hash",
+                Collections.emptyList(), null, metadataStatement);
+    }
+}
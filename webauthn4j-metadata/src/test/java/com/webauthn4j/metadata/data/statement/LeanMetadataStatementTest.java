@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.metadata.data.statement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.webauthn4j.converter.util.ObjectConverter;
+import com.webauthn4j.metadata.converter.jackson.WebAuthnMetadataJSONModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeanMetadataStatementTest {
+
+    private final ObjectConverter objectConverter;
+
+    LeanMetadataStatementTest() {
+        ObjectMapper jsonMapper = new ObjectMapper();
+        jsonMapper.registerModule(new WebAuthnMetadataJSONModule());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        objectConverter = new ObjectConverter(jsonMapper, cborMapper);
+    }
+
+    @Test
+    void getter_test() {
+        MetadataStatement metadataStatement = load("JsonMetadataItem_fido2.json");
+        LeanMetadataStatement target = new LeanMetadataStatement(metadataStatement, UnaryOperator.identity(), UnaryOperator.identity());
+
+        assertThat(target.getIcon()).isEqualTo(metadataStatement.getIcon());
+        assertThat(target.getAlternativeDescriptions()).isEqualTo(metadataStatement.getAlternativeDescriptions());
+        assertThat(target.getAttestationRootCertificates()).isEqualTo(metadataStatement.getAttestationRootCertificates());
+        assertThat(toJsonNode(target)).isEqualTo(toJsonNode(metadataStatement));
+    }
+
+    @Test
+    void getter_with_uaf_statement_test() {
+        MetadataStatement metadataStatement = load("JsonMetadataItem_uaf.json");
+        LeanMetadataStatement target = new LeanMetadataStatement(metadataStatement, UnaryOperator.identity(), UnaryOperator.identity());
+
+        assertThat(toJsonNode(target)).isEqualTo(toJsonNode(metadataStatement));
+    }
+
+    @Test
+    void getter_with_non_base64_icon_test() {
+        MetadataStatement source = load("JsonMetadataItem_u2f.json");
+        MetadataStatement metadataStatement = new MetadataStatement(source.getLegalHeader(), source.getAaid(), source.getAaguid(),
+                source.getAttestationCertificateKeyIdentifiers(), source.getDescription(), source.getAlternativeDescriptions(),
+                source.getAuthenticatorVersion(), source.getProtocolFamily(), source.getUpv(), source.getAssertionScheme(),
+                source.getAuthenticationAlgorithm(), source.getAuthenticationAlgorithms(), source.getPublicKeyAlgAndEncoding(),
+                source.getPublicKeyAlgAndEncodings(), source.getAttestationTypes(), source.getUserVerificationDetails(),
+                source.getKeyProtection(), source.getKeyRestricted(), source.getFreshUserVerificationRequired(),
+                source.getMatcherProtection(), source.getCryptoStrength(), source.getOperationEnv(), source.getAttachmentHint(),
+                source.getSecondFactorOnly(), source.getTcDisplay(), source.getTcDisplayContentType(),
+                source.getTcDisplayPNGCharacteristics(), source.getAttestationRootCertificates(), source.getEcdaaTrustAnchors(),
+                "data:image/png;base64,not*base64", source.getSupportedExtensions());
+
+        LeanMetadataStatement target = new LeanMetadataStatement(metadataStatement, UnaryOperator.identity(), UnaryOperator.identity());
+
+        assertThat(target.getIcon()).isEqualTo("data:image/png;base64,not*base64");
+    }
+
+    private JsonNode toJsonNode(MetadataStatement metadataStatement) {
+        return objectConverter.getJsonConverter().readValue(objectConverter.getJsonConverter().writeValueAsString(metadataStatement), JsonNode.class);
+    }
+
+    private MetadataStatement load(String resource) {
+        try (InputStream inputStream = ClassLoader.getSystemResourceAsStream("com/webauthn4j/metadata/" + resource)) {
+            return objectConverter.getJsonConverter().readValue(inputStream, MetadataStatement.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.webauthn4j.util;
 
 import com.webauthn4j.util.exception.UnexpectedCheckedException;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -25,7 +26,9 @@ import java.security.InvalidAlgorithmParameterException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
 import java.security.cert.*;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -35,6 +38,11 @@ import java.util.stream.Collectors;
  */
 public class CertificateUtil {
 
+    private static final String SUBJECT_KEY_IDENTIFIER_OID = "2.5.29.14";
+    private static final int DER_TAG_SEQUENCE = 0x30;
+    private static final int DER_TAG_BIT_STRING = 0x03;
+    private static final int DER_TAG_OCTET_STRING = 0x04;
+
     private static final CertificateFactory certificateFactory;
 
     static {
@@ -97,4 +105,76 @@ public class CertificateUtil {
         }
     }
 
+    /**
+     * Returns the value of the subjectKeyIdentifier extension of the certificate
+     *
+     * @param certificate certificate
+     * @return key identifier, or null if the certificate doesn't have the extension
+     */
+    public static @Nullable byte[] getSubjectKeyIdentifier(@NonNull X509Certificate certificate) {
+        AssertUtil.notNull(certificate, "certificate must not be null");
+        byte[] extensionValue = certificate.getExtensionValue(SUBJECT_KEY_IDENTIFIER_OID);
+        if (extensionValue == null) {
+            return null;
+        }
+        // the extension value is an OCTET STRING wrapping the KeyIdentifier OCTET STRING
+        return readDerValue(readDerValue(extensionValue, 0, DER_TAG_OCTET_STRING), 0, DER_TAG_OCTET_STRING);
+    }
+
+    /**
+     * Computes the key identifier of the public key with the method (1) of RFC 5280 section 4.2.1.2,
+     * the SHA-1 hash of the subjectPublicKey bit string
+     *
+     * @param publicKey public key
+     * @return key identifier
+     */
+    public static @NonNull byte[] computeSubjectKeyIdentifier(@NonNull PublicKey publicKey) {
+        AssertUtil.notNull(publicKey, "publicKey must not be null");
+        // SubjectPublicKeyInfo ::= SEQUENCE { algorithm AlgorithmIdentifier, subjectPublicKey BIT STRING }
+        byte[] subjectPublicKeyInfo = readDerValue(publicKey.getEncoded(), 0, DER_TAG_SEQUENCE);
+        int[] offset = new int[1];
+        skipDerValue(subjectPublicKeyInfo, offset, DER_TAG_SEQUENCE);
+        byte[] bitString = readDerValue(subjectPublicKeyInfo, offset[0], DER_TAG_BIT_STRING);
+        if (bitString.length == 0) {
+            throw new IllegalArgumentException("subjectPublicKey is empty");
+        }
+        // the first octet of a bit string is the number of unused bits
+        return MessageDigestUtil.createMessageDigest("SHA-1").digest(Arrays.copyOfRange(bitString, 1, bitString.length));
+    }
+
+    private static byte[] readDerValue(byte[] der, int start, int expectedTag) {
+        int[] offset = {start};
+        int length = readDerHeader(der, offset, expectedTag);
+        return Arrays.copyOfRange(der, offset[0], offset[0] + length);
+    }
+
+    private static void skipDerValue(byte[] der, int[] offset, int expectedTag) {
+        int length = readDerHeader(der, offset, expectedTag);
+        offset[0] += length;
+    }
+
+    private static int readDerHeader(byte[] der, int[] offset, int expectedTag) {
+        int position = offset[0];
+        if (position + 2 > der.length || (der[position] & 0xFF) != expectedTag) {
+            throw new IllegalArgumentException("unexpected DER structure");
+        }
+        position++;
+        int length = der[position++] & 0xFF;
+        if (length > 0x7F) {
+            int lengthOctets = length & 0x7F;
+            if (lengthOctets == 0 || lengthOctets > 3 || position + lengthOctets > der.length) {
+                throw new IllegalArgumentException("unexpected DER length");
+            }
+            length = 0;
+            for (int i = 0; i < lengthOctets; i++) {
+                length = (length << 8) | (der[position++] & 0xFF);
+            }
+        }
+        if (position + length > der.length) {
+            throw new IllegalArgumentException("unexpected DER length");
+        }
+        offset[0] = position;
+        return length;
+    }
+
 }
@@ -36,6 +36,8 @@ public class ECUtil {
     public static final ECParameterSpec P_384_SPEC = createECParameterSpec("secp384r1");
     public static final ECParameterSpec P_521_SPEC = createECParameterSpec("secp521r1");
     private static final SecureRandom secureRandom = new SecureRandom();
+    // KeyFactory is not thread-safe, and KeyFactory.getInstance walks the provider list on every call, so an instance is kept per thread
+    private static final ThreadLocal<KeyFactory> keyFactory = ThreadLocal.withInitial(ECUtil::createKeyFactory);
 
     private ECUtil() {
     }
@@ -78,18 +80,24 @@ public class ECUtil {
 
     public static @NonNull PublicKey createPublicKey(@NonNull ECPublicKeySpec ecPublicKeySpec) {
         try {
-            KeyFactory factory = KeyFactory.getInstance("EC");
-            return factory.generatePublic(ecPublicKeySpec);
-        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+            return keyFactory.get().generatePublic(ecPublicKeySpec);
+        } catch (InvalidKeySpecException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
 
     public static @NonNull PrivateKey createPrivateKey(@NonNull ECPrivateKeySpec ecPrivateKeySpec) {
         try {
-            KeyFactory factory = KeyFactory.getInstance("EC");
-            return factory.generatePrivate(ecPrivateKeySpec);
-        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+            return keyFactory.get().generatePrivate(ecPrivateKeySpec);
+        } catch (InvalidKeySpecException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    private static @NonNull KeyFactory createKeyFactory() {
+        try {
+            return KeyFactory.getInstance("EC");
+        } catch (NoSuchAlgorithmException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
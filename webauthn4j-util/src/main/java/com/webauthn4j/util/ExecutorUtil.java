@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.util;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Utility class for the executors used by the asynchronous APIs
+ */
+public class ExecutorUtil {
+
+    /**
+     * Maximum number of threads of the default blocking executor
+     */
+    public static final int DEFAULT_BLOCKING_POOL_SIZE = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+    /**
+     * Number of tasks the default blocking executor queues while all its threads are busy
+     */
+    public static final int DEFAULT_BLOCKING_QUEUE_CAPACITY = 1024;
+
+    private static final long BLOCKING_KEEP_ALIVE_SECONDS = 60;
+
+    private ExecutorUtil() {
+    }
+
+    /**
+     * Returns the default executor for CPU-bound stages such as parsing and signature verification
+     *
+     * @return the common {@link ForkJoinPool}
+     */
+    public static @NonNull Executor getDefaultComputeExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Returns the default executor for stages which may block on I/O, such as certificate path validation with
+     * revocation checking. It is a pool of at most {@link #DEFAULT_BLOCKING_POOL_SIZE} daemon threads, which exit after
+     * being idle for a minute. While all of them are busy, tasks are queued up to {@link #DEFAULT_BLOCKING_QUEUE_CAPACITY},
+     * and beyond that run on the submitting thread, so that a burst of slow I/O cannot start an unbounded number of
+     * threads. Pooled threads are reused across requests, so that the per-thread caches of signature verifiers and
+     * message digests are reused as well, which they would not be on a new virtual thread per task. Random number
+     * generators are shared across threads instead, see {@link SecureRandomUtil}.
+     *
+     * @return the shared blocking executor
+     */
+    public static @NonNull Executor getDefaultBlockingExecutor() {
+        return BlockingExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Creates an executor which starts a virtual thread for each task. Since every task runs on a new thread, per-thread
+     * caches are rebuilt for each task, so it suits stages dominated by blocking I/O rather than CPU-bound ones.
+     *
+     * @return the executor, or null if the JVM does not support virtual threads
+     */
+    public static @Nullable ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not available before Java 21, and throws UnsupportedOperationException as a preview feature without --enable-preview
+            return null;
+        }
+    }
+
+    private static @NonNull Executor createDefaultBlockingExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                DEFAULT_BLOCKING_POOL_SIZE, DEFAULT_BLOCKING_POOL_SIZE, BLOCKING_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(DEFAULT_BLOCKING_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "webauthn4j-blocking-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // the caller is slowed down instead of failing, as the callers of the blocking stages do not expect rejection
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // the core threads equal the maximum, so that threads are started before tasks are queued
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // created on first use, so that applications passing their own executors never start it
+    private static class BlockingExecutorHolder {
+        private static final Executor INSTANCE = createDefaultBlockingExecutor();
+    }
+}
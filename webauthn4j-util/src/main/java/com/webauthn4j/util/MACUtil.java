@@ -30,6 +30,9 @@ import java.util.Arrays;
  */
 public class MACUtil {
 
+    // Mac instances are not thread-safe, and looking them up through the provider list costs more than MACing short input
+    private static final ThreadLocal<Mac> hmacSHA256 = ThreadLocal.withInitial(MACUtil::createHmacSHA256);
+
     private MACUtil() {
     }
 
@@ -39,12 +42,19 @@ public class MACUtil {
 
     public static @NonNull byte[] calculateHmacSHA256(@NonNull byte[] message, @NonNull byte[] secret, int outputLength) {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secret, "HmacSHA256");
-            mac.init(secretKeySpec);
+            Mac mac = hmacSHA256.get();
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
             byte[] hmac = mac.doFinal(message);
             return Arrays.copyOf(hmac, outputLength);
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        } catch (InvalidKeyException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    private static @NonNull Mac createHmacSHA256() {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
@@ -26,6 +26,8 @@ import java.security.NoSuchAlgorithmException;
  */
 public class MessageDigestUtil {
 
+    // MessageDigest instances are not thread-safe, and looking them up through the provider list costs more than digesting short input
+    private static final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(MessageDigestUtil::createSHA256);
 
     private MessageDigestUtil() {
     }
@@ -51,4 +53,14 @@ public class MessageDigestUtil {
         return createMessageDigest("SHA-256");
     }
 
+    /**
+     * Computes the SHA-256 digest of the specified data with a {@link MessageDigest} reused per thread
+     *
+     * @param data data to digest
+     * @return SHA-256 digest
+     */
+    public static @NonNull byte[] digestSHA256(@NonNull byte[] data) {
+        return sha256.get().digest(data);
+    }
+
 }
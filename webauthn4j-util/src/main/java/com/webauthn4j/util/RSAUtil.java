@@ -27,23 +27,32 @@ import java.security.spec.RSAPublicKeySpec;
 
 public class RSAUtil {
 
+    // KeyFactory is not thread-safe, and KeyFactory.getInstance walks the provider list on every call, so an instance is kept per thread
+    private static final ThreadLocal<KeyFactory> keyFactory = ThreadLocal.withInitial(RSAUtil::createKeyFactory);
+
     private RSAUtil() {
     }
 
     public static @NonNull PublicKey createPublicKey(@NonNull RSAPublicKeySpec rsaPublicKeySpec) {
         try {
-            KeyFactory factory = KeyFactory.getInstance("RSA");
-            return factory.generatePublic(rsaPublicKeySpec);
-        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+            return keyFactory.get().generatePublic(rsaPublicKeySpec);
+        } catch (InvalidKeySpecException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
 
     public static @NonNull PrivateKey createPrivateKey(@NonNull RSAPrivateKeySpec rsaPrivateKeySpec) {
         try {
-            KeyFactory factory = KeyFactory.getInstance("RSA");
-            return factory.generatePrivate(rsaPrivateKeySpec);
-        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+            return keyFactory.get().generatePrivate(rsaPrivateKeySpec);
+        } catch (InvalidKeySpecException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    private static @NonNull KeyFactory createKeyFactory() {
+        try {
+            return KeyFactory.getInstance("RSA");
+        } catch (NoSuchAlgorithmException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.util;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A Utility class for SecureRandom
+ */
+public class SecureRandomUtil {
+
+    private static final int MAXIMUM_STRIPE_COUNT = 64;
+
+    // A single SecureRandom synchronizes its callers, so that threads are spread over a fixed number of independently
+    // seeded instances. Unlike one instance per thread, this doesn't grow with the number of (virtual) threads.
+    private static final AtomicReferenceArray<SecureRandom> stripes = new AtomicReferenceArray<>(stripeCount());
+
+    private SecureRandomUtil() {
+    }
+
+    /**
+     * Creates a {@link SecureRandom} backed by the NIST SP 800-90A DRBG if the platform provides it (Java 9 or later),
+     * or by the platform default algorithm otherwise
+     *
+     * @return a new {@link SecureRandom}
+     */
+    public static @NonNull SecureRandom createSecureRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    /**
+     * Generates random bytes with one of the shared {@link SecureRandom} instances, chosen by the calling thread
+     *
+     * @param length number of bytes
+     * @return random bytes
+     */
+    public static @NonNull byte[] nextBytes(int length) {
+        AssertUtil.isTrue(length >= 0, "length must not be negative");
+        byte[] bytes = new byte[length];
+        getSecureRandom().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static @NonNull SecureRandom getSecureRandom() {
+        int index = (int) (Thread.currentThread().getId() & (stripes.length() - 1));
+        SecureRandom secureRandom = stripes.get(index);
+        if (secureRandom == null) {
+            stripes.compareAndSet(index, null, createSecureRandom());
+            secureRandom = stripes.get(index);
+        }
+        return secureRandom;
+    }
+
+    // the smallest power of two not less than twice the number of processors
+    private static int stripeCount() {
+        int count = Math.min(Runtime.getRuntime().availableProcessors() * 2, MAXIMUM_STRIPE_COUNT);
+        return Integer.highestOneBit(count - 1) << 1;
+    }
+
+}
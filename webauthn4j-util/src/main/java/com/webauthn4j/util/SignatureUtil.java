@@ -17,18 +17,59 @@
 package com.webauthn4j.util;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
 import java.security.Signature;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A Utility class for signature calculation
  */
 public class SignatureUtil {
 
+    // Signature objects are stateful, so cached instances are confined to the thread that created them
+    private static final ThreadLocal<SignatureCache> signatureCache = ThreadLocal.withInitial(SignatureCache::new);
+
+    private static volatile @Nullable Provider preferredProvider;
+
     private SignatureUtil() {
     }
 
+    /**
+     * Returns the provider which is tried first when a {@link Signature} is created.
+     *
+     * @return preferred provider, or null if the JCA default provider order is used
+     */
+    public static @Nullable Provider getPreferredProvider() {
+        return preferredProvider;
+    }
+
+    /**
+     * Sets the provider which is tried first when a {@link Signature} is created.
+     * If the provider doesn't support the requested algorithm, the JCA default provider order is used.
+     * Cached instances are discarded on next access.
+     *
+     * @param provider preferred provider, or null to use the JCA default provider order
+     */
+    public static void setPreferredProvider(@Nullable Provider provider) {
+        preferredProvider = provider;
+    }
+
+    /**
+     * Returns a {@link Signature} instance cached for the current thread.
+     * The instance must be initialized by initVerify or initSign on each use, and must not be handed to other threads.
+     *
+     * @param algorithm JCA signature algorithm name
+     * @return signature instance
+     */
+    public static @NonNull Signature getSignature(@NonNull String algorithm) {
+        AssertUtil.notNull(algorithm, "algorithm is required; it must not be null");
+        return signatureCache.get().get(algorithm);
+    }
+
     public static @NonNull Signature createRS256() {
         return createSignature("SHA256withRSA");
     }
@@ -39,11 +80,38 @@ public class SignatureUtil {
 
     public static @NonNull Signature createSignature(@NonNull String algorithm) {
         AssertUtil.notNull(algorithm, "algorithm is required; it must not be null");
+        return createSignature(algorithm, preferredProvider);
+    }
+
+    private static @NonNull Signature createSignature(@NonNull String algorithm, @Nullable Provider provider) {
         try {
+            if (provider != null && provider.getService("Signature", algorithm) != null) {
+                return Signature.getInstance(algorithm, provider);
+            }
             return Signature.getInstance(algorithm);
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalArgumentException(e);
         }
     }
 
+    private static class SignatureCache {
+
+        private final Map<String, Signature> signatures = new HashMap<>();
+        private @Nullable Provider provider;
+
+        @NonNull Signature get(@NonNull String algorithm) {
+            Provider currentProvider = preferredProvider;
+            if (currentProvider != provider) {
+                signatures.clear();
+                provider = currentProvider;
+            }
+            Signature signature = signatures.get(algorithm);
+            if (signature == null) {
+                signature = createSignature(algorithm, currentProvider);
+                signatures.put(algorithm, signature);
+            }
+            return signature;
+        }
+    }
+
 }
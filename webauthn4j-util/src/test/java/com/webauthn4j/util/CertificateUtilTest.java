@@ -18,10 +18,12 @@ package com.webauthn4j.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.security.PublicKey;
 import java.security.cert.CertPathValidator;
 import java.security.cert.PKIXParameters;
 import java.security.cert.TrustAnchor;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.HashSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -57,4 +59,18 @@ class CertificateUtilTest {
     void createKeystore_test() {
         CertificateUtil.createKeyStore();
     }
+
+    @Test
+    void computeSubjectKeyIdentifier_test() {
+        PublicKey publicKey = ECUtil.createKeyPair().getPublic();
+        byte[] encoded = publicKey.getEncoded();
+        // the subjectPublicKey of a P-256 key is the 65 octets uncompressed point at the end of SubjectPublicKeyInfo
+        byte[] expected = MessageDigestUtil.createMessageDigest("SHA-1").digest(Arrays.copyOfRange(encoded, encoded.length - 65, encoded.length));
+        assertThat(CertificateUtil.computeSubjectKeyIdentifier(publicKey)).isEqualTo(expected);
+    }
+
+    @Test
+    void getSubjectKeyIdentifier_without_extension_test() {
+        assertThat(CertificateUtil.getSubjectKeyIdentifier(mock(X509Certificate.class))).isNull();
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for ExecutorUtil
+ */
+class ExecutorUtilTest {
+
+    @Test
+    void getDefaultComputeExecutor_test() {
+        assertThat(ExecutorUtil.getDefaultComputeExecutor()).isSameAs(ForkJoinPool.commonPool());
+    }
+
+    @Test
+    void getDefaultBlockingExecutor_test() {
+        assertThat(ExecutorUtil.getDefaultBlockingExecutor()).isSameAs(ExecutorUtil.getDefaultBlockingExecutor());
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, ExecutorUtil.getDefaultBlockingExecutor()).join();
+        assertThat(thread).isNotSameAs(Thread.currentThread());
+        assertThat(thread.isDaemon()).isTrue();
+    }
+
+    @Test
+    void getDefaultBlockingExecutor_is_bounded_test() {
+        assertThat(ExecutorUtil.getDefaultBlockingExecutor()).isInstanceOfSatisfying(ThreadPoolExecutor.class, executor -> {
+            assertThat(executor.getMaximumPoolSize()).isEqualTo(ExecutorUtil.DEFAULT_BLOCKING_POOL_SIZE);
+            assertThat(executor.getQueue().remainingCapacity() + executor.getQueue().size()).isEqualTo(ExecutorUtil.DEFAULT_BLOCKING_QUEUE_CAPACITY);
+            assertThat(executor.getRejectedExecutionHandler()).isInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class);
+        });
+    }
+}
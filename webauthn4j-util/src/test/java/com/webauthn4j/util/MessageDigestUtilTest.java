@@ -18,6 +18,7 @@ package com.webauthn4j.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -51,4 +52,13 @@ class MessageDigestUtilTest {
                 () -> MessageDigestUtil.createMessageDigest("wrong-arg")
         );
     }
+
+    @Test
+    void digestSHA256_test() {
+        byte[] data = "abc".getBytes(StandardCharsets.UTF_8);
+        byte[] expected = MessageDigestUtil.createSHA256().digest(data);
+        assertThat(MessageDigestUtil.digestSHA256(data)).isEqualTo(expected);
+        // the reused digest must not carry state over from the previous call
+        assertThat(MessageDigestUtil.digestSHA256(data)).isEqualTo(expected);
+    }
 }
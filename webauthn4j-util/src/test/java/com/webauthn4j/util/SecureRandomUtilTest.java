@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test for SecureRandomUtil
+ */
+class SecureRandomUtilTest {
+
+    @Test
+    void createSecureRandom_test() {
+        assertThat(SecureRandomUtil.createSecureRandom()).isNotNull();
+    }
+
+    @Test
+    void nextBytes_test() {
+        byte[] first = SecureRandomUtil.nextBytes(16);
+        byte[] second = SecureRandomUtil.nextBytes(16);
+        assertThat(first).hasSize(16);
+        assertThat(first).isNotEqualTo(second);
+        assertThat(SecureRandomUtil.nextBytes(0)).isEmpty();
+    }
+
+    @Test
+    void nextBytes_with_negative_length_test() {
+        assertThrows(IllegalArgumentException.class, () -> SecureRandomUtil.nextBytes(-1));
+    }
+}
@@ -18,6 +18,11 @@ package com.webauthn4j.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -54,4 +59,42 @@ class SignatureUtilTest {
         );
         assertThat(t).hasMessageContaining("dummyAlg Signature not available");
     }
+
+    @Test
+    void getSignature_returns_same_instance_on_same_thread_test() {
+        assertThat(SignatureUtil.getSignature("SHA256withECDSA")).isSameAs(SignatureUtil.getSignature("SHA256withECDSA"));
+        assertThat(SignatureUtil.getSignature("SHA256withRSA")).isNotSameAs(SignatureUtil.getSignature("SHA256withECDSA"));
+    }
+
+    @Test
+    void getSignature_returns_different_instance_on_other_thread_test() {
+        Signature signature = SignatureUtil.getSignature("SHA256withECDSA");
+        Signature otherThreadSignature = CompletableFuture.supplyAsync(() -> SignatureUtil.getSignature("SHA256withECDSA")).join();
+        assertThat(otherThreadSignature).isNotSameAs(signature);
+    }
+
+    @Test
+    void getSignature_test_with_illegal_argument() {
+        Throwable t = assertThrows(IllegalArgumentException.class,
+                () -> SignatureUtil.getSignature("dummyAlg")
+        );
+        assertThat(t).hasMessageContaining("dummyAlg Signature not available");
+    }
+
+    @Test
+    void getSignature_with_preferred_provider_test() {
+        Provider provider = Security.getProvider("SunRsaSign");
+        Signature cached = SignatureUtil.getSignature("SHA256withRSA");
+        try {
+            SignatureUtil.setPreferredProvider(provider);
+            assertThat(SignatureUtil.getPreferredProvider()).isSameAs(provider);
+            Signature signature = SignatureUtil.getSignature("SHA256withRSA");
+            assertThat(signature).isNotSameAs(cached);
+            assertThat(signature.getProvider()).isSameAs(provider);
+            // falls back to the default provider order for algorithms the preferred provider doesn't support
+            assertThat(SignatureUtil.getSignature("SHA256withECDSA").getAlgorithm()).isEqualTo("SHA256withECDSA");
+        } finally {
+            SignatureUtil.setPreferredProvider(null);
+        }
+    }
 }